@@ -14,6 +14,7 @@ import java.util.List;
 import java.util.Set;
 
 import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.draw2d.DeferredUpdateManager;
 import org.eclipse.draw2d.IFigure;
 import org.eclipse.draw2d.PositionConstants;
 import org.eclipse.draw2d.geometry.Dimension;
@@ -123,6 +124,7 @@ import com.archimatetool.editor.diagram.actions.ToggleGridVisibleAction;
 import com.archimatetool.editor.diagram.actions.ToggleSnapToAlignmentGuidesAction;
 import com.archimatetool.editor.diagram.actions.ZoomNormalAction;
 import com.archimatetool.editor.diagram.dnd.PaletteTemplateTransferDropTargetListener;
+import com.archimatetool.editor.diagram.editparts.ViewportEditPartFilter;
 import com.archimatetool.editor.diagram.figures.ITextFigure;
 import com.archimatetool.editor.diagram.tools.FormatPainterInfo;
 import com.archimatetool.editor.diagram.tools.FormatPainterToolEntry;
@@ -339,6 +341,11 @@ implements IDiagramModelEditor, IContextProvider, ITabbedPropertySheetPageContri
         // Set the Root Edit Part *before* Actions as the Edit Part will create and register a new ZoomManager
         createRootEditPart(viewer);
         
+        // Repair damage as separate regions so that edits far apart don't repaint the whole area between them
+        if(((GraphicalEditPart)viewer.getRootEditPart()).getFigure().getUpdateManager() instanceof DeferredUpdateManager updateManager) {
+            updateManager.setMultiRegionDamage(true);
+        }
+        
         // Create Actions after Viewer created and after Root Edit Part set
         createActions(viewer);
         
@@ -442,6 +449,10 @@ implements IDiagramModelEditor, IContextProvider, ITabbedPropertySheetPageContri
         
         // Shift + Scroll wheel horizontal scroll
         getGraphicalViewer().setProperty(MouseWheelHandler.KeyGenerator.getKey(SWT.MOD2), MouseWheelHorizontalScrollHandler.SINGLETON);
+        
+        // Only create the objects in view in large diagrams
+        getGraphicalViewer().setProperty(ViewportEditPartFilter.PROPERTY_ENABLED,
+                ArchiPlugin.getInstance().getPreferenceStore().getBoolean(IPreferenceConstants.CREATE_VISIBLE_OBJECTS_ONLY));
     }
 
     /**
@@ -867,6 +878,8 @@ implements IDiagramModelEditor, IContextProvider, ITabbedPropertySheetPageContri
         registry.registerAction(action);
         action = new ConnectionRouterAction.ManhattanConnectionRouterAction(this);
         registry.registerAction(action);
+        action = new ConnectionRouterAction.OrthogonalConnectionRouterAction(this);
+        registry.registerAction(action);
         
         // Object Position Actions
         for(ObjectPositionAction a : ObjectPositionAction.createActions(this)) {
@@ -971,6 +984,12 @@ implements IDiagramModelEditor, IContextProvider, ITabbedPropertySheetPageContri
             }
         }
         
+        // Create the edit parts of objects that are not in view
+        ViewportEditPartFilter viewportFilter = ViewportEditPartFilter.getFilter(getGraphicalViewer());
+        if(viewportFilter != null) {
+            viewportFilter.createEditParts(selection);
+        }
+        
         List<EditPart> editParts = new ArrayList<EditPart>();
         
         for(Object object : selection) {
@@ -179,6 +179,8 @@ extends ActionBarContributor {
 //              ConnectionRouterAction.CONNECTION_ROUTER_SHORTEST_PATH, IAction.AS_RADIO_BUTTON));
         addRetargetAction(new RetargetAction(ConnectionRouterAction.ManhattanConnectionRouterAction.ID,
                 ConnectionRouterAction.CONNECTION_ROUTER_MANHATTAN, IAction.AS_RADIO_BUTTON));
+        addRetargetAction(new RetargetAction(ConnectionRouterAction.OrthogonalConnectionRouterAction.ID,
+                ConnectionRouterAction.CONNECTION_ROUTER_ORTHOGONAL, IAction.AS_RADIO_BUTTON));
         
         // Full Screen
         if(!PlatformUtils.isMac()) {
@@ -276,6 +278,7 @@ extends ActionBarContributor {
 // Doesn't work with Connection to Connection
 //      connectionMenu.add(getAction(ConnectionRouterAction.ShortestPathConnectionRouterAction.ID));
         connectionMenu.add(getAction(ConnectionRouterAction.ManhattanConnectionRouterAction.ID));
+        connectionMenu.add(getAction(ConnectionRouterAction.OrthogonalConnectionRouterAction.ID));
         viewMenu.add(new Separator("end_connection_router")); //$NON-NLS-1$
 
         if(!PlatformUtils.isMac()) {
@@ -157,6 +157,7 @@ public abstract class AbstractDiagramEditorContextMenuProvider extends ContextMe
 // Doesn't work with Connection to Connection
 //      connectionMenu.add(actionRegistry.getAction(ConnectionRouterAction.ShortestPathConnectionRouterAction.ID));
         connectionMenu.add(actionRegistry.getAction(ConnectionRouterAction.ManhattanConnectionRouterAction.ID));
+        connectionMenu.add(actionRegistry.getAction(ConnectionRouterAction.OrthogonalConnectionRouterAction.ID));
         
         menu.add(new Separator(GROUP_PROPERTIES));
         action = actionRegistry.getAction(ActionFactory.PROPERTIES.getId());
@@ -19,6 +19,7 @@ import org.eclipse.jface.viewers.IStructuredSelection;
 import org.eclipse.jface.viewers.StructuredSelection;
 
 import com.archimatetool.editor.diagram.editparts.AbstractDiagramPart;
+import com.archimatetool.editor.diagram.editparts.ViewportEditPartFilter;
 import com.archimatetool.editor.model.commands.EObjectFeatureCommand;
 import com.archimatetool.editor.model.commands.NonNotifyingCompoundCommand;
 import com.archimatetool.editor.ui.findreplace.AbstractFindReplaceProvider;
@@ -186,6 +187,12 @@ public class DiagramEditorFindReplaceProvider extends AbstractFindReplaceProvide
      * @return All elements in the Viewer that match the string, in sorted and filtered order
      */
     List<EditPart> getAllMatchingEditParts(String toFind) {
+        // Search all objects, not just the ones in view
+        ViewportEditPartFilter viewportFilter = ViewportEditPartFilter.getFilter(fGraphicalViewer);
+        if(viewportFilter != null) {
+            viewportFilter.createAllEditParts();
+        }
+        
         return getMatchingEditParts(fGraphicalViewer.getContents(), toFind);
     }
     
@@ -240,7 +247,7 @@ public class DiagramEditorFindReplaceProvider extends AbstractFindReplaceProvide
         }
         
         String string = getStringFromEditPart(editPart);
-        return string != null && string.matches(getSearchStringPattern(toFind));
+        return matchesSearchString(string, toFind);
     }
     
     private EditPart getFirstSelectedEditPart() {
@@ -32,10 +32,12 @@ public abstract class ConnectionRouterAction extends Action implements Disposabl
     public static String CONNECTION_ROUTER_BENDPONT = Messages.ConnectionRouterAction_0;
     //public static String CONNECTION_ROUTER_SHORTEST_PATH = Messages.ConnectionRouterAction_1;
     public static String CONNECTION_ROUTER_MANHATTAN = Messages.ConnectionRouterAction_2;
+    public static String CONNECTION_ROUTER_ORTHOGONAL = Messages.ConnectionRouterAction_3;
     
     public static List<Integer> CONNECTION_ROUTER_TYPES = Arrays.asList(new Integer[] {
             IDiagramModel.CONNECTION_ROUTER_BENDPOINT,
-            IDiagramModel.CONNECTION_ROUTER_MANHATTAN
+            IDiagramModel.CONNECTION_ROUTER_MANHATTAN,
+            IDiagramModel.CONNECTION_ROUTER_ORTHOGONAL
     });
 
     private IWorkbenchPart part;
@@ -142,4 +144,22 @@ public abstract class ConnectionRouterAction extends Action implements Disposabl
             return IDiagramModel.CONNECTION_ROUTER_MANHATTAN;
         }
     };
+    
+    /*
+     * Orthogonal, avoiding objects
+     */
+    public static class OrthogonalConnectionRouterAction extends ConnectionRouterAction  {
+        public static String ID = "OrthogonalConnectionRouterAction"; //$NON-NLS-1$
+        
+        public OrthogonalConnectionRouterAction(IWorkbenchPart part) {
+            super(part);
+            setId(ID);
+            setText(CONNECTION_ROUTER_ORTHOGONAL);
+        }
+
+        @Override
+        public int getType() {
+            return IDiagramModel.CONNECTION_ROUTER_ORTHOGONAL;
+        }
+    };
 }
@@ -9,11 +9,15 @@ import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
-import java.util.Hashtable;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 
@@ -28,7 +32,6 @@ import org.eclipse.jface.viewers.StructuredSelection;
 
 import com.archimatetool.editor.ArchiPlugin;
 import com.archimatetool.editor.Logger;
-import com.archimatetool.editor.model.DiagramModelUtils;
 import com.archimatetool.editor.model.IArchiveManager;
 import com.archimatetool.editor.model.IEditorModelManager;
 import com.archimatetool.editor.preferences.IPreferenceConstants;
@@ -79,18 +82,40 @@ public final class CopySnapshot {
     static boolean COPY_SELECTED_CONNECTIONS = false;
     
     /**
-     * Bi-directional Hashtable
-     * Can get key from value
+     * Bi-directional identity map
+     * Can get key from value without searching the entries.
+     * Only put(), remove() and clear() keep the reverse mapping up to date so don't modify the map through its views.
      */
-    static class BidiHashtable<K, V> extends Hashtable<K, V> {
-        public synchronized K getKey(Object value) {
-            for(Entry<K, V> entry : entrySet()) {
-                V v = entry.getValue();
-                if(v.equals(value)) {
-                    return entry.getKey();
-                }
+    static class BidiIdentityMap<K, V> extends IdentityHashMap<K, V> {
+        private Map<V, K> reverse = new IdentityHashMap<>();
+        
+        public K getKey(Object value) {
+            return reverse.get(value);
+        }
+        
+        @Override
+        public V put(K key, V value) {
+            V oldValue = super.put(key, value);
+            if(oldValue != null) {
+                reverse.remove(oldValue);
             }
-            return null;
+            reverse.put(value, key);
+            return oldValue;
+        }
+        
+        @Override
+        public V remove(Object key) {
+            V oldValue = super.remove(key);
+            if(oldValue != null) {
+                reverse.remove(oldValue);
+            }
+            return oldValue;
+        }
+        
+        @Override
+        public void clear() {
+            super.clear();
+            reverse.clear();
         }
     }
     
@@ -104,7 +129,7 @@ public final class CopySnapshot {
     /**
      * Mapping of original components to new copied components in the Snapshot
      */
-    private BidiHashtable<IConnectable, IConnectable> fOriginalToSnapshotComponentsMapping;
+    private BidiIdentityMap<IConnectable, IConnectable> fOriginalToSnapshotComponentsMapping;
     
     /**
      * The source Archimate Model of the copied objects
@@ -152,7 +177,7 @@ public final class CopySnapshot {
      */
     public CopySnapshot(List<IDiagramModelComponent> selected) {
         // Mappings of original components to snapshot components
-        fOriginalToSnapshotComponentsMapping = new BidiHashtable<IConnectable, IConnectable>();
+        fOriginalToSnapshotComponentsMapping = new BidiIdentityMap<IConnectable, IConnectable>();
         
         if(selected == null || selected.isEmpty()) {
             return;
@@ -175,15 +200,18 @@ public final class CopySnapshot {
         // Store the Type of diagram model so we don't paste across different diagram model types
         fSourceDiagramClass = diagramModel.eClass();
         
+        // Set of selected objects for fast look up
+        Set<IDiagramModelComponent> selectedSet = new HashSet<>(selected);
+        
         // Get top level objects to copy (containers will have their children copied)
-        List<IDiagramModelObject> objectsToCopy = getTopLevelObjectsToCopy(selected);
+        List<IDiagramModelObject> objectsToCopy = getTopLevelObjectsToCopy(selected, selectedSet);
         
         // Create snapshot copies of objects
         fSnapshotObjects = createSnapshotObjects(objectsToCopy);
         
         // Create snapshot copies of connections if selected
         if(COPY_SELECTED_CONNECTIONS) {
-            createSnapshotConnectionsForSelectedComponents(selected);
+            createSnapshotConnectionsForSelectedComponents(selected, selectedSet);
         }
         // Create snapshot copies of inferred connections
         else {
@@ -195,32 +223,38 @@ public final class CopySnapshot {
      * Create a list of topmost objects to copy.
      * This will eliminate duplicate selected children and give us only the top level objects to copy.
      */
-    private List<IDiagramModelObject> getTopLevelObjectsToCopy(List<IDiagramModelComponent> selected) {
+    private List<IDiagramModelObject> getTopLevelObjectsToCopy(List<IDiagramModelComponent> selected, Set<IDiagramModelComponent> selectedSet) {
         List<IDiagramModelObject> objects = new ArrayList<IDiagramModelObject>();
         
         for(IDiagramModelComponent component : selected) {
             if(component instanceof IDiagramModelObject) {
-                if(!hasAncestorSelected((IDiagramModelObject)component, selected)) { // if an ancestor is selected don't add that
+                if(!hasAncestorSelected((IDiagramModelObject)component, selectedSet)) { // if an ancestor is selected don't add that
                     objects.add((IDiagramModelObject)component);
                 }
             }
         }
         
+        // Index of each object in its parent's children, each parent's children only being visited once
+        Map<IDiagramModelObject, Integer> childIndexes = new IdentityHashMap<>();
+        Set<EObject> indexedParents = Collections.newSetFromMap(new IdentityHashMap<>());
+        for(IDiagramModelObject object : objects) {
+            if(indexedParents.add(object.eContainer())) {
+                List<IDiagramModelObject> children = ((IDiagramModelContainer)object.eContainer()).getChildren();
+                for(int i = 0; i < children.size(); i++) {
+                    childIndexes.put(children.get(i), i);
+                }
+            }
+        }
+        
         /*
          * Restore the relative Z-Order in this new list by original Z-order in original model
          * If each has the same container parent
          */
-        Collections.sort(objects, new Comparator<Object>() {
+        Collections.sort(objects, new Comparator<IDiagramModelObject>() {
             @Override
-            public int compare(Object o1, Object o2) {
-                if(o1 instanceof IDiagramModelObject && o2 instanceof IDiagramModelObject) {
-                    IDiagramModelContainer parent1 = (IDiagramModelContainer)((IDiagramModelObject)o1).eContainer();
-                    IDiagramModelContainer parent2 = (IDiagramModelContainer)((IDiagramModelObject)o2).eContainer();
-                    if(parent1 == parent2) {
-                        int index1 = parent1.getChildren().indexOf(o1);
-                        int index2 = parent2.getChildren().indexOf(o2);
-                        return index1 - index2;    
-                    }
+            public int compare(IDiagramModelObject o1, IDiagramModelObject o2) {
+                if(o1.eContainer() == o2.eContainer()) {
+                    return childIndexes.get(o1) - childIndexes.get(o2);
                 }
                 return 0;
             }
@@ -267,20 +301,12 @@ public final class CopySnapshot {
      * Create automatic copies of connections (if source and target also have been selected/mapped)
      */
     private void createAutomaticSnapshotConnections() {
-        List<IDiagramModelConnection> allConnections = new ArrayList<IDiagramModelConnection>();
+        Set<IDiagramModelConnection> allConnections = new LinkedHashSet<IDiagramModelConnection>();
         
         // Get all connections from objects
         for(IConnectable connectable : fOriginalToSnapshotComponentsMapping.keySet()) {
-            for(IDiagramModelConnection connection : connectable.getSourceConnections()) {
-                if(!allConnections.contains(connection)) {
-                    allConnections.add(connection);
-                }
-            }
-            for(IDiagramModelConnection connection : connectable.getTargetConnections()) {
-                if(!allConnections.contains(connection)) {
-                    allConnections.add(connection);
-                }
-            }
+            allConnections.addAll(connectable.getSourceConnections());
+            allConnections.addAll(connectable.getTargetConnections());
         }
         
         // Create copies of ones that have both ends
@@ -313,14 +339,14 @@ public final class CopySnapshot {
     /*
      * Create copies of connections that have been selected (if source and target also have been selected/mapped)
      */
-    private void createSnapshotConnectionsForSelectedComponents(List<IDiagramModelComponent> selected) {
+    private void createSnapshotConnectionsForSelectedComponents(List<IDiagramModelComponent> selected, Set<IDiagramModelComponent> selectedSet) {
         // Create new connection copies for all selected connections, but don't connect them yet
         for(IDiagramModelComponent component : selected) {
             if(component instanceof IDiagramModelConnection) {
                 IDiagramModelConnection connection = (IDiagramModelConnection)component;
                 
                 // The source and the target object must also be selected
-                if(isSelectedConnectionCopyable(connection, selected)) {
+                if(isSelectedConnectionCopyable(connection, selectedSet)) {
                     IDiagramModelConnection newConnection = (IDiagramModelConnection)connection.getCopy();
                     fOriginalToSnapshotComponentsMapping.put(connection, newConnection);
                 }
@@ -344,7 +370,7 @@ public final class CopySnapshot {
     }
     
     // A selected connection must also have both ends selected/mapped, and each of those ends must also be selected/mapped, and so on
-    private boolean isSelectedConnectionCopyable(IDiagramModelConnection connection, List<?> selected) {
+    private boolean isSelectedConnectionCopyable(IDiagramModelConnection connection, Collection<?> selected) {
         // Yes, we have both ends selected or mapped
         boolean result = (selected.contains(connection.getSource()) || fOriginalToSnapshotComponentsMapping.containsKey(connection.getSource())) && 
                 (selected.contains(connection.getTarget()) || fOriginalToSnapshotComponentsMapping.containsKey(connection.getTarget()));
@@ -363,7 +389,7 @@ public final class CopySnapshot {
     /*
      * @return True if object has an ancestor container that has been selected to be copied and pasted
      */
-    private boolean hasAncestorSelected(IDiagramModelObject object, List<?> selected) {
+    private boolean hasAncestorSelected(IDiagramModelObject object, Set<?> selected) {
         EObject container = object.eContainer();
         
         while(!(container instanceof IDiagramModel)) { // top level
@@ -390,8 +416,10 @@ public final class CopySnapshot {
             return false;
         }
         
-        for(Entry<IConnectable, IConnectable> entry : fOriginalToSnapshotComponentsMapping.entrySet()) {
-            if(isValidPasteComponent(targetDiagramModel, entry.getValue())) { // at least one selected object is valid
+        Set<IDiagramModel> targetDiagramModels = getDiagramModels(targetDiagramModel.getArchimateModel());
+        
+        for(IConnectable snapshotComponent : fOriginalToSnapshotComponentsMapping.values()) {
+            if(isValidPasteComponent(targetDiagramModels, snapshotComponent)) { // at least one selected object is valid
                 return true;
             }
         }
@@ -399,21 +427,24 @@ public final class CopySnapshot {
         return false;
     }
     
-    private boolean isValidPasteComponent(IDiagramModel targetDiagramModel, IDiagramModelComponent component) {
+    /**
+     * @param targetDiagramModels The diagram models in the target Archimate model
+     */
+    private boolean isValidPasteComponent(Set<IDiagramModel> targetDiagramModels, IDiagramModelComponent component) {
         // Can't paste IDiagramModelReference to another Archimate model and the diagram model must exist
         if(component instanceof IDiagramModelReference) {
-            IDiagramModel ref = ((IDiagramModelReference)component).getReferencedModel();
-            for(IDiagramModel diagramModel : targetDiagramModel.getArchimateModel().getDiagramModels()) {
-                if(ref == diagramModel) {
-                    return true;
-                }
-            }
-            return false;
+            return targetDiagramModels.contains(((IDiagramModelReference)component).getReferencedModel());
         }
         
         return true;
     }
     
+    private Set<IDiagramModel> getDiagramModels(IArchimateModel model) {
+        Set<IDiagramModel> diagramModels = Collections.newSetFromMap(new IdentityHashMap<>());
+        diagramModels.addAll(model.getDiagramModels());
+        return diagramModels;
+    }
+    
     
     // ================================================================================================================
     // Create a new copy instance based on the snapshot template
@@ -432,13 +463,18 @@ public final class CopySnapshot {
     /**
      * Mapping of snapshot objects to new copy
      */
-    private Hashtable<IConnectable, IConnectable> fSnapshotToNewComponentMapping;
+    private Map<IConnectable, IConnectable> fSnapshotToNewComponentMapping;
     
     /**
      * Target Diagram model
      */
     private IDiagramModel fTargetDiagramModel;
     
+    /**
+     * Diagram models in the target Archimate model, set for each paste
+     */
+    private Set<IDiagramModel> fTargetDiagramModels;
+    
     /**
      * @param targetDiagramModel The diagram model to paste to
      * @param viewer An optional GraphicalViewer in which to select the pasted objects
@@ -452,6 +488,7 @@ public final class CopySnapshot {
         }
         
         fTargetDiagramModel = targetDiagramModel;
+        fTargetDiagramModels = getDiagramModels(targetDiagramModel.getArchimateModel());
         
         // Create new copies of Archimate concepts or not
         if(pasteSpecial) {
@@ -477,7 +514,7 @@ public final class CopySnapshot {
         calculateXYOffset(mousePosition);
         
         // Mapping of snapshot objects to new copy
-        fSnapshotToNewComponentMapping = new Hashtable<IConnectable, IConnectable>();
+        fSnapshotToNewComponentMapping = new IdentityHashMap<IConnectable, IConnectable>();
         
         // Create a new set of objects to be pasted
         List<IDiagramModelObject> pasteObjects = createPasteObjects();
@@ -485,6 +522,8 @@ public final class CopySnapshot {
         // Create a new set of connections to be pasted
         List<IDiagramModelConnection> pasteConnections = createPasteConnections();
         
+        fTargetDiagramModels = null;
+        
         return new PasteCommand(targetDiagramModel, pasteObjects, pasteConnections, viewer, fDoCreateNewArchimateComponents);
     }
     
@@ -507,7 +546,7 @@ public final class CopySnapshot {
    
     private IDiagramModelObject createPasteObject(IDiagramModelContainer container, IDiagramModelObject snapshotObject) {
         // Don't paste invalid objects
-        if(!isValidPasteComponent(fTargetDiagramModel, snapshotObject)) {
+        if(!isValidPasteComponent(fTargetDiagramModels, snapshotObject)) {
             return null;
         }
 
@@ -616,6 +655,9 @@ public final class CopySnapshot {
             return true;
         }
         
+        // Concepts already on the target diagram, found once rather than searching the diagram for each copied concept
+        Set<IArchimateConcept> targetConcepts = null;
+        
         for(IConnectable object : fOriginalToSnapshotComponentsMapping.keySet()) {
             if(object instanceof IDiagramModelArchimateComponent) {
                 IArchimateConcept originalConcept = ((IDiagramModelArchimateComponent)object).getArchimateConcept();
@@ -625,8 +667,12 @@ public final class CopySnapshot {
                     return true;
                 }
                 
+                if(targetConcepts == null) {
+                    targetConcepts = getArchimateConcepts(fTargetDiagramModel);
+                }
+                
                 // Concept already on diagram
-                if(!DiagramModelUtils.findDiagramModelComponentsForArchimateConcept(fTargetDiagramModel, originalConcept).isEmpty()) {
+                if(targetConcepts.contains(originalConcept)) {
                     return true;
                 }
             }
@@ -634,6 +680,21 @@ public final class CopySnapshot {
         
         return false;
     }
+    
+    /**
+     * @return The Archimate concepts referenced in diagramModel
+     */
+    private Set<IArchimateConcept> getArchimateConcepts(IDiagramModel diagramModel) {
+        Set<IArchimateConcept> concepts = Collections.newSetFromMap(new IdentityHashMap<>());
+        
+        for(Iterator<EObject> iter = diagramModel.eAllContents(); iter.hasNext();) {
+            if(iter.next() instanceof IDiagramModelArchimateComponent dmc) {
+                concepts.add(dmc.getArchimateConcept());
+            }
+        }
+        
+        return concepts;
+    }
      
     /**
      * @return true if source and target models are the same
@@ -84,7 +84,7 @@ public class DefaultEditPartSizeAction extends SelectionAction {
                         && ((IIconic)model).getImagePosition() == IIconic.ICON_POSITION_FILL
                         && figure.hasIconImage()
                         && !(model instanceof IDiagramModelContainer && !((IDiagramModelContainer)model).getChildren().isEmpty())) {
-                    Rectangle imageBounds = figure.getIconicDelegate().getImage().getBounds();
+                    Rectangle imageBounds = figure.getIconicDelegate().getImageBounds();
                     bounds.setWidth(imageBounds.width);
                     bounds.setHeight(imageBounds.height);
                 }
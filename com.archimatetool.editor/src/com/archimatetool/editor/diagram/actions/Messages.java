@@ -25,6 +25,8 @@ public class Messages extends NLS {
 
     public static String ConnectionRouterAction_2;
 
+    public static String ConnectionRouterAction_3;
+
     public static String CopyAction_0;
 
     public static String CopySnapshot_0;
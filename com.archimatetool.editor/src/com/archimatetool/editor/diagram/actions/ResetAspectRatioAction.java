@@ -103,7 +103,7 @@ public class ResetAspectRatioAction extends SelectionAction {
                 }
                 // Iconic and fill type is fill and has an image
                 else {
-                    Rectangle imageBounds = figure.getIconicDelegate().getImage().getBounds();
+                    Rectangle imageBounds = figure.getIconicDelegate().getImageBounds();
                     otherRatio = ((float) imageBounds.height / (float) imageBounds.width);
                 }
                 
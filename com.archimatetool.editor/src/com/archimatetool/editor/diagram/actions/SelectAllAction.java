@@ -16,6 +16,8 @@ import org.eclipse.jface.viewers.StructuredSelection;
 import org.eclipse.ui.IWorkbenchPart;
 import org.eclipse.ui.actions.ActionFactory;
 
+import com.archimatetool.editor.diagram.editparts.ViewportEditPartFilter;
+
 /**
  * SelectAllAction including connections
  * 
@@ -45,6 +47,12 @@ public class SelectAllAction extends Action {
     public void run() {
         GraphicalViewer viewer = part.getAdapter(GraphicalViewer.class);
         if(viewer != null) {
+            // Select all objects, not just the ones in view
+            ViewportEditPartFilter viewportFilter = ViewportEditPartFilter.getFilter(viewer);
+            if(viewportFilter != null) {
+                viewportFilter.createAllEditParts();
+            }
+            
             viewer.setSelection(new StructuredSelection(getSelectableEditParts(viewer.getContents()).toArray()));
         }
     }
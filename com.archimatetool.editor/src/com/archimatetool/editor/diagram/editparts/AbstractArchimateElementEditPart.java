@@ -201,6 +201,11 @@ public abstract class AbstractArchimateElementEditPart extends AbstractConnected
         }
     }
     
+    @Override
+    protected boolean handlesPreference(String key) {
+        return IPreferenceConstants.VIEWPOINTS_GHOST_DIAGRAM_ELEMENTS.equals(key) || super.handlesPreference(key);
+    }
+    
     @Override
     protected void createEditPolicies() {
         // Allow parts to be joined together
@@ -86,6 +86,14 @@ public abstract class AbstractBaseEditPart extends AbstractFilteredEditPart {
         }
     }
     
+    @Override
+    protected boolean handlesPreference(String key) {
+        return IPreferenceConstants.DEFAULT_VIEW_FONT.equals(key) ||
+                key.startsWith(IPreferenceConstants.DEFAULT_FILL_COLOR_PREFIX) ||
+                IPreferenceConstants.DEFAULT_ELEMENT_LINE_COLOR.equals(key) ||
+                IPreferenceConstants.FONT_SCALING.equals(key);
+    }
+    
     @Override
     public void deactivate() {
         if(isActive()) {
@@ -116,6 +116,14 @@ implements NodeEditPart {
         super.applicationPreferencesChanged(event);
     }
     
+    @Override
+    protected boolean handlesPreference(String key) {
+        return IPreferenceConstants.HIDDEN_RELATIONS_TYPES.equals(key) ||
+                IPreferenceConstants.USE_NESTED_CONNECTIONS.equals(key) ||
+                IPreferenceConstants.USE_ORTHOGONAL_ANCHOR.equals(key) ||
+                super.handlesPreference(key);
+    }
+    
     @Override
     protected Adapter getECoreAdapter() {
         return adapter;
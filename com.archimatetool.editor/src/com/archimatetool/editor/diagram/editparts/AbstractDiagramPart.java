@@ -14,7 +14,6 @@ import org.eclipse.draw2d.AutomaticRouter;
 import org.eclipse.draw2d.BendpointConnectionRouter;
 import org.eclipse.draw2d.ConnectionLayer;
 import org.eclipse.draw2d.FanRouter;
-import org.eclipse.draw2d.FreeformLayer;
 import org.eclipse.draw2d.FreeformLayout;
 import org.eclipse.draw2d.IFigure;
 import org.eclipse.draw2d.ManhattanConnectionRouter;
@@ -27,6 +26,8 @@ import org.eclipse.jface.util.PropertyChangeEvent;
 import org.eclipse.swt.SWT;
 
 import com.archimatetool.editor.ArchiPlugin;
+import com.archimatetool.editor.diagram.figures.DiagramFreeformLayer;
+import com.archimatetool.editor.diagram.figures.connections.OrthogonalConnectionRouter;
 import com.archimatetool.editor.diagram.util.AnimationUtil;
 import com.archimatetool.editor.preferences.IPreferenceConstants;
 import com.archimatetool.model.IArchimatePackage;
@@ -53,6 +54,16 @@ implements IEditPartFilterProvider {
     
     private Adapter adapter = new LightweightEContentAdapter(this::eCoreChanged, IFeature.class);
     
+    /**
+     * Index of snap locations of the diagram's child figures, created when first needed and then kept up to date
+     */
+    private SnapToGeometryIndex fSnapIndex;
+    
+    /**
+     * Filter to only create the edit parts of objects in view, if it is enabled for the viewer
+     */
+    private ViewportEditPartFilter fViewportFilter;
+    
     protected AbstractDiagramPart() {
         // Add a Nested Connection Filter
         addEditPartFilter(new NestedConnectionEditPartFilter());
@@ -80,6 +91,9 @@ implements IEditPartFilterProvider {
             // Move notification sent from Z-Order changes in model
             case Notification.MOVE: 
                 refreshChildren();
+                if(fViewportFilter != null) {
+                    fViewportFilter.scheduleUpdate();
+                }
                 break;
                 
             case Notification.SET:
@@ -109,6 +123,11 @@ implements IEditPartFilterProvider {
             refresh();
         }
     }
+    
+    @Override
+    protected boolean handlesPreference(String key) {
+        return IPreferenceConstants.ANTI_ALIAS.equals(key);
+    }
 
     /**
      * Refresh all child figures
@@ -126,6 +145,17 @@ implements IEditPartFilterProvider {
         return (IDiagramModel)super.getModel();
     }
 
+    @Override
+    public void addNotify() {
+        // Add this before the children are created
+        if(ViewportEditPartFilter.isEnabled(this)) {
+            fViewportFilter = new ViewportEditPartFilter(this);
+            addEditPartFilter(fViewportFilter);
+        }
+        
+        super.addNotify();
+    }
+    
     @Override
     public void deactivate() {
         if(!isActive()) {
@@ -134,13 +164,33 @@ implements IEditPartFilterProvider {
         
         super.deactivate();
         
+        // Dispose viewport filter
+        if(fViewportFilter != null) {
+            fViewportFilter.dispose();
+            fViewportFilter = null;
+        }
+        
         // Clear Filters
         if(fEditPartFilters != null) {
             fEditPartFilters.clear();
             fEditPartFilters = null;
         }
+        
+        // Dispose snap index
+        if(fSnapIndex != null) {
+            fSnapIndex.dispose();
+            fSnapIndex = null;
+        }
     }
 
+    /**
+     * Make this public
+     */
+    @Override
+    public void refreshChildren() {
+        super.refreshChildren();
+    }
+    
     /**
      * Update any Edit Parts that may need changing as a result of for example locking an Edit Part
      */
@@ -149,7 +199,7 @@ implements IEditPartFilterProvider {
 
     @Override
     protected IFigure createFigure() {
-        FreeformLayer figure = new FreeformLayer();
+        DiagramFreeformLayer figure = new DiagramFreeformLayer();
         
         // Add a border so that user can grab edges of an object
         int marginWidth = ArchiPlugin.getInstance().getPreferenceStore().getInt(IPreferenceConstants.MARGIN_WIDTH);
@@ -157,6 +207,9 @@ implements IEditPartFilterProvider {
         
         figure.setLayoutManager(new FreeformLayout());
         
+        // Index child figures so that painting and hit testing only visit figures under the clip or mouse
+        figure.setSpatialIndexEnabled(true);
+        
         // Have to add this if we want Animation to work on figures!
         AnimationUtil.addFigureForAnimation(figure);
         
@@ -186,6 +239,10 @@ implements IEditPartFilterProvider {
             case IDiagramModel.CONNECTION_ROUTER_MANHATTAN:
                 cLayer.setConnectionRouter(new ManhattanConnectionRouter());
                 break;
+                
+            case IDiagramModel.CONNECTION_ROUTER_ORTHOGONAL:
+                cLayer.setConnectionRouter(new OrthogonalConnectionRouter(getFigure()));
+                break;
             
             case IDiagramModel.CONNECTION_ROUTER_BENDPOINT:
             default:
@@ -217,7 +274,7 @@ implements IEditPartFilterProvider {
     @Override
     public <T> T getAdapter(Class<T> adapter) {
         if(adapter == SnapToHelper.class) {
-            return adapter.cast(new SnapEditPartAdapter(this).getSnapToHelper());
+            return adapter.cast(new SnapEditPartAdapter(this, getSnapToGeometryIndex()).getSnapToHelper());
         }
         
         if(getModel() != null && adapter.isInstance(getModel())) {
@@ -227,6 +284,16 @@ implements IEditPartFilterProvider {
         return super.getAdapter(adapter);
     }
     
+    /**
+     * @return The index of snap locations of the diagram's child figures
+     */
+    protected SnapToGeometryIndex getSnapToGeometryIndex() {
+        if(fSnapIndex == null) {
+            fSnapIndex = new SnapToGeometryIndex(getContentPane());
+        }
+        return fSnapIndex;
+    }
+    
     // -------------------------------- Filters -----------------------------------------
     
     @Override
@@ -12,10 +12,8 @@ import java.util.List;
 import org.eclipse.emf.common.notify.Adapter;
 import org.eclipse.emf.ecore.EObject;
 import org.eclipse.gef.editparts.AbstractGraphicalEditPart;
-import org.eclipse.jface.util.IPropertyChangeListener;
 import org.eclipse.jface.util.PropertyChangeEvent;
 
-import com.archimatetool.editor.ArchiPlugin;
 import com.archimatetool.model.IDiagramModelContainer;
 import com.archimatetool.model.IDiagramModelObject;
 
@@ -28,11 +26,6 @@ import com.archimatetool.model.IDiagramModelObject;
  */
 public abstract class AbstractFilteredEditPart extends AbstractGraphicalEditPart {
     
-    /**
-     * Application Preferences Listener
-     */
-    private IPropertyChangeListener prefsListener;
-
     @Override
     public void activate() {
         if(!isActive()) {
@@ -42,8 +35,7 @@ public abstract class AbstractFilteredEditPart extends AbstractGraphicalEditPart
             addECoreAdapter();
             
             // Listen to Application Prefs changes
-            prefsListener = this::applicationPreferencesChanged;
-            ArchiPlugin.getInstance().getPreferenceStore().addPropertyChangeListener(prefsListener);
+            PreferenceChangeDispatcher.add(this, this::handlesPreference, this::applicationPreferencesChanged);
         }
     }
 
@@ -56,7 +48,7 @@ public abstract class AbstractFilteredEditPart extends AbstractGraphicalEditPart
             removeECoreAdapter();
 
             // Remove Prefs listener
-            ArchiPlugin.getInstance().getPreferenceStore().removePropertyChangeListener(prefsListener);
+            PreferenceChangeDispatcher.remove(this);
         }
     }
 
@@ -89,6 +81,17 @@ public abstract class AbstractFilteredEditPart extends AbstractGraphicalEditPart
      */
     protected abstract void applicationPreferencesChanged(PropertyChangeEvent event);
     
+    /**
+     * Application Preference Property change events are only sent to this edit part for the keys that this returns true for.
+     * The answer must only depend on the class of this edit part and the key as it is asked once for all edit parts of the same class.
+     * Subclasses that handle more keys in {@link #applicationPreferencesChanged(PropertyChangeEvent)} should add them here.
+     * @param key The preference key
+     * @return true if changes to key are handled. By default all keys are handled.
+     */
+    protected boolean handlesPreference(String key) {
+        return true;
+    }
+    
     @Override
     public EObject getModel() {
         return (EObject)super.getModel();
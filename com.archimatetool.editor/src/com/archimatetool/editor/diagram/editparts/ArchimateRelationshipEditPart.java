@@ -71,6 +71,13 @@ implements NodeEditPart {
             super.applicationPreferencesChanged(event);
         }
     }
+    
+    @Override
+    protected boolean handlesPreference(String key) {
+        return IPreferenceConstants.HIDDEN_RELATIONS_TYPES.equals(key) ||
+                IPreferenceConstants.USE_NESTED_CONNECTIONS.equals(key) ||
+                super.handlesPreference(key);
+    }
 
     ///----------------------------------------------------------------------------------------
     ///----------------------------------------------------------------------------------------
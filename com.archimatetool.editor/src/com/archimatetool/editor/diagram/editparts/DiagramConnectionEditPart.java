@@ -11,6 +11,7 @@ import java.util.List;
 
 import org.eclipse.draw2d.Bendpoint;
 import org.eclipse.draw2d.Connection;
+import org.eclipse.draw2d.ConnectionRouter;
 import org.eclipse.draw2d.IFigure;
 import org.eclipse.draw2d.ManhattanConnectionRouter;
 import org.eclipse.draw2d.RelativeBendpoint;
@@ -30,13 +31,12 @@ import org.eclipse.gef.requests.DirectEditRequest;
 import org.eclipse.gef.requests.GroupRequest;
 import org.eclipse.gef.requests.LocationRequest;
 import org.eclipse.gef.tools.DirectEditManager;
-import org.eclipse.jface.util.IPropertyChangeListener;
 import org.eclipse.osgi.util.NLS;
 
-import com.archimatetool.editor.ArchiPlugin;
 import com.archimatetool.editor.diagram.commands.DiagramCommandFactory;
 import com.archimatetool.editor.diagram.directedit.MultiLineTextDirectEditManager;
 import com.archimatetool.editor.diagram.figures.connections.IDiagramConnectionFigure;
+import com.archimatetool.editor.diagram.figures.connections.OrthogonalConnectionRouter;
 import com.archimatetool.editor.diagram.policies.ManualBendpointEditPolicy;
 import com.archimatetool.editor.diagram.policies.SelectedEditPartPolicy;
 import com.archimatetool.editor.model.commands.EObjectFeatureCommand;
@@ -60,13 +60,6 @@ public class DiagramConnectionEditPart extends AbstractConnectionEditPart {
 
     private Adapter adapter = new LightweightEContentAdapter(this::eCoreChanged, IFeature.class);
     
-    /**
-     * Listen to default font change in Prefs
-     */
-    private IPropertyChangeListener prefsListener = event -> {
-        applicationPreferencesChanged(event);
-    };
-    
     /**
      * Figure Listener 
      */
@@ -190,6 +183,39 @@ public class DiagramConnectionEditPart extends AbstractConnectionEditPart {
         }
     }
     
+    /**
+     * Application User Preferences changes are only sent to this edit part for the keys that this returns true for.
+     * The answer must only depend on the class of this edit part and the key as it is asked once for all edit parts of the same class.
+     * Subclasses that handle more keys in {@link #applicationPreferencesChanged(org.eclipse.jface.util.PropertyChangeEvent)} should add them here.
+     * @param key The preference key
+     * @return true if changes to key are handled
+     */
+    protected boolean handlesPreference(String key) {
+        return IPreferenceConstants.DEFAULT_VIEW_FONT.equals(key) ||
+                IPreferenceConstants.DEFAULT_CONNECTION_LINE_COLOR.equals(key) ||
+                IPreferenceConstants.USE_LINE_CURVES.equals(key) ||
+                IPreferenceConstants.USE_LINE_JUMPS.equals(key) ||
+                IPreferenceConstants.CONNECTION_LABEL_STRATEGY.equals(key) ||
+                IPreferenceConstants.VIEWPOINTS_GHOST_DIAGRAM_ELEMENTS.equals(key) ||
+                IPreferenceConstants.FONT_SCALING.equals(key);
+    }
+    
+    /**
+     * Make this public
+     */
+    @Override
+    public void refreshSourceConnections() {
+        super.refreshSourceConnections();
+    }
+    
+    /**
+     * Make this public
+     */
+    @Override
+    public void refreshTargetConnections() {
+        super.refreshTargetConnections();
+    }
+    
     @Override
     public IDiagramModelConnection getModel() {
         return (IDiagramModelConnection)super.getModel();
@@ -204,7 +230,7 @@ public class DiagramConnectionEditPart extends AbstractConnectionEditPart {
             addECoreAdapter();
             
             // Listen to Prefs changes to set default Font
-            ArchiPlugin.getInstance().getPreferenceStore().addPropertyChangeListener(prefsListener);
+            PreferenceChangeDispatcher.add(this, this::handlesPreference, this::applicationPreferencesChanged);
         }
     }
     
@@ -216,7 +242,7 @@ public class DiagramConnectionEditPart extends AbstractConnectionEditPart {
             // Remove Listener to changes in Diagram Model Object
             removeECoreAdapter();
             
-            ArchiPlugin.getInstance().getPreferenceStore().removePropertyChangeListener(prefsListener);
+            PreferenceChangeDispatcher.remove(this);
         }
     }
     
@@ -306,7 +332,7 @@ public class DiagramConnectionEditPart extends AbstractConnectionEditPart {
      * Updates the bendpoints, based on the model
      */
     protected void refreshBendpoints() {
-        if(getConnectionFigure().getConnectionRouter() instanceof ManhattanConnectionRouter) {
+        if(!isBendpointRouter()) {
             return;
         }
         
@@ -332,14 +358,22 @@ public class DiagramConnectionEditPart extends AbstractConnectionEditPart {
         if(isLocked()) {
             installEditPolicy(EditPolicy.CONNECTION_BENDPOINTS_ROLE, null);
         }
-        // Doesn't work for Manhattan Router
-        else if(getConnectionFigure().getConnectionRouter() instanceof ManhattanConnectionRouter) {
+        // Doesn't work for Manhattan and Orthogonal Routers
+        else if(!isBendpointRouter()) {
             installEditPolicy(EditPolicy.CONNECTION_BENDPOINTS_ROLE, null);
         }
         else {
             installEditPolicy(EditPolicy.CONNECTION_BENDPOINTS_ROLE, new ManualBendpointEditPolicy());
         }
     }
+    
+    /**
+     * @return false if the connection router makes its own bendpoints
+     */
+    protected boolean isBendpointRouter() {
+        ConnectionRouter router = getConnectionFigure().getConnectionRouter();
+        return !(router instanceof ManhattanConnectionRouter || router instanceof OrthogonalConnectionRouter);
+    }
         
     /**
      * Show the Properties View
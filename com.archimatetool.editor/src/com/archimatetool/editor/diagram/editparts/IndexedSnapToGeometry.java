@@ -0,0 +1,105 @@
+/**
+ * This program and the accompanying materials
+ * are made available under the terms of the License
+ * which accompanies this distribution in the file LICENSE.txt
+ */
+package com.archimatetool.editor.diagram.editparts;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.draw2d.IFigure;
+import org.eclipse.gef.GraphicalEditPart;
+import org.eclipse.gef.SnapToGeometry;
+
+
+/**
+ * SnapToGeometry that finds snap locations in a SnapToGeometryIndex.
+ *
+ * SnapToGeometry copies the container's children and removes the dragged parts from the copy, and then tests
+ * every row and column each time the mouse moves. Here the dragged parts' figures are kept in an identity set
+ * that is checked only for the locations found near the mouse, and the locations are found with a binary search.
+ */
+@SuppressWarnings("rawtypes")
+public class IndexedSnapToGeometry extends SnapToGeometry {
+
+    private SnapToGeometryIndex fIndex;
+
+    /**
+     * Figures of the parts that are being dragged
+     */
+    private Set<IFigure> fExclusions;
+
+    /**
+     * @param container The container editpart. An index of its children is created when it is first needed.
+     */
+    public IndexedSnapToGeometry(GraphicalEditPart container) {
+        this(container, null);
+    }
+
+    /**
+     * @param container The container editpart
+     * @param index An index of the children of the container that is kept up to date, or null to create one when needed
+     */
+    public IndexedSnapToGeometry(GraphicalEditPart container, SnapToGeometryIndex index) {
+        super(container);
+        fIndex = index;
+    }
+
+    /**
+     * Rather than a copy of the children without the exclusions, return the children and keep the figures of the exclusions.
+     * Hidden figures and exclusions are skipped when finding a snap location.
+     */
+    @Override
+    protected List generateSnapPartsList(List exclusions) {
+        fExclusions = Collections.newSetFromMap(new IdentityHashMap<>());
+
+        for(Object part : exclusions) {
+            if(part instanceof GraphicalEditPart editPart) {
+                fExclusions.add(editPart.getFigure());
+            }
+        }
+
+        return container.getChildren();
+    }
+
+    /**
+     * Create the index if there isn't one instead of rows and columns
+     */
+    @Override
+    protected void populateRowsAndCols(List parts) {
+        if(fIndex == null) {
+            fIndex = new SnapToGeometryIndex();
+            for(Object part : parts) {
+                fIndex.add(((GraphicalEditPart)part).getFigure());
+            }
+        }
+
+        // Not used but they can't be null or SnapToGeometry will populate them again
+        rows = new Entry[0];
+        cols = new Entry[0];
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    protected double getCorrectionFor(Entry[] entries, Map extendedData, boolean vert, double value, int side) {
+        Integer location = fIndex.findSnapLocation(vert, value, side, getThreshold(), fExclusions);
+        if(location == null) {
+            return getThreshold();
+        }
+
+        String property;
+        if(side == -1) {
+            property = vert ? KEY_WEST_ANCHOR : KEY_NORTH_ANCHOR;
+        }
+        else {
+            property = vert ? KEY_EAST_ANCHOR : KEY_SOUTH_ANCHOR;
+        }
+
+        extendedData.put(property, location);
+        return location - value;
+    }
+}
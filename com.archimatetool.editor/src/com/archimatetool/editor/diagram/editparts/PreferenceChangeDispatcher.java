@@ -0,0 +1,142 @@
+/**
+ * This program and the accompanying materials
+ * are made available under the terms of the License
+ * which accompanies this distribution in the file LICENSE.txt
+ */
+package com.archimatetool.editor.diagram.editparts;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.function.Predicate;
+
+import org.eclipse.gef.EditPart;
+import org.eclipse.gef.EditPartViewer;
+import org.eclipse.jface.util.IPropertyChangeListener;
+import org.eclipse.jface.util.PropertyChangeEvent;
+
+import com.archimatetool.editor.ArchiPlugin;
+
+
+/**
+ * Sends application preference changes to edit parts.
+ *
+ * Rather than each edit part adding its own listener to the preference store this has one listener,
+ * and edit parts are kept by viewer and then by class. When a preference changes each class of edit part in a viewer
+ * is asked once if it handles that preference key, and only the edit parts of the classes that do are told about the change.
+ * All of the edit parts of a viewer are told about the change together so that their figures are updated in one pass.
+ * Adding and removing an edit part doesn't depend on how many other edit parts there are.
+ *
+ * All methods must be called on the UI thread.
+ */
+public class PreferenceChangeDispatcher {
+
+    /**
+     * An edit part's filter for preference keys and its listener
+     */
+    private record Subscription(Predicate<String> keyFilter, IPropertyChangeListener listener) {}
+
+    /**
+     * Viewer -> edit part class -> edit part -> subscription
+     */
+    private static Map<EditPartViewer, Map<Class<?>, Map<EditPart, Subscription>>> viewers = new LinkedHashMap<>();
+
+    private static IPropertyChangeListener prefsListener = PreferenceChangeDispatcher::preferenceChanged;
+
+    private static boolean listening;
+
+    /**
+     * Add an edit part so that it is told about preference changes.
+     * The edit part should be in its viewer so that it can be kept with the other edit parts of that viewer.
+     *
+     * @param editPart The edit part
+     * @param keyFilter Returns true for a preference key if the edit part handles changes to it. This is asked once for
+     *                  all of the edit parts of the same class in a viewer and so must only depend on the class and the key.
+     * @param listener Told about changes to the preferences that keyFilter accepts
+     */
+    public static void add(EditPart editPart, Predicate<String> keyFilter, IPropertyChangeListener listener) {
+        viewers.computeIfAbsent(editPart.getViewer(), viewer -> new LinkedHashMap<>())
+               .computeIfAbsent(editPart.getClass(), type -> new LinkedHashMap<>())
+               .put(editPart, new Subscription(keyFilter, listener));
+
+        if(!listening) {
+            ArchiPlugin.getInstance().getPreferenceStore().addPropertyChangeListener(prefsListener);
+            listening = true;
+        }
+    }
+
+    /**
+     * Remove an edit part so that it is no longer told about preference changes
+     * @param editPart The edit part
+     */
+    public static void remove(EditPart editPart) {
+        // There are only a few viewers so look in each of them in case the edit part has been removed from its viewer
+        for(Iterator<Map<Class<?>, Map<EditPart, Subscription>>> iter = viewers.values().iterator(); iter.hasNext();) {
+            Map<Class<?>, Map<EditPart, Subscription>> classes = iter.next();
+            Map<EditPart, Subscription> editParts = classes.get(editPart.getClass());
+
+            if(editParts != null && editParts.remove(editPart) != null) {
+                if(editParts.isEmpty()) {
+                    classes.remove(editPart.getClass());
+                    if(classes.isEmpty()) {
+                        iter.remove();
+                    }
+                }
+                break;
+            }
+        }
+
+        if(listening && viewers.isEmpty()) {
+            ArchiPlugin.getInstance().getPreferenceStore().removePropertyChangeListener(prefsListener);
+            listening = false;
+        }
+    }
+
+    /**
+     * @return true if editPart has been added
+     */
+    static boolean contains(EditPart editPart) {
+        for(Map<Class<?>, Map<EditPart, Subscription>> classes : viewers.values()) {
+            Map<EditPart, Subscription> editParts = classes.get(editPart.getClass());
+            if(editParts != null && editParts.containsKey(editPart)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return true if listening to the preference store
+     */
+    static boolean isListening() {
+        return listening;
+    }
+
+    /**
+     * A preference changed. Tell the edit parts that handle it, viewer by viewer.
+     */
+    static void preferenceChanged(PropertyChangeEvent event) {
+        String key = event.getProperty();
+
+        // Copy them first because edit parts can be added and removed while they are told about the change
+        for(Map<Class<?>, Map<EditPart, Subscription>> classes : new ArrayList<>(viewers.values())) {
+            List<Entry<EditPart, Subscription>> subscriptions = new ArrayList<>();
+
+            for(Map<EditPart, Subscription> editParts : classes.values()) {
+                if(!editParts.isEmpty() && editParts.values().iterator().next().keyFilter().test(key)) {
+                    subscriptions.addAll(editParts.entrySet());
+                }
+            }
+
+            for(Entry<EditPart, Subscription> entry : subscriptions) {
+                // Not if it was removed by an earlier one
+                if(contains(entry.getKey())) {
+                    entry.getValue().listener().propertyChange(event);
+                }
+            }
+        }
+    }
+}
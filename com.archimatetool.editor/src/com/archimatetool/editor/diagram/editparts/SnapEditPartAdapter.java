@@ -25,9 +25,20 @@ import org.eclipse.gef.rulers.RulerProvider;
 public class SnapEditPartAdapter {
     
     private GraphicalEditPart fEditPart;
+    private SnapToGeometryIndex fSnapIndex;
 
     public SnapEditPartAdapter(GraphicalEditPart editPart) {
+        this(editPart, null);
+    }
+    
+    /**
+     * @param editPart The container edit part
+     * @param snapIndex An index of snap locations of the edit part's child figures that is kept up to date,
+     *                  or null to create one for each SnapToHelper
+     */
+    public SnapEditPartAdapter(GraphicalEditPart editPart, SnapToGeometryIndex snapIndex) {
         fEditPart = editPart;
+        fSnapIndex = snapIndex;
     }
     
     public SnapToHelper getSnapToHelper() {
@@ -42,7 +53,7 @@ public class SnapEditPartAdapter {
         // Snap to Geometry
         val = (Boolean)fEditPart.getViewer().getProperty(SnapToGeometry.PROPERTY_SNAP_ENABLED);
         if(val != null && val.booleanValue()) {
-            snapStrategies.add(new SnapToGeometry(fEditPart));
+            snapStrategies.add(new IndexedSnapToGeometry(fEditPart, fSnapIndex));
         }
         
         // Snap to Grid
@@ -0,0 +1,297 @@
+/**
+ * This program and the accompanying materials
+ * are made available under the terms of the License
+ * which accompanies this distribution in the file LICENSE.txt
+ */
+package com.archimatetool.editor.diagram.editparts;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.draw2d.FigureListener;
+import org.eclipse.draw2d.IFigure;
+import org.eclipse.draw2d.LayoutListener;
+import org.eclipse.draw2d.geometry.Rectangle;
+import org.eclipse.gef.handles.HandleBounds;
+
+
+/**
+ * Index of the snap locations of the child figures in a container, used by IndexedSnapToGeometry.
+ *
+ * The left, middle and right x locations and the top, middle and bottom y locations of the figures
+ * are kept in sorted arrays so that the nearest location to a value can be found with a binary search
+ * rather than by testing every location.
+ *
+ * If the index is created for a container figure it listens to the container and its children
+ * and updates the locations of a figure when it is added, removed, moved or resized.
+ * In this case {@link #dispose()} should be called when the index is no longer needed.
+ */
+public class SnapToGeometryIndex {
+
+    /**
+     * Location types. These are the same as the types of SnapToGeometry.Entry
+     */
+    static final int NEAR = -1, MIDDLE = 0, FAR = 1;
+
+    /**
+     * Sorted locations on one axis for one location type, and the figure for each location
+     */
+    static class Axis {
+        private int[] locations = new int[16];
+        private IFigure[] figures = new IFigure[16];
+        private int size;
+
+        void add(int location, IFigure figure) {
+            if(size == locations.length) {
+                locations = Arrays.copyOf(locations, size * 2);
+                figures = Arrays.copyOf(figures, size * 2);
+            }
+
+            int index = indexOf(location + 1); // After any equal locations
+            System.arraycopy(locations, index, locations, index + 1, size - index);
+            System.arraycopy(figures, index, figures, index + 1, size - index);
+            locations[index] = location;
+            figures[index] = figure;
+            size++;
+        }
+
+        void remove(int location, IFigure figure) {
+            for(int index = indexOf(location); index < size && locations[index] == location; index++) {
+                if(figures[index] == figure) {
+                    System.arraycopy(locations, index + 1, locations, index, size - index - 1);
+                    System.arraycopy(figures, index + 1, figures, index, size - index - 1);
+                    figures[--size] = null;
+                    return;
+                }
+            }
+        }
+
+        /**
+         * @return The index of the nearest location to value that is less than threshold away and belongs to
+         *         a visible figure that is not in exclusions, or -1 if there is none
+         */
+        int findNearest(double value, double threshold, Set<IFigure> exclusions) {
+            int right = indexOf(value);
+            int left = right - 1;
+
+            while(true) {
+                double leftDistance = left >= 0 ? value - locations[left] : Double.MAX_VALUE;
+                double rightDistance = right < size ? locations[right] - value : Double.MAX_VALUE;
+
+                if(leftDistance >= threshold && rightDistance >= threshold) {
+                    return -1;
+                }
+
+                if(leftDistance <= rightDistance) {
+                    if(isSnappable(figures[left], exclusions)) {
+                        return left;
+                    }
+                    left--;
+                }
+                else {
+                    if(isSnappable(figures[right], exclusions)) {
+                        return right;
+                    }
+                    right++;
+                }
+            }
+        }
+
+        int getLocation(int index) {
+            return locations[index];
+        }
+
+        int size() {
+            return size;
+        }
+
+        /**
+         * @return The index of the first location that is not less than value
+         */
+        private int indexOf(double value) {
+            int low = 0;
+            int high = size;
+
+            while(low < high) {
+                int mid = (low + high) >>> 1;
+                if(locations[mid] < value) {
+                    low = mid + 1;
+                }
+                else {
+                    high = mid;
+                }
+            }
+
+            return low;
+        }
+
+        private boolean isSnappable(IFigure figure, Set<IFigure> exclusions) {
+            return figure.isVisible() && (exclusions == null || !exclusions.contains(figure));
+        }
+    }
+
+    /**
+     * x and y axes for each location type
+     */
+    private Axis[] xAxes = { new Axis(), new Axis(), new Axis() };
+    private Axis[] yAxes = { new Axis(), new Axis(), new Axis() };
+
+    /**
+     * The bounds that each figure's locations were taken from
+     */
+    private Map<IFigure, Rectangle> fBounds = new HashMap<>();
+
+    private IFigure fContainer;
+
+    private LayoutListener fLayoutListener = new LayoutListener.Stub() {
+        @Override
+        public void setConstraint(IFigure child, Object constraint) {
+            // A child is given its constraint when it's added
+            if(!fBounds.containsKey(child)) {
+                add(child);
+            }
+        }
+
+        @Override
+        public void remove(IFigure child) {
+            SnapToGeometryIndex.this.remove(child);
+        }
+    };
+
+    private FigureListener fFigureListener = this::update;
+
+    /**
+     * Create an empty index that doesn't listen to changes
+     */
+    SnapToGeometryIndex() {
+    }
+
+    /**
+     * Create an index of the child figures of container that is updated as they change
+     * @param container The container figure, the content pane of a container edit part
+     */
+    public SnapToGeometryIndex(IFigure container) {
+        fContainer = container;
+        fContainer.addLayoutListener(fLayoutListener);
+
+        for(Object child : container.getChildren()) {
+            add((IFigure)child);
+        }
+    }
+
+    /**
+     * Add a figure's locations to the index
+     */
+    void add(IFigure figure) {
+        Rectangle bounds = getSnapBounds(figure).getCopy();
+        fBounds.put(figure, bounds);
+        addLocations(figure, bounds);
+
+        if(fContainer != null) {
+            figure.addFigureListener(fFigureListener);
+        }
+    }
+
+    /**
+     * Remove a figure's locations from the index
+     */
+    void remove(IFigure figure) {
+        Rectangle bounds = fBounds.remove(figure);
+        if(bounds != null) {
+            removeLocations(figure, bounds);
+            figure.removeFigureListener(fFigureListener);
+        }
+    }
+
+    /**
+     * Update a figure's locations if it has moved or been resized
+     */
+    void update(IFigure figure) {
+        Rectangle bounds = fBounds.get(figure);
+        if(bounds != null && !bounds.equals(getSnapBounds(figure))) {
+            removeLocations(figure, bounds);
+            bounds.setBounds(getSnapBounds(figure));
+            addLocations(figure, bounds);
+        }
+    }
+
+    /**
+     * Find the nearest snap location to value
+     * @param columns If true look at the x locations, otherwise the y locations
+     * @param value The value to snap
+     * @param side 0 to look at middle locations, otherwise left/top and right/bottom locations
+     * @param threshold Locations must be less than this distance from value
+     * @param exclusions Figures that can't be snapped to, may be null
+     * @return The snap location or null if there is none within threshold
+     */
+    public Integer findSnapLocation(boolean columns, double value, int side, double threshold, Set<IFigure> exclusions) {
+        Axis[] axes = columns ? xAxes : yAxes;
+
+        if(side == 0) {
+            return findSnapLocation(axes[MIDDLE + 1], value, threshold, exclusions);
+        }
+
+        Integer near = findSnapLocation(axes[NEAR + 1], value, threshold, exclusions);
+        Integer far = findSnapLocation(axes[FAR + 1], value, threshold, exclusions);
+
+        if(near == null || (far != null && Math.abs(value - far) < Math.abs(value - near))) {
+            return far;
+        }
+
+        return near;
+    }
+
+    private Integer findSnapLocation(Axis axis, double value, double threshold, Set<IFigure> exclusions) {
+        int index = axis.findNearest(value, threshold, exclusions);
+        return index != -1 ? axis.getLocation(index) : null;
+    }
+
+    /**
+     * @return The number of figures in the index
+     */
+    public int size() {
+        return fBounds.size();
+    }
+
+    /**
+     * Remove the listeners from the container and its children
+     */
+    public void dispose() {
+        if(fContainer != null) {
+            fContainer.removeLayoutListener(fLayoutListener);
+            for(IFigure figure : fBounds.keySet()) {
+                figure.removeFigureListener(fFigureListener);
+            }
+            fContainer = null;
+        }
+
+        fBounds.clear();
+    }
+
+    private void addLocations(IFigure figure, Rectangle bounds) {
+        xAxes[NEAR + 1].add(bounds.x, figure);
+        xAxes[MIDDLE + 1].add(bounds.x + (bounds.width - 1) / 2, figure);
+        xAxes[FAR + 1].add(bounds.right() - 1, figure);
+        yAxes[NEAR + 1].add(bounds.y, figure);
+        yAxes[MIDDLE + 1].add(bounds.y + (bounds.height - 1) / 2, figure);
+        yAxes[FAR + 1].add(bounds.bottom() - 1, figure);
+    }
+
+    private void removeLocations(IFigure figure, Rectangle bounds) {
+        xAxes[NEAR + 1].remove(bounds.x, figure);
+        xAxes[MIDDLE + 1].remove(bounds.x + (bounds.width - 1) / 2, figure);
+        xAxes[FAR + 1].remove(bounds.right() - 1, figure);
+        yAxes[NEAR + 1].remove(bounds.y, figure);
+        yAxes[MIDDLE + 1].remove(bounds.y + (bounds.height - 1) / 2, figure);
+        yAxes[FAR + 1].remove(bounds.bottom() - 1, figure);
+    }
+
+    /**
+     * @return The bounds that figure is snapped to, as in SnapToGeometry#getFigureBounds()
+     */
+    private Rectangle getSnapBounds(IFigure figure) {
+        return figure instanceof HandleBounds handleBounds ? handleBounds.getHandleBounds() : figure.getBounds();
+    }
+}
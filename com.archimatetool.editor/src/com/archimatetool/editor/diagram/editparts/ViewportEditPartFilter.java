@@ -0,0 +1,346 @@
+/**
+ * This program and the accompanying materials
+ * are made available under the terms of the License
+ * which accompanies this distribution in the file LICENSE.txt
+ */
+package com.archimatetool.editor.diagram.editparts;
+
+import java.beans.PropertyChangeListener;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+import org.eclipse.draw2d.IFigure;
+import org.eclipse.draw2d.Viewport;
+import org.eclipse.draw2d.geometry.Dimension;
+import org.eclipse.draw2d.geometry.Rectangle;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.gef.EditPart;
+import org.eclipse.gef.EditPartViewer;
+import org.eclipse.gef.GraphicalEditPart;
+import org.eclipse.swt.widgets.Display;
+
+import com.archimatetool.editor.diagram.figures.DiagramFreeformLayer;
+import com.archimatetool.editor.ui.factory.IGraphicalObjectUIProvider;
+import com.archimatetool.model.IBounds;
+import com.archimatetool.model.IConnectable;
+import com.archimatetool.model.IDiagramModel;
+import com.archimatetool.model.IDiagramModelConnection;
+import com.archimatetool.model.IDiagramModelObject;
+
+
+/**
+ * Viewport Filter for EditParts
+ *
+ * In a large diagram this only lets the diagram create edit parts for the top level objects that are in or near
+ * the visible part of the viewer, and for the connections between them. Objects in a top level object are created with it.
+ * As the viewer is scrolled, resized or zoomed the edit parts of the objects that come into view are created.
+ * Once created they are kept. The area of the objects that have not been created yet is added to the diagram's extent
+ * so that the diagram can still be scrolled to them.
+ *
+ * Objects added to the diagram after it was opened are always created. Code that needs the edit parts of objects
+ * that may not be in view, such as selecting them, can create them with {@link #createEditParts(Collection)}
+ * or {@link #createAllEditParts()}.
+ *
+ * This is only used if the viewer's {@link #PROPERTY_ENABLED} property is true and the diagram has at least {@link #MIN_CHILDREN} top level objects.
+ */
+public class ViewportEditPartFilter implements IChildEditPartFilter, IConnectionEditPartFilter {
+
+    /**
+     * Viewer property to enable this filter. Set it to Boolean.TRUE before the viewer's contents are set.
+     */
+    public static final String PROPERTY_ENABLED = "ViewportEditPartFilter.enabled"; //$NON-NLS-1$
+
+    /**
+     * The least number of top level objects in a diagram to use this filter
+     */
+    static final int MIN_CHILDREN = 500;
+
+    /**
+     * Maximum depth of connections to connections to follow
+     */
+    private static final int MAX_CONNECTION_DEPTH = 8;
+
+    /**
+     * @return true if the filter should be used for diagramPart
+     */
+    static boolean isEnabled(AbstractDiagramPart diagramPart) {
+        EditPartViewer viewer = diagramPart.getViewer();
+
+        return viewer != null && Boolean.TRUE.equals(viewer.getProperty(PROPERTY_ENABLED))
+                && diagramPart.getRoot() instanceof GraphicalEditPart root && root.getFigure() instanceof Viewport
+                && diagramPart.getModel().getChildren().size() >= MIN_CHILDREN;
+    }
+
+    /**
+     * @param viewer The viewer
+     * @return The ViewportEditPartFilter used by the viewer's contents, or null if there isn't one
+     */
+    public static ViewportEditPartFilter getFilter(EditPartViewer viewer) {
+        if(viewer != null && viewer.getContents() instanceof IEditPartFilterProvider provider) {
+            ViewportEditPartFilter[] filters = provider.getEditPartFilters(ViewportEditPartFilter.class);
+            if(filters != null) {
+                return filters[0];
+            }
+        }
+
+        return null;
+    }
+
+    private AbstractDiagramPart fDiagramPart;
+    private IDiagramModel fDiagramModel;
+    private Viewport fViewport;
+
+    /**
+     * Top level objects that don't have edit parts yet
+     */
+    private Set<IDiagramModelObject> fNotCreated;
+
+    private boolean fUpdatePending;
+
+    private PropertyChangeListener rangeListener = event -> scheduleUpdate();
+
+    ViewportEditPartFilter(AbstractDiagramPart diagramPart) {
+        fDiagramPart = diagramPart;
+        fDiagramModel = diagramPart.getModel();
+        fNotCreated = new HashSet<>(fDiagramModel.getChildren());
+
+        // Listen to scrolling, resizing and zooming
+        fViewport = (Viewport)((GraphicalEditPart)diagramPart.getRoot()).getFigure();
+        fViewport.getHorizontalRangeModel().addPropertyChangeListener(rangeListener);
+        fViewport.getVerticalRangeModel().addPropertyChangeListener(rangeListener);
+
+        // The diagram's children haven't been created yet so just leave out the ones in view
+        Rectangle area = getVisibleArea();
+        if(area != null) {
+            fNotCreated.removeIf(dmo -> area.intersects(getBounds(dmo)));
+        }
+
+        // And set the extent of the others when the figures are in place
+        scheduleUpdate();
+    }
+
+    @Override
+    public boolean isChildElementVisible(EditPart parentEditPart, Object childObject) {
+        return parentEditPart != fDiagramPart || !fNotCreated.contains(childObject);
+    }
+
+    @Override
+    public boolean isConnectionVisible(EditPart editPart, IDiagramModelConnection connection) {
+        return fNotCreated.isEmpty() || !isNotCreated(connection, 0);
+    }
+
+    /**
+     * Create the edit parts of objects and connections if they haven't been created yet
+     * @param objects Diagram model objects and connections. Other objects are ignored.
+     */
+    public void createEditParts(Collection<?> objects) {
+        List<IDiagramModelObject> toCreate = new ArrayList<>();
+
+        for(Object object : objects) {
+            if(object instanceof IConnectable connectable) {
+                addTopLevelObjects(connectable, toCreate, 0);
+            }
+        }
+
+        createEditParts(toCreate);
+    }
+
+    /**
+     * Create the edit parts of all objects and connections that haven't been created yet
+     */
+    public void createAllEditParts() {
+        createEditParts(new ArrayList<>(fNotCreated));
+    }
+
+    /**
+     * @return true if all edit parts have been created
+     */
+    boolean isAllCreated() {
+        return fNotCreated.isEmpty();
+    }
+
+    /**
+     * Check the objects in view after the current event, once for all changes until then
+     */
+    void scheduleUpdate() {
+        if(!fUpdatePending && !fNotCreated.isEmpty() && Display.getCurrent() != null) {
+            fUpdatePending = true;
+            Display.getCurrent().asyncExec(() -> {
+                fUpdatePending = false;
+                if(fDiagramPart != null) {
+                    update();
+                }
+            });
+        }
+    }
+
+    /**
+     * Create the edit parts of the objects in and near the visible area and update the extent of the ones that are left
+     */
+    void update() {
+        Rectangle area = getVisibleArea();
+        List<IDiagramModelObject> toCreate = new ArrayList<>();
+        Rectangle notCreatedExtent = null;
+
+        for(Iterator<IDiagramModelObject> iter = fNotCreated.iterator(); iter.hasNext();) {
+            IDiagramModelObject dmo = iter.next();
+
+            // Removed from the diagram
+            if(dmo.eContainer() != fDiagramModel) {
+                iter.remove();
+                continue;
+            }
+
+            Rectangle bounds = getBounds(dmo);
+
+            if(area != null && area.intersects(bounds)) {
+                toCreate.add(dmo);
+            }
+            else if(notCreatedExtent == null) {
+                notCreatedExtent = bounds;
+            }
+            else {
+                notCreatedExtent.union(bounds);
+            }
+        }
+
+        if(fDiagramPart.getFigure() instanceof DiagramFreeformLayer layer) {
+            layer.setExtraExtent(notCreatedExtent);
+        }
+
+        createEditParts(toCreate);
+    }
+
+    void dispose() {
+        fViewport.getHorizontalRangeModel().removePropertyChangeListener(rangeListener);
+        fViewport.getVerticalRangeModel().removePropertyChangeListener(rangeListener);
+        fNotCreated.clear();
+        fDiagramPart = null;
+    }
+
+    private void createEditParts(List<IDiagramModelObject> toCreate) {
+        toCreate.removeIf(dmo -> !fNotCreated.remove(dmo));
+
+        if(toCreate.isEmpty() || fDiagramPart == null) {
+            return;
+        }
+
+        fDiagramPart.refreshChildren();
+
+        // Connections between new edit parts are created with them, but existing edit parts
+        // at the other end of a connection to a new edit part have to add it too
+        Set<IDiagramModelConnection> visited = new HashSet<>();
+        for(IDiagramModelObject dmo : toCreate) {
+            refreshConnections(dmo, visited);
+            for(Iterator<EObject> iter = dmo.eAllContents(); iter.hasNext();) {
+                if(iter.next() instanceof IConnectable connectable) {
+                    refreshConnections(connectable, visited);
+                }
+            }
+        }
+
+        if(fNotCreated.isEmpty()) {
+            if(fDiagramPart.getFigure() instanceof DiagramFreeformLayer layer) {
+                layer.setExtraExtent(null);
+            }
+        }
+    }
+
+    private void refreshConnections(IConnectable connectable, Set<IDiagramModelConnection> visited) {
+        for(IDiagramModelConnection connection : connectable.getSourceConnections()) {
+            refreshConnection(connection, visited);
+        }
+        for(IDiagramModelConnection connection : connectable.getTargetConnections()) {
+            refreshConnection(connection, visited);
+        }
+    }
+
+    private void refreshConnection(IDiagramModelConnection connection, Set<IDiagramModelConnection> visited) {
+        if(!visited.add(connection) || isNotCreated(connection, 0)) {
+            return;
+        }
+
+        refreshConnectionsOf(connection.getSource());
+        refreshConnectionsOf(connection.getTarget());
+
+        // Connections to this connection
+        refreshConnections(connection, visited);
+    }
+
+    private void refreshConnectionsOf(IConnectable connectable) {
+        Object editPart = fDiagramPart.getViewer().getEditPartRegistry().get(connectable);
+
+        if(editPart instanceof AbstractConnectedEditPart part) {
+            part.refreshSourceConnections();
+            part.refreshTargetConnections();
+        }
+        else if(editPart instanceof DiagramConnectionEditPart part) {
+            part.refreshSourceConnections();
+            part.refreshTargetConnections();
+        }
+    }
+
+    /**
+     * @return true if connectable is in, or is a connection to, a top level object that has not been created
+     */
+    private boolean isNotCreated(IConnectable connectable, int depth) {
+        if(connectable instanceof IDiagramModelConnection connection) {
+            return depth < MAX_CONNECTION_DEPTH
+                    && (isNotCreated(connection.getSource(), depth + 1) || isNotCreated(connection.getTarget(), depth + 1));
+        }
+
+        EObject topLevel = getTopLevelObject(connectable);
+        return topLevel != null && fNotCreated.contains(topLevel);
+    }
+
+    private void addTopLevelObjects(IConnectable connectable, List<IDiagramModelObject> list, int depth) {
+        if(connectable instanceof IDiagramModelConnection connection) {
+            if(depth < MAX_CONNECTION_DEPTH) {
+                addTopLevelObjects(connection.getSource(), list, depth + 1);
+                addTopLevelObjects(connection.getTarget(), list, depth + 1);
+            }
+        }
+        else if(getTopLevelObject(connectable) instanceof IDiagramModelObject dmo && fNotCreated.contains(dmo)) {
+            list.add(dmo);
+        }
+    }
+
+    /**
+     * @return The object in the diagram that contains eObject or is eObject, or null if eObject is not in the diagram
+     */
+    private EObject getTopLevelObject(EObject eObject) {
+        while(eObject != null && eObject.eContainer() != fDiagramModel) {
+            eObject = eObject.eContainer();
+        }
+        return eObject;
+    }
+
+    /**
+     * @return The visible area of the viewer and half of its size around it in the coordinates of the diagram, or null if it has no size
+     */
+    private Rectangle getVisibleArea() {
+        Rectangle area = fViewport.getBounds().getCopy();
+        if(area.isEmpty()) {
+            return null;
+        }
+
+        fViewport.translateToAbsolute(area);
+
+        IFigure contentPane = fDiagramPart.getContentPane();
+        contentPane.translateToRelative(area);
+
+        return area.expand(area.width / 2, area.height / 2);
+    }
+
+    private Rectangle getBounds(IDiagramModelObject dmo) {
+        IBounds bounds = dmo.getBounds();
+        Dimension defaultSize = IGraphicalObjectUIProvider.defaultSize();
+        return new Rectangle(bounds.getX(), bounds.getY(),
+                             bounds.getWidth() > 0 ? bounds.getWidth() : defaultSize.width,
+                             bounds.getHeight() > 0 ? bounds.getHeight() : defaultSize.height);
+    }
+}
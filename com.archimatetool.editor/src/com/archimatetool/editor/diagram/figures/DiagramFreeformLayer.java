@@ -0,0 +1,57 @@
+/**
+ * This program and the accompanying materials
+ * are made available under the terms of the License
+ * which accompanies this distribution in the file LICENSE.txt
+ */
+package com.archimatetool.editor.diagram.figures;
+
+import java.util.Objects;
+
+import org.eclipse.draw2d.FreeformLayer;
+import org.eclipse.draw2d.geometry.Rectangle;
+
+
+/**
+ * FreeformLayer for the objects in a diagram.
+ *
+ * An extra extent can be set for objects that don't have a figure yet, so that the diagram can still be scrolled to them.
+ */
+public class DiagramFreeformLayer extends FreeformLayer {
+
+    private Rectangle fExtraExtent;
+
+    /**
+     * Set the area that the freeform extent should also include
+     * @param extent The area in the coordinates of this figure's children, or null for none
+     */
+    public void setExtraExtent(Rectangle extent) {
+        if(Objects.equals(extent, fExtraExtent)) {
+            return;
+        }
+
+        fExtraExtent = extent != null ? extent.getCopy() : null;
+
+        fireExtentChanged();
+        if(getParent() != null) {
+            getParent().revalidate();
+        }
+        else {
+            revalidate();
+        }
+    }
+
+    @Override
+    public Rectangle getFreeformExtent() {
+        Rectangle extent = super.getFreeformExtent();
+
+        if(fExtraExtent == null) {
+            return extent;
+        }
+
+        Rectangle extra = fExtraExtent.getCopy();
+        translateToParent(extra);
+        extra.expand(getInsets());
+
+        return extent.getCopy().union(extra);
+    }
+}
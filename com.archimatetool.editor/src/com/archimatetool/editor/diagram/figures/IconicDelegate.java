@@ -10,9 +10,9 @@ import org.eclipse.swt.SWT;
 import org.eclipse.swt.graphics.Image;
 import org.eclipse.swt.graphics.Rectangle;
 
-import com.archimatetool.editor.Logger;
 import com.archimatetool.editor.model.IArchiveManager;
 import com.archimatetool.editor.ui.ImageFactory;
+import com.archimatetool.editor.ui.ImagePyramid;
 import com.archimatetool.model.IDiagramModelArchimateObject;
 import com.archimatetool.model.IIconic;
 import com.archimatetool.model.IProfile;
@@ -32,7 +32,12 @@ public class IconicDelegate {
     public static final int MAX_IMAGESIZE = -1;
     
     private IIconic fIconic;
-    private Image fImage;
+    
+    /**
+     * Shared image at the original size and at smaller sizes
+     */
+    private ImagePyramid fImagePyramid;
+    
     private int fMaxImageSize = MAX_IMAGESIZE;
     
     /**
@@ -71,25 +76,28 @@ public class IconicDelegate {
         disposeImage();
         
         if(imagePath != null) {
-            try {
-                IArchiveManager archiveManager = (IArchiveManager)fIconic.getAdapter(IArchiveManager.class);
-                if(archiveManager != null) { // fIconic object can be orphaned at this point when importing another model
-                    fImage = archiveManager.createImage(imagePath);
-                }
-            }
-            catch(Exception ex) {
-                ex.printStackTrace();
-                Logger.logError("Could not create image!", ex);
-            }
+            IArchiveManager archiveManager = (IArchiveManager)fIconic.getAdapter(IArchiveManager.class);
+            // fIconic object can be orphaned at this point when importing another model
+            fImagePyramid = ImagePyramid.acquire(archiveManager, imagePath);
         }
     }
     
+    /**
+     * @return The image at its original size, or null. This is shared and should not be disposed.
+     */
     public Image getImage() {
-        return fImage;
+        return fImagePyramid != null ? fImagePyramid.getImage() : null;
+    }
+    
+    /**
+     * @return The bounds of the image at its original size, or null if there is no image
+     */
+    public Rectangle getImageBounds() {
+        return fImagePyramid != null ? fImagePyramid.getBounds() : null;
     }
     
     public boolean hasImage() {
-        return fImage != null;
+        return fImagePyramid != null;
     }
     
     private String getImagePath() {
@@ -166,11 +174,11 @@ public class IconicDelegate {
      * @param drawArea The area to draw the image in (may be the same as figureBounds)
      */
     public void drawIcon(Graphics graphics, org.eclipse.draw2d.geometry.Rectangle figureBounds, org.eclipse.draw2d.geometry.Rectangle drawArea) {
-        if(fImage == null || fIconic == null) {
+        if(fImagePyramid == null || fIconic == null) {
             return;
         }
         
-        Rectangle imageBounds = fImage.getBounds();
+        Rectangle imageBounds = fImagePyramid.getBounds();
         
         // New Image size, possibly scaled
         Rectangle newSize = getImageSize(imageBounds);
@@ -249,20 +257,33 @@ public class IconicDelegate {
             x = figureBounds.x - (newWidth / 2) + (figureBounds.width / 2);
             y = figureBounds.y - (newHeight / 2) + (figureBounds.height / 2);
             
-            graphics.drawImage(fImage, 0, 0, imageBounds.width, imageBounds.height, x, y, newWidth, newHeight);
-        }
-        // Full image size
-        else if(fMaxImageSize == MAX_IMAGESIZE) {
-            graphics.drawImage(fImage, x, y);
+            drawImage(graphics, x, y, newWidth, newHeight);
         }
-        // Scaled image size
+        // Full image size and scaled image size
         else {
-            graphics.drawImage(fImage, 0, 0, imageBounds.width, imageBounds.height, x, y, width, height);
+            drawImage(graphics, x, y, width, height);
         }
         
         graphics.popState();
     }
     
+    /**
+     * Draw the image in the given area using the smallest image that has enough pixels at the current scale
+     */
+    private void drawImage(Graphics graphics, int x, int y, int width, int height) {
+        double scale = graphics.getAbsoluteScale();
+        Image image = fImagePyramid.getImage((int)Math.ceil(width * scale), (int)Math.ceil(height * scale));
+        Rectangle imageBounds = image.getBounds();
+        
+        // Same size
+        if(imageBounds.width == width && imageBounds.height == height) {
+            graphics.drawImage(image, x, y);
+        }
+        else {
+            graphics.drawImage(image, 0, 0, imageBounds.width, imageBounds.height, x, y, width, height);
+        }
+    }
+    
     /**
      * @return the possibly scaled image size or original image size if not scaled
      */
@@ -272,7 +293,7 @@ public class IconicDelegate {
             return imageBounds;
         }
 
-        return ImageFactory.getScaledImageSize(fImage, fMaxImageSize);
+        return ImageFactory.getScaledSize(imageBounds.width, imageBounds.height, fMaxImageSize);
     }
     
     public void dispose() {
@@ -281,9 +302,9 @@ public class IconicDelegate {
     }
     
     private void disposeImage() {
-        if(fImage != null && !fImage.isDisposed()) {
-            fImage.dispose();
-            fImage = null;
+        if(fImagePyramid != null) {
+            fImagePyramid.release();
+            fImagePyramid = null;
         }
     }
 }
@@ -0,0 +1,585 @@
+/**
+ * This program and the accompanying materials
+ * are made available under the terms of the License
+ * which accompanies this distribution in the file LICENSE.txt
+ */
+package com.archimatetool.editor.diagram.figures.connections;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.eclipse.draw2d.AbstractRouter;
+import org.eclipse.draw2d.Connection;
+import org.eclipse.draw2d.ConnectionAnchor;
+import org.eclipse.draw2d.FigureListener;
+import org.eclipse.draw2d.IFigure;
+import org.eclipse.draw2d.LayoutListener;
+import org.eclipse.draw2d.geometry.Point;
+import org.eclipse.draw2d.geometry.PointList;
+import org.eclipse.draw2d.geometry.Rectangle;
+
+import com.archimatetool.editor.diagram.figures.IContainerFigure;
+
+
+
+/**
+ * Connection Router that routes connections with horizontal and vertical lines around the figures in a diagram.
+ *
+ * The bounds of the figures in the container, and in nested containers, are kept in a SpatialIndex so that only
+ * the figures near a connection are looked at when routing it. Each connection's route is cached until its source or target moves,
+ * or until a figure is added, removed or moved near the route. Only the connections near a changed figure are re-routed.
+ *
+ * Connections are not added to the container so are not obstacles, and connections to connections are routed to the connection's reference point.
+ */
+public class OrthogonalConnectionRouter extends AbstractRouter {
+
+    /**
+     * Space kept between a route and the figures it goes around
+     */
+    static final int MARGIN = 10;
+
+    /**
+     * Cost of a bend in the length of a route
+     */
+    static final int BEND_COST = 40;
+
+    /**
+     * A route in container co-ordinates and the bounds of its source and target when it was found
+     */
+    private record Route(Rectangle source, Rectangle target, PointList points) {}
+
+    private IFigure fContainer;
+
+    private SpatialIndex<IFigure> fObstacles = new SpatialIndex<>();
+    private SpatialIndex<Connection> fCorridors = new SpatialIndex<>();
+
+    private Map<Connection, Route> fRoutes = new HashMap<>();
+    private Set<Connection> fConnections = new HashSet<>();
+    private Set<IFigure> fHookedContainers = new HashSet<>();
+
+    private FigureListener fFigureListener = this::updateObstacle;
+
+    private LayoutListener fLayoutListener = new LayoutListener.Stub() {
+        @Override
+        public void setConstraint(IFigure child, Object constraint) {
+            addObstacle(child);
+        }
+
+        @Override
+        public void remove(IFigure child) {
+            removeObstacle(child);
+        }
+    };
+
+    /**
+     * @param container The figure containing the figures that connections are routed around
+     */
+    public OrthogonalConnectionRouter(IFigure container) {
+        fContainer = container;
+    }
+
+    @Override
+    public void route(Connection conn) {
+        // Start tracking the figures when the first connection is routed
+        if(fConnections.isEmpty()) {
+            hookContainer(fContainer);
+        }
+        fConnections.add(conn);
+
+        Rectangle source = getEndBounds(conn.getSourceAnchor());
+        Rectangle target = getEndBounds(conn.getTargetAnchor());
+
+        Route route = fRoutes.get(conn);
+
+        if(route == null || !route.source().equals(source) || !route.target().equals(target)) {
+            route = new Route(source, target, findRoute(conn, source, target));
+            fRoutes.put(conn, route);
+            fCorridors.put(conn, getCorridors(route.points()));
+        }
+
+        PointList points = route.points().getCopy();
+        fContainer.translateToAbsolute(points);
+        conn.translateToRelative(points);
+        conn.setPoints(points);
+    }
+
+    @Override
+    public void remove(Connection conn) {
+        fRoutes.remove(conn);
+        fCorridors.remove(conn);
+
+        if(fConnections.remove(conn) && fConnections.isEmpty()) {
+            unhookAll();
+        }
+    }
+
+    /**
+     * @return The cached route of conn in container co-ordinates, or null
+     */
+    PointList getCachedRoute(Connection conn) {
+        Route route = fRoutes.get(conn);
+        return route != null ? route.points() : null;
+    }
+
+    // ============================== Obstacles ==============================
+
+    private void hookContainer(IFigure container) {
+        if(fHookedContainers.add(container)) {
+            container.addLayoutListener(fLayoutListener);
+
+            for(Object child : container.getChildren()) {
+                addObstacle((IFigure)child);
+            }
+        }
+    }
+
+    private void unhookContainer(IFigure container) {
+        if(fHookedContainers.remove(container)) {
+            container.removeLayoutListener(fLayoutListener);
+
+            for(Object child : container.getChildren()) {
+                removeObstacle((IFigure)child);
+            }
+        }
+    }
+
+    private void unhookAll() {
+        for(IFigure container : fHookedContainers) {
+            container.removeLayoutListener(fLayoutListener);
+        }
+
+        for(IFigure figure : fObstacles.getItems()) {
+            figure.removeFigureListener(fFigureListener);
+        }
+
+        fHookedContainers.clear();
+        fObstacles.clear();
+        fCorridors.clear();
+        fRoutes.clear();
+    }
+
+    private void addObstacle(IFigure figure) {
+        // setConstraint() is also called when a figure is moved
+        if(fObstacles.contains(figure)) {
+            return;
+        }
+
+        Rectangle bounds = getBounds(figure);
+        fObstacles.put(figure, bounds);
+        figure.addFigureListener(fFigureListener);
+        invalidateRoutes(bounds);
+
+        if(figure instanceof IContainerFigure containerFigure) {
+            hookContainer(containerFigure.getContentPane());
+        }
+    }
+
+    private void removeObstacle(IFigure figure) {
+        List<Rectangle> areas = fObstacles.getAreas(figure);
+
+        if(fObstacles.remove(figure)) {
+            figure.removeFigureListener(fFigureListener);
+            invalidateRoutes(areas.get(0));
+
+            if(figure instanceof IContainerFigure containerFigure) {
+                unhookContainer(containerFigure.getContentPane());
+            }
+        }
+    }
+
+    /**
+     * A figure moved or was resized
+     */
+    private void updateObstacle(IFigure figure) {
+        List<Rectangle> areas = fObstacles.getAreas(figure);
+        if(areas.isEmpty()) {
+            return;
+        }
+
+        Rectangle oldBounds = areas.get(0);
+        Rectangle newBounds = getBounds(figure);
+        if(newBounds.equals(oldBounds)) {
+            return;
+        }
+
+        fObstacles.put(figure, newBounds);
+        invalidateRoutes(oldBounds);
+        invalidateRoutes(newBounds);
+
+        // Child figures use local co-ordinates so they don't send their own notification when their parent moves
+        if(figure instanceof IContainerFigure containerFigure) {
+            for(Object child : containerFigure.getContentPane().getChildren()) {
+                updateObstacle((IFigure)child);
+            }
+        }
+    }
+
+    /**
+     * Throw away the routes that pass near area and re-route their connections
+     */
+    private void invalidateRoutes(Rectangle area) {
+        for(Connection conn : fCorridors.query(area.getExpanded(MARGIN, MARGIN))) {
+            fRoutes.remove(conn);
+            fCorridors.remove(conn);
+            conn.revalidate();
+        }
+    }
+
+    /**
+     * @return The bounds of figure in container co-ordinates
+     */
+    private Rectangle getBounds(IFigure figure) {
+        Rectangle bounds = figure.getBounds().getCopy();
+        figure.translateToAbsolute(bounds);
+        fContainer.translateToRelative(bounds);
+        return bounds;
+    }
+
+    /**
+     * @return The bounds of the owner of anchor in container co-ordinates, or its reference point if its owner is a connection
+     */
+    private Rectangle getEndBounds(ConnectionAnchor anchor) {
+        IFigure owner = anchor.getOwner();
+
+        if(owner == null || owner instanceof Connection) {
+            Point point = anchor.getReferencePoint().getCopy();
+            fContainer.translateToRelative(point);
+            return new Rectangle(point.x, point.y, 0, 0);
+        }
+
+        return getBounds(owner);
+    }
+
+    /**
+     * @return Areas around each segment of a route
+     */
+    private List<Rectangle> getCorridors(PointList points) {
+        List<Rectangle> corridors = new ArrayList<>(points.size() - 1);
+
+        for(int i = 0; i < points.size() - 1; i++) {
+            Point p1 = points.getPoint(i);
+            Point p2 = points.getPoint(i + 1);
+            corridors.add(new Rectangle(p1, p2).expand(MARGIN, MARGIN));
+        }
+
+        return corridors;
+    }
+
+    // ============================== Routing ==============================
+
+    /**
+     * @return A route in container co-ordinates
+     */
+    private PointList findRoute(Connection conn, Rectangle source, Rectangle target) {
+        // Nested or overlapping ends are connected directly
+        if(!overlaps(source, target)) {
+            Rectangle area = source.getUnion(target).expand(MARGIN * 4, MARGIN * 4);
+
+            // If there is no route close to the ends try again in a larger area that takes in the figures in the way
+            for(int i = 0; i < 2; i++) {
+                List<Rectangle> obstacles = getObstacles(area, source, target);
+
+                PointList points = findRoute(conn, source, target, obstacles, area);
+                if(points != null) {
+                    return points;
+                }
+
+                for(Rectangle obstacle : obstacles) {
+                    area.union(obstacle.getExpanded(MARGIN * 2, MARGIN * 2));
+                }
+            }
+        }
+
+        return getDirectRoute(conn);
+    }
+
+    /**
+     * @return The bounds of the figures in area except for the source and target, the figures that contain them and the figures inside them
+     */
+    private List<Rectangle> getObstacles(Rectangle area, Rectangle source, Rectangle target) {
+        List<Rectangle> obstacles = new ArrayList<>();
+
+        for(IFigure figure : fObstacles.query(area)) {
+            Rectangle bounds = fObstacles.getAreas(figure).get(0);
+            if(!bounds.contains(source) && !bounds.contains(target) && !source.contains(bounds) && !target.contains(bounds)) {
+                obstacles.add(bounds);
+            }
+        }
+
+        return obstacles;
+    }
+
+    /**
+     * Find the shortest route with the fewest bends from the centre of source to the centre of target along the grid of lines
+     * that run beside the obstacles, and then trim it to where it leaves the source and enters the target.
+     *
+     * @return The route or null if there is no route inside area
+     */
+    private PointList findRoute(Connection conn, Rectangle source, Rectangle target, List<Rectangle> obstacles, Rectangle area) {
+        Point start = source.getCenter();
+        Point end = target.getCenter();
+
+        int[] xs = getGridLines(area.x, area.right(), start.x, end.x, obstacles, true);
+        int[] ys = getGridLines(area.y, area.bottom(), start.y, end.y, obstacles, false);
+        int nx = xs.length;
+        int ny = ys.length;
+
+        // Grid points inside obstacles, and the lines from each grid point to the next one on the right and below that cross obstacles
+        boolean[] blocked = new boolean[nx * ny];
+        boolean[] blockedRight = new boolean[nx * ny];
+        boolean[] blockedDown = new boolean[nx * ny];
+
+        for(Rectangle obstacle : obstacles) {
+            int left = obstacle.x - MARGIN;
+            int right = obstacle.right() + MARGIN;
+            int top = obstacle.y - MARGIN;
+            int bottom = obstacle.bottom() + MARGIN;
+
+            // Only look at the grid lines between the obstacle's edges
+            int iTo = firstAfter(xs, right);
+            int jFrom = firstAtOrAfter(ys, top);
+            int jTo = firstAfter(ys, bottom);
+
+            for(int i = firstAtOrAfter(xs, left); i < iTo; i++) {
+                boolean insideX = xs[i] > left && xs[i] < right;
+                boolean insideRight = i < nx - 1 && xs[i] + xs[i + 1] > left * 2 && xs[i] + xs[i + 1] < right * 2;
+
+                for(int j = jFrom; j < jTo; j++) {
+                    boolean insideY = ys[j] > top && ys[j] < bottom;
+                    boolean insideDown = j < ny - 1 && ys[j] + ys[j + 1] > top * 2 && ys[j] + ys[j + 1] < bottom * 2;
+
+                    int node = i * ny + j;
+                    blocked[node] |= insideX && insideY;
+                    blockedRight[node] |= insideRight && insideY;
+                    blockedDown[node] |= insideX && insideDown;
+                }
+            }
+        }
+
+        int startNode = Arrays.binarySearch(xs, start.x) * ny + Arrays.binarySearch(ys, start.y);
+        int endNode = Arrays.binarySearch(xs, end.x) * ny + Arrays.binarySearch(ys, end.y);
+
+        if(blocked[startNode] || blocked[endNode]) {
+            return null;
+        }
+
+        // A* search over the grid points and the direction they were reached in (right, left, down, up).
+        // Queue entries are the estimated total cost, the state and the cost so far.
+        int[] costs = new int[nx * ny * 4];
+        int[] previous = new int[nx * ny * 4];
+        Arrays.fill(costs, Integer.MAX_VALUE);
+        Arrays.fill(previous, -1);
+
+        PriorityQueue<int[]> queue = new PriorityQueue<>((a, b) -> Integer.compare(a[0], b[0]));
+
+        for(int direction = 0; direction < 4; direction++) {
+            costs[startNode * 4 + direction] = 0;
+            queue.add(new int[] { 0, startNode * 4 + direction, 0 });
+        }
+
+        int goal = -1;
+
+        while(!queue.isEmpty()) {
+            int[] entry = queue.poll();
+            int state = entry[1];
+            int cost = entry[2];
+
+            if(cost > costs[state]) {
+                continue;
+            }
+
+            int node = state / 4;
+            if(node == endNode) {
+                goal = state;
+                break;
+            }
+
+            int i = node / ny;
+            int j = node % ny;
+
+            for(int direction = 0; direction < 4; direction++) {
+                // Don't go back
+                if(direction == ((state % 4) ^ 1)) {
+                    continue;
+                }
+
+                int next = switch(direction) {
+                    case 0 -> i < nx - 1 && !blockedRight[node] ? node + ny : -1;
+                    case 1 -> i > 0 && !blockedRight[node - ny] ? node - ny : -1;
+                    case 2 -> j < ny - 1 && !blockedDown[node] ? node + 1 : -1;
+                    default -> j > 0 && !blockedDown[node - 1] ? node - 1 : -1;
+                };
+
+                if(next == -1 || blocked[next]) {
+                    continue;
+                }
+
+                int x = xs[next / ny];
+                int y = ys[next % ny];
+                int nextCost = cost + Math.abs(x - xs[i]) + Math.abs(y - ys[j]) + (direction != state % 4 ? BEND_COST : 0);
+                int nextState = next * 4 + direction;
+
+                if(nextCost < costs[nextState]) {
+                    costs[nextState] = nextCost;
+                    previous[nextState] = state;
+                    // The distance left is never more than the cost of the rest of the route
+                    queue.add(new int[] { nextCost + Math.abs(end.x - x) + Math.abs(end.y - y), nextState, nextCost });
+                }
+            }
+        }
+
+        if(goal == -1) {
+            return null;
+        }
+
+        // Points where the route bends, from the end back to the start
+        List<Point> bends = new ArrayList<>();
+        int lastDirection = -1;
+
+        for(int state = goal; state != -1; state = previous[state]) {
+            int node = state / 4;
+            if(state % 4 != lastDirection || previous[state] == -1) {
+                bends.add(new Point(xs[node / ny], ys[node % ny]));
+                lastDirection = state % 4;
+            }
+        }
+
+        List<Point> points = new ArrayList<>(bends);
+        Collections.reverse(points);
+
+        // Start where the route leaves the source
+        int first = 0;
+        while(first < points.size() - 2 && isInside(source, points.get(first + 1))) {
+            first++;
+        }
+
+        // End where the route enters the target
+        int last = points.size() - 1;
+        while(last > first + 1 && isInside(target, points.get(last - 1))) {
+            last--;
+        }
+
+        PointList result = new PointList();
+        addPoint(result, getEdgePoint(conn.getSourceAnchor(), source, points.get(first), points.get(first + 1)));
+        for(int i = first + 1; i < last; i++) {
+            addPoint(result, points.get(i));
+        }
+        addPoint(result, getEdgePoint(conn.getTargetAnchor(), target, points.get(last), points.get(last - 1)));
+
+        return result;
+    }
+
+    /**
+     * Add point unless it is the same as the last point, which happens when a bend is on the edge of an end
+     */
+    private void addPoint(PointList points, Point point) {
+        if(points.size() == 0 || !points.getLastPoint().equals(point)) {
+            points.addPoint(point);
+        }
+    }
+
+    /**
+     * @return The grid lines across one axis: the edges of area, the centres of the ends and the lines beside each obstacle
+     */
+    private int[] getGridLines(int min, int max, int start, int end, List<Rectangle> obstacles, boolean vertical) {
+        Set<Integer> lines = new TreeSet<>(List.of(min, max, start, end));
+
+        for(Rectangle obstacle : obstacles) {
+            int before = (vertical ? obstacle.x : obstacle.y) - MARGIN;
+            int after = (vertical ? obstacle.right() : obstacle.bottom()) + MARGIN;
+
+            if(before > min && before < max) {
+                lines.add(before);
+            }
+            if(after > min && after < max) {
+                lines.add(after);
+            }
+        }
+
+        return lines.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * @return The index of the first value in the sorted array that is not less than value
+     */
+    private int firstAtOrAfter(int[] values, int value) {
+        int index = Arrays.binarySearch(values, value);
+        return index >= 0 ? index : -index - 1;
+    }
+
+    /**
+     * @return The index of the first value in the sorted array that is greater than value
+     */
+    private int firstAfter(int[] values, int value) {
+        int index = Arrays.binarySearch(values, value);
+        return index >= 0 ? index + 1 : -index - 1;
+    }
+
+    /**
+     * @return The point where the line from inside to outside crosses the edge of the end's bounds.
+     *         If the line starts at the centre the anchor is used so that the line meets the figure's outline
+     */
+    private Point getEdgePoint(ConnectionAnchor anchor, Rectangle bounds, Point inside, Point outside) {
+        if(bounds.isEmpty()) {
+            return inside;
+        }
+
+        boolean horizontal = inside.y == outside.y;
+
+        if(inside.equals(bounds.getCenter())) {
+            Point reference = outside.getCopy();
+            fContainer.translateToAbsolute(reference);
+            Point location = anchor.getLocation(reference).getCopy();
+            fContainer.translateToRelative(location);
+
+            // Allow for rounding
+            if(horizontal && Math.abs(location.y - inside.y) <= 1) {
+                return new Point(location.x, inside.y);
+            }
+            if(!horizontal && Math.abs(location.x - inside.x) <= 1) {
+                return new Point(inside.x, location.y);
+            }
+        }
+
+        if(horizontal) {
+            return new Point(outside.x > inside.x ? bounds.right() : bounds.x, inside.y);
+        }
+
+        return new Point(inside.x, outside.y > inside.y ? bounds.bottom() : bounds.y);
+    }
+
+    /**
+     * @return A straight line between the anchors in container co-ordinates
+     */
+    private PointList getDirectRoute(Connection conn) {
+        Point start = conn.getSourceAnchor().getLocation(conn.getTargetAnchor().getReferencePoint()).getCopy();
+        Point end = conn.getTargetAnchor().getLocation(conn.getSourceAnchor().getReferencePoint()).getCopy();
+
+        fContainer.translateToRelative(start);
+        fContainer.translateToRelative(end);
+
+        PointList points = new PointList();
+        points.addPoint(start);
+        points.addPoint(end);
+        return points;
+    }
+
+    private boolean isInside(Rectangle r, Point p) {
+        return p.x > r.x && p.x < r.right() && p.y > r.y && p.y < r.bottom();
+    }
+
+    /**
+     * Like Rectangle#intersects() but also true for touching or empty rectangles
+     */
+    private boolean overlaps(Rectangle r1, Rectangle r2) {
+        return r1.x <= r2.right() && r2.x <= r1.right() && r1.y <= r2.bottom() && r2.y <= r1.bottom();
+    }
+}
@@ -0,0 +1,174 @@
+/**
+ * This program and the accompanying materials
+ * are made available under the terms of the License
+ * which accompanies this distribution in the file LICENSE.txt
+ */
+package com.archimatetool.editor.diagram.figures.connections;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.draw2d.geometry.Rectangle;
+
+
+
+/**
+ * Index of items by their rectangular areas so that the items in an area can be found without testing all of them.
+ *
+ * The plane is divided into square cells and each item is kept in the cells that its areas cover.
+ * An item can have more than one area, for example one for each segment of a connection.
+ */
+public class SpatialIndex<T> {
+
+    /**
+     * Default size of a cell
+     */
+    public static final int DEFAULT_CELL_SIZE = 128;
+
+    private int fCellSize;
+
+    private Map<Long, List<T>> fCells = new HashMap<>();
+    private Map<T, List<Rectangle>> fAreas = new HashMap<>();
+
+    public SpatialIndex() {
+        this(DEFAULT_CELL_SIZE);
+    }
+
+    public SpatialIndex(int cellSize) {
+        fCellSize = cellSize;
+    }
+
+    /**
+     * Put item in the index with one or more areas, replacing any areas it already has
+     */
+    public void put(T item, Rectangle... areas) {
+        put(item, List.of(areas));
+    }
+
+    /**
+     * Put item in the index with one or more areas, replacing any areas it already has
+     */
+    public void put(T item, List<Rectangle> areas) {
+        remove(item);
+
+        List<Rectangle> copies = new ArrayList<>(areas.size());
+
+        for(Rectangle area : areas) {
+            Rectangle copy = area.getCopy();
+            copies.add(copy);
+
+            forEachCell(copy, key -> {
+                List<T> items = fCells.computeIfAbsent(key, k -> new ArrayList<>(4));
+                if(!items.contains(item)) {
+                    items.add(item);
+                }
+            });
+        }
+
+        fAreas.put(item, copies);
+    }
+
+    /**
+     * Remove item from the index
+     * @return true if item was in the index
+     */
+    public boolean remove(T item) {
+        List<Rectangle> areas = fAreas.remove(item);
+        if(areas == null) {
+            return false;
+        }
+
+        for(Rectangle area : areas) {
+            forEachCell(area, key -> {
+                List<T> items = fCells.get(key);
+                if(items != null) {
+                    items.remove(item);
+                    if(items.isEmpty()) {
+                        fCells.remove(key);
+                    }
+                }
+            });
+        }
+
+        return true;
+    }
+
+    /**
+     * @return true if item is in the index
+     */
+    public boolean contains(T item) {
+        return fAreas.containsKey(item);
+    }
+
+    /**
+     * @return The areas of item, or an empty list if item is not in the index
+     */
+    public List<Rectangle> getAreas(T item) {
+        return fAreas.getOrDefault(item, List.of());
+    }
+
+    /**
+     * @return The items that have an area intersecting area
+     */
+    public Set<T> query(Rectangle area) {
+        Set<T> result = new LinkedHashSet<>();
+
+        forEachCell(area, key -> {
+            List<T> items = fCells.get(key);
+            if(items != null) {
+                for(T item : items) {
+                    if(!result.contains(item) && intersects(item, area)) {
+                        result.add(item);
+                    }
+                }
+            }
+        });
+
+        return result;
+    }
+
+    /**
+     * @return All items in the index
+     */
+    public Set<T> getItems() {
+        return fAreas.keySet();
+    }
+
+    /**
+     * Remove all items
+     */
+    public void clear() {
+        fCells.clear();
+        fAreas.clear();
+    }
+
+    private boolean intersects(T item, Rectangle area) {
+        for(Rectangle itemArea : fAreas.get(item)) {
+            if(itemArea.intersects(area)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private interface CellVisitor {
+        void visit(long key);
+    }
+
+    private void forEachCell(Rectangle area, CellVisitor visitor) {
+        int x1 = Math.floorDiv(area.x, fCellSize);
+        int y1 = Math.floorDiv(area.y, fCellSize);
+        int x2 = Math.floorDiv(area.right(), fCellSize);
+        int y2 = Math.floorDiv(area.bottom(), fCellSize);
+
+        for(int x = x1; x <= x2; x++) {
+            for(int y = y1; y <= y2; y++) {
+                visitor.visit(((long)x << 32) | (y & 0xFFFFFFFFL));
+            }
+        }
+    }
+}
@@ -22,6 +22,7 @@ import com.archimatetool.editor.preferences.IPreferenceConstants;
 import com.archimatetool.editor.ui.ColorFactory;
 import com.archimatetool.editor.ui.IArchiImages;
 import com.archimatetool.editor.ui.ImageFactory;
+import com.archimatetool.editor.ui.ImagePyramid;
 import com.archimatetool.model.IDiagramModelImage;
 import com.archimatetool.model.IDiagramModelObject;
 
@@ -33,7 +34,16 @@ import com.archimatetool.model.IDiagramModelObject;
  */
 public class DiagramImageFigure extends AbstractDiagramModelObjectFigure {
     
+    /**
+     * Shared image at the original size and at smaller sizes
+     */
+    private ImagePyramid fImagePyramid;
+    
+    /**
+     * Image rescaled to the figure size if using scaled images
+     */
     private Image fImage;
+    
     private Dimension fOriginalImageSize, fCurrentImageSize;
     
     private Color fBorderColor;
@@ -111,7 +121,7 @@ public class DiagramImageFigure extends AbstractDiagramModelObjectFigure {
             setLineStyle(graphics);
         }
         
-        if(fImage != null) {
+        if(fImagePyramid != null) {
             // Faster but no transparency
             if(useScaledImage) {
                 rescaleImage();
@@ -120,9 +130,11 @@ public class DiagramImageFigure extends AbstractDiagramModelObjectFigure {
                 graphics.drawImage(fImage, bounds.x, bounds.y);
                 graphics.popState();
             }
-            // This is slower
+            // This is slower, but use the smallest image that has enough pixels at the current scale
             else {
-                graphics.drawImage(fImage, 0, 0, fImage.getBounds().width, fImage.getBounds().height,
+                double scale = graphics.getAbsoluteScale();
+                Image image = fImagePyramid.getImage((int)Math.ceil(bounds.width * scale), (int)Math.ceil(bounds.height * scale));
+                graphics.drawImage(image, 0, 0, image.getBounds().width, image.getBounds().height,
                         bounds.x, bounds.y, bounds.width, bounds.height);
             }
         }
@@ -148,34 +160,26 @@ public class DiagramImageFigure extends AbstractDiagramModelObjectFigure {
      */
     protected void setImage() {
         disposeImage();
+        releaseImagePyramid();
         
-        fImage = getOriginalImage();
+        IArchiveManager archiveManager = (IArchiveManager)getDiagramModelObject().getAdapter(IArchiveManager.class);
+        fImagePyramid = ImagePyramid.acquire(archiveManager, getDiagramModelObject().getImagePath());
         
-        if(fImage != null) {
-            fOriginalImageSize = new Dimension(fImage);
-            fCurrentImageSize = new Dimension(fOriginalImageSize);
+        if(fImagePyramid != null) {
+            fOriginalImageSize = new Dimension(fImagePyramid.getBounds().width, fImagePyramid.getBounds().height);
         }
         else {
             fOriginalImageSize = null;
         }
+        
+        fCurrentImageSize = null;
     }
     
-    protected Image getOriginalImage() {
-        Image image = null;
-        
-        String imagePath = getDiagramModelObject().getImagePath();
-        
-        if(imagePath != null) {
-            IArchiveManager archiveManager = (IArchiveManager)getDiagramModelObject().getAdapter(IArchiveManager.class);
-            try {
-                image = archiveManager.createImage(imagePath);
-            }
-            catch(Exception ex) {
-                ex.printStackTrace();
-            }
-        }
-        
-        return image;
+    /**
+     * @return The shared images of the image, or null if there is no image
+     */
+    protected ImagePyramid getImagePyramid() {
+        return fImagePyramid;
     }
     
     /**
@@ -190,21 +194,11 @@ public class DiagramImageFigure extends AbstractDiagramModelObjectFigure {
         }
         
         // If the image bounds are different to those in the current image, rescale the image
-        if(width != fCurrentImageSize.width || height != fCurrentImageSize.height) {
+        if(fImage == null || width != fCurrentImageSize.width || height != fCurrentImageSize.height) {
             disposeImage();
             
-            Image originalImage = getOriginalImage();
-            
-            // Use original image
-            if(width == originalImage.getBounds().width && height == originalImage.getBounds().height) {
-                fImage = originalImage;
-            }
-            // Scaled image
-            else {
-                fImage = ImageFactory.getScaledImage(originalImage, width, height);
-                originalImage.dispose();
-            }
-
+            // Scale from the smallest image that is at least this size rather than the original image
+            fImage = ImageFactory.getScaledImage(fImagePyramid.getImage(width, height), width, height);
             fCurrentImageSize = new Dimension(fImage);
         }
     }
@@ -216,6 +210,13 @@ public class DiagramImageFigure extends AbstractDiagramModelObjectFigure {
         }
     }
     
+    private void releaseImagePyramid() {
+        if(fImagePyramid != null) {
+            fImagePyramid.release();
+            fImagePyramid = null;
+        }
+    }
+    
     @Override
     public IFigure getTextControl() {
         return null;
@@ -224,6 +225,7 @@ public class DiagramImageFigure extends AbstractDiagramModelObjectFigure {
     @Override
     public void dispose() {
         disposeImage();
+        releaseImagePyramid();
         fBorderColor = null;
     }
 }
@@ -33,6 +33,7 @@ import com.archimatetool.model.IDiagramModelConnection;
 import com.archimatetool.model.IDiagramModelContainer;
 import com.archimatetool.model.IDiagramModelObject;
 import com.archimatetool.model.IDiagramModelReference;
+import com.archimatetool.model.util.DiagramReferencesIndex;
 
 
 
@@ -64,6 +65,7 @@ public class DiagramModelUtils {
 
     /**
      * Determine if a given Archimate concept is currently referenced in any diagram models.
+     * This is answered from the model's DiagramReferencesIndex and doesn't check the concept's referencing diagram components.
      * @param archimateConcept The concept to check on.
      * @return true if archimateComponent is referenced in a node or connection in any diagram model
      */
@@ -72,7 +74,7 @@ public class DiagramModelUtils {
             return false;
         }
         
-        return !archimateConcept.getReferencingDiagramComponents().isEmpty();
+        return DiagramReferencesIndex.getIndex(archimateConcept.getArchimateModel()).isReferenced(archimateConcept);
     }
 
 
@@ -0,0 +1,161 @@
+/**
+ * This program and the accompanying materials
+ * are made available under the terms of the License
+ * which accompanies this distribution in the file LICENSE.txt
+ */
+package com.archimatetool.editor.model.commands;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.emf.ecore.EAttribute;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.eclipse.gef.commands.Command;
+
+import com.archimatetool.model.IArchimateModel;
+
+
+/**
+ * Estimates the memory that a command keeps that would otherwise be free.
+ *
+ * Model objects that are still in a model are kept by the model anyway, so only objects that are no longer in a model,
+ * such as the objects removed by a delete command, are counted, together with the whole of their contents.
+ * Strings held by the command, such as the old and new values of a feature, are counted too.
+ * The fields of commands are found with reflection, and commands held by a command, such as the commands in
+ * a CompoundCommand, are counted as part of it.
+ */
+public class CommandSizeEstimator {
+
+    /**
+     * Estimated bytes for an EObject not counting its Strings
+     */
+    static final int EOBJECT_BYTES = 160;
+
+    /**
+     * Estimated bytes for a String not counting its characters
+     */
+    static final int STRING_BYTES = 40;
+
+    /**
+     * Estimated bytes for a command not counting what it holds
+     */
+    static final int COMMAND_BYTES = 64;
+
+    private static ClassValue<List<Field>> fields = new ClassValue<>() {
+        @Override
+        protected List<Field> computeValue(Class<?> type) {
+            List<Field> list = new ArrayList<>();
+
+            for(Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+                for(Field field : c.getDeclaredFields()) {
+                    if(!Modifier.isStatic(field.getModifiers()) && !field.getType().isPrimitive()) {
+                        try {
+                            field.setAccessible(true);
+                            list.add(field);
+                        }
+                        catch(RuntimeException ex) {
+                            // Can't be read so don't count it
+                        }
+                    }
+                }
+            }
+
+            return list;
+        }
+    };
+
+    private Set<Object> fVisited = Collections.newSetFromMap(new IdentityHashMap<>());
+    private long fSize;
+
+    /**
+     * @param command The command
+     * @return The estimated number of bytes that command keeps that would otherwise be free
+     */
+    public static long estimateSize(Command command) {
+        CommandSizeEstimator estimator = new CommandSizeEstimator();
+        estimator.add(command);
+        return estimator.fSize;
+    }
+
+    private CommandSizeEstimator() {
+    }
+
+    private void add(Object value) {
+        if(value == null || !fVisited.add(value)) {
+            return;
+        }
+
+        if(value instanceof String s) {
+            fSize += STRING_BYTES + s.length();
+        }
+        else if(value instanceof EObject eObject) {
+            addEObject(eObject);
+        }
+        else if(value instanceof Command command) {
+            addCommand(command);
+        }
+        else if(value instanceof Collection<?> collection) {
+            for(Object o : collection) {
+                add(o);
+            }
+        }
+        else if(value instanceof Map<?, ?> map) {
+            for(Map.Entry<?, ?> entry : map.entrySet()) {
+                add(entry.getKey());
+                add(entry.getValue());
+            }
+        }
+        else if(value instanceof Object[] array) {
+            for(Object o : array) {
+                add(o);
+            }
+        }
+    }
+
+    private void addCommand(Command command) {
+        fSize += COMMAND_BYTES;
+
+        for(Field field : fields.get(command.getClass())) {
+            try {
+                add(field.get(command));
+            }
+            catch(IllegalAccessException ex) {
+                // Can't be read so don't count it
+            }
+        }
+    }
+
+    private void addEObject(EObject eObject) {
+        // Count the whole of an object that is not in a model, once
+        EObject root = EcoreUtil.getRootContainer(eObject);
+        if(root instanceof IArchimateModel || (root != eObject && !fVisited.add(root))) {
+            return;
+        }
+
+        addEObjectSize(root);
+        for(Iterator<EObject> iter = root.eAllContents(); iter.hasNext();) {
+            EObject child = iter.next();
+            fVisited.add(child);
+            addEObjectSize(child);
+        }
+    }
+
+    private void addEObjectSize(EObject eObject) {
+        fSize += EOBJECT_BYTES;
+
+        for(EAttribute attribute : eObject.eClass().getEAllAttributes()) {
+            if(!attribute.isMany() && eObject.eIsSet(attribute) && eObject.eGet(attribute) instanceof String s) {
+                fSize += STRING_BYTES + s.length();
+            }
+        }
+    }
+}
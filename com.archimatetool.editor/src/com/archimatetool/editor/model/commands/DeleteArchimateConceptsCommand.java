@@ -0,0 +1,234 @@
+/**
+ * This program and the accompanying materials
+ * are made available under the terms of the License
+ * which accompanies this distribution in the file LICENSE.txt
+ */
+package com.archimatetool.editor.model.commands;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.emf.common.notify.Notification;
+import org.eclipse.emf.common.notify.NotificationChain;
+import org.eclipse.emf.common.util.BasicEList;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.InternalEObject;
+import org.eclipse.emf.ecore.impl.ENotificationImpl;
+import org.eclipse.gef.commands.Command;
+
+import com.archimatetool.editor.ui.ArchiLabelProvider;
+import com.archimatetool.model.IArchimateConcept;
+import com.archimatetool.model.IArchimatePackage;
+import com.archimatetool.model.IArchimateRelationship;
+import com.archimatetool.model.IFolder;
+
+
+
+/**
+ * Delete many Archimate Elements and Relationships in one Command
+ *
+ * The concepts are grouped by parent folder and each folder's elements list is rebuilt in one pass over its underlying array,
+ * rather than removing each concept and shifting the rest of the array each time.
+ * Listeners then get one REMOVE_MANY notification per folder instead of one REMOVE notification per concept.
+ * Undo rebuilds the list with the concepts back at their original positions in one pass
+ * and sends one ADD_MANY notification per run of adjacent positions.
+ *
+ * This has the same effect as using a DeleteArchimateElementCommand or DeleteArchimateRelationshipCommand for each concept.
+ */
+public class DeleteArchimateConceptsCommand extends Command {
+
+    private List<IArchimateConcept> fConcepts;
+
+    /**
+     * What was removed from each folder, in the order of removal
+     */
+    private List<FolderRemoval> fRemovals;
+
+    /**
+     * The concepts removed from one folder and their former positions in ascending order
+     */
+    private static class FolderRemoval {
+        IFolder folder;
+        int[] indexes;
+        EObject[] objects;
+    }
+
+    public DeleteArchimateConceptsCommand(Collection<? extends IArchimateConcept> concepts) {
+        fConcepts = new ArrayList<>(concepts);
+
+        if(fConcepts.size() == 1) {
+            setLabel(Messages.DeleteElementCommand_0 + " " + ArchiLabelProvider.INSTANCE.getLabel(fConcepts.get(0))); //$NON-NLS-1$
+        }
+        else {
+            setLabel(Messages.DeleteArchimateConceptsCommand_0);
+        }
+    }
+
+    @Override
+    public void execute() {
+        fRemovals = new ArrayList<>();
+
+        // Group by parent folder at the time of execution because the folders might have changed since this command was created
+        Map<IFolder, Set<EObject>> folders = new LinkedHashMap<>();
+        for(IArchimateConcept concept : fConcepts) {
+            if(concept.eContainer() instanceof IFolder folder) { // might be already be deleted
+                folders.computeIfAbsent(folder, f -> Collections.newSetFromMap(new IdentityHashMap<>())).add(concept);
+            }
+        }
+
+        for(Map.Entry<IFolder, Set<EObject>> entry : folders.entrySet()) {
+            fRemovals.add(remove(entry.getKey(), entry.getValue()));
+        }
+
+        // Disconnect source/target references
+        for(IArchimateConcept concept : fConcepts) {
+            if(concept instanceof IArchimateRelationship relationship) {
+                relationship.disconnect();
+            }
+        }
+    }
+
+    @Override
+    public void undo() {
+        // Add back in reverse order of removal
+        for(int i = fRemovals.size() - 1; i >= 0; i--) {
+            add(fRemovals.get(i));
+        }
+
+        // Reconnect source/target references
+        for(IArchimateConcept concept : fConcepts) {
+            if(concept instanceof IArchimateRelationship relationship) {
+                relationship.reconnect();
+            }
+        }
+    }
+
+    /**
+     * Remove objects from the folder's elements in one pass and send one notification
+     */
+    private FolderRemoval remove(IFolder folder, Set<EObject> objects) {
+        BasicEList<?> elements = (BasicEList<?>)folder.getElements();
+        Object[] data = elements.data();
+        int size = elements.size();
+
+        FolderRemoval removal = new FolderRemoval();
+        removal.folder = folder;
+        removal.indexes = new int[objects.size()];
+        removal.objects = new EObject[objects.size()];
+
+        // Move the objects that are kept down over the removed ones
+        int count = 0;
+        int newSize = 0;
+        for(int i = 0; i < size; i++) {
+            Object element = data[i];
+            if(objects.contains(element)) {
+                removal.indexes[count] = i;
+                removal.objects[count++] = (EObject)element;
+            }
+            else {
+                data[newSize++] = element;
+            }
+        }
+
+        if(count < removal.indexes.length) {
+            removal.indexes = Arrays.copyOf(removal.indexes, count);
+            removal.objects = Arrays.copyOf(removal.objects, count);
+        }
+
+        if(count == 0) {
+            return removal;
+        }
+
+        Arrays.fill(data, newSize, size, null);
+        elements.setData(newSize, data);
+
+        // Remove the folder as the container of the removed objects as the list would
+        for(EObject object : removal.objects) {
+            NotificationChain msgs = ((InternalEObject)object).eInverseRemove((InternalEObject)folder,
+                    InternalEObject.EOPPOSITE_FEATURE_BASE - IArchimatePackage.FOLDER__ELEMENTS, null, null);
+            if(msgs != null) {
+                msgs.dispatch();
+            }
+        }
+
+        if(count == 1) {
+            notify(folder, Notification.REMOVE, removal.objects[0], null, removal.indexes[0]);
+        }
+        else if(count > 1) {
+            notify(folder, Notification.REMOVE_MANY, List.of(removal.objects), removal.indexes, removal.indexes[0]);
+        }
+
+        return removal;
+    }
+
+    /**
+     * Add objects back to the folder's elements at their original positions.
+     * One notification is sent for each run of adjacent positions.
+     */
+    private void add(FolderRemoval removal) {
+        if(removal.indexes.length == 0) {
+            return;
+        }
+
+        IFolder folder = removal.folder;
+        BasicEList<?> elements = (BasicEList<?>)folder.getElements();
+        Object[] data = elements.data();
+        int size = elements.size();
+
+        // Positions are ascending so merge the objects back in with the current objects in one pass
+        Object[] newData = new Object[size + removal.indexes.length];
+        for(int i = 0, j = 0, k = 0; i < newData.length; i++) {
+            if(k < removal.indexes.length && (removal.indexes[k] == i || j == size)) {
+                newData[i] = removal.objects[k++];
+            }
+            else {
+                newData[i] = data[j++];
+            }
+        }
+
+        elements.setData(newData.length, newData);
+
+        // Set the folder as the container of the added objects as the list would
+        for(EObject object : removal.objects) {
+            NotificationChain msgs = ((InternalEObject)object).eInverseAdd((InternalEObject)folder,
+                    InternalEObject.EOPPOSITE_FEATURE_BASE - IArchimatePackage.FOLDER__ELEMENTS, null, null);
+            if(msgs != null) {
+                msgs.dispatch();
+            }
+        }
+
+        for(int start = 0, end; start < removal.indexes.length; start = end) {
+            end = start + 1;
+            while(end < removal.indexes.length && removal.indexes[end] == removal.indexes[end - 1] + 1) {
+                end++;
+            }
+
+            if(end - start == 1) {
+                notify(folder, Notification.ADD, null, removal.objects[start], removal.indexes[start]);
+            }
+            else {
+                notify(folder, Notification.ADD_MANY, null, List.of(removal.objects).subList(start, end), removal.indexes[start]);
+            }
+        }
+    }
+
+    private void notify(IFolder folder, int eventType, Object oldValue, Object newValue, int position) {
+        InternalEObject owner = (InternalEObject)folder;
+        if(owner.eNotificationRequired()) {
+            owner.eNotify(new ENotificationImpl(owner, eventType, IArchimatePackage.FOLDER__ELEMENTS, oldValue, newValue, position));
+        }
+    }
+
+    @Override
+    public void dispose() {
+        fConcepts = null;
+        fRemovals = null;
+    }
+}
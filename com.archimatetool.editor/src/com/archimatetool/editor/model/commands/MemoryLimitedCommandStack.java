@@ -0,0 +1,260 @@
+/**
+ * This program and the accompanying materials
+ * are made available under the terms of the License
+ * which accompanies this distribution in the file LICENSE.txt
+ */
+package com.archimatetool.editor.model.commands;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+import org.eclipse.gef.commands.Command;
+import org.eclipse.gef.commands.CommandStack;
+
+
+/**
+ * CommandStack that limits the memory kept by the undo history of a model.
+ *
+ * The size of each command is estimated with {@link CommandSizeEstimator} when it is executed or redone.
+ * If the total size of the undo history is more than the memory limit the oldest commands are removed and disposed,
+ * in the same way that CommandStack removes them when there is an undo limit. The most recent command is always kept.
+ *
+ * This works in the same way as CommandStack but keeps its own undo and redo stacks so that it can remove the oldest commands.
+ */
+public class MemoryLimitedCommandStack extends CommandStack {
+
+    /**
+     * A command in the undo history and its estimated size
+     */
+    private record Entry(Command command, long size) {}
+
+    /**
+     * Oldest first
+     */
+    private Deque<Entry> fUndoable = new ArrayDeque<>();
+
+    /**
+     * Next to redo first
+     */
+    private Deque<Command> fRedoable = new ArrayDeque<>();
+
+    private int fSaveLocation = 0;
+
+    private long fMemoryLimit;
+    private long fSize;
+
+    /**
+     * @param memoryLimit The memory limit in bytes, or 0 for no limit
+     */
+    public MemoryLimitedCommandStack(long memoryLimit) {
+        fMemoryLimit = memoryLimit;
+    }
+
+    /**
+     * Set the memory limit and remove the oldest commands if the undo history is now bigger than the limit
+     * @param memoryLimit The memory limit in bytes, or 0 for no limit
+     */
+    @SuppressWarnings("deprecation") // notifyListeners() is still needed for old CommandStackListeners
+    public void setMemoryLimit(long memoryLimit) {
+        fMemoryLimit = memoryLimit;
+        if(trimUndo()) {
+            notifyListeners();
+        }
+    }
+
+    /**
+     * @return The memory limit in bytes, or 0 for no limit
+     */
+    public long getMemoryLimit() {
+        return fMemoryLimit;
+    }
+
+    /**
+     * @return The estimated size in bytes of the undo history
+     */
+    public long getUndoSize() {
+        return fSize;
+    }
+
+    @Override
+    public boolean canRedo() {
+        return !fRedoable.isEmpty() && fRedoable.peekFirst().canRedo();
+    }
+
+    @Override
+    public boolean canUndo() {
+        return !fUndoable.isEmpty() && fUndoable.peekLast().command().canUndo();
+    }
+
+    @Override
+    public void dispose() {
+        flushUndo();
+        flushRedo();
+    }
+
+    @Override
+    @SuppressWarnings("deprecation") // notifyListeners() is still needed for old CommandStackListeners
+    public void execute(Command command) {
+        if(command == null || !command.canExecute()) {
+            return;
+        }
+
+        flushRedo();
+        notifyListeners(command, PRE_EXECUTE);
+
+        try {
+            command.execute();
+
+            if(getUndoLimit() > 0) {
+                while(fUndoable.size() >= getUndoLimit()) {
+                    removeOldest();
+                }
+            }
+
+            if(fSaveLocation > fUndoable.size()) {
+                fSaveLocation = -1; // The save point was somewhere in the redo stack
+            }
+
+            push(command);
+            trimUndo();
+            notifyListeners();
+        }
+        finally {
+            notifyListeners(command, POST_EXECUTE);
+        }
+    }
+
+    @Override
+    @SuppressWarnings("deprecation") // notifyListeners() is still needed for old CommandStackListeners
+    public void flush() {
+        notifyListeners(null, PRE_FLUSH);
+        flushRedo();
+        flushUndo();
+        fSaveLocation = 0;
+        notifyListeners();
+        notifyListeners(null, POST_FLUSH);
+    }
+
+    @Override
+    public Object[] getCommands() {
+        List<Command> commands = new ArrayList<>();
+        for(Entry entry : fUndoable) {
+            commands.add(entry.command());
+        }
+        commands.addAll(fRedoable);
+        return commands.toArray();
+    }
+
+    @Override
+    public Command getRedoCommand() {
+        return fRedoable.peekFirst();
+    }
+
+    @Override
+    public Command getUndoCommand() {
+        return fUndoable.isEmpty() ? null : fUndoable.peekLast().command();
+    }
+
+    @Override
+    public boolean isDirty() {
+        return fUndoable.size() != fSaveLocation;
+    }
+
+    @Override
+    @SuppressWarnings("deprecation") // notifyListeners() is still needed for old CommandStackListeners
+    public void markSaveLocation() {
+        notifyListeners(null, PRE_MARK_SAVE);
+        fSaveLocation = fUndoable.size();
+        notifyListeners();
+        notifyListeners(null, POST_MARK_SAVE);
+    }
+
+    @Override
+    @SuppressWarnings("deprecation") // notifyListeners() is still needed for old CommandStackListeners
+    public void redo() {
+        if(!canRedo()) {
+            return;
+        }
+
+        Command command = fRedoable.removeFirst();
+        notifyListeners(command, PRE_REDO);
+
+        try {
+            command.redo();
+            push(command);
+            trimUndo();
+            notifyListeners();
+        }
+        finally {
+            notifyListeners(command, POST_REDO);
+        }
+    }
+
+    @Override
+    @SuppressWarnings("deprecation") // notifyListeners() is still needed for old CommandStackListeners
+    public void undo() {
+        if(!canUndo()) {
+            return;
+        }
+
+        Entry entry = fUndoable.removeLast();
+        fSize -= entry.size();
+        Command command = entry.command();
+        notifyListeners(command, PRE_UNDO);
+
+        try {
+            command.undo();
+            fRedoable.addFirst(command);
+            notifyListeners();
+        }
+        finally {
+            notifyListeners(command, POST_UNDO);
+        }
+    }
+
+    private void push(Command command) {
+        long size = CommandSizeEstimator.estimateSize(command);
+        fUndoable.addLast(new Entry(command, size));
+        fSize += size;
+    }
+
+    /**
+     * Remove the oldest commands until the undo history is no bigger than the memory limit, keeping the most recent command
+     * @return true if any were removed
+     */
+    private boolean trimUndo() {
+        boolean removed = false;
+
+        while(fMemoryLimit > 0 && fSize > fMemoryLimit && fUndoable.size() > 1) {
+            removeOldest();
+            removed = true;
+        }
+
+        return removed;
+    }
+
+    private void removeOldest() {
+        Entry entry = fUndoable.removeFirst();
+        fSize -= entry.size();
+        entry.command().dispose();
+
+        if(fSaveLocation > -1) {
+            fSaveLocation--;
+        }
+    }
+
+    private void flushRedo() {
+        while(!fRedoable.isEmpty()) {
+            fRedoable.removeFirst().dispose();
+        }
+    }
+
+    private void flushUndo() {
+        while(!fUndoable.isEmpty()) {
+            fUndoable.removeLast().command().dispose();
+        }
+        fSize = 0;
+    }
+}
@@ -0,0 +1,49 @@
+/**
+ * This program and the accompanying materials
+ * are made available under the terms of the License
+ * which accompanies this distribution in the file LICENSE.txt
+ */
+package com.archimatetool.editor.model.compatibility;
+
+import java.util.Iterator;
+
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.resource.Resource;
+
+import com.archimatetool.model.IArchimateModel;
+
+/**
+ * Compatibility Handler that fixes the objects in a model one at a time.
+ *
+ * ModelCompatibility visits the objects in a model once for all of these handlers registered together
+ * rather than each handler iterating through the model on its own.
+ */
+public interface IModelObjectCompatibilityHandler extends ICompatibilityHandler {
+
+    /**
+     * @param model The model
+     * @return true if the objects in the model need to be fixed by this handler
+     */
+    boolean isApplicable(IArchimateModel model);
+
+    /**
+     * Fix an object in the model. Objects are visited in the same order as model.eAllContents()
+     * @param eObject The object
+     * @throws CompatibilityHandlerException
+     */
+    void fixCompatibility(EObject eObject) throws CompatibilityHandlerException;
+
+    /**
+     * Fix all objects in the model when this handler is used on its own
+     */
+    @Override
+    default void fixCompatibility(Resource resource) throws CompatibilityHandlerException {
+        IArchimateModel model = (IArchimateModel)resource.getContents().get(0);
+
+        if(isApplicable(model)) {
+            for(Iterator<EObject> iter = model.eAllContents(); iter.hasNext();) {
+                fixCompatibility(iter.next());
+            }
+        }
+    }
+}
@@ -6,12 +6,14 @@
 package com.archimatetool.editor.model.compatibility;
 
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IConfigurationElement;
 import org.eclipse.core.runtime.IExtensionRegistry;
 import org.eclipse.core.runtime.Platform;
+import org.eclipse.emf.ecore.EObject;
 import org.eclipse.emf.ecore.resource.Resource;
 import org.eclipse.emf.ecore.resource.Resource.Diagnostic;
 import org.eclipse.emf.ecore.xmi.ClassNotFoundException;
@@ -133,17 +135,63 @@ public class ModelCompatibility {
      * @throws CompatibilityHandlerException 
      */
     public void fixCompatibility() throws CompatibilityHandlerException {
+        List<ICompatibilityHandler> handlers = new ArrayList<>();
+        
         IExtensionRegistry registry = Platform.getExtensionRegistry();
         for(IConfigurationElement configurationElement : registry.getConfigurationElementsFor(ICompatibilityHandler.EXTENSION_ID)) {
             try {
                 ICompatibilityHandler handler = (ICompatibilityHandler)configurationElement.createExecutableExtension("class"); //$NON-NLS-1$
                 if(handler != null) {
-                    handler.fixCompatibility(fResource);
+                    handlers.add(handler);
                 }
             } 
             catch(CoreException ex) {
                 ex.printStackTrace();
             } 
         }
+        
+        fixCompatibility(handlers);
+    }
+    
+    /**
+     * Fix any compatibility issues in the given handlers in order.
+     * Adjacent IModelObjectCompatibilityHandlers are run together in one pass through the model's objects.
+     * @throws CompatibilityHandlerException 
+     */
+    void fixCompatibility(List<? extends ICompatibilityHandler> handlers) throws CompatibilityHandlerException {
+        List<IModelObjectCompatibilityHandler> objectHandlers = new ArrayList<>();
+        
+        for(ICompatibilityHandler handler : handlers) {
+            if(handler instanceof IModelObjectCompatibilityHandler objectHandler) {
+                objectHandlers.add(objectHandler);
+            }
+            else {
+                // Run the object handlers before this one so that handlers are run in the same order as they are registered
+                fixObjects(objectHandlers);
+                handler.fixCompatibility(fResource);
+            }
+        }
+        
+        fixObjects(objectHandlers);
+    }
+    
+    /**
+     * Visit each object in the model once and fix it in all applicable handlers, then clear the list of handlers
+     */
+    private void fixObjects(List<IModelObjectCompatibilityHandler> objectHandlers) throws CompatibilityHandlerException {
+        IArchimateModel model = (IArchimateModel)fResource.getContents().get(0);
+        
+        objectHandlers.removeIf(handler -> !handler.isApplicable(model));
+        
+        if(!objectHandlers.isEmpty()) {
+            for(Iterator<EObject> iter = model.eAllContents(); iter.hasNext();) {
+                EObject eObject = iter.next();
+                for(IModelObjectCompatibilityHandler handler : objectHandlers) {
+                    handler.fixCompatibility(eObject);
+                }
+            }
+        }
+        
+        objectHandlers.clear();
     }
 }
@@ -5,14 +5,10 @@
  */
 package com.archimatetool.editor.model.compatibility.handlers;
 
-import java.util.Iterator;
-
 import org.eclipse.draw2d.geometry.Dimension;
 import org.eclipse.emf.ecore.EObject;
-import org.eclipse.emf.ecore.resource.Resource;
 
-import com.archimatetool.editor.model.compatibility.CompatibilityHandlerException;
-import com.archimatetool.editor.model.compatibility.ICompatibilityHandler;
+import com.archimatetool.editor.model.compatibility.IModelObjectCompatibilityHandler;
 import com.archimatetool.editor.ui.factory.IGraphicalObjectUIProvider;
 import com.archimatetool.editor.ui.factory.ObjectUIFactory;
 import com.archimatetool.editor.utils.StringUtils;
@@ -31,15 +27,27 @@ import com.archimatetool.model.IJunction;
  * 
  * @author Phillip Beauvoir
  */
-public class FixDefaultSizesHandler implements ICompatibilityHandler {
+public class FixDefaultSizesHandler implements IModelObjectCompatibilityHandler {
     
     @Override
-    public void fixCompatibility(Resource resource) throws CompatibilityHandlerException {
-        IArchimateModel model = (IArchimateModel)resource.getContents().get(0);
-        
+    public boolean isApplicable(IArchimateModel model) {
         // Check all widths and heights
-        if(isVersion(model)) {
-            fixMissingWidthAndHeight(model);
+        return isVersion(model);
+    }
+    
+    @Override
+    public void fixCompatibility(EObject eObject) {
+        // An Image width/height of -1, -1 signified the actual width/height of the image.
+        // However, here, Images with -1, -1 would be converted to a default box size of 200, 150. So ignore it.
+        if(eObject instanceof IDiagramModelImage) {
+            return;
+        }
+        
+        if(eObject instanceof IDiagramModelObject dmo) {
+            Dimension d = getNewSize(dmo);
+            IBounds bounds = dmo.getBounds();
+            bounds.setWidth(d.width);
+            bounds.setHeight(d.height);
         }
     }
     
@@ -48,29 +56,6 @@ public class FixDefaultSizesHandler implements ICompatibilityHandler {
         return version != null && StringUtils.compareVersionNumbers(version, "3.0.0") < 0; //$NON-NLS-1$
     }
 
-    /**
-     * Fix missing width and height values
-     */
-    void fixMissingWidthAndHeight(IArchimateModel model) {
-        for(Iterator<EObject> iter = model.eAllContents(); iter.hasNext();) {
-            EObject eObject = iter.next();
-            
-            // An Image width/height of -1, -1 signified the actual width/height of the image.
-            // However, here, Images with -1, -1 would be converted to a default box size of 200, 150. So ignore it.
-            if(eObject instanceof IDiagramModelImage) {
-                continue;
-            }
-            
-            if(eObject instanceof IDiagramModelObject) {
-                IDiagramModelObject dmo = (IDiagramModelObject)eObject;
-                Dimension d = getNewSize(dmo);
-                IBounds bounds = dmo.getBounds();
-                bounds.setWidth(d.width);
-                bounds.setHeight(d.height);
-            }
-        }
-    }
-    
     /**
      * Get a new size for a diagram object if width or height are not set
      * Child figures will affect the size.
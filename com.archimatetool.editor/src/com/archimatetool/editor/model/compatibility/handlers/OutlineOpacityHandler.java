@@ -5,13 +5,9 @@
  */
 package com.archimatetool.editor.model.compatibility.handlers;
 
-import java.util.Iterator;
-
 import org.eclipse.emf.ecore.EObject;
-import org.eclipse.emf.ecore.resource.Resource;
 
-import com.archimatetool.editor.model.compatibility.CompatibilityHandlerException;
-import com.archimatetool.editor.model.compatibility.ICompatibilityHandler;
+import com.archimatetool.editor.model.compatibility.IModelObjectCompatibilityHandler;
 import com.archimatetool.editor.utils.StringUtils;
 import com.archimatetool.model.IArchimateModel;
 import com.archimatetool.model.IDiagramModelObject;
@@ -24,15 +20,17 @@ import com.archimatetool.model.IDiagramModelObject;
  * 
  * @author Phillip Beauvoir
  */
-public class OutlineOpacityHandler implements ICompatibilityHandler {
+public class OutlineOpacityHandler implements IModelObjectCompatibilityHandler {
+    
+    @Override
+    public boolean isApplicable(IArchimateModel model) {
+        return isVersion(model);
+    }
     
     @Override
-    public void fixCompatibility(Resource resource) throws CompatibilityHandlerException {
-        IArchimateModel model = (IArchimateModel)resource.getContents().get(0);
-        
-        // Check all widths and heights
-        if(isVersion(model)) {
-            setDefaultOutlineOpacity(model);
+    public void fixCompatibility(EObject eObject) {
+        if(eObject instanceof IDiagramModelObject dmo) {
+            dmo.setLineAlpha(dmo.getAlpha());
         }
     }
     
@@ -41,15 +39,5 @@ public class OutlineOpacityHandler implements ICompatibilityHandler {
         return version != null && (StringUtils.compareVersionNumbers(version, "4.0.1") == 0 || //$NON-NLS-1$
                 StringUtils.compareVersionNumbers(version, "4.4.0") == 0); //$NON-NLS-1$
     }
-
-    void setDefaultOutlineOpacity(IArchimateModel model) {
-        for(Iterator<EObject> iter = model.eAllContents(); iter.hasNext();) {
-            EObject eObject = iter.next();
-            if(eObject instanceof IDiagramModelObject) {
-                IDiagramModelObject dmo = (IDiagramModelObject)eObject;
-                dmo.setLineAlpha(dmo.getAlpha());
-            }
-        }
-    }
     
 }
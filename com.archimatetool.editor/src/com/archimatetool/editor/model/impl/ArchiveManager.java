@@ -36,7 +36,10 @@ import org.eclipse.swt.widgets.Display;
 import com.archimatetool.editor.model.IArchiveManager;
 import com.archimatetool.editor.utils.FileUtils;
 import com.archimatetool.model.IArchimateModel;
+import com.archimatetool.model.IDiagramModel;
 import com.archimatetool.model.IDiagramModelImageProvider;
+import com.archimatetool.model.IFolder;
+import com.archimatetool.model.IProfile;
 import com.archimatetool.model.util.ArchimateResourceFactory;
 
 
@@ -137,19 +140,39 @@ public class ArchiveManager implements IArchiveManager {
     public Set<String> getImagePaths() {
         Set<String> set = new HashSet<>();
         
-        for(Iterator<EObject> iter = fModel.eAllContents(); iter.hasNext();) {
-            EObject element = iter.next();
-            if(element instanceof IDiagramModelImageProvider) {
-                String imagePath = ((IDiagramModelImageProvider)element).getImagePath();
-                if(imagePath != null) {
-                    set.add(imagePath);
-                }
-            }
+        // Images are only referenced by Specializations and diagram components
+        // so there's no need to iterate through the concepts in the model and their contents
+        for(IProfile profile : fModel.getProfiles()) {
+            addImagePath(profile, set);
+        }
+        
+        for(IFolder folder : fModel.getFolders()) {
+            addImagePaths(folder, set);
         }
         
         return set;
     }
     
+    private void addImagePaths(IFolder folder, Set<String> set) {
+        for(IFolder childFolder : folder.getFolders()) {
+            addImagePaths(childFolder, set);
+        }
+        
+        for(EObject element : folder.getElements()) {
+            if(element instanceof IDiagramModel) {
+                for(Iterator<EObject> iter = element.eAllContents(); iter.hasNext();) {
+                    addImagePath(iter.next(), set);
+                }
+            }
+        }
+    }
+    
+    private void addImagePath(EObject eObject, Set<String> set) {
+        if(eObject instanceof IDiagramModelImageProvider imageProvider && imageProvider.getImagePath() != null) {
+            set.add(imageProvider.getImagePath());
+        }
+    }
+    
     @Override
     public Set<String> getLoadedImagePaths() {
         return byteArrayStorage.getEntryNames();
@@ -21,6 +21,7 @@ import org.eclipse.gef.commands.CommandStackEvent;
 import org.eclipse.gef.commands.CommandStackEventListener;
 import org.eclipse.jface.dialogs.IDialogConstants;
 import org.eclipse.jface.dialogs.MessageDialog;
+import org.eclipse.jface.util.IPropertyChangeListener;
 import org.eclipse.osgi.util.NLS;
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.widgets.Display;
@@ -39,6 +40,7 @@ import com.archimatetool.editor.diagram.util.AnimationUtil;
 import com.archimatetool.editor.model.IArchiveManager;
 import com.archimatetool.editor.model.IEditorModelManager;
 import com.archimatetool.editor.model.ModelChecker;
+import com.archimatetool.editor.model.commands.MemoryLimitedCommandStack;
 import com.archimatetool.editor.model.compatibility.CompatibilityHandlerException;
 import com.archimatetool.editor.model.compatibility.IncompatibleModelException;
 import com.archimatetool.editor.model.compatibility.ModelCompatibility;
@@ -125,6 +127,22 @@ implements IEditorModelManager {
         }
     };
     
+    /**
+     * Apply a new undo memory limit to the CommandStacks of open models.
+     * This is only added to the Preference Store while there are open models.
+     */
+    private IPropertyChangeListener prefsListener = event -> {
+        if(IPreferenceConstants.UNDO_MEMORY_LIMIT.equals(event.getProperty()) && fModels != null) {
+            for(IArchimateModel model : fModels) {
+                if(model.getAdapter(CommandStack.class) instanceof MemoryLimitedCommandStack cmdStack) {
+                    cmdStack.setMemoryLimit(getUndoMemoryLimit());
+                }
+            }
+        }
+    };
+    
+    private boolean fListeningToPreferences;
+    
     public EditorModelManager() {
         if(PlatformUI.isWorkbenchRunning()) {
             PlatformUI.getWorkbench().addWorkbenchListener(workBenchListener);
@@ -635,7 +653,7 @@ implements IEditorModelManager {
      * @param model
      */
     private void createNewCommandStack(final IArchimateModel model) {
-        CommandStack cmdStack = new CommandStack();
+        CommandStack cmdStack = new MemoryLimitedCommandStack(getUndoMemoryLimit());
         
         if(PlatformUI.isWorkbenchRunning()) {
             // Forward on CommandStack Event to Tree
@@ -654,6 +672,19 @@ implements IEditorModelManager {
         }
         
         model.setAdapter(CommandStack.class, cmdStack);
+        
+        // Listen to changes to the undo memory limit
+        if(!fListeningToPreferences) {
+            ArchiPlugin.getInstance().getPreferenceStore().addPropertyChangeListener(prefsListener);
+            fListeningToPreferences = true;
+        }
+    }
+    
+    /**
+     * @return The undo memory limit in bytes from Preferences, or 0 for no limit
+     */
+    private long getUndoMemoryLimit() {
+        return ArchiPlugin.getInstance().getPreferenceStore().getInt(IPreferenceConstants.UNDO_MEMORY_LIMIT) * 1024L * 1024L;
     }
     
     /**
@@ -665,6 +696,19 @@ implements IEditorModelManager {
         if(stack != null) {
             stack.dispose();
         }
+        
+        // No more open models
+        if(fListeningToPreferences && (fModels == null || fModels.isEmpty())) {
+            ArchiPlugin.getInstance().getPreferenceStore().removePropertyChangeListener(prefsListener);
+            fListeningToPreferences = false;
+        }
+    }
+    
+    /**
+     * @return true if listening to the Preference Store
+     */
+    boolean isListeningToPreferences() {
+        return fListeningToPreferences;
     }
     
     /**
@@ -65,6 +65,7 @@ implements IWorkbenchPreferencePage, IPreferenceConstants {
     
     private Button fScaleFigureImagesButton;
     private Button fUseFigureLineOffsetButton;
+    private Button fCreateVisibleObjectsOnlyButton;
     
 	public DiagramPreferencePage() {
 		setPreferenceStore(ArchiPlugin.getInstance().getPreferenceStore());
@@ -182,6 +183,12 @@ implements IWorkbenchPreferencePage, IPreferenceConstants {
         fUseFigureLineOffsetButton.setText(Messages.DiagramPreferencePage_8);
         fUseFigureLineOffsetButton.setLayoutData(createHorizontalGridData(2));
         
+        // Only create objects in view in large Views
+        fCreateVisibleObjectsOnlyButton = new Button(otherGroup, SWT.CHECK);
+        fCreateVisibleObjectsOnlyButton.setText(Messages.DiagramPreferencePage_25);
+        fCreateVisibleObjectsOnlyButton.setToolTipText(Messages.DiagramPreferencePage_26);
+        fCreateVisibleObjectsOnlyButton.setLayoutData(createHorizontalGridData(2));
+        
         setValues();
         
         return client;
@@ -218,6 +225,7 @@ implements IWorkbenchPreferencePage, IPreferenceConstants {
         
         fScaleFigureImagesButton.setSelection(getPreferenceStore().getBoolean(USE_SCALED_IMAGES));
         fUseFigureLineOffsetButton.setSelection(getPreferenceStore().getBoolean(USE_FIGURE_LINE_OFFSET));
+        fCreateVisibleObjectsOnlyButton.setSelection(getPreferenceStore().getBoolean(CREATE_VISIBLE_OBJECTS_ONLY));
     }
     
     private void setSpinnerValues() {
@@ -255,6 +263,7 @@ implements IWorkbenchPreferencePage, IPreferenceConstants {
         
         getPreferenceStore().setValue(USE_SCALED_IMAGES, fScaleFigureImagesButton.getSelection());
         getPreferenceStore().setValue(USE_FIGURE_LINE_OFFSET, fUseFigureLineOffsetButton.getSelection());
+        getPreferenceStore().setValue(CREATE_VISIBLE_OBJECTS_ONLY, fCreateVisibleObjectsOnlyButton.getSelection());
         
         return true;
     }
@@ -286,6 +295,7 @@ implements IWorkbenchPreferencePage, IPreferenceConstants {
         
         fScaleFigureImagesButton.setSelection(getPreferenceStore().getDefaultBoolean(USE_SCALED_IMAGES));
         fUseFigureLineOffsetButton.setSelection(getPreferenceStore().getDefaultBoolean(USE_FIGURE_LINE_OFFSET));
+        fCreateVisibleObjectsOnlyButton.setSelection(getPreferenceStore().getDefaultBoolean(CREATE_VISIBLE_OBJECTS_ONLY));
         
         super.performDefaults();
     }
@@ -38,6 +38,7 @@ implements IWorkbenchPreferencePage, IPreferenceConstants {
     private Button fBackupOnSaveButton;
     
     private Spinner fMRUSizeSpinner;
+    private Spinner fUndoMemoryLimitSpinner;
     
     private Button fShowUnusedElementsInModelTreeButton;
     private Button fAutoSearchButton;
@@ -96,6 +97,17 @@ implements IWorkbenchPreferencePage, IPreferenceConstants {
         fMRUSizeSpinner.setMinimum(3);
         fMRUSizeSpinner.setMaximum(15);
         
+        // Undo history memory limit
+        label = new Label(fileGroup, SWT.NULL);
+        label.setText(Messages.GeneralPreferencePage_25);
+        label.setToolTipText(Messages.GeneralPreferencePage_26);
+        
+        fUndoMemoryLimitSpinner = new Spinner(fileGroup, SWT.BORDER);
+        fUndoMemoryLimitSpinner.setMinimum(0);
+        fUndoMemoryLimitSpinner.setMaximum(4096);
+        fUndoMemoryLimitSpinner.setIncrement(16);
+        fUndoMemoryLimitSpinner.setToolTipText(Messages.GeneralPreferencePage_26);
+        
         // Model Tree
         Group modelTreeGroup = new Group(client, SWT.NULL);
         modelTreeGroup.setText(Messages.GeneralPreferencePage_10);
@@ -206,6 +218,7 @@ implements IWorkbenchPreferencePage, IPreferenceConstants {
 
     private void setValues() {
         fMRUSizeSpinner.setSelection(getPreferenceStore().getInt(MRU_MAX));
+        fUndoMemoryLimitSpinner.setSelection(getPreferenceStore().getInt(UNDO_MEMORY_LIMIT));
         
         fBackupOnSaveButton.setSelection(getPreferenceStore().getBoolean(BACKUP_ON_SAVE));
         fOpenDiagramsOnLoadButton.setSelection(getPreferenceStore().getBoolean(OPEN_DIAGRAMS_ON_LOAD));
@@ -241,6 +254,7 @@ implements IWorkbenchPreferencePage, IPreferenceConstants {
         getPreferenceStore().setValue(BACKUP_ON_SAVE, fBackupOnSaveButton.getSelection());
         getPreferenceStore().setValue(OPEN_DIAGRAMS_ON_LOAD, fOpenDiagramsOnLoadButton.getSelection());
         getPreferenceStore().setValue(MRU_MAX, fMRUSizeSpinner.getSelection());
+        getPreferenceStore().setValue(UNDO_MEMORY_LIMIT, fUndoMemoryLimitSpinner.getSelection());
         
         getPreferenceStore().setValue(HIGHLIGHT_UNUSED_ELEMENTS_IN_MODEL_TREE, fShowUnusedElementsInModelTreeButton.getSelection());
         getPreferenceStore().setValue(TREE_SEARCH_AUTO, fAutoSearchButton.getSelection());
@@ -275,6 +289,7 @@ implements IWorkbenchPreferencePage, IPreferenceConstants {
         fBackupOnSaveButton.setSelection(getPreferenceStore().getDefaultBoolean(BACKUP_ON_SAVE));
         fOpenDiagramsOnLoadButton.setSelection(getPreferenceStore().getDefaultBoolean(OPEN_DIAGRAMS_ON_LOAD));
         fMRUSizeSpinner.setSelection(getPreferenceStore().getDefaultInt(MRU_MAX));
+        fUndoMemoryLimitSpinner.setSelection(getPreferenceStore().getDefaultInt(UNDO_MEMORY_LIMIT));
         
         fShowUnusedElementsInModelTreeButton.setSelection(getPreferenceStore().getDefaultBoolean(HIGHLIGHT_UNUSED_ELEMENTS_IN_MODEL_TREE));
         fAutoSearchButton.setSelection(getPreferenceStore().getDefaultBoolean(TREE_SEARCH_AUTO));
@@ -107,6 +107,9 @@ public interface IPreferenceConstants {
     // Whether to use a line offset in all cases for figures drawn on hi-res screens
     String USE_FIGURE_LINE_OFFSET = "figureLineOffset";
     
+    // Whether to only create the objects in and near the visible part of large Views
+    String CREATE_VISIBLE_OBJECTS_ONLY = "createVisibleObjectsOnly";
+    
     // Appearance
     
     String DEFAULT_ARCHIMATE_FIGURE_WIDTH = "defaultArchiMateFigureWidth";
@@ -128,6 +131,7 @@ public interface IPreferenceConstants {
     
     String OPEN_DIAGRAMS_ON_LOAD = "openDiagramsOnLoad";
     String BACKUP_ON_SAVE = "backupOnSave";
+    String UNDO_MEMORY_LIMIT = "undoMemoryLimit";
     
     String HIGHLIGHT_UNUSED_ELEMENTS_IN_MODEL_TREE = "highlightUnusedElementsInModelTree";
     String TREE_SEARCH_AUTO = "treeSearchAuto";
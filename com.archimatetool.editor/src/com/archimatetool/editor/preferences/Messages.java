@@ -197,6 +197,10 @@ public class Messages extends NLS {
 
     public static String DiagramPreferencePage_24;
 
+    public static String DiagramPreferencePage_25;
+
+    public static String DiagramPreferencePage_26;
+
     public static String DiagramPreferencePage_3;
 
     public static String DiagramPreferencePage_4;
@@ -295,6 +299,10 @@ public class Messages extends NLS {
 
     public static String GeneralPreferencePage_24;
 
+    public static String GeneralPreferencePage_25;
+
+    public static String GeneralPreferencePage_26;
+
     public static String GeneralPreferencePage_3;
 
     public static String GeneralPreferencePage_4;
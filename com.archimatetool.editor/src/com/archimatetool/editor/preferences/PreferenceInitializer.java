@@ -103,6 +103,7 @@ implements IPreferenceConstants {
         
         // Windows at hi-res needs this set to true
         store.setDefault(USE_FIGURE_LINE_OFFSET, PlatformUtils.isWindows() && ImageFactory.getDeviceZoom() > 100);
+        store.setDefault(CREATE_VISIBLE_OBJECTS_ONLY, false);
         
         // Appearance
         
@@ -121,6 +122,7 @@ implements IPreferenceConstants {
         
         store.setDefault(OPEN_DIAGRAMS_ON_LOAD, false);
         store.setDefault(BACKUP_ON_SAVE, true);
+        store.setDefault(UNDO_MEMORY_LIMIT, 0); // MB, 0 is no limit
 
         store.setDefault(HIGHLIGHT_UNUSED_ELEMENTS_IN_MODEL_TREE, true);
         store.setDefault(TREE_SEARCH_AUTO, true);
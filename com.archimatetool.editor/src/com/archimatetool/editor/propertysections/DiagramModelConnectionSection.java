@@ -66,7 +66,8 @@ public class DiagramModelConnectionSection extends AbstractECorePropertySection
             ConnectionRouterAction.CONNECTION_ROUTER_BENDPONT,
             // Doesn't work with C2C
             //ConnectionRouterAction.CONNECTION_ROUTER_SHORTEST_PATH,
-            ConnectionRouterAction.CONNECTION_ROUTER_MANHATTAN
+            ConnectionRouterAction.CONNECTION_ROUTER_MANHATTAN,
+            ConnectionRouterAction.CONNECTION_ROUTER_ORTHOGONAL
     };
     
     @Override
@@ -74,6 +74,7 @@ public class IconSection extends ImageChooserSection {
     }
 
     private Image fImage;
+    private IconicDelegate fIconicDelegate;
     private Canvas fCanvas;
     private Combo fComboPosition;
     
@@ -281,9 +282,10 @@ public class IconSection extends ImageChooserSection {
             disposeImage();
             
             // Use an IconicDelegate to create the image which may come from the object or via a profile image
-            IconicDelegate iconicDelegate = new IconicDelegate((IIconic)getFirstSelectedObject());
-            iconicDelegate.updateImage();
-            fImage = iconicDelegate.getImage();
+            // The image is shared by the IconicDelegate so it is disposed by disposing the IconicDelegate
+            fIconicDelegate = new IconicDelegate((IIconic)getFirstSelectedObject());
+            fIconicDelegate.updateImage();
+            fImage = fIconicDelegate.getImage();
             
             fCanvas.redraw();
         }
@@ -313,10 +315,11 @@ public class IconSection extends ImageChooserSection {
     }
     
     private void disposeImage() {
-        if(fImage != null && !fImage.isDisposed()) {
-            fImage.dispose();
-            fImage = null;
+        if(fIconicDelegate != null) {
+            fIconicDelegate.dispose();
+            fIconicDelegate = null;
         }
+        fImage = null;
     }
     
     @Override
@@ -7,10 +7,7 @@ package com.archimatetool.editor.propertysections;
 
 import java.io.File;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
-import java.util.Map.Entry;
 
 import org.eclipse.jface.layout.TableColumnLayout;
 import org.eclipse.jface.viewers.ColumnWeightData;
@@ -29,7 +26,6 @@ import org.eclipse.nebula.widgets.gallery.Gallery;
 import org.eclipse.nebula.widgets.gallery.GalleryItem;
 import org.eclipse.nebula.widgets.gallery.NoGroupRenderer;
 import org.eclipse.swt.SWT;
-import org.eclipse.swt.custom.BusyIndicator;
 import org.eclipse.swt.custom.CLabel;
 import org.eclipse.swt.custom.SashForm;
 import org.eclipse.swt.events.DisposeEvent;
@@ -39,6 +35,7 @@ import org.eclipse.swt.events.MouseEvent;
 import org.eclipse.swt.events.SelectionAdapter;
 import org.eclipse.swt.events.SelectionEvent;
 import org.eclipse.swt.graphics.Image;
+import org.eclipse.swt.graphics.ImageData;
 import org.eclipse.swt.graphics.Point;
 import org.eclipse.swt.layout.GridData;
 import org.eclipse.swt.layout.GridLayout;
@@ -86,7 +83,15 @@ public class ImageManagerDialog extends ExtendedTitleAreaDialog {
     private String fUserSelectedImagePath;
     private File fUserSelectedFile;
     
-    private Map<String, Image> fImageCache = new HashMap<String, Image>();
+    /**
+     * Loads the thumbnails in the background
+     */
+    private ImageThumbnailLoader fThumbnailLoader;
+    
+    /**
+     * Thumbnail images in the gallery, disposed of when the gallery is cleared
+     */
+    private List<Image> fImages = new ArrayList<>();
 
     public ImageManagerDialog(Shell parentShell) {
         super(parentShell, "ImageManagerDialog"); //$NON-NLS-1$
@@ -195,6 +200,8 @@ public class ImageManagerDialog extends ExtendedTitleAreaDialog {
         // Root Group
         fGalleryRoot = new GalleryItem(fGallery, SWT.NONE);
         
+        fThumbnailLoader = new ImageThumbnailLoader(fGallery.getDisplay(), MAX_GALLERY_ITEM_SIZE);
+        
         // Slider
         fScale = new Scale(galleryComposite, SWT.HORIZONTAL);
         gd = new GridData(SWT.END, SWT.NONE, false, false);
@@ -246,6 +253,7 @@ public class ImageManagerDialog extends ExtendedTitleAreaDialog {
         fGallery.addDisposeListener(new DisposeListener() {
             @Override
             public void widgetDisposed(DisposeEvent e) {
+                fThumbnailLoader.dispose();
                 disposeImages();
             }
         });
@@ -282,48 +290,63 @@ public class ImageManagerDialog extends ExtendedTitleAreaDialog {
      * Clear old root group
      */
     private void clearGallery() {
+        // Stop loading thumbnails for the old items
+        fThumbnailLoader.cancel();
+        
         if(fGalleryRoot != null && !fGallery.isDisposed() && fGallery.getItemCount() > 0) {
             while(fGalleryRoot.getItemCount() > 0) {
                 GalleryItem item = fGalleryRoot.getItem(0);
                 fGalleryRoot.remove(item);
             }
         }
+        
+        disposeImages();
     }
 
+    /**
+     * Add an item for each image in the model and set the thumbnails as they are loaded in the background.
+     * The items are added first so that they are in the same order however long each thumbnail takes to load.
+     */
     private void updateGallery(final IArchimateModel model) {
-        BusyIndicator.showWhile(null, new Runnable() {
-            @Override
-            public void run() {
-                IArchiveManager archiveManager = (IArchiveManager)model.getAdapter(IArchiveManager.class);
-                
-                for(String path : archiveManager.getImagePaths()) {
-                    Image thumbnail = fImageCache.get(path);
-                    
-                    // Create image and cache it
-                    if(thumbnail == null) {
-                        try {
-                            thumbnail = archiveManager.createImage(path);
-                            if(thumbnail != null) {
-                                fImageCache.put(path, thumbnail);
-                            }
-                        }
-                        catch(Exception ex) {
-                            ex.printStackTrace();
-                            continue;
-                        }
-                    }
-                    
-                    if(thumbnail != null) {
-                        GalleryItem item = new GalleryItem(fGalleryRoot, SWT.NONE);
-                        item.setImage(thumbnail);
-                        item.setData("imagepath", path); //$NON-NLS-1$
-                        item.setData("model", model); //$NON-NLS-1$
-                    }
-                }
-                
-                fGallery.redraw(); // at some scale settings this is needed
+        IArchiveManager archiveManager = (IArchiveManager)model.getAdapter(IArchiveManager.class);
+        
+        for(String path : archiveManager.getImagePaths()) {
+            GalleryItem item = new GalleryItem(fGalleryRoot, SWT.NONE);
+            item.setData("imagepath", path); //$NON-NLS-1$
+            item.setData("model", model); //$NON-NLS-1$
+            
+            // Already loaded
+            ImageData thumbnail = fThumbnailLoader.getCachedThumbnail(path);
+            if(thumbnail != null) {
+                setThumbnail(item, thumbnail);
             }
-        });
+            else {
+                fThumbnailLoader.load(archiveManager, path, imageData -> setThumbnail(item, imageData));
+            }
+        }
+        
+        fGallery.redraw(); // at some scale settings this is needed
+    }
+    
+    /**
+     * Set the thumbnail image of a gallery item, or remove the item if the image could not be loaded
+     */
+    private void setThumbnail(GalleryItem item, ImageData imageData) {
+        // Item was removed before the thumbnail was loaded
+        if(fGallery.isDisposed() || item.isDisposed() || fGalleryRoot.indexOf(item) == -1) {
+            return;
+        }
+        
+        if(imageData == null) {
+            fGalleryRoot.remove(item);
+        }
+        else {
+            Image image = new Image(item.getDisplay(), imageData);
+            fImages.add(image);
+            item.setImage(image);
+        }
+        
+        fGallery.redraw();
     }
 
     /**
@@ -368,12 +391,12 @@ public class ImageManagerDialog extends ExtendedTitleAreaDialog {
     }
 
     private void disposeImages() {
-        for(Entry<String, Image> entry : fImageCache.entrySet()) {
-            Image image = entry.getValue();
-            if(image != null && !image.isDisposed()) {
+        for(Image image : fImages) {
+            if(!image.isDisposed()) {
                 image.dispose();
             }
         }
+        fImages.clear();
     }
     
     // ====================================================================================================
@@ -0,0 +1,155 @@
+/**
+ * This program and the accompanying materials
+ * are made available under the terms of the License
+ * which accompanies this distribution in the file LICENSE.txt
+ */
+package com.archimatetool.editor.propertysections;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+import org.eclipse.swt.graphics.ImageData;
+import org.eclipse.swt.widgets.Display;
+
+import com.archimatetool.editor.Logger;
+import com.archimatetool.editor.model.IArchiveManager;
+import com.archimatetool.editor.ui.ImageFactory;
+
+
+/**
+ * Loads thumbnails of the images in a model on background threads.
+ *
+ * Each image is decoded and reduced to the thumbnail size on a worker thread so that only the thumbnail's ImageData is kept
+ * and the UI thread only has to create an Image from it. Thumbnails are cached by image path up to a maximum number of bytes,
+ * dropping the least recently used ones first, so that showing the same images again doesn't decode them again.
+ */
+@SuppressWarnings("nls")
+class ImageThumbnailLoader {
+
+    /**
+     * Maximum size in bytes of the cached thumbnail ImageData
+     */
+    static final long MAX_CACHE_BYTES = 64 * 1024 * 1024;
+
+    private int fMaxSize;
+    private Display fDisplay;
+    private ExecutorService fExecutor;
+
+    private List<Future<?>> fPending = new ArrayList<>();
+
+    private long fCacheBytes;
+
+    private Map<String, ImageData> fCache = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, ImageData> eldest) {
+            // Remove as many as needed to get below the maximum
+            for(Iterator<ImageData> iter = values().iterator(); fCacheBytes > MAX_CACHE_BYTES && size() > 1 && iter.hasNext();) {
+                fCacheBytes -= getBytes(iter.next());
+                iter.remove();
+            }
+            return false;
+        }
+    };
+
+    /**
+     * @param display The Display that callbacks are run on
+     * @param maxSize The maximum width or height of a thumbnail
+     */
+    ImageThumbnailLoader(Display display, int maxSize) {
+        fDisplay = display;
+        fMaxSize = maxSize;
+
+        int threads = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() - 1));
+        fExecutor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "Image Thumbnail Loader");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+    }
+
+    /**
+     * @param imagePath The image path
+     * @return The cached thumbnail for imagePath or null if it's not cached
+     */
+    synchronized ImageData getCachedThumbnail(String imagePath) {
+        return fCache.get(imagePath);
+    }
+
+    /**
+     * Load the thumbnail for an image in the background.
+     *
+     * @param archiveManager The ArchiveManager containing the image
+     * @param imagePath The image path
+     * @param callback Called on the UI thread with the thumbnail, or with null if the image could not be loaded.
+     *                 Not called if the load is cancelled first.
+     */
+    void load(IArchiveManager archiveManager, String imagePath, Consumer<ImageData> callback) {
+        fPending.add(fExecutor.submit(() -> {
+            ImageData thumbnail = getCachedThumbnail(imagePath);
+
+            if(thumbnail == null) {
+                try {
+                    ImageData imageData = archiveManager.createImageData(imagePath);
+                    if(imageData != null) {
+                        thumbnail = ImageFactory.getScaledImageData(imageData, fMaxSize);
+                        putCachedThumbnail(imagePath, thumbnail);
+                    }
+                }
+                catch(Exception ex) {
+                    Logger.logError("Could not create thumbnail for: " + imagePath, ex);
+                }
+            }
+
+            if(Thread.currentThread().isInterrupted() || fDisplay.isDisposed()) {
+                return;
+            }
+
+            ImageData result = thumbnail;
+            fDisplay.asyncExec(() -> callback.accept(result));
+        }));
+    }
+
+    /**
+     * Cancel the loads that have not finished. Their callbacks might still be called if they were already queued on the UI thread.
+     */
+    void cancel() {
+        for(Future<?> future : fPending) {
+            future.cancel(true);
+        }
+        fPending.clear();
+    }
+
+    /**
+     * Cancel all loads, stop the background threads and clear the cache
+     */
+    void dispose() {
+        cancel();
+        fExecutor.shutdownNow();
+
+        synchronized(this) {
+            fCache.clear();
+            fCacheBytes = 0;
+        }
+    }
+
+    private synchronized void putCachedThumbnail(String imagePath, ImageData thumbnail) {
+        // Add the bytes first so that removeEldestEntry() counts them
+        fCacheBytes += getBytes(thumbnail);
+        ImageData old = fCache.put(imagePath, thumbnail);
+        if(old != null) {
+            fCacheBytes -= getBytes(old);
+        }
+    }
+
+    private static long getBytes(ImageData imageData) {
+        return (long)imageData.bytesPerLine * imageData.height + (imageData.alphaData != null ? imageData.alphaData.length : 0);
+    }
+}
@@ -7,7 +7,6 @@ package com.archimatetool.editor.propertysections;
 
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -16,7 +15,6 @@ import java.util.Objects;
 
 import org.eclipse.draw2d.ColorConstants;
 import org.eclipse.emf.common.util.EList;
-import org.eclipse.emf.ecore.EObject;
 import org.eclipse.gef.commands.Command;
 import org.eclipse.gef.commands.CommandStack;
 import org.eclipse.gef.commands.CompoundCommand;
@@ -72,6 +70,7 @@ import com.archimatetool.editor.ui.components.ExtendedTitleAreaDialog;
 import com.archimatetool.model.IArchimateModel;
 import com.archimatetool.model.IProperties;
 import com.archimatetool.model.IProperty;
+import com.archimatetool.model.util.PropertiesIndex;
 
 
 
@@ -252,8 +251,7 @@ public class UserPropertiesManagerDialog extends ExtendedTitleAreaDialog {
             @Override
             public void inputChanged(Viewer viewer, Object oldInput, Object newInput) {
                 if(newInput != null) {
-                    keys = new ArrayList<>(fKeysMap.keySet());
-                    Collections.sort(keys, (s1, s2) -> s1.compareToIgnoreCase(s2)); // Don't use Collator.getInstance() as it's too slow
+                    keys = new ArrayList<>(fKeysMap.keySet()); // Already sorted as the keys came from the PropertiesIndex
                     fTableViewer.setItemCount(keys.size());
                 }
             }
@@ -269,7 +267,8 @@ public class UserPropertiesManagerDialog extends ExtendedTitleAreaDialog {
 
             @Override
             public int findElement(Object element) {
-                return keys.indexOf(element);
+                int index = Collections.binarySearch(keys, (String)element, PropertiesIndex.COMPARATOR);
+                return index >= 0 ? index : -1;
             }
         });
 
@@ -348,19 +347,12 @@ public class UserPropertiesManagerDialog extends ExtendedTitleAreaDialog {
     }
 
     private void getAllUniquePropertyKeysForModel() {
-        for(Iterator<EObject> iter = fArchimateModel.eAllContents(); iter.hasNext();) {
-            EObject element = iter.next();
-            if(element instanceof IProperty p) {
-                String key = p.getKey();
-                if(key != null) {
-                    if(fKeysMap.containsKey(key)) {
-                        fKeysMap.get(key).usedTimes++;
-                    }
-                    else {
-                        fKeysMap.put(key, new KeyEntry(key));
-                    }
-                }
-            }
+        PropertiesIndex index = PropertiesIndex.getIndex(fArchimateModel);
+        
+        for(String key : index.getKeys()) {
+            KeyEntry entry = new KeyEntry(key);
+            entry.usedTimes = index.getPropertyCount(key);
+            fKeysMap.put(key, entry);
         }
     }
 
@@ -423,11 +415,11 @@ public class UserPropertiesManagerDialog extends ExtendedTitleAreaDialog {
      * Check for deletions
      */
     private void checkDeletions(CompoundCommand compoundCmd) {
-        for(Iterator<EObject> iter = fArchimateModel.eAllContents(); iter.hasNext();) {
-            EObject element = iter.next();
-            if(element instanceof IProperty property) {
-                String key = property.getKey();
-                if(key != null && !fKeysMap.containsKey(key)) {
+        PropertiesIndex index = PropertiesIndex.getIndex(fArchimateModel);
+        
+        for(String key : index.getKeys()) {
+            if(!fKeysMap.containsKey(key)) {
+                for(IProperty property : index.getProperties(key)) {
                     Command cmd = new DeletePropertyKeyCommand(((IProperties)property.eContainer()).getProperties(), property);
                     compoundCmd.add(cmd);
                 }
@@ -452,15 +444,9 @@ public class UserPropertiesManagerDialog extends ExtendedTitleAreaDialog {
      * Change all instances of key to new name
      */
     private void addKeyNameChangeCommands(CompoundCommand compoundCmd, String oldName, String newName) {
-        for(Iterator<EObject> iter = fArchimateModel.eAllContents(); iter.hasNext();) {
-            EObject element = iter.next();
-            if(element instanceof IProperty property) {
-                String key = property.getKey();
-                if(key != null && key.equals(oldName)) {
-                    Command cmd = new RenamePropertyKeyCommand(property, oldName, newName);
-                    compoundCmd.add(cmd);
-                }
-            }
+        for(IProperty property : PropertiesIndex.getIndex(fArchimateModel).getProperties(oldName)) {
+            Command cmd = new RenamePropertyKeyCommand(property, oldName, newName);
+            compoundCmd.add(cmd);
         }
     }
 
@@ -9,12 +9,10 @@ import java.net.MalformedURLException;
 import java.text.Collator;
 import java.util.AbstractMap.SimpleEntry;
 import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
-import java.util.Iterator;
 import java.util.LinkedHashMap;
-import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -27,7 +25,6 @@ import org.eclipse.draw2d.ColorConstants;
 import org.eclipse.emf.common.notify.Notification;
 import org.eclipse.emf.common.util.ECollections;
 import org.eclipse.emf.common.util.EList;
-import org.eclipse.emf.ecore.EObject;
 import org.eclipse.gef.commands.Command;
 import org.eclipse.gef.commands.CompoundCommand;
 import org.eclipse.jface.action.Action;
@@ -99,6 +96,7 @@ import com.archimatetool.model.IArchimatePackage;
 import com.archimatetool.model.IProperties;
 import com.archimatetool.model.IProperty;
 import com.archimatetool.model.util.LightweightEContentAdapter;
+import com.archimatetool.model.util.PropertiesIndex;
 
 
 
@@ -514,54 +512,32 @@ public class UserPropertiesSection extends AbstractECorePropertySection {
      * @return All unique Property Keys for an entire model (sorted)
      */
     private String[] getAllUniquePropertyKeysForModel(int maxSize) {
-        IArchimateModel model = getArchimateModel();
-        Set<String> set = new LinkedHashSet<>(); // LinkedHashSet is faster when sorting
-        
-        for(Iterator<EObject> iter = model.eAllContents(); iter.hasNext();) {
-            EObject element = iter.next();
-            if(element instanceof IProperty p) {
-                if(maxSize != MAX_ITEMS_ALL && set.size() > maxSize) { // Don't get more than this
-                    break;
-                }
-                String key = p.getKey();
-                if(StringUtils.isSetAfterTrim(key)) {
-                    set.add(key);
-                }
-            }
-        }
-
-        String[] items = set.toArray(new String[set.size()]);
-        Arrays.sort(items, (s1, s2) -> s1.compareToIgnoreCase(s2)); // Don't use Collator.getInstance() as it's too slow
-
-        return items;
+        return getItems(PropertiesIndex.getIndex(getArchimateModel()).getKeys(), maxSize);
     }
     
     /**
      * @return All unique Property Values for an entire model (sorted)
      */
     private String[] getAllUniquePropertyValuesForKeyForModel(String key, int maxSize) {
-        IArchimateModel model = getArchimateModel();
-        Set<String> set = new LinkedHashSet<>(); // LinkedHashSet is faster when sorting
-
-        for(Iterator<EObject> iter = model.eAllContents(); iter.hasNext();) {
-            EObject element = iter.next();
-            if(element instanceof IProperty p) {
-                if(maxSize != MAX_ITEMS_ALL && set.size() > maxSize) { // Don't get more than this
-                    break;
-                }
-                if(p.getKey().equals(key)) {
-                    String value = p.getValue();
-                    if(StringUtils.isSetAfterTrim(value)) {
-                        set.add(value);
-                    }
-                }
+        return getItems(PropertiesIndex.getIndex(getArchimateModel()).getValues(key), maxSize);
+    }
+    
+    /**
+     * @return Up to maxSize non-blank strings from the already sorted strings
+     */
+    private String[] getItems(Collection<String> strings, int maxSize) {
+        List<String> items = new ArrayList<>();
+        
+        for(String s : strings) {
+            if(maxSize != MAX_ITEMS_ALL && items.size() > maxSize) { // Don't get more than this
+                break;
+            }
+            if(StringUtils.isSetAfterTrim(s)) {
+                items.add(s);
             }
         }
-
-        String[] items = set.toArray(new String[set.size()]);
-        Arrays.sort(items, (s1, s2) -> s1.compareToIgnoreCase(s2)); // Don't use Collator.getInstance() as it's too slow
-
-        return items;
+        
+        return items.toArray(new String[items.size()]);
     }
 
 
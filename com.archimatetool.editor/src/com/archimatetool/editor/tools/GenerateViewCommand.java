@@ -5,11 +5,15 @@
  */
 package com.archimatetool.editor.tools;
 
-import java.util.ArrayList;
-import java.util.Iterator;
+import java.util.ArrayDeque;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
 
-import org.eclipse.emf.ecore.EObject;
 import org.eclipse.gef.commands.Command;
 import org.eclipse.jface.window.Window;
 import org.eclipse.swt.widgets.Shell;
@@ -23,7 +27,6 @@ import com.archimatetool.model.IArchimateFactory;
 import com.archimatetool.model.IArchimateRelationship;
 import com.archimatetool.model.IDiagramModelArchimateConnection;
 import com.archimatetool.model.IDiagramModelArchimateObject;
-import com.archimatetool.model.IDiagramModelObject;
 import com.archimatetool.model.IFolder;
 import com.archimatetool.model.viewpoints.IViewpoint;
 
@@ -37,7 +40,7 @@ import com.archimatetool.model.viewpoints.IViewpoint;
 public class GenerateViewCommand extends Command {
     
     private List<IArchimateElement> fSelectedElements;
-    private List<IArchimateElement> fAddedElements;
+    private Set<IArchimateElement> fAddedElements;
     
     private IFolder fParentFolder;
     private IArchimateDiagramModel fDiagramModel;
@@ -50,6 +53,16 @@ public class GenerateViewCommand extends Command {
         fSelectedElements = selectedElements;
     }
     
+    /**
+     * Constructor with the options that are otherwise set in the dialog
+     */
+    GenerateViewCommand(List<IArchimateElement> selectedElements, IViewpoint viewpoint, boolean addAllConnections, String viewName) {
+        this(selectedElements);
+        fViewpoint = viewpoint;
+        fAddAllConnections = addAllConnections;
+        fViewName = viewName;
+    }
+    
     @Override
     public void execute() {
         fDiagramModel = createDiagramModel();
@@ -87,101 +100,100 @@ public class GenerateViewCommand extends Command {
         return false;
     }
     
-    private IArchimateDiagramModel createDiagramModel() {
+    IArchimateDiagramModel createDiagramModel() {
         // New Diagram
         IArchimateDiagramModel dm = IArchimateFactory.eINSTANCE.createArchimateDiagramModel();
         dm.setName(fViewName);
         dm.setViewpoint(fViewpoint.getID());
         
         fParentFolder = fSelectedElements.get(0).getArchimateModel().getDefaultFolderForObject(dm);
-        fParentFolder.getElements().add(dm);
-        
-        int x = 20;
-        int y = 20;
         
         getElementsToAdd();
         
+        Set<IArchimateElement> selectedElements = new HashSet<>(fSelectedElements);
+        GenerateViewLayout layout = new GenerateViewLayout();
+        
+        // Diagram objects for elements, selected elements first
+        // Ordered so that connections and layout edges are always added in the same order
+        Map<IArchimateElement, IDiagramModelArchimateObject> dmos = new LinkedHashMap<>();
+        
         for(IArchimateElement element : fSelectedElements) {
-            createDiagramNode(element, dm, x, y);
-            y += 100;
+            createDiagramNode(element, dm, dmos, layout);
         }
         
-        x = 170;
-        y = 20;
-
         for(IArchimateElement element : fAddedElements) {
-            if(!fSelectedElements.contains(element)) {
-                createDiagramNode(element, dm, x, y);
-                y += 80;
-                
-                if(y > 700) {
-                    y = 20;
-                    x += 150;
-                }
+            if(!dmos.containsKey(element)) {
+                createDiagramNode(element, dm, dmos, layout);
             }
         }
         
+        // Connections to add connections to connections for
+        Queue<IDiagramModelArchimateConnection> connections = new ArrayDeque<>();
+        
         // Add connections between elements first
-        for(IDiagramModelObject dmoSource : dm.getChildren()) {
-            IArchimateElement elementSource = ((IDiagramModelArchimateObject)dmoSource).getArchimateElement();
+        for(IDiagramModelArchimateObject dmoSource : dmos.values()) {
+            IArchimateElement elementSource = dmoSource.getArchimateElement();
             
-            for(IArchimateRelationship relation : List.copyOf(elementSource.getSourceRelationships())) { // work on a copy of the list
-                for(IDiagramModelObject dmoTarget : dm.getChildren()) {
-                    IArchimateElement elementTarget = ((IDiagramModelArchimateObject)dmoTarget).getArchimateElement();
-                    
-                    // Don't add connections that are not connected to the main elements if option is set
-                    if(!fAddAllConnections && !(fSelectedElements.contains(elementSource)) && !(fSelectedElements.contains(elementTarget))) {
-                        continue;
-                    }
-                    
-                    if(relation.getTarget() == elementTarget) {
-                        // Create connection
-                        IDiagramModelArchimateConnection newConnection = ArchimateDiagramModelFactory.createDiagramModelArchimateConnection(relation);
-                        newConnection.connect(dmoSource, dmoTarget);
-                    }
+            for(IArchimateRelationship relation : elementSource.getSourceRelationships()) {
+                IDiagramModelArchimateObject dmoTarget = dmos.get(relation.getTarget());
+                if(dmoTarget == null) {
+                    continue;
+                }
+                
+                // Don't add connections that are not connected to the main elements if option is set
+                if(!fAddAllConnections && !selectedElements.contains(elementSource) && !selectedElements.contains(dmoTarget.getArchimateElement())) {
+                    continue;
                 }
+                
+                IDiagramModelArchimateConnection newConnection = ArchimateDiagramModelFactory.createDiagramModelArchimateConnection(relation);
+                newConnection.connect(dmoSource, dmoTarget);
+                connections.add(newConnection);
+                layout.addConnection(dmoSource, dmoTarget);
             }
         }
         
-        // Add connections to connections
-        for(Iterator<EObject> iter1 = dm.eAllContents(); iter1.hasNext();) {
-            EObject eObject1 = iter1.next();
-            if(eObject1 instanceof IDiagramModelArchimateConnection) {
-                IDiagramModelArchimateConnection connection = (IDiagramModelArchimateConnection)eObject1;
-                
-                for(IDiagramModelObject dmo : dm.getChildren()) {
-                    IArchimateElement element = ((IDiagramModelArchimateObject) dmo).getArchimateElement();
-                    
-                    for(IArchimateRelationship relation : List.copyOf(connection.getArchimateRelationship().getSourceRelationships())) { // work on a copy of the list
-                        if(relation.getTarget() == element) {
-                            IDiagramModelArchimateConnection newConnection = ArchimateDiagramModelFactory.createDiagramModelArchimateConnection(relation);
-                            newConnection.connect(connection, dmo);
-                        }
-                    }
-                    
-                    for(IArchimateRelationship relation : List.copyOf(connection.getArchimateRelationship().getTargetRelationships())) { // work on a copy of the list
-                        if(relation.getSource() == element) {
-                            IDiagramModelArchimateConnection newConnection = ArchimateDiagramModelFactory.createDiagramModelArchimateConnection(relation);
-                            newConnection.connect(dmo, connection);
-                        }
-                    }
+        // Add connections to connections, including to the connections that are added here
+        while(!connections.isEmpty()) {
+            IDiagramModelArchimateConnection connection = connections.remove();
+            IArchimateRelationship connectionRelation = connection.getArchimateRelationship();
+            
+            for(IArchimateRelationship relation : connectionRelation.getSourceRelationships()) {
+                IDiagramModelArchimateObject dmo = dmos.get(relation.getTarget());
+                if(dmo != null) {
+                    IDiagramModelArchimateConnection newConnection = ArchimateDiagramModelFactory.createDiagramModelArchimateConnection(relation);
+                    newConnection.connect(connection, dmo);
+                    connections.add(newConnection);
+                }
+            }
+            
+            for(IArchimateRelationship relation : connectionRelation.getTargetRelationships()) {
+                IDiagramModelArchimateObject dmo = dmos.get(relation.getSource());
+                if(dmo != null) {
+                    IDiagramModelArchimateConnection newConnection = ArchimateDiagramModelFactory.createDiagramModelArchimateConnection(relation);
+                    newConnection.connect(dmo, connection);
+                    connections.add(newConnection);
                 }
             }
         }
+        
+        layout.layout();
+        
+        // Add the diagram model to the model when it's complete so that listeners are not notified of each change
+        fParentFolder.getElements().add(dm);
        
         return dm;
     }
     
-    private void createDiagramNode(IArchimateElement element, IArchimateDiagramModel dm, int x, int y) {
+    private void createDiagramNode(IArchimateElement element, IArchimateDiagramModel dm, Map<IArchimateElement, IDiagramModelArchimateObject> dmos,
+                                   GenerateViewLayout layout) {
         IDiagramModelArchimateObject dmo = ArchimateDiagramModelFactory.createDiagramModelArchimateObject(element);
         dm.getChildren().add(dmo);
-        
-        // Location
-        dmo.getBounds().setLocation(x, y);
+        dmos.put(element, dmo);
+        layout.addObject(dmo);
     }
     
     private void getElementsToAdd() {
-        fAddedElements = new ArrayList<IArchimateElement>();
+        fAddedElements = new LinkedHashSet<>();
         
         for(IArchimateElement element : fSelectedElements) {
             addElement(element);
@@ -200,7 +212,7 @@ public class GenerateViewCommand extends Command {
     
     private void addElement(IArchimateConcept concept) {
         if(concept instanceof IArchimateElement) {
-            if(fViewpoint.isAllowedConcept(concept.eClass()) && !fAddedElements.contains(concept)) {
+            if(fViewpoint.isAllowedConcept(concept.eClass())) {
                 fAddedElements.add((IArchimateElement)concept);
             }
         }
@@ -0,0 +1,183 @@
+/**
+ * This program and the accompanying materials
+ * are made available under the terms of the License
+ * which accompanies this distribution in the file LICENSE.txt
+ */
+package com.archimatetool.editor.tools;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.eclipse.draw2d.geometry.Dimension;
+import org.eclipse.draw2d.geometry.Insets;
+import org.eclipse.draw2d.graph.DirectedGraph;
+import org.eclipse.draw2d.graph.DirectedGraphLayout;
+import org.eclipse.draw2d.graph.Edge;
+import org.eclipse.draw2d.graph.Node;
+import org.eclipse.draw2d.graph.Rank;
+
+import com.archimatetool.editor.ui.factory.IGraphicalObjectUIProvider;
+import com.archimatetool.editor.ui.factory.ObjectUIFactory;
+import com.archimatetool.model.IBounds;
+import com.archimatetool.model.IDiagramModelObject;
+
+
+/**
+ * Layered layout of the objects in a generated View.
+ *
+ * Objects are placed in ranks with DirectedGraphLayout so that connections go from top to bottom where possible
+ * and cross as little as possible. A rank that is wider than about the width of a square holding all of the objects,
+ * such as the targets of an element with many relations, is wrapped onto more than one row.
+ */
+class GenerateViewLayout {
+
+    static final int MARGIN = 20;
+
+    /**
+     * Space around each object
+     */
+    static final Insets PADDING = new Insets(25, 15, 25, 15);
+
+    /**
+     * Ranks are not wrapped to less than this width
+     */
+    static final int MIN_WIDTH = 1200;
+
+    private Map<IDiagramModelObject, Node> fNodes = new LinkedHashMap<>();
+    private DirectedGraph fGraph = new DirectedGraph();
+
+    GenerateViewLayout() {
+        fGraph.setDefaultPadding(PADDING);
+    }
+
+    void addObject(IDiagramModelObject dmo) {
+        Node node = new Node(dmo);
+
+        IBounds bounds = dmo.getBounds();
+        Dimension defaultSize = getDefaultSize(dmo);
+        node.width = bounds.getWidth() > 0 ? bounds.getWidth() : defaultSize.width;
+        node.height = bounds.getHeight() > 0 ? bounds.getHeight() : defaultSize.height;
+
+        fNodes.put(dmo, node);
+        fGraph.nodes.add(node);
+    }
+
+    /**
+     * @return The default size of the type of dmo, such as the smaller size of a Junction
+     */
+    private Dimension getDefaultSize(IDiagramModelObject dmo) {
+        IGraphicalObjectUIProvider provider = (IGraphicalObjectUIProvider)ObjectUIFactory.INSTANCE.getProvider(dmo);
+        return provider != null ? provider.getDefaultSize() : IGraphicalObjectUIProvider.defaultSize();
+    }
+
+    void addConnection(IDiagramModelObject source, IDiagramModelObject target) {
+        Node sourceNode = fNodes.get(source);
+        Node targetNode = fNodes.get(target);
+
+        if(sourceNode != null && targetNode != null && sourceNode != targetNode) {
+            fGraph.edges.add(new Edge(sourceNode, targetNode));
+        }
+    }
+
+    /**
+     * Lay out the objects and set their locations
+     */
+    void layout() {
+        if(fNodes.isEmpty()) {
+            return;
+        }
+
+        new DirectedGraphLayout().visit(fGraph);
+
+        wrapRanks();
+
+        // Move it all to the top left
+        int minX = Integer.MAX_VALUE, minY = Integer.MAX_VALUE;
+        for(Node node : fNodes.values()) {
+            minX = Math.min(minX, node.x);
+            minY = Math.min(minY, node.y);
+        }
+
+        for(Entry<IDiagramModelObject, Node> entry : fNodes.entrySet()) {
+            Node node = entry.getValue();
+            entry.getKey().getBounds().setLocation(node.x - minX + MARGIN, node.y - minY + MARGIN);
+        }
+    }
+
+    /**
+     * Wrap ranks that are wider than about the width of a square holding all of the objects onto more rows.
+     * If any are wrapped the other ranks are moved in proportion to the narrower layout.
+     */
+    private void wrapRanks() {
+        long area = 0;
+        int layoutWidth = 0;
+        for(Node node : fNodes.values()) {
+            area += (long)(node.width + PADDING.getWidth()) * (node.height + PADDING.getHeight());
+            layoutWidth = Math.max(layoutWidth, node.x + node.width);
+        }
+        int maxWidth = Math.max(MIN_WIDTH, (int)Math.sqrt(area) * 3 / 2);
+
+        if(layoutWidth <= maxWidth) {
+            return;
+        }
+
+        List<List<Node>> rows = new ArrayList<>();
+        int shift = 0;
+
+        for(int i = 0; i < fGraph.ranks.size(); i++) {
+            Rank rank = fGraph.ranks.getRank(i);
+
+            // Our nodes in this rank, not the virtual nodes for long edges, from left to right
+            List<Node> nodes = new ArrayList<>();
+            int rowHeight = 0;
+            for(int j = 0; j < rank.size(); j++) {
+                Node node = rank.getNode(j);
+                if(node.data instanceof IDiagramModelObject) {
+                    nodes.add(node);
+                    rowHeight = Math.max(rowHeight, node.height + PADDING.getHeight());
+                }
+            }
+
+            if(nodes.isEmpty()) {
+                continue;
+            }
+
+            nodes.sort(Comparator.comparingInt(node -> node.x));
+
+            List<Node> row = new ArrayList<>();
+            rows.add(row);
+            int rowStart = nodes.get(0).x;
+
+            for(Node node : nodes) {
+                if(node.x + node.width - rowStart > maxWidth && !row.isEmpty()) {
+                    row = new ArrayList<>();
+                    rows.add(row);
+                    rowStart = node.x;
+                    shift += rowHeight;
+                }
+
+                row.add(node);
+                node.y += shift;
+            }
+        }
+
+        // Move each row to where it was in proportion to the new width, keeping the spaces between its nodes
+        double scale = (double)maxWidth / layoutWidth;
+
+        for(List<Node> row : rows) {
+            Node first = row.get(0);
+            Node last = row.get(row.size() - 1);
+            int rowWidth = last.x + last.width - first.x;
+            int start = Math.max(0, Math.min((int)(first.x * scale), maxWidth - rowWidth));
+            int dx = start - first.x;
+
+            for(Node node : row) {
+                node.x += dx;
+            }
+        }
+    }
+}
@@ -17,6 +17,7 @@ import org.eclipse.swt.graphics.Device;
 import org.eclipse.swt.graphics.GC;
 import org.eclipse.swt.graphics.Image;
 import org.eclipse.swt.graphics.ImageData;
+import org.eclipse.swt.graphics.PaletteData;
 import org.eclipse.swt.graphics.RGB;
 import org.eclipse.swt.graphics.Rectangle;
 import org.eclipse.swt.graphics.Transform;
@@ -402,6 +403,129 @@ public class ImageFactory {
         return new Rectangle(0, 0, (int)w, (int)h);
     }
     
+    /**
+     * Reduce ImageData so that either the width or height will be no bigger than maxSize.<p>
+     * 
+     * Each new pixel is the average of the source pixels that it covers, so this is better quality than ImageData#scaledTo
+     * and doesn't need a Display or GC. It can be used off the UI thread, for example to make thumbnails of large images.
+     * 
+     * @param source the ImageData source
+     * @param maxSize the maximum width or size
+     * @return New 24 bit ImageData with alpha data if the source has transparency, or source if it is not bigger than maxSize
+     */
+    public static ImageData getScaledImageData(ImageData source, int maxSize) {
+        int sourceMax = Math.max(source.width, source.height);
+        if(sourceMax <= maxSize) {
+            return source;
+        }
+        
+        int width = Math.max(1, (int)((long)source.width * maxSize / sourceMax));
+        int height = Math.max(1, (int)((long)source.height * maxSize / sourceMax));
+        
+        // Colours of an indexed palette
+        PaletteData palette = source.palette;
+        RGB[] colors = palette.isDirect ? null : palette.getRGBs();
+        
+        ImageData mask = source.maskData != null ? source.getTransparencyMask() : null;
+        
+        // Target column of each source column
+        int[] targetX = new int[source.width];
+        for(int x = 0; x < source.width; x++) {
+            targetX[x] = (int)((long)x * width / source.width);
+        }
+        
+        int[] pixels = new int[source.width];
+        byte[] alphas = new byte[source.width];
+        int[] maskPixels = mask != null ? new int[source.width] : null;
+        
+        // Sums for the target row, colours are weighted by alpha
+        long[] red = new long[width], green = new long[width], blue = new long[width], alpha = new long[width];
+        int[] count = new int[width];
+        
+        ImageData result = new ImageData(width, height, 24, new PaletteData(0xFF0000, 0xFF00, 0xFF));
+        int[] resultPixels = new int[width];
+        byte[] resultAlphas = new byte[width];
+        boolean hasTransparency = false;
+        
+        for(int y = 0; y < source.height; y++) {
+            source.getPixels(0, y, source.width, pixels, 0);
+            if(source.alphaData != null) {
+                source.getAlphas(0, y, source.width, alphas, 0);
+            }
+            if(mask != null) {
+                mask.getPixels(0, y, source.width, maskPixels, 0);
+            }
+            
+            for(int x = 0; x < source.width; x++) {
+                int pixel = pixels[x];
+                
+                int a;
+                if(source.alphaData != null) {
+                    a = alphas[x] & 0xFF;
+                }
+                else if(pixel == source.transparentPixel || (mask != null && maskPixels[x] == 0)) {
+                    a = 0;
+                }
+                else {
+                    a = source.alpha != -1 ? source.alpha : 255;
+                }
+                
+                int r, g, b;
+                if(colors != null) {
+                    RGB rgb = pixel < colors.length ? colors[pixel] : colors[0];
+                    r = rgb.red;
+                    g = rgb.green;
+                    b = rgb.blue;
+                }
+                else {
+                    r = shift(pixel & palette.redMask, palette.redShift);
+                    g = shift(pixel & palette.greenMask, palette.greenShift);
+                    b = shift(pixel & palette.blueMask, palette.blueShift);
+                }
+                
+                int tx = targetX[x];
+                red[tx] += r * a;
+                green[tx] += g * a;
+                blue[tx] += b * a;
+                alpha[tx] += a;
+                count[tx]++;
+            }
+            
+            // Write the target row when this is the last source row for it
+            int ty = (int)((long)y * height / source.height);
+            if(y == source.height - 1 || (int)((long)(y + 1) * height / source.height) != ty) {
+                for(int x = 0; x < width; x++) {
+                    long a = alpha[x];
+                    resultPixels[x] = a == 0 ? 0 : (int)(red[x] / a) << 16 | (int)(green[x] / a) << 8 | (int)(blue[x] / a);
+                    resultAlphas[x] = (byte)(count[x] == 0 ? 0 : a / count[x]);
+                    hasTransparency |= resultAlphas[x] != (byte)255;
+                    red[x] = green[x] = blue[x] = alpha[x] = count[x] = 0;
+                }
+                
+                result.setPixels(0, ty, width, resultPixels, 0);
+                
+                if(result.alphaData == null) {
+                    result.alphaData = new byte[width * height];
+                }
+                result.setAlphas(0, ty, width, resultAlphas, 0);
+            }
+        }
+        
+        // No need for alpha data if it's all opaque
+        if(!hasTransparency) {
+            result.alphaData = null;
+        }
+        
+        return result;
+    }
+    
+    /**
+     * Shift a masked colour component of a direct palette pixel to 0-255, as in PaletteData#getRGB
+     */
+    private static int shift(int value, int shift) {
+        return shift < 0 ? value >>> -shift : value << shift;
+    }
+    
     /**
      * Flip an image.
      * This can be used on Mac Sonoma and later because there is a problem with Control#setBackgroundImage
@@ -0,0 +1,203 @@
+/**
+ * This program and the accompanying materials
+ * are made available under the terms of the License
+ * which accompanies this distribution in the file LICENSE.txt
+ */
+package com.archimatetool.editor.ui;
+
+import java.lang.ref.SoftReference;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.eclipse.swt.graphics.Image;
+import org.eclipse.swt.graphics.ImageData;
+import org.eclipse.swt.graphics.Rectangle;
+import org.eclipse.swt.widgets.Display;
+
+import com.archimatetool.editor.Logger;
+import com.archimatetool.editor.model.IArchiveManager;
+
+
+/**
+ * Shared images of an image in a model's archive at the original size and at each half size down to a few pixels.
+ *
+ * A figure that shows the image at a small size, or at a low zoom, can draw the smallest level that is still at least the size
+ * it needs instead of drawing the original image scaled down. Levels are only created when they are first asked for.
+ * One ImagePyramid is shared by all of the figures that show the same image in the same model. It is acquired with
+ * {@link #acquire(IArchiveManager, String)} and each acquire has to be matched with a {@link #release()}.
+ *
+ * All methods must be called on the UI thread.
+ */
+@SuppressWarnings("nls")
+public class ImagePyramid {
+
+    /**
+     * Smallest level size
+     */
+    static final int MIN_SIZE = 8;
+
+    private static Map<IArchiveManager, Map<String, ImagePyramid>> pyramids = new HashMap<>();
+
+    /**
+     * Get the shared ImagePyramid for an image, creating it if needed. Call {@link #release()} when it is no longer needed.
+     *
+     * @param archiveManager The ArchiveManager containing the image
+     * @param imagePath The image path
+     * @return The ImagePyramid or null if there is no image for imagePath or the image could not be loaded
+     */
+    public static ImagePyramid acquire(IArchiveManager archiveManager, String imagePath) {
+        if(archiveManager == null || imagePath == null) {
+            return null;
+        }
+
+        ImagePyramid pyramid = pyramids.computeIfAbsent(archiveManager, am -> new HashMap<>()).get(imagePath);
+
+        if(pyramid == null) {
+            ImageData imageData = null;
+
+            try {
+                imageData = archiveManager.createImageData(imagePath);
+            }
+            catch(Exception ex) {
+                Logger.logError("Could not create image!", ex);
+            }
+
+            if(imageData == null) {
+                releaseArchiveManager(archiveManager);
+                return null;
+            }
+
+            pyramid = new ImagePyramid(archiveManager, imagePath, imageData);
+            pyramids.get(archiveManager).put(imagePath, pyramid);
+        }
+
+        pyramid.fReferences++;
+        return pyramid;
+    }
+
+    private static void releaseArchiveManager(IArchiveManager archiveManager) {
+        Map<String, ImagePyramid> map = pyramids.get(archiveManager);
+        if(map != null && map.isEmpty()) {
+            pyramids.remove(archiveManager);
+        }
+    }
+
+    private IArchiveManager fArchiveManager;
+    private String fImagePath;
+    private int fReferences;
+
+    private int fWidth, fHeight;
+
+    /**
+     * Images for each level, created when needed. Level 0 is the original size.
+     */
+    private Image[] fLevels;
+
+    /**
+     * The original ImageData that levels are made from. It can be loaded again if it has been collected.
+     */
+    private SoftReference<ImageData> fImageData;
+
+    private ImagePyramid(IArchiveManager archiveManager, String imagePath, ImageData imageData) {
+        fArchiveManager = archiveManager;
+        fImagePath = imagePath;
+        fWidth = imageData.width;
+        fHeight = imageData.height;
+        fImageData = new SoftReference<>(imageData);
+
+        int levels = 1;
+        while(Math.max(fWidth, fHeight) >> levels >= MIN_SIZE) {
+            levels++;
+        }
+        fLevels = new Image[levels];
+    }
+
+    /**
+     * @return The bounds of the original image
+     */
+    public Rectangle getBounds() {
+        return new Rectangle(0, 0, fWidth, fHeight);
+    }
+
+    /**
+     * @return The image at its original size
+     */
+    public Image getImage() {
+        return getLevel(0);
+    }
+
+    /**
+     * @param width The width in pixels that the image will be drawn at
+     * @param height The height in pixels that the image will be drawn at
+     * @return The smallest image that is at least width by height, or the original image if that is smaller.
+     *         Draw it using its own bounds as the source rectangle.
+     */
+    public Image getImage(int width, int height) {
+        return getLevel(getLevelIndex(width, height));
+    }
+
+    /**
+     * @return The index of the smallest level that is at least width by height
+     */
+    int getLevelIndex(int width, int height) {
+        int level = 0;
+        while(level < fLevels.length - 1 && fWidth >> (level + 1) >= width && fHeight >> (level + 1) >= height) {
+            level++;
+        }
+        return level;
+    }
+
+    /**
+     * Release this ImagePyramid. When it has been released as many times as it has been acquired its images are disposed.
+     */
+    public void release() {
+        if(fReferences > 0 && --fReferences == 0) {
+            for(int i = 0; i < fLevels.length; i++) {
+                if(fLevels[i] != null) {
+                    fLevels[i].dispose();
+                    fLevels[i] = null;
+                }
+            }
+
+            Map<String, ImagePyramid> map = pyramids.get(fArchiveManager);
+            if(map != null && map.get(fImagePath) == this) {
+                map.remove(fImagePath);
+                releaseArchiveManager(fArchiveManager);
+            }
+        }
+    }
+
+    private Image getLevel(int level) {
+        if(fLevels[level] == null || fLevels[level].isDisposed()) {
+            ImageData imageData = getImageData();
+            if(level > 0) {
+                imageData = ImageFactory.getScaledImageData(imageData, Math.max(fWidth, fHeight) >> level);
+            }
+            fLevels[level] = new Image(Display.getCurrent(), imageData);
+        }
+
+        return fLevels[level];
+    }
+
+    private ImageData getImageData() {
+        ImageData imageData = fImageData.get();
+
+        if(imageData == null) {
+            imageData = fArchiveManager.createImageData(fImagePath);
+
+            // The image is no longer in the archive so use the largest level we have
+            if(imageData == null) {
+                for(Image image : fLevels) {
+                    if(image != null && !image.isDisposed()) {
+                        return image.getImageData();
+                    }
+                }
+                throw new IllegalStateException("No image data for: " + fImagePath);
+            }
+
+            fImageData = new SoftReference<>(imageData);
+        }
+
+        return imageData;
+    }
+}
@@ -19,6 +19,14 @@ public abstract class AbstractFindReplaceProvider implements IFindReplaceProvide
 
     private int parameter = 0;
     
+    /**
+     * Compiled search and replace patterns cached for the last search string and parameters so that
+     * the pattern is compiled once per search rather than once for each object tested
+     */
+    private Pattern searchPattern, replacePattern;
+    private String searchPatternString, replacePatternString;
+    private int searchPatternParameter, replacePatternParameter;
+    
     @Override
     public boolean canFind(String toFind) {
         return StringUtils.isSet(toFind);
@@ -99,13 +107,19 @@ public abstract class AbstractFindReplaceProvider implements IFindReplaceProvide
      * @return A new string based on the old string, replacing the part toFind with toReplaceWith
      */
     protected String getReplacedString(String oldString, String toFind, String toReplaceWith) {
-        toFind = Pattern.quote(toFind);
+        if(replacePattern == null || replacePatternParameter != getParameter() || !toFind.equals(replacePatternString)) {
+            String regex = Pattern.quote(toFind);
 
-        if(!isCaseSensitive()) {
-            toFind = "(?iu:" + toFind + ")"; //$NON-NLS-1$ //$NON-NLS-2$
+            if(!isCaseSensitive()) {
+                regex = "(?iu:" + regex + ")"; //$NON-NLS-1$ //$NON-NLS-2$
+            }
+            
+            replacePattern = Pattern.compile(regex);
+            replacePatternString = toFind;
+            replacePatternParameter = getParameter();
         }
         
-        return oldString.replaceAll(toFind, toReplaceWith);
+        return replacePattern.matcher(oldString).replaceAll(toReplaceWith);
     }
     
     /**
@@ -131,4 +145,27 @@ public abstract class AbstractFindReplaceProvider implements IFindReplaceProvide
         return searchString;
     }
     
+    /**
+     * @param searchString The string to search on
+     * @return The compiled regex pattern from getSearchStringPattern()
+     */
+    protected Pattern getSearchPattern(String searchString) {
+        if(searchPattern == null || searchPatternParameter != getParameter() || !searchString.equals(searchPatternString)) {
+            searchPattern = Pattern.compile(getSearchStringPattern(searchString));
+            searchPatternString = searchString;
+            searchPatternParameter = getParameter();
+        }
+        
+        return searchPattern;
+    }
+    
+    /**
+     * @param string The string to test
+     * @param searchString The string to search on
+     * @return True if searchString is found in string given the set search parameters
+     */
+    protected boolean matchesSearchString(String string, String searchString) {
+        return string != null && getSearchPattern(searchString).matcher(string).matches();
+    }
+    
 }
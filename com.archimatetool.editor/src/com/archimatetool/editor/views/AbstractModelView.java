@@ -282,9 +282,9 @@ implements IContextProvider, PropertyChangeListener, ITabbedPropertySheetPageCon
     protected void eCoreChanged(Notification msg) {
         int type = msg.getEventType();
         
-        // Not interested in these types
-        if(type == Notification.ADD_MANY || type == Notification.REMOVE_MANY || type == Notification.MOVE
-                || type == EObjectNonNotifyingCompoundCommand.START || type == EObjectNonNotifyingCompoundCommand.END) {
+        // Not interested in these types, except for many objects added to or removed from a folder
+        if(((type == Notification.ADD_MANY || type == Notification.REMOVE_MANY) && !(msg.getNotifier() instanceof IFolder))
+                || type == Notification.MOVE || type == EObjectNonNotifyingCompoundCommand.START || type == EObjectNonNotifyingCompoundCommand.END) {
             return;
         }
         
@@ -339,6 +339,12 @@ implements IContextProvider, PropertyChangeListener, ITabbedPropertySheetPageCon
                 }
             }
         }
+        // Many objects added to or removed from a folder
+        else if(type == Notification.ADD_MANY || type == Notification.REMOVE_MANY) {
+            if(msg.getNotifier() instanceof IFolder) {
+                element = (EObject)msg.getNotifier();
+            }
+        }
         else if(type == Notification.SET) {
             // Need to refresh parent node on name or label expression change because of using a ViewerSorter
             if(msg.getNotifier() instanceof EObject) {
@@ -6,6 +6,7 @@
 package com.archimatetool.editor.views.navigator;
 
 import java.beans.PropertyChangeEvent;
+import java.util.Collection;
 import java.util.List;
 
 import org.eclipse.core.runtime.IAdaptable;
@@ -377,12 +378,24 @@ implements INavigatorView, ISelectionListener {
         return false;
     }
     
-    private boolean isRefreshEvent(Notification msg) {
-        if(msg.getNewValue() instanceof IArchimateConcept || msg.getOldValue() instanceof IArchimateConcept) {
-            return true;
+    static boolean isRefreshEvent(Notification msg) {
+        return isConceptValue(msg.getNewValue()) || isConceptValue(msg.getOldValue());
+    }
+    
+    /**
+     * @return true if value is a concept or, as with ADD_MANY and REMOVE_MANY notifications, a collection containing a concept
+     */
+    private static boolean isConceptValue(Object value) {
+        if(value instanceof Collection<?> collection) {
+            for(Object object : collection) {
+                if(object instanceof IArchimateConcept) {
+                    return true;
+                }
+            }
+            return false;
         }
         
-        return false;
+        return value instanceof IArchimateConcept;
     }
 
     // =================================================================================
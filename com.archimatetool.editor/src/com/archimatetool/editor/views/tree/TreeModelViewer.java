@@ -7,7 +7,9 @@ package com.archimatetool.editor.views.tree;
 
 import java.text.Collator;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.eclipse.emf.ecore.EObject;
 import org.eclipse.jface.util.IPropertyChangeListener;
@@ -17,6 +19,7 @@ import org.eclipse.jface.viewers.ColumnViewerEditor;
 import org.eclipse.jface.viewers.ColumnViewerEditorActivationEvent;
 import org.eclipse.jface.viewers.ColumnViewerEditorActivationStrategy;
 import org.eclipse.jface.viewers.ICellModifier;
+import org.eclipse.jface.viewers.ILazyTreeContentProvider;
 import org.eclipse.jface.viewers.ITreeContentProvider;
 import org.eclipse.jface.viewers.TreeViewer;
 import org.eclipse.jface.viewers.TreeViewerEditor;
@@ -61,6 +64,10 @@ import com.archimatetool.model.INameable;
  * 
  * Text Cell Editing code inspired by http://ramkulkarni.com/blog/in-place-editing-in-eclipse-treeviewer/
  * 
+ * The Tree is virtual and its content provider is lazy so that a TreeItem is only created and labelled when it is shown.
+ * A lazy TreeViewer does not filter and sort so this is done here, and the sorted children of a parent are kept until
+ * the parent is refreshed so that creating an item doesn't sort all of its siblings again.
+ * 
  * @author Phillip Beauvoir
  */
 public class TreeModelViewer extends TreeViewer {
@@ -80,6 +87,17 @@ public class TreeModelViewer extends TreeViewer {
      */
     private Object[] rootVisibleExpandedElements;
     
+    /**
+     * Incremented whenever the tree is refreshed so that TreeModelViewerFindReplaceProvider knows that
+     * the sorted and filtered order of elements may have changed
+     */
+    private int refreshCount;
+    
+    /**
+     * Sorted and filtered children of parent elements that have been shown
+     */
+    private Map<Object, Object[]> sortedChildren = new HashMap<>();
+    
     /**
      * Listener for theme font change
      */
@@ -90,7 +108,7 @@ public class TreeModelViewer extends TreeViewer {
     };
     
     public TreeModelViewer(Composite parent, int style) {
-        super(parent, style | SWT.MULTI);
+        super(parent, style | SWT.MULTI | SWT.VIRTUAL);
         
         // Set CSS ID and apply the style so that we can immediately get the italic and bold fonts from the base font style
         ThemeUtils.registerCssId(getTree(), "ModelTree"); //$NON-NLS-1$
@@ -106,6 +124,22 @@ public class TreeModelViewer extends TreeViewer {
         
         // Sort
         setComparator(new ViewerComparator(Collator.getInstance()) {
+            /**
+             * Labels of the elements being sorted so that each label is only rendered once
+             */
+            private Map<Object, String> labels;
+            
+            @Override
+            public void sort(Viewer viewer, Object[] elements) {
+                labels = new HashMap<>();
+                try {
+                    super.sort(viewer, elements);
+                }
+                finally {
+                    labels = null;
+                }
+            }
+            
             @Override
             public int compare(Viewer viewer, Object e1, Object e2) {
                 int cat1 = category(e1);
@@ -121,19 +155,20 @@ public class TreeModelViewer extends TreeViewer {
                     return 0;
                 }
                 
+                return getComparator().compare(getLabel(e1), getLabel(e2));
+            }
+            
+            private String getLabel(Object element) {
+                return labels != null ? labels.computeIfAbsent(element, this::createLabel) : createLabel(element);
+            }
+            
+            private String createLabel(Object element) {
                 // Get rendered text or name
-                String label1 = getAncestorFolderRenderText((IArchimateModelObject)e1);
-                if(label1 == null) {
-                    label1 = StringUtils.safeString(ArchiLabelProvider.INSTANCE.getLabelNormalised(e1));
-                }
-
-                // Get rendered text or name
-                String label2 = getAncestorFolderRenderText((IArchimateModelObject)e2);
-                if(label2 == null) {
-                    label2 = StringUtils.safeString(ArchiLabelProvider.INSTANCE.getLabelNormalised(e2));
+                String label = getAncestorFolderRenderText((IArchimateModelObject)element);
+                if(label == null) {
+                    label = StringUtils.safeString(ArchiLabelProvider.INSTANCE.getLabelNormalised(element));
                 }
-                
-                return getComparator().compare(label1, label2);
+                return label;
             }
             
             @Override
@@ -203,6 +238,7 @@ public class TreeModelViewer extends TreeViewer {
             viewpointFilterProvider = null;
             searchFilter = null;
             rootVisibleExpandedElements = null;
+            sortedChildren.clear();
         });
     }
     
@@ -288,9 +324,16 @@ public class TreeModelViewer extends TreeViewer {
     void update(Object element) {
         try {
             getControl().setRedraw(false);
-            // If element is null use the root element
-            element = element == null ? getRoot() : element;
-            updateElement(element);
+            
+            // If element is null or not shown (in case of drill-down) update all items
+            TreeItem item = element != null ? findTreeItem(element) : null;
+            if(item != null) {
+                update(element, null);
+                updateItems(item.getItems());
+            }
+            else {
+                updateItems(getTree().getItems());
+            }
         }
         finally {
             getControl().setRedraw(true);
@@ -298,13 +341,15 @@ public class TreeModelViewer extends TreeViewer {
     }
     
     /**
-     * Update element and all of its child elements from the content provider
+     * Update items and all of their child items.
+     * Items that have not been shown yet have no data and will get their label when they are shown.
      */
-    private void updateElement(Object element) {
-        if(element != null) {
-            update(element, null);
-            for(Object child : ((ITreeContentProvider)getContentProvider()).getChildren(element)) {
-                updateElement(child);
+    private void updateItems(TreeItem[] items) {
+        for(TreeItem item : items) {
+            Object element = item.getData();
+            if(element != null) {
+                update(element, null);
+                updateItems(item.getItems());
             }
         }
     }
@@ -354,9 +399,81 @@ public class TreeModelViewer extends TreeViewer {
     }
     
     // Need package access to this method
+    // The lazy TreeViewer doesn't sort and filter its children so we do it here and keep the result until the parent is refreshed
     @Override
     protected Object[] getSortedChildren(Object parentElementOrTreePath) {
-        return super.getSortedChildren(parentElementOrTreePath);
+        return sortedChildren.computeIfAbsent(parentElementOrTreePath, parent -> {
+            Object[] children = getFilteredChildren(parent);
+            if(getComparator() != null) {
+                getComparator().sort(this, children);
+            }
+            return children;
+        });
+    }
+    
+    @Override
+    protected Object[] getFilteredChildren(Object parentElementOrTreePath) {
+        Object[] children = ((ITreeContentProvider)getContentProvider()).getChildren(parentElementOrTreePath);
+        for(ViewerFilter filter : getFilters()) {
+            children = filter.filter(this, parentElementOrTreePath, children);
+        }
+        return children;
+    }
+    
+    /**
+     * @return true if element has at least one child that is not filtered out. This doesn't get all of the filtered children.
+     */
+    private boolean hasFilteredChildren(Object element) {
+        for(Object child : ((ITreeContentProvider)getContentProvider()).getChildren(element)) {
+            if(isSelected(element, child)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    private boolean isSelected(Object parent, Object element) {
+        for(ViewerFilter filter : getFilters()) {
+            if(!filter.select(this, parent, element)) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    @Override
+    protected void internalRefresh(Object element, boolean updateLabels) {
+        refreshCount++;
+        clearSortedChildren(element);
+        super.internalRefresh(element, updateLabels);
+    }
+    
+    /**
+     * Remove the sorted children of element and of its descendants, or all of them if element is the root
+     */
+    private void clearSortedChildren(Object element) {
+        if(element == null || element == getRoot()) {
+            sortedChildren.clear();
+        }
+        else {
+            sortedChildren.keySet().removeIf(parent -> isAncestorOrSelf(element, parent));
+        }
+    }
+    
+    private boolean isAncestorOrSelf(Object ancestor, Object element) {
+        for(Object e = element; e != null; e = ((ITreeContentProvider)getContentProvider()).getParent(e)) {
+            if(e == ancestor) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * @return The number of times the tree has been refreshed
+     */
+    int getRefreshCount() {
+        return refreshCount;
     }
     
     /**
@@ -390,9 +507,10 @@ public class TreeModelViewer extends TreeViewer {
     // ========================= Model Providers =====================================
     
     /**
-     *  Content Provider
+     * Lazy Content Provider.
+     * It's also an ITreeContentProvider to get the model children of an element before they are sorted and filtered.
      */
-    private class ModelTreeViewerContentProvider implements ITreeContentProvider {
+    private class ModelTreeViewerContentProvider implements ILazyTreeContentProvider, ITreeContentProvider {
         
         @Override
         public void inputChanged(Viewer v, Object oldInput, Object newInput) {
@@ -449,7 +567,25 @@ public class TreeModelViewer extends TreeViewer {
 
         @Override
         public boolean hasChildren(Object element) {
-        	return getFilteredChildren(element).length > 0;
+            return hasFilteredChildren(element);
+        }
+        
+        @Override
+        public void updateElement(Object parent, int index) {
+            Object[] children = getSortedChildren(parent);
+            if(index < children.length) {
+                Object child = children[index];
+                replace(parent, index, child);
+                setHasChildren(child, hasFilteredChildren(child));
+            }
+        }
+        
+        @Override
+        public void updateChildCount(Object element, int currentChildCount) {
+            int count = getSortedChildren(element).length;
+            if(count != currentChildCount) {
+                setChildCount(element, count);
+            }
         }
     }
     
@@ -5,12 +5,17 @@
  */
 package com.archimatetool.editor.views.tree;
 
+import java.beans.PropertyChangeListener;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.List;
 
 import org.eclipse.jface.viewers.IStructuredSelection;
+import org.eclipse.jface.viewers.ITreeContentProvider;
 import org.eclipse.jface.viewers.StructuredSelection;
 
+import com.archimatetool.editor.model.IEditorModelManager;
 import com.archimatetool.editor.ui.findreplace.AbstractFindReplaceProvider;
 import com.archimatetool.editor.utils.StringUtils;
 import com.archimatetool.editor.views.tree.commands.RenameCommandHandler;
@@ -39,8 +44,22 @@ public class TreeModelViewerFindReplaceProvider extends AbstractFindReplaceProvi
      */
     boolean replaceSelection = false;
     
+    /**
+     * Position of the last match found by findNextElement() so that the next search can carry on from there
+     * rather than walking the tree again from the start to find the start element
+     */
+    private TreeCursor fCursor;
+    
+    /**
+     * A model change might change the sorted order of the tree so the cursor can't be used after that
+     */
+    private PropertyChangeListener fModelListener = event -> fCursor = null;
+    
     public TreeModelViewerFindReplaceProvider(TreeModelViewer viewer) {
         fTreeModelViewer = viewer;
+        
+        IEditorModelManager.INSTANCE.addPropertyChangeListener(fModelListener);
+        viewer.getControl().addDisposeListener(event -> IEditorModelManager.INSTANCE.removePropertyChangeListener(fModelListener));
     }
     
     @Override
@@ -125,28 +144,30 @@ public class TreeModelViewerFindReplaceProvider extends AbstractFindReplaceProvi
      * @return The next/previous element if found, or null
      */
     INameable findNextElement(Object startElement, String toFind) {
-        // Get *all* elements in the viewer
-        List<INameable> elements = getAllNameableElements();
-        
-        if(elements.isEmpty()) {
+        Object root = getSearchRoot();
+        if(root == null) {
             return null;
         }
         
-        // Increment for forward/backward
-        int increment = isForward() ? 1 : -1;
+        TreeCursor cursor = getCursor(root, startElement);
+        fCursor = null;
         
-        // Starting index (defaults for a null startElement)
-        int startIndex = isForward() ? 0 : elements.size() - 1;
+        boolean hasElement = true;
         
-        // Find starting point from startElement, if we have one
-        if(startElement != null) {
-            startIndex = elements.indexOf(startElement) + increment;
+        // Move on from the start element
+        if(cursor.isAt(startElement)) {
+            hasElement = cursor.move(isForward());
+        }
+        // Or start from the last element in the tree if going backwards (the cursor is at the first element)
+        else if(!isForward()) {
+            hasElement = cursor.moveToLast();
         }
         
-        // Iterate through all elements forwards or backwards until we find the next matching element
-        for(int i = startIndex; isForward() ? (i < elements.size()) : (i >= 0); i += increment) {
-            Object element = elements.get(i);
+        // Walk forwards or backwards until we find the next matching element
+        for(; hasElement; hasElement = cursor.move(isForward())) {
+            Object element = cursor.getElement();
             if(matches(element, toFind)) {
+                fCursor = cursor;
                 return (INameable)element;
             }
         }
@@ -155,48 +176,50 @@ public class TreeModelViewerFindReplaceProvider extends AbstractFindReplaceProvi
     }
     
     /**
-     * @param toFind The string to find a match on. If this is null, then collect all elements in the tree viewer.
+     * @param toFind The string to find a match on
      * @return All elements in the TreeViewer that match the string, in sorted and filtered order
      *          If a model is in scope use that as the starting/end point
      */
     List<INameable> getAllMatchingElements(String toFind) {
-        if(isAllModels()) {
-            return getMatchingElements(fTreeModelViewer.getInput(), toFind);
-        }
-        else {
-            return getMatchingElements(getModelInScope(), toFind);
-        }
-    }
-    
-    /**
-     * @param element The element to start searching from.
-     * @param toFind The string to find a match on. If this is null, then collect all elements in the tree viewer.
-     * @return A list of all matching elements in the viewer model as sorted and filtered by the TreeViewer model
-     */
-    private List<INameable> getMatchingElements(Object element, String toFind) {
         List<INameable> list = new ArrayList<INameable>();
         
-        if(element != null) {
-            if(toFind == null && element instanceof INameable) { // collect all
-                list.add((INameable)element);
-            }
-            else if(matches(element, toFind)) { // collect on match
-                list.add((INameable)element);
-            }
-            
-            for(Object object : fTreeModelViewer.getSortedChildren(element)) {
-                list.addAll(getMatchingElements(object, toFind));
+        Object root = getSearchRoot();
+        if(root != null) {
+            TreeCursor cursor = new TreeCursor(root);
+            do {
+                Object element = cursor.getElement();
+                if(matches(element, toFind)) {
+                    list.add((INameable)element);
+                }
             }
+            while(cursor.move(true));
         }
         
         return list;
     }
     
     /**
-     * @return *all* elements in the TreeViewer of type INameable, in sorted and filtered order
+     * @return The element in the tree to search from, either the tree's input or the model in scope
+     */
+    private Object getSearchRoot() {
+        return isAllModels() ? fTreeModelViewer.getInput() : getModelInScope();
+    }
+    
+    /**
+     * @return The cursor from the last search if it is still at startElement, else a new cursor at startElement
+     *          or at the root if startElement is not in the tree
      */
-    private List<INameable> getAllNameableElements() {
-        return getAllMatchingElements(null);
+    private TreeCursor getCursor(Object root, Object startElement) {
+        if(fCursor != null && fCursor.root == root && fCursor.refreshCount == fTreeModelViewer.getRefreshCount() && fCursor.isAt(startElement)) {
+            return fCursor;
+        }
+        
+        TreeCursor cursor = new TreeCursor(root);
+        if(startElement != null && !cursor.moveTo(startElement)) {
+            cursor = new TreeCursor(root);
+        }
+        
+        return cursor;
     }
     
     /**
@@ -211,11 +234,10 @@ public class TreeModelViewerFindReplaceProvider extends AbstractFindReplaceProvi
             return false;
         }
         
-        return (object instanceof INameable)
+        return (object instanceof INameable nameable)
                 && RenameCommandHandler.canRename(object)
                 && StringUtils.isSet(toFind)
-                && ((INameable)object).getName() != null
-                && ((INameable)object).getName().matches(getSearchStringPattern(toFind));
+                && matchesSearchString(nameable.getName(), toFind);
     }
     
     /**
@@ -244,4 +266,144 @@ public class TreeModelViewerFindReplaceProvider extends AbstractFindReplaceProvi
         
         return null;
     }
+    
+    /**
+     * Position in a walk of the tree's elements in sorted and filtered order, depth first, parents before children.
+     * The sorted children of an element are only got when the walk gets to them so that the cost of a walk
+     * is in proportion to the number of elements visited rather than the size of the tree.
+     */
+    private class TreeCursor {
+        private Object root;
+        private int refreshCount;
+        
+        /**
+         * The sorted siblings and index of each element in the path from the root to the current element
+         */
+        private Deque<Level> levels = new ArrayDeque<>();
+        
+        TreeCursor(Object root) {
+            this.root = root;
+            refreshCount = fTreeModelViewer.getRefreshCount();
+            levels.push(new Level(new Object[] { root }, 0));
+        }
+        
+        Object getElement() {
+            return levels.peek().getElement();
+        }
+        
+        boolean isAt(Object element) {
+            return element != null && getElement() == element;
+        }
+        
+        /**
+         * Move to element by finding its position among its sorted siblings for each of its ancestors
+         * @return false if element is not in the tree below the root
+         */
+        boolean moveTo(Object element) {
+            Deque<Object> path = new ArrayDeque<>();
+            
+            for(Object o = element; o != root; o = getParent(o)) {
+                if(o == null) {
+                    return false;
+                }
+                path.push(o);
+            }
+            
+            for(Object o : path) {
+                Object[] siblings = fTreeModelViewer.getSortedChildren(getElement());
+                int index = indexOf(siblings, o);
+                if(index == -1) { // filtered out
+                    return false;
+                }
+                levels.push(new Level(siblings, index));
+            }
+            
+            return true;
+        }
+        
+        /**
+         * Move to the last element in the tree
+         */
+        boolean moveToLast() {
+            Object[] children = fTreeModelViewer.getSortedChildren(getElement());
+            
+            while(children.length > 0) {
+                levels.push(new Level(children, children.length - 1));
+                children = fTreeModelViewer.getSortedChildren(getElement());
+            }
+            
+            return true;
+        }
+        
+        /**
+         * Move to the next or previous element
+         * @return false if there are no more elements
+         */
+        boolean move(boolean forward) {
+            return forward ? next() : previous();
+        }
+        
+        private boolean next() {
+            Object[] children = fTreeModelViewer.getSortedChildren(getElement());
+            if(children.length > 0) {
+                levels.push(new Level(children, 0));
+                return true;
+            }
+            
+            while(!levels.isEmpty()) {
+                Level level = levels.peek();
+                if(++level.index < level.siblings.length) {
+                    return true;
+                }
+                levels.pop();
+            }
+            
+            return false;
+        }
+        
+        private boolean previous() {
+            Level level = levels.peek();
+            if(level.index > 0) {
+                level.index--;
+                return moveToLast();
+            }
+            
+            levels.pop();
+            return !levels.isEmpty();
+        }
+        
+        private Object getParent(Object element) {
+            Object parent = ((ITreeContentProvider)fTreeModelViewer.getContentProvider()).getParent(element);
+            
+            // A model's parent in the tree is the tree's input
+            if(parent == null && element instanceof IArchimateModel) {
+                parent = fTreeModelViewer.getInput();
+            }
+            
+            return parent;
+        }
+        
+        private int indexOf(Object[] objects, Object object) {
+            for(int i = 0; i < objects.length; i++) {
+                if(objects[i] == object) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+    
+    private static class Level {
+        Object[] siblings;
+        int index;
+        
+        Level(Object[] siblings, int index) {
+            this.siblings = siblings;
+            this.index = index;
+        }
+        
+        Object getElement() {
+            return siblings[index];
+        }
+    }
 }
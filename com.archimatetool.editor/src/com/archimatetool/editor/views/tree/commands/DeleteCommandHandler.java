@@ -24,15 +24,13 @@ import org.eclipse.swt.widgets.TreeItem;
 
 import com.archimatetool.editor.diagram.commands.DiagramCommandFactory;
 import com.archimatetool.editor.model.DiagramModelUtils;
-import com.archimatetool.editor.model.commands.DeleteArchimateElementCommand;
-import com.archimatetool.editor.model.commands.DeleteArchimateRelationshipCommand;
+import com.archimatetool.editor.model.commands.DeleteArchimateConceptsCommand;
 import com.archimatetool.editor.model.commands.DeleteDiagramModelCommand;
 import com.archimatetool.editor.model.commands.DeleteFolderCommand;
 import com.archimatetool.editor.views.tree.TreeModelViewer;
 import com.archimatetool.model.FolderType;
 import com.archimatetool.model.IAdapter;
 import com.archimatetool.model.IArchimateConcept;
-import com.archimatetool.model.IArchimateElement;
 import com.archimatetool.model.IArchimateModel;
 import com.archimatetool.model.IArchimateModelObject;
 import com.archimatetool.model.IArchimateRelationship;
@@ -196,6 +194,21 @@ public class DeleteCommandHandler {
             }
         }
         
+        /*
+         * Elements and relations are deleted together in one command for each Command Stack as there might be very many of them.
+         * The command is added where the first concept is found, which is where the first of the separate commands it replaces would have been added.
+         */
+        Map<CompoundCommand, List<IArchimateConcept>> conceptsToDelete = new HashMap<>();
+        
+        for(Object object : fObjectsToDelete) {
+            if(object instanceof IArchimateConcept concept) {
+                CompoundCommand compoundCommand = getCompoundCommand(concept);
+                if(compoundCommand != null) {
+                    conceptsToDelete.computeIfAbsent(compoundCommand, c -> new ArrayList<>()).add(concept);
+                }
+            }
+        }
+        
         /*
          * Then the other types
          */
@@ -214,13 +227,13 @@ public class DeleteCommandHandler {
                 Command cmd = new DeleteFolderCommand(folder);
                 compoundCommand.add(cmd);
             }
-            else if(object instanceof IArchimateElement element) {
-                Command cmd = new DeleteArchimateElementCommand(element);
-                compoundCommand.add(cmd);
-            }
-            else if(object instanceof IArchimateRelationship relationship) {
-                Command cmd = new DeleteArchimateRelationshipCommand(relationship);
-                compoundCommand.add(cmd);
+            else if(object instanceof IArchimateConcept) {
+                // Only the first concept for this Command Stack adds the command
+                List<IArchimateConcept> concepts = conceptsToDelete.remove(compoundCommand);
+                if(concepts != null) {
+                    Command cmd = new DeleteArchimateConceptsCommand(concepts);
+                    compoundCommand.add(cmd);
+                }
             }
             else if(object instanceof IDiagramModelObject dmo) {
                 Command cmd = DiagramCommandFactory.createDeleteDiagramObjectCommand(dmo);
@@ -326,10 +339,10 @@ public class DeleteCommandHandler {
         // Element/Relation
         else if(object instanceof IArchimateConcept concept) {
             for(IArchimateRelationship relationship : ArchimateModelUtils.getAllRelationshipsForConcept(concept)) {
-                fObjectsToDelete.add(relationship);
-                
-                // Recurse
-                addElementRelationships(relationship);
+                // Recurse if not already added
+                if(fObjectsToDelete.add(relationship)) {
+                    addElementRelationships(relationship);
+                }
             }
         }
     }
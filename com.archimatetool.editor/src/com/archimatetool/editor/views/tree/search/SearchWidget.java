@@ -9,16 +9,14 @@ import java.text.Collator;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashSet;
-import java.util.Iterator;
-import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.Timer;
 import java.util.TimerTask;
+import java.util.TreeSet;
 
 import org.eclipse.emf.ecore.EClass;
-import org.eclipse.emf.ecore.EObject;
 import org.eclipse.jface.action.Action;
 import org.eclipse.jface.action.IAction;
 import org.eclipse.jface.action.MenuManager;
@@ -55,8 +53,8 @@ import com.archimatetool.editor.utils.StringUtils;
 import com.archimatetool.model.IArchimateModel;
 import com.archimatetool.model.IProfile;
 import com.archimatetool.model.IProfiles;
-import com.archimatetool.model.IProperty;
 import com.archimatetool.model.util.ArchimateModelUtils;
+import com.archimatetool.model.util.PropertiesIndex;
 
 
 
@@ -523,29 +521,21 @@ public class SearchWidget extends Composite {
         // Maximum amount of items to display when getting all unique keys
         final int MAX_ITEMS = 1000000;
         
-        Set<String> set = new LinkedHashSet<>(); // LinkedHashSet is faster when sorting
+        // Sort alphabetically, but don't use Collator.getInstance() as it's too slow
+        Set<String> set = new TreeSet<>(PropertiesIndex.COMPARATOR);
         
         for(IArchimateModel model : IEditorModelManager.INSTANCE.getModels()) {
-            for(Iterator<EObject> iter = model.eAllContents(); iter.hasNext();) {
-                EObject element = iter.next();
-                if(element instanceof IProperty property) {
-                    String key = property.getKey();
-                    if(StringUtils.isSetAfterTrim(key)) {
-                        set.add(key);
-                        if(set.size() > MAX_ITEMS) { // Don't get more than this
-                            break;
-                        }
+            for(String key : PropertiesIndex.getIndex(model).getKeys()) {
+                if(StringUtils.isSetAfterTrim(key)) {
+                    set.add(key);
+                    if(set.size() > MAX_ITEMS) { // Don't get more than this
+                        break;
                     }
                 }
             }
         }
         
-        List<String> list = new ArrayList<>(set);
-        
-        // Sort alphabetically, but don't use Collator.getInstance() as it's too slow
-        list.sort((s1, s2) -> s1.compareToIgnoreCase(s2));
-
-        return list;
+        return new ArrayList<>(set);
     }
     
     private void populateSpecializationsMenu() {
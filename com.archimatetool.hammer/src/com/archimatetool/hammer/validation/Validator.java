@@ -23,6 +23,7 @@ import com.archimatetool.hammer.validation.checkers.NestedElementsChecker;
 import com.archimatetool.hammer.validation.checkers.UnusedElementsChecker;
 import com.archimatetool.hammer.validation.checkers.UnusedRelationsChecker;
 import com.archimatetool.hammer.validation.checkers.ViewpointChecker;
+import com.archimatetool.hammer.validation.checkers.ViewsIndex;
 import com.archimatetool.hammer.validation.issues.AdviceCategory;
 import com.archimatetool.hammer.validation.issues.AdviceType;
 import com.archimatetool.hammer.validation.issues.ErrorType;
@@ -50,6 +51,7 @@ public class Validator {
     private List<IArchimateElement> fElements;
     private List<IArchimateRelationship> fRelations;
     private List<IArchimateDiagramModel> fViews;
+    private ViewsIndex fViewsIndex;
     
     private List<ErrorType> fErrorList;
     private List<WarningType> fWarningList;
@@ -120,12 +122,12 @@ public class Validator {
         
         // Components in wrong Viewpoints
         if(store.getBoolean(IPreferenceConstants.PREFS_HAMMER_CHECK_VIEWPOINT)) {
-            collectIssues(new ViewpointChecker(getArchimateViews()));
+            collectIssues(new ViewpointChecker(getViewsIndex()));
         }
         
         // Nested elements
         if(store.getBoolean(IPreferenceConstants.PREFS_HAMMER_CHECK_NESTING)) {
-            collectIssues(new NestedElementsChecker(getArchimateViews()));
+            collectIssues(new NestedElementsChecker(getViewsIndex()));
         }
 
         // Possible Duplicates
@@ -139,6 +141,9 @@ public class Validator {
         }
 
         // ----------------------------------------------------------
+        
+        // Don't hold on to the index
+        fViewsIndex = null;
 
         if(!fErrorList.isEmpty()) {
             IIssueCategory category = new ErrorsCategory(fErrorList);
@@ -191,4 +196,14 @@ public class Validator {
     public List<IArchimateDiagramModel> getArchimateViews() {
         return new ArrayList<IArchimateDiagramModel>(fViews); // copy
     }
+    
+    /**
+     * @return An index of the Views built once and shared by the checkers in a validation
+     */
+    ViewsIndex getViewsIndex() {
+        if(fViewsIndex == null) {
+            fViewsIndex = new ViewsIndex(getArchimateViews());
+        }
+        return fViewsIndex;
+    }
 }
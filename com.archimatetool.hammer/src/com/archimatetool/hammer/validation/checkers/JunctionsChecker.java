@@ -46,20 +46,17 @@ public class JunctionsChecker implements IChecker {
         
         for(IArchimateElement element : fArchimateElements) {
             if(element instanceof IJunction) {
+                IArchimateRelationship rel = !element.getSourceRelationships().isEmpty() ? element.getSourceRelationships().get(0)
+                        : !element.getTargetRelationships().isEmpty() ? element.getTargetRelationships().get(0) : null;
                 
-                IArchimateRelationship rel = null;
-                for(IArchimateRelationship relation : ArchimateModelUtils.getAllRelationshipsForConcept(element)) {
-                    if(rel != null && rel.eClass() != relation.eClass()) {
-                        String name = ArchiLabelProvider.INSTANCE.getLabel(element);
-                        String description = NLS.bind(DESCRIPTION, name);
-                        String explanation = NLS.bind(EXPLANATION, name);
-                        
-                        IIssue issue = new ErrorType(NAME, description, explanation, element);
-                        issues.add(issue);
-                        break;
-                    }
+                // All relationships have to be the same type as the first one
+                if(rel != null && !ArchimateModelUtils.hasOnlyRelationshipsOfType(element, rel.eClass())) {
+                    String name = ArchiLabelProvider.INSTANCE.getLabel(element);
+                    String description = NLS.bind(DESCRIPTION, name);
+                    String explanation = NLS.bind(EXPLANATION, name);
                     
-                    rel = relation;
+                    IIssue issue = new ErrorType(NAME, description, explanation, element);
+                    issues.add(issue);
                 }
             }
         }
@@ -6,12 +6,15 @@
 package com.archimatetool.hammer.validation.checkers;
 
 import java.util.ArrayList;
-import java.util.Iterator;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Set;
 
-import org.eclipse.emf.ecore.EObject;
 import org.eclipse.osgi.util.NLS;
 
+import com.archimatetool.hammer.validation.checkers.ViewsIndex.NestedPair;
 import com.archimatetool.hammer.validation.issues.AdviceType;
 import com.archimatetool.hammer.validation.issues.IIssue;
 import com.archimatetool.model.IAccessRelationship;
@@ -23,8 +26,6 @@ import com.archimatetool.model.IAssignmentRelationship;
 import com.archimatetool.model.ICompositionRelationship;
 import com.archimatetool.model.IDiagramModelArchimateConnection;
 import com.archimatetool.model.IDiagramModelArchimateObject;
-import com.archimatetool.model.IDiagramModelConnection;
-import com.archimatetool.model.IDiagramModelObject;
 import com.archimatetool.model.IJunction;
 import com.archimatetool.model.IRealizationRelationship;
 import com.archimatetool.model.ISpecializationRelationship;
@@ -44,10 +45,18 @@ public class NestedElementsChecker implements IChecker {
                                       Messages.NestedElementsChecker_3;
     
     private List<IArchimateDiagramModel> fViews;
+    private ViewsIndex fViewsIndex;
     
     public NestedElementsChecker(List<IArchimateDiagramModel> views) {
         fViews = views;
     }
+    
+    /**
+     * @param viewsIndex Index of the Views shared with other checkers
+     */
+    public NestedElementsChecker(ViewsIndex viewsIndex) {
+        fViewsIndex = viewsIndex;
+    }
 
     @Override
     public List<IIssue> getIssues() {
@@ -58,41 +67,49 @@ public class NestedElementsChecker implements IChecker {
     List<IIssue> findWrongNestedElements() {
         List<IIssue> issues = new ArrayList<IIssue>();
         
-        // Iterate through all Views
-        for(IArchimateDiagramModel dm : fViews) {
-            for(Iterator<EObject> iter = dm.eAllContents(); iter.hasNext();) {
-                EObject eObject = iter.next();
-                
-                // If this is an Archimate diagram object...
-                if(eObject instanceof IDiagramModelArchimateObject) {
-                    IDiagramModelArchimateObject parent = (IDiagramModelArchimateObject)eObject;
-                    
-                    // Get its children
-                    for(IDiagramModelObject dmoChild : parent.getChildren()) {
-                        // If the child is an Archimate diagram object...
-                        if(dmoChild instanceof IDiagramModelArchimateObject) {
-                            IDiagramModelArchimateObject child = (IDiagramModelArchimateObject)dmoChild;
-                            
-                            // Check nested state
-                            if(isNestedWithoutValidRelation(parent, child)) {
-                                String description =  NLS.bind(fDescription, new Object[] {
-                                        child.getName(),
-                                        parent.getName()
-                                });
-                                
-                                IIssue issue = new AdviceType(fName, description, fExplanation, child);
-                                issues.add(issue);
-                            }
-                        }
+        ViewsIndex viewsIndex = fViewsIndex != null ? fViewsIndex : new ViewsIndex(fViews);
+        
+        // Source and target elements of nested type relationships in the model for the parent elements
+        Set<ElementPair> nestedTypeRelations = new HashSet<>();
+        Set<IArchimateElement> parentElements = Collections.newSetFromMap(new IdentityHashMap<>());
+        
+        for(NestedPair pair : viewsIndex.getNestedPairs()) {
+            if(parentElements.add(pair.parent().getArchimateElement())) {
+                ArchimateModelUtils.forEachRelationship(pair.parent().getArchimateElement(), relation -> {
+                    if(isNestedTypeRelationship(relation)) {
+                        nestedTypeRelations.add(new ElementPair(relation.getSource(), relation.getTarget()));
                     }
-                }
+                });
+            }
+        }
+        
+        // Iterate through all nested ArchiMate diagram objects
+        for(NestedPair pair : viewsIndex.getNestedPairs()) {
+            IDiagramModelArchimateObject parent = pair.parent();
+            IDiagramModelArchimateObject child = pair.child();
+            
+            // Check nested state
+            if(isNestedWithoutValidRelation(parent, child, viewsIndex, nestedTypeRelations)) {
+                String description =  NLS.bind(fDescription, new Object[] {
+                        child.getName(),
+                        parent.getName()
+                });
+                
+                IIssue issue = new AdviceType(fName, description, fExplanation, child);
+                issues.add(issue);
             }
         }
         
         return issues;
     }
+    
+    /**
+     * Source and target elements of a relationship
+     */
+    private record ElementPair(Object source, Object target) {}
 
-    private boolean isNestedWithoutValidRelation(IDiagramModelArchimateObject parent, IDiagramModelArchimateObject child) {
+    private boolean isNestedWithoutValidRelation(IDiagramModelArchimateObject parent, IDiagramModelArchimateObject child,
+                                                 ViewsIndex viewsIndex, Set<ElementPair> nestedTypeRelations) {
         IArchimateElement parentElement = parent.getArchimateElement();
         IArchimateElement childElement = child.getArchimateElement();
         
@@ -101,42 +118,43 @@ public class NestedElementsChecker implements IChecker {
             return false;
         }
         
-        // Get all diagram connections between parent and child objects
-        List<IDiagramModelConnection> connections = new ArrayList<>(parent.getSourceConnections());
-        connections.addAll(parent.getTargetConnections());
+        // Check all diagram connections between parent and child objects
+        if(hasInvalidConnection(viewsIndex.getConnections(parent, child), childElement)
+                || hasInvalidConnection(viewsIndex.getConnections(child, parent), childElement)) {
+            return true;
+        }
         
-        for(IDiagramModelConnection connection : connections) {
-            // If this is an ArchiMate connection...
-            if(connection instanceof IDiagramModelArchimateConnection && (connection.getSource() == child || connection.getTarget() == child)) {
-                // Get its relationship
-                IArchimateRelationship relation = ((IDiagramModelArchimateConnection)connection).getArchimateRelationship();
-                
-                // Check for non-nested type relationships
-                if(!isNestedTypeRelationship(relation)) {
-                    return true;
-                }
+        // Check for any nested type relationships in the model, return false if one is found
+        return !nestedTypeRelations.contains(new ElementPair(parentElement, childElement))
+                && !nestedTypeRelations.contains(new ElementPair(childElement, parentElement));
+    }
+    
+    /**
+     * @return true if any of the connections between a parent and a child is not a valid nested relationship
+     */
+    private boolean hasInvalidConnection(List<IDiagramModelArchimateConnection> connections, IArchimateElement childElement) {
+        for(IDiagramModelArchimateConnection connection : connections) {
+            // Get its relationship
+            IArchimateRelationship relation = connection.getArchimateRelationship();
+            
+            // Check for non-nested type relationships
+            if(!isNestedTypeRelationship(relation)) {
+                return true;
+            }
 
-                // Specialization relationship needs a special check as it goes the other way around
-                if(relation instanceof ISpecializationRelationship) {
-                    if(relation.getTarget() == childElement) {
-                        return true;
-                    }
-                }
-                // Else reversed nested
-                else if(relation.getSource() == childElement && isNestedTypeRelationship(relation)) {
+            // Specialization relationship needs a special check as it goes the other way around
+            if(relation instanceof ISpecializationRelationship) {
+                if(relation.getTarget() == childElement) {
                     return true;
                 }
             }
-        }
-        
-        // Check for any nested type relationships in the model, return false if one is found
-        for(IArchimateRelationship relation : ArchimateModelUtils.getAllRelationshipsForConcept(parentElement)) {
-            if((relation.getTarget() == childElement || relation.getSource() == childElement) && isNestedTypeRelationship(relation)) {
-                return false;
+            // Else reversed nested
+            else if(relation.getSource() == childElement) {
+                return true;
             }
         }
         
-        return true;
+        return false;
     }
     
     /**
@@ -6,17 +6,17 @@
 package com.archimatetool.hammer.validation.checkers;
 
 import java.util.ArrayList;
-import java.util.Iterator;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
-import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EClass;
 import org.eclipse.osgi.util.NLS;
 
 import com.archimatetool.editor.ui.ArchiLabelProvider;
 import com.archimatetool.hammer.validation.issues.IIssue;
 import com.archimatetool.hammer.validation.issues.WarningType;
 import com.archimatetool.model.IArchimateDiagramModel;
-import com.archimatetool.model.IArchimateElement;
 import com.archimatetool.model.IDiagramModelArchimateConnection;
 import com.archimatetool.model.IDiagramModelArchimateObject;
 import com.archimatetool.model.viewpoints.IViewpoint;
@@ -36,10 +36,18 @@ public class ViewpointChecker implements IChecker {
                                 Messages.ViewpointChecker_3;
 
     private List<IArchimateDiagramModel> fViews;
+    private ViewsIndex fViewsIndex;
     
     public ViewpointChecker(List<IArchimateDiagramModel> views) {
         fViews = views;
     }
+    
+    /**
+     * @param viewsIndex Index of the Views shared with other checkers
+     */
+    public ViewpointChecker(ViewsIndex viewsIndex) {
+        fViewsIndex = viewsIndex;
+    }
 
     @Override
     public List<IIssue> getIssues() {
@@ -49,20 +57,28 @@ public class ViewpointChecker implements IChecker {
     List<IIssue> findComponentsInWrongViewpoints() {
         List<IIssue> issues = new ArrayList<IIssue>();
         
-        for(IArchimateDiagramModel dm : fViews) {
+        ViewsIndex viewsIndex = fViewsIndex != null ? fViewsIndex : new ViewsIndex(fViews);
+        
+        for(IArchimateDiagramModel dm : viewsIndex.getViews()) {
             String id = dm.getViewpoint();
             IViewpoint viewPoint = ViewpointManager.INSTANCE.getViewpoint(id);
             
-            for(Iterator<EObject> iter = dm.eAllContents(); iter.hasNext();) {
-                EObject eObject = iter.next();
-                
-                if(eObject instanceof IDiagramModelArchimateObject) {
-                    IDiagramModelArchimateObject dmo = (IDiagramModelArchimateObject)eObject;
-                    IArchimateElement element = dmo.getArchimateElement();
-                    if(!viewPoint.isAllowedConcept(element.eClass())) {
-                        IIssue issue = createIssue(dmo, dm.getName(), viewPoint.getName());
-                        issues.add(issue);
-                    }
+            // Check each type of element in the View once
+            Set<EClass> notAllowedTypes = new HashSet<>();
+            for(EClass type : viewsIndex.getElementTypes(dm)) {
+                if(!viewPoint.isAllowedConcept(type)) {
+                    notAllowedTypes.add(type);
+                }
+            }
+            
+            if(notAllowedTypes.isEmpty()) {
+                continue;
+            }
+            
+            for(IDiagramModelArchimateObject dmo : viewsIndex.getArchimateObjects(dm)) {
+                if(notAllowedTypes.contains(dmo.getArchimateElement().eClass())) {
+                    IIssue issue = createIssue(dmo, dm.getName(), viewPoint.getName());
+                    issues.add(issue);
                 }
             }
         }
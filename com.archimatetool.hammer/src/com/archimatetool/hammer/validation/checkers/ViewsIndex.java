@@ -0,0 +1,115 @@
+/**
+ * This program and the accompanying materials
+ * are made available under the terms of the License
+ * which accompanies this distribution in the file LICENSE.txt
+ */
+package com.archimatetool.hammer.validation.checkers;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EObject;
+
+import com.archimatetool.model.IArchimateDiagramModel;
+import com.archimatetool.model.IDiagramModelArchimateConnection;
+import com.archimatetool.model.IDiagramModelArchimateObject;
+import com.archimatetool.model.IDiagramModelObject;
+
+
+/**
+ * Index of the contents of Views built in one pass so that checkers can share it instead of each iterating through the Views.
+ *
+ * The index is a snapshot and is not updated if the Views change.
+ */
+public class ViewsIndex {
+
+    /**
+     * An ArchiMate diagram object nested in another
+     */
+    public record NestedPair(IDiagramModelArchimateObject parent, IDiagramModelArchimateObject child) {}
+
+    /**
+     * Source and target of a connection
+     */
+    private record EndPoints(Object source, Object target) {}
+
+    private List<IArchimateDiagramModel> fViews;
+
+    private Map<IArchimateDiagramModel, List<IDiagramModelArchimateObject>> fArchimateObjects = new IdentityHashMap<>();
+    private Map<IArchimateDiagramModel, Set<EClass>> fElementTypes = new IdentityHashMap<>();
+    private List<NestedPair> fNestedPairs = new ArrayList<>();
+    private Map<EndPoints, List<IDiagramModelArchimateConnection>> fConnections = new HashMap<>();
+
+    public ViewsIndex(List<IArchimateDiagramModel> views) {
+        fViews = views;
+
+        for(IArchimateDiagramModel dm : views) {
+            List<IDiagramModelArchimateObject> archimateObjects = new ArrayList<>();
+            Set<EClass> elementTypes = new LinkedHashSet<>();
+
+            for(Iterator<EObject> iter = dm.eAllContents(); iter.hasNext();) {
+                EObject eObject = iter.next();
+
+                if(eObject instanceof IDiagramModelArchimateObject dmo) {
+                    archimateObjects.add(dmo);
+                    elementTypes.add(dmo.getArchimateElement().eClass());
+
+                    for(IDiagramModelObject child : dmo.getChildren()) {
+                        if(child instanceof IDiagramModelArchimateObject childDmo) {
+                            fNestedPairs.add(new NestedPair(dmo, childDmo));
+                        }
+                    }
+                }
+                else if(eObject instanceof IDiagramModelArchimateConnection connection) {
+                    fConnections.computeIfAbsent(new EndPoints(connection.getSource(), connection.getTarget()), key -> new ArrayList<>(1)).add(connection);
+                }
+            }
+
+            fArchimateObjects.put(dm, archimateObjects);
+            fElementTypes.put(dm, elementTypes);
+        }
+    }
+
+    /**
+     * @return The Views in this index
+     */
+    public List<IArchimateDiagramModel> getViews() {
+        return fViews;
+    }
+
+    /**
+     * @return All ArchiMate diagram objects in the View in tree order
+     */
+    public List<IDiagramModelArchimateObject> getArchimateObjects(IArchimateDiagramModel dm) {
+        return Collections.unmodifiableList(fArchimateObjects.getOrDefault(dm, List.of()));
+    }
+
+    /**
+     * @return The types of ArchiMate elements in the View
+     */
+    public Set<EClass> getElementTypes(IArchimateDiagramModel dm) {
+        return Collections.unmodifiableSet(fElementTypes.getOrDefault(dm, Set.of()));
+    }
+
+    /**
+     * @return All ArchiMate diagram objects that are direct children of another ArchiMate diagram object, in tree order
+     */
+    public List<NestedPair> getNestedPairs() {
+        return Collections.unmodifiableList(fNestedPairs);
+    }
+
+    /**
+     * @return ArchiMate connections from source to target
+     */
+    public List<IDiagramModelArchimateConnection> getConnections(Object source, Object target) {
+        return Collections.unmodifiableList(fConnections.getOrDefault(new EndPoints(source, target), List.of()));
+    }
+}
@@ -33,6 +33,8 @@ public interface IDiagramModel extends IArchimateModelObject, IDiagramModelConta
     // int CONNECTION_ROUTER_SHORTEST_PATH = 1;
     
     int CONNECTION_ROUTER_MANHATTAN = 2;
+    
+    int CONNECTION_ROUTER_ORTHOGONAL = 3;
 
     /**
      * Returns the value of the '<em><b>Connection Router Type</b></em>' attribute.
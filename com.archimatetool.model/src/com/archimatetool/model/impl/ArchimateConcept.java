@@ -12,7 +12,6 @@ import java.util.Map;
 import org.eclipse.emf.common.notify.Notification;
 import org.eclipse.emf.common.notify.NotificationChain;
 import org.eclipse.emf.common.util.EList;
-import org.eclipse.emf.common.util.UniqueEList;
 import org.eclipse.emf.ecore.EClass;
 import org.eclipse.emf.ecore.EObject;
 import org.eclipse.emf.ecore.InternalEObject;
@@ -298,7 +297,7 @@ public abstract class ArchimateConcept extends EObjectImpl implements IArchimate
     @Override
     public EList<IArchimateRelationship> getSourceRelationships() {
         if(sourceRelationships == null) {
-            sourceRelationships = new UniqueEList<IArchimateRelationship>();
+            sourceRelationships = new RelationshipsEList();
         }
         return sourceRelationships;
     }
@@ -306,7 +305,7 @@ public abstract class ArchimateConcept extends EObjectImpl implements IArchimate
     @Override
     public EList<IArchimateRelationship> getTargetRelationships() {
         if(targetRelationships == null) {
-            targetRelationships = new UniqueEList<IArchimateRelationship>();
+            targetRelationships = new RelationshipsEList();
         }
         return targetRelationships;
     }
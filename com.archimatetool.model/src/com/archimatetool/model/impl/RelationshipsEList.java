@@ -0,0 +1,166 @@
+/**
+ * This program and the accompanying materials
+ * are made available under the terms of the License
+ * which accompanies this distribution in the file LICENSE.txt
+ */
+package com.archimatetool.model.impl;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.emf.common.util.UniqueEList;
+import org.eclipse.emf.ecore.EClass;
+
+import com.archimatetool.model.IArchimateRelationship;
+
+/**
+ * List of the relationships connected to a concept.
+ *
+ * Once the list grows past a small size it keeps an identity index of its relationships and a count of each relationship type
+ * so that contains() and count(EClass) don't have to scan the list. Concepts with many relationships (hubs and Junctions)
+ * would otherwise pay a linear scan on every add, remove and validity check.
+ *
+ * Iterate by index (or over data()) rather than with an Iterator to avoid allocating.
+ */
+public class RelationshipsEList extends UniqueEList<IArchimateRelationship> {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Size at which the index is created. Below this a scan of the list is as fast as a hash lookup and takes no extra memory.
+     */
+    static final int INDEX_THRESHOLD = 16;
+
+    private transient Set<IArchimateRelationship> fIndex;
+    private transient Map<EClass, int[]> fTypeCounts;
+
+    public RelationshipsEList() {
+        super();
+    }
+
+    @Override
+    protected boolean canContainNull() {
+        return false;
+    }
+
+    @Override
+    public boolean contains(Object object) {
+        if(fIndex != null) {
+            return fIndex.contains(object);
+        }
+
+        for(int i = 0; i < size; i++) {
+            if(data[i] == object) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    @Override
+    public int indexOf(Object object) {
+        if(fIndex != null && !fIndex.contains(object)) {
+            return -1;
+        }
+
+        for(int i = 0; i < size; i++) {
+            if(data[i] == object) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * @param relationshipType The relationship type
+     * @return The number of relationships in this list of exactly the given type
+     */
+    public int count(EClass relationshipType) {
+        if(fTypeCounts != null) {
+            int[] count = fTypeCounts.get(relationshipType);
+            return count == null ? 0 : count[0];
+        }
+
+        int count = 0;
+
+        for(int i = 0; i < size; i++) {
+            if(((IArchimateRelationship)data[i]).eClass() == relationshipType) {
+                count++;
+            }
+        }
+
+        return count;
+    }
+
+    @Override
+    protected void didAdd(int index, IArchimateRelationship newObject) {
+        if(fIndex != null) {
+            indexAdd(newObject);
+        }
+        else if(size > INDEX_THRESHOLD) {
+            createIndex();
+        }
+
+        super.didAdd(index, newObject);
+    }
+
+    @Override
+    protected void didSet(int index, IArchimateRelationship newObject, IArchimateRelationship oldObject) {
+        if(fIndex != null) {
+            indexRemove(oldObject);
+            indexAdd(newObject);
+        }
+
+        super.didSet(index, newObject, oldObject);
+    }
+
+    @Override
+    protected void didRemove(int index, IArchimateRelationship oldObject) {
+        if(fIndex != null) {
+            indexRemove(oldObject);
+        }
+
+        super.didRemove(index, oldObject);
+    }
+
+    @Override
+    protected void didClear(int oldSize, Object[] oldData) {
+        fIndex = null;
+        fTypeCounts = null;
+        super.didClear(oldSize, oldData);
+    }
+
+    private void createIndex() {
+        fIndex = Collections.newSetFromMap(new IdentityHashMap<>(size * 2));
+        fTypeCounts = new IdentityHashMap<>();
+
+        for(int i = 0; i < size; i++) {
+            indexAdd((IArchimateRelationship)data[i]);
+        }
+    }
+
+    private void indexAdd(IArchimateRelationship relationship) {
+        fIndex.add(relationship);
+
+        int[] count = fTypeCounts.get(relationship.eClass());
+        if(count == null) {
+            fTypeCounts.put(relationship.eClass(), new int[] { 1 });
+        }
+        else {
+            count[0]++;
+        }
+    }
+
+    private void indexRemove(IArchimateRelationship relationship) {
+        fIndex.remove(relationship);
+
+        int[] count = fTypeCounts.get(relationship.eClass());
+        if(count != null && --count[0] == 0) {
+            fTypeCounts.remove(relationship.eClass());
+        }
+    }
+}
@@ -14,7 +14,9 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Consumer;
 
+import org.eclipse.emf.common.util.EList;
 import org.eclipse.emf.ecore.EClass;
 import org.eclipse.emf.ecore.EObject;
 import org.eclipse.emf.ecore.EStructuralFeature.Setting;
@@ -28,6 +30,7 @@ import com.archimatetool.model.IIdentifier;
 import com.archimatetool.model.IJunction;
 import com.archimatetool.model.IProfile;
 import com.archimatetool.model.IProfiles;
+import com.archimatetool.model.impl.RelationshipsEList;
 
 
 
@@ -48,10 +51,8 @@ public class ArchimateModelUtils {
         // If the source concept is a Junction check for valid relationships
         if(sourceConcept instanceof IJunction) {
             // Has to be the same type of relationship
-            for(IArchimateRelationship rel : getAllRelationshipsForConcept(sourceConcept)) {
-                if(!rel.eClass().equals(relationshipType)) {
-                    return false;
-                }
+            if(!hasOnlyRelationshipsOfType(sourceConcept, relationshipType)) {
+                return false;
             }
         }
         
@@ -66,21 +67,31 @@ public class ArchimateModelUtils {
      * @return True if relationshipType is an allowed relationship type between sourceComponent and targetComponent
      */
     public static final boolean isValidRelationship(IArchimateConcept sourceConcept, IArchimateConcept targetConcept, EClass relationshipType) {
+        return isValidRelationship(sourceConcept, targetConcept, relationshipType, null, null);
+    }
+    
+    /**
+     * @param junctionSourceTypes If sourceConcept is a Junction, the types of the concepts connected to it as sources. If null they are found here.
+     * @param junctionTargetTypes If targetConcept is a Junction, the types of the concepts connected to it as targets. If null they are found here.
+     */
+    private static boolean isValidRelationship(IArchimateConcept sourceConcept, IArchimateConcept targetConcept, EClass relationshipType,
+                                               Set<EClass> junctionSourceTypes, Set<EClass> junctionTargetTypes) {
         if(hasDirectRelationship(sourceConcept, targetConcept)) {
             return false;
         }
         
         // If the source concept is a Junction check for valid relationships
         if(sourceConcept instanceof IJunction) {
+            // Has to be the same type of relationship
+            if(!hasOnlyRelationshipsOfType(sourceConcept, relationshipType)) {
+                return false;
+            }
             // This is an invalid indirect relationship between a concept connected to the Junction and the target concept
-            for(IArchimateRelationship rel : sourceConcept.getTargetRelationships()) {
-                if(!isValidRelationship(rel.getSource().eClass(), targetConcept.eClass(), relationshipType)) {
-                    return false;
-                }
+            if(junctionSourceTypes == null) {
+                junctionSourceTypes = getJunctionSourceTypes(sourceConcept);
             }
-            // Has to be the same type of relationship
-            for(IArchimateRelationship rel : getAllRelationshipsForConcept(sourceConcept)) {
-                if(!rel.eClass().equals(relationshipType)) {
+            for(EClass sourceType : junctionSourceTypes) {
+                if(!isValidRelationship(sourceType, targetConcept.eClass(), relationshipType)) {
                     return false;
                 }
             }
@@ -88,15 +99,16 @@ public class ArchimateModelUtils {
         
         // If the target concept is a Junction check for valid relationships
         if(targetConcept instanceof IJunction) {
+            // Has to be the same type of relationship
+            if(!hasOnlyRelationshipsOfType(targetConcept, relationshipType)) {
+                return false;
+            }
             // This is an invalid indirect relationship between a concept connected to the Junction and the source concept
-            for(IArchimateRelationship rel : targetConcept.getSourceRelationships()) {
-                if(!isValidRelationship(sourceConcept.eClass(), rel.getTarget().eClass(), relationshipType)) {
-                    return false;
-                }
+            if(junctionTargetTypes == null) {
+                junctionTargetTypes = getJunctionTargetTypes(targetConcept);
             }
-            // Has to be the same type of relationship
-            for(IArchimateRelationship rel : getAllRelationshipsForConcept(targetConcept)) {
-                if(!rel.eClass().equals(relationshipType)) {
+            for(EClass targetType : junctionTargetTypes) {
+                if(!isValidRelationship(sourceConcept.eClass(), targetType, relationshipType)) {
                     return false;
                 }
             }
@@ -104,6 +116,34 @@ public class ArchimateModelUtils {
         
         return isValidRelationship(sourceConcept.eClass(), targetConcept.eClass(), relationshipType);
     }
+    
+    /**
+     * @return The distinct types of the source concepts of the junction's incoming relationships
+     */
+    private static Set<EClass> getJunctionSourceTypes(IArchimateConcept junction) {
+        Set<EClass> types = new HashSet<>();
+        
+        EList<IArchimateRelationship> relations = junction.getTargetRelationships();
+        for(int i = 0; i < relations.size(); i++) {
+            types.add(relations.get(i).getSource().eClass());
+        }
+        
+        return types;
+    }
+    
+    /**
+     * @return The distinct types of the target concepts of the junction's outgoing relationships
+     */
+    private static Set<EClass> getJunctionTargetTypes(IArchimateConcept junction) {
+        Set<EClass> types = new HashSet<>();
+        
+        EList<IArchimateRelationship> relations = junction.getSourceRelationships();
+        for(int i = 0; i < relations.size(); i++) {
+            types.add(relations.get(i).getTarget().eClass());
+        }
+        
+        return types;
+    }
 
     /**
      * Determine if a given relationship type is allowed between source and target Archimate class types
@@ -123,10 +163,25 @@ public class ArchimateModelUtils {
      * @return An array of all valid relationship class types between sourceElement and targetElement
      */
     public static EClass[] getValidRelationships(IArchimateConcept sourceConcept, IArchimateConcept targetConcept) {
+        if(hasDirectRelationship(sourceConcept, targetConcept)) {
+            return new EClass[0];
+        }
+        
+        EClass[] validTypes = RelationshipsMatrix.INSTANCE.getValidRelationships(sourceConcept.eClass(), targetConcept.eClass());
+        
+        // No Junction rules to apply
+        if(!(sourceConcept instanceof IJunction) && !(targetConcept instanceof IJunction)) {
+            return validTypes.clone();
+        }
+        
+        // Find the types connected to any Junction once for all relationship types
+        Set<EClass> junctionSourceTypes = sourceConcept instanceof IJunction ? getJunctionSourceTypes(sourceConcept) : null;
+        Set<EClass> junctionTargetTypes = targetConcept instanceof IJunction ? getJunctionTargetTypes(targetConcept) : null;
+        
         List<EClass> list = new ArrayList<EClass>();
         
-        for(EClass eClass : getRelationsClasses()) {
-            if(isValidRelationship(sourceConcept, targetConcept, eClass)) {
+        for(EClass eClass : validTypes) {
+            if(isValidRelationship(sourceConcept, targetConcept, eClass, junctionSourceTypes, junctionTargetTypes)) {
                 list.add(eClass); 
             }
         }
@@ -138,18 +193,11 @@ public class ArchimateModelUtils {
      * Get an array of all valid relationship class types between source and target Archimate class types
      * @param sourceType The source type
      * @param targetType The target type
-     * @return All valid relationship types between sourceType and targetType
+     * @return All valid relationship types between sourceType and targetType in preferred order.
+     *         This is a copy of the shared array and so can be modified by the caller.
      */
     public static EClass[] getValidRelationships(EClass sourceType, EClass targetType) {
-        List<EClass> list = new ArrayList<EClass>();
-        
-        for(EClass eClass : getRelationsClasses()) {
-            if(isValidRelationship(sourceType, targetType, eClass)) {
-                list.add(eClass); 
-            }
-        }
-        
-        return list.toArray(new EClass[list.size()]);
+        return RelationshipsMatrix.INSTANCE.getValidRelationships(sourceType, targetType).clone();
     }
     
     /**
@@ -160,30 +208,81 @@ public class ArchimateModelUtils {
      *         True if concept2 is a relationship and concept1 already has it as a relationship
      */
     public static boolean hasDirectRelationship(IArchimateConcept concept1, IArchimateConcept concept2) {
-        if(concept1 instanceof IArchimateRelationship) {
-            if(getAllRelationshipsForConcept(concept2).contains(concept1)) {
-                return true;
-            }
+        if(concept1 instanceof IArchimateRelationship relationship && hasRelationship(concept2, relationship)) {
+            return true;
         }
         
-        if(concept2 instanceof IArchimateRelationship) {
-            if(getAllRelationshipsForConcept(concept1).contains(concept2)) {
-                return true;
-            }
+        if(concept2 instanceof IArchimateRelationship relationship && hasRelationship(concept1, relationship)) {
+            return true;
         }
         
         return false;
     }
     
+    /**
+     * @param concept The Archimate concept
+     * @param relationship The relationship
+     * @return True if relationship is connected to concept as source or target
+     */
+    public static boolean hasRelationship(IArchimateConcept concept, IArchimateRelationship relationship) {
+        return concept.getSourceRelationships().contains(relationship) || concept.getTargetRelationships().contains(relationship);
+    }
+    
+    /**
+     * @param concept The Archimate concept
+     * @param relationshipType The relationship type
+     * @return True if all of the relationships connected to concept are of relationshipType, or concept has no relationships
+     */
+    public static boolean hasOnlyRelationshipsOfType(IArchimateConcept concept, EClass relationshipType) {
+        return countRelationshipsOfType(concept.getSourceRelationships(), relationshipType) == concept.getSourceRelationships().size()
+                && countRelationshipsOfType(concept.getTargetRelationships(), relationshipType) == concept.getTargetRelationships().size();
+    }
+    
+    private static int countRelationshipsOfType(EList<IArchimateRelationship> relations, EClass relationshipType) {
+        if(relations instanceof RelationshipsEList relationshipsList) {
+            return relationshipsList.count(relationshipType);
+        }
+        
+        int count = 0;
+        for(int i = 0; i < relations.size(); i++) {
+            if(relations.get(i).eClass() == relationshipType) {
+                count++;
+            }
+        }
+        return count;
+    }
+    
+    /**
+     * Pass each relationship connected to a concept, as source or target, to action.
+     * A relationship that connects the concept to itself is passed once.
+     * This does not create a new collection and can be used instead of getAllRelationshipsForConcept() when iterating.
+     * @param concept The Archimate concept
+     * @param action The action to perform on each relationship
+     */
+    public static void forEachRelationship(IArchimateConcept concept, Consumer<? super IArchimateRelationship> action) {
+        EList<IArchimateRelationship> sourceRelations = concept.getSourceRelationships();
+        for(int i = 0; i < sourceRelations.size(); i++) {
+            action.accept(sourceRelations.get(i));
+        }
+        
+        EList<IArchimateRelationship> targetRelations = concept.getTargetRelationships();
+        for(int i = 0; i < targetRelations.size(); i++) {
+            IArchimateRelationship relation = targetRelations.get(i);
+            // A connection to itself is already a source relationship
+            if(relation.getSource() != concept) {
+                action.accept(relation);
+            }
+        }
+    }
+    
     /**
      * @param concept The Archimate concept to get relationships for
      * @return A list of all relationships that a concept has, both as target and as source
      */
     public static List<IArchimateRelationship> getAllRelationshipsForConcept(IArchimateConcept concept) {
-        Set<IArchimateRelationship> set = new HashSet<IArchimateRelationship>();
-        set.addAll(concept.getSourceRelationships());
-        set.addAll(concept.getTargetRelationships());
-        return new ArrayList<>(set);
+        List<IArchimateRelationship> list = new ArrayList<>(concept.getSourceRelationships().size() + concept.getTargetRelationships().size());
+        forEachRelationship(concept, list::add);
+        return list;
     }
     
     /**
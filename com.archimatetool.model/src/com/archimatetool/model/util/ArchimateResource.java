@@ -5,8 +5,21 @@
  */
 package com.archimatetool.model.util;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+import java.util.Map;
+
+import org.eclipse.emf.common.util.BasicEList;
 import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EReference;
+import org.eclipse.emf.ecore.xmi.XMLLoad;
+import org.eclipse.emf.ecore.xmi.impl.XMLLoadImpl;
 import org.eclipse.emf.ecore.xmi.impl.XMLResourceImpl;
+import org.xml.sax.helpers.DefaultHandler;
+
+import com.archimatetool.model.IArchimatePackage;
 
 /**
  * <!-- begin-user-doc -->
@@ -27,4 +40,42 @@ public class ArchimateResource extends XMLResourceImpl {
         super(uri);
     }
 
+    /**
+     * Use an InterningXMLHandler so that repeated String values share one instance
+     * @generated NOT
+     */
+    @Override
+    protected XMLLoad createXMLLoad() {
+        return new XMLLoadImpl(createXMLHelper()) {
+            @Override
+            protected DefaultHandler makeDefaultHandler() {
+                return new InterningXMLHandler(resource, helper, options);
+            }
+        };
+    }
+
+    /**
+     * After loading, trim the lists of Properties and Features to their size.
+     * Most objects have none or only a few and the lists grow with spare capacity as they are loaded.
+     * @generated NOT
+     */
+    @Override
+    public void doLoad(InputStream inputStream, Map<?, ?> options) throws IOException {
+        super.doLoad(inputStream, options);
+
+        for(Iterator<EObject> iter = getAllContents(); iter.hasNext();) {
+            EObject eObject = iter.next();
+            shrink(eObject, IArchimatePackage.Literals.PROPERTIES__PROPERTIES);
+            shrink(eObject, IArchimatePackage.Literals.FEATURES__FEATURES);
+        }
+    }
+
+    private void shrink(EObject eObject, EReference feature) {
+        // eIsSet() is false for a list that is empty or has not been created, so don't create one
+        if(feature.getEContainingClass().isInstance(eObject) && eObject.eIsSet(feature)
+                && eObject.eGet(feature) instanceof BasicEList<?> list) {
+            list.shrink();
+        }
+    }
+
 } //ArchimateResource
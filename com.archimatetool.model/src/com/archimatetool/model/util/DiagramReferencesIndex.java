@@ -0,0 +1,155 @@
+/**
+ * This program and the accompanying materials
+ * are made available under the terms of the License
+ * which accompanies this distribution in the file LICENSE.txt
+ */
+package com.archimatetool.model.util;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import org.eclipse.emf.common.notify.Notification;
+import org.eclipse.emf.common.notify.Notifier;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EReference;
+import org.eclipse.emf.ecore.util.EContentAdapter;
+
+import com.archimatetool.model.IArchimateConcept;
+import com.archimatetool.model.IArchimateModel;
+import com.archimatetool.model.IArchimatePackage;
+import com.archimatetool.model.IDiagramModelArchimateComponent;
+
+
+/**
+ * Index of the number of diagram components in a model that reference each concept.
+ *
+ * The index is built with one pass of the model the first time it is asked for and is then kept up to date
+ * from the model's content notifications when diagram components are added, removed or given another concept,
+ * so that asking if a concept is used in a diagram doesn't need to check all of its referencing diagram components.
+ *
+ * The index has its own content adapter which is put first in the adapters of each object in the model,
+ * so that it is up to date before the model's content listeners and any other adapters are told about a change.
+ */
+public class DiagramReferencesIndex {
+
+    /**
+     * @param model The model
+     * @return The DiagramReferencesIndex for the model, creating it if needed
+     */
+    public static DiagramReferencesIndex getIndex(IArchimateModel model) {
+        DiagramReferencesIndex index = (DiagramReferencesIndex)model.getAdapter(DiagramReferencesIndex.class);
+
+        if(index == null) {
+            index = new DiagramReferencesIndex(model);
+            model.setAdapter(DiagramReferencesIndex.class, index);
+        }
+
+        return index;
+    }
+
+    /**
+     * Number of diagram components in the model that reference each concept
+     */
+    private Map<IArchimateConcept, Integer> fCounts = new HashMap<>();
+
+    /**
+     * Content adapter that is notified before the other adapters of an object
+     */
+    private EContentAdapter fContentAdapter = new EContentAdapter() {
+        @Override
+        public void notifyChanged(Notification notification) {
+            super.notifyChanged(notification);
+            DiagramReferencesIndex.this.notifyChanged(notification);
+        }
+
+        @Override
+        protected void addAdapter(Notifier notifier) {
+            if(!notifier.eAdapters().contains(this)) {
+                notifier.eAdapters().add(0, this);
+            }
+        }
+    };
+
+    private DiagramReferencesIndex(IArchimateModel model) {
+        for(Iterator<EObject> iter = model.eAllContents(); iter.hasNext();) {
+            if(iter.next() instanceof IDiagramModelArchimateComponent dmc) {
+                add(dmc.getArchimateConcept());
+            }
+        }
+
+        // This sets the adapter's target to the model and adds it to the model's contents
+        model.eAdapters().add(0, fContentAdapter);
+    }
+
+    /**
+     * @param concept The concept
+     * @return true if concept is referenced by at least one diagram component in the model
+     */
+    public boolean isReferenced(IArchimateConcept concept) {
+        return fCounts.containsKey(concept);
+    }
+
+    /**
+     * @param concept The concept
+     * @return The number of diagram components in the model that reference concept
+     */
+    public int getReferenceCount(IArchimateConcept concept) {
+        return fCounts.getOrDefault(concept, 0);
+    }
+
+    private void notifyChanged(Notification msg) {
+        // A diagram component in the model was given another concept
+        if(msg.getFeature() == IArchimatePackage.Literals.DIAGRAM_MODEL_ARCHIMATE_OBJECT__ARCHIMATE_ELEMENT
+                || msg.getFeature() == IArchimatePackage.Literals.DIAGRAM_MODEL_ARCHIMATE_CONNECTION__ARCHIMATE_RELATIONSHIP) {
+            remove((IArchimateConcept)msg.getOldValue());
+            add((IArchimateConcept)msg.getNewValue());
+        }
+        // An object containing diagram components, or a diagram component itself, was added or removed
+        else if(msg.getFeature() instanceof EReference reference && reference.isContainment() && msg.getEventType() != Notification.MOVE) {
+            forEachComponent(msg.getOldValue(), false);
+            forEachComponent(msg.getNewValue(), true);
+        }
+    }
+
+    private void forEachComponent(Object value, boolean add) {
+        if(value instanceof Collection<?> collection) {
+            for(Object o : collection) {
+                forEachComponent(o, add);
+            }
+        }
+        else if(value instanceof EObject eObject) {
+            if(eObject instanceof IDiagramModelArchimateComponent dmc) {
+                addOrRemove(dmc, add);
+            }
+
+            for(Iterator<EObject> iter = eObject.eAllContents(); iter.hasNext();) {
+                if(iter.next() instanceof IDiagramModelArchimateComponent dmc) {
+                    addOrRemove(dmc, add);
+                }
+            }
+        }
+    }
+
+    private void addOrRemove(IDiagramModelArchimateComponent dmc, boolean add) {
+        if(add) {
+            add(dmc.getArchimateConcept());
+        }
+        else {
+            remove(dmc.getArchimateConcept());
+        }
+    }
+
+    private void add(IArchimateConcept concept) {
+        if(concept != null) {
+            fCounts.merge(concept, 1, Integer::sum);
+        }
+    }
+
+    private void remove(IArchimateConcept concept) {
+        if(concept != null) {
+            fCounts.computeIfPresent(concept, (c, count) -> count > 1 ? count - 1 : null);
+        }
+    }
+}
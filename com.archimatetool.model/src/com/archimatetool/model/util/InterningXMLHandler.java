@@ -0,0 +1,62 @@
+/**
+ * This program and the accompanying materials
+ * are made available under the terms of the License
+ * which accompanies this distribution in the file LICENSE.txt
+ */
+package com.archimatetool.model.util;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.eclipse.emf.ecore.EAttribute;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EStructuralFeature;
+import org.eclipse.emf.ecore.xmi.XMLHelper;
+import org.eclipse.emf.ecore.xmi.XMLResource;
+import org.eclipse.emf.ecore.xmi.impl.SAXXMLHandler;
+
+
+/**
+ * SAX Handler that shares one String instance for each repeated String value in the file being loaded.
+ *
+ * Property keys and values, Feature names and values, fonts and colours are repeated many times in a large model
+ * and the parser creates a new String for each one. IDs are unique and long text such as documentation is rarely repeated
+ * so these are not shared. The Strings are only shared within one load so nothing is kept after the load has finished.
+ */
+public class InterningXMLHandler extends SAXXMLHandler {
+
+    /**
+     * Strings longer than this are not shared
+     */
+    static final int MAX_LENGTH = 256;
+
+    private Map<String, String> fStrings = new HashMap<>();
+
+    public InterningXMLHandler(XMLResource xmlResource, XMLHelper helper, Map<?, ?> options) {
+        super(xmlResource, helper, options);
+    }
+
+    @Override
+    protected void setFeatureValue(EObject object, EStructuralFeature feature, Object value, int position) {
+        if(value instanceof String s && isShared(feature, s)) {
+            value = intern(s);
+        }
+
+        super.setFeatureValue(object, feature, value, position);
+    }
+
+    /**
+     * @return The shared instance of s
+     */
+    String intern(String s) {
+        String shared = fStrings.putIfAbsent(s, s);
+        return shared != null ? shared : s;
+    }
+
+    private boolean isShared(EStructuralFeature feature, String s) {
+        return s.length() <= MAX_LENGTH
+                && feature instanceof EAttribute attribute
+                && !attribute.isID()
+                && attribute.getEAttributeType().getInstanceClass() == String.class;
+    }
+}
@@ -0,0 +1,194 @@
+/**
+ * This program and the accompanying materials
+ * are made available under the terms of the License
+ * which accompanies this distribution in the file LICENSE.txt
+ */
+package com.archimatetool.model.util;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+
+import org.eclipse.emf.common.notify.Notification;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EReference;
+
+import com.archimatetool.model.IArchimateModel;
+import com.archimatetool.model.IArchimatePackage;
+import com.archimatetool.model.IProperty;
+
+
+/**
+ * Index of the Property keys and values used in a model.
+ *
+ * The index is built with one pass of the model the first time it is asked for and is then kept up to date
+ * from the model's content notifications, so that queries don't need to iterate through the whole model.
+ * Keys and values are kept sorted, ignoring case.
+ */
+public class PropertiesIndex {
+
+    /**
+     * Sort order of keys and values. Case is ignored but strings that differ only in case are kept apart.
+     */
+    public static final Comparator<String> COMPARATOR = String.CASE_INSENSITIVE_ORDER.thenComparing(Comparator.naturalOrder());
+
+    /**
+     * @param model The model
+     * @return The PropertiesIndex for the model, creating it if needed
+     */
+    public static PropertiesIndex getIndex(IArchimateModel model) {
+        PropertiesIndex index = (PropertiesIndex)model.getAdapter(PropertiesIndex.class);
+
+        if(index == null) {
+            index = new PropertiesIndex(model);
+            model.setAdapter(PropertiesIndex.class, index);
+        }
+
+        return index;
+    }
+
+    /**
+     * Properties in the model for each key
+     */
+    private NavigableMap<String, Set<IProperty>> fProperties = new TreeMap<>(COMPARATOR);
+
+    /**
+     * Number of times each value is used for each key
+     */
+    private Map<String, NavigableMap<String, Integer>> fValues = new TreeMap<>(COMPARATOR);
+
+    private PropertiesIndex(IArchimateModel model) {
+        for(Iterator<EObject> iter = model.eAllContents(); iter.hasNext();) {
+            if(iter.next() instanceof IProperty property) {
+                add(property);
+            }
+        }
+
+        model.addModelContentListener(this::notifyChanged);
+    }
+
+    /**
+     * @return All Property keys in the model, sorted
+     */
+    public Collection<String> getKeys() {
+        return Collections.unmodifiableSet(fProperties.keySet());
+    }
+
+    /**
+     * @param key The Property key
+     * @return All values used for key in the model, sorted
+     */
+    public Collection<String> getValues(String key) {
+        NavigableMap<String, Integer> values = fValues.get(key);
+        return values != null ? Collections.unmodifiableSet(values.keySet()) : Collections.emptySet();
+    }
+
+    /**
+     * @param key The Property key
+     * @return All Properties in the model that have key
+     */
+    public Collection<IProperty> getProperties(String key) {
+        Set<IProperty> properties = fProperties.get(key);
+        return properties != null ? Collections.unmodifiableSet(properties) : Collections.emptySet();
+    }
+
+    /**
+     * @param key The Property key
+     * @return The number of Properties in the model that have key
+     */
+    public int getPropertyCount(String key) {
+        Set<IProperty> properties = fProperties.get(key);
+        return properties != null ? properties.size() : 0;
+    }
+
+    private void notifyChanged(Notification msg) {
+        if(msg.getNotifier() instanceof IProperty property) {
+            if(msg.getFeature() == IArchimatePackage.Literals.PROPERTY__KEY) {
+                String oldKey = (String)msg.getOldValue();
+                String newKey = (String)msg.getNewValue();
+                removeKey(oldKey, property);
+                removeValue(oldKey, property.getValue());
+                addKey(newKey, property);
+                addValue(newKey, property.getValue());
+            }
+            else if(msg.getFeature() == IArchimatePackage.Literals.PROPERTY__VALUE) {
+                removeValue(property.getKey(), (String)msg.getOldValue());
+                addValue(property.getKey(), (String)msg.getNewValue());
+            }
+        }
+        // An object containing Properties, or a Property itself, was added or removed
+        else if(msg.getFeature() instanceof EReference reference && reference.isContainment() && msg.getEventType() != Notification.MOVE) {
+            forEachProperty(msg.getOldValue(), this::remove);
+            forEachProperty(msg.getNewValue(), this::add);
+        }
+    }
+
+    private void forEachProperty(Object value, Consumer<IProperty> action) {
+        if(value instanceof Collection<?> collection) {
+            for(Object o : collection) {
+                forEachProperty(o, action);
+            }
+        }
+        else if(value instanceof EObject eObject) {
+            if(eObject instanceof IProperty property) {
+                action.accept(property);
+            }
+
+            for(Iterator<EObject> iter = eObject.eAllContents(); iter.hasNext();) {
+                if(iter.next() instanceof IProperty property) {
+                    action.accept(property);
+                }
+            }
+        }
+    }
+
+    private void add(IProperty property) {
+        addKey(property.getKey(), property);
+        addValue(property.getKey(), property.getValue());
+    }
+
+    private void remove(IProperty property) {
+        removeKey(property.getKey(), property);
+        removeValue(property.getKey(), property.getValue());
+    }
+
+    private void addKey(String key, IProperty property) {
+        if(key != null) {
+            fProperties.computeIfAbsent(key, k -> new LinkedHashSet<>()).add(property);
+        }
+    }
+
+    private void removeKey(String key, IProperty property) {
+        if(key != null) {
+            Set<IProperty> properties = fProperties.get(key);
+            if(properties != null && properties.remove(property) && properties.isEmpty()) {
+                fProperties.remove(key);
+            }
+        }
+    }
+
+    private void addValue(String key, String value) {
+        if(key != null && value != null) {
+            fValues.computeIfAbsent(key, k -> new TreeMap<>(COMPARATOR)).merge(value, 1, Integer::sum);
+        }
+    }
+
+    private void removeValue(String key, String value) {
+        if(key != null && value != null) {
+            NavigableMap<String, Integer> values = fValues.get(key);
+            if(values != null) {
+                values.computeIfPresent(value, (v, count) -> count > 1 ? count - 1 : null);
+                if(values.isEmpty()) {
+                    fValues.remove(key);
+                }
+            }
+        }
+    }
+}
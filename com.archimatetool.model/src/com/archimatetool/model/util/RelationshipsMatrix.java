@@ -7,16 +7,19 @@ package com.archimatetool.model.util;
 
 import java.net.URL;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Set;
 
 import org.eclipse.core.runtime.Platform;
 import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EClassifier;
 import org.jdom2.Document;
 import org.jdom2.Element;
 import org.jdom2.input.SAXBuilder;
@@ -92,6 +95,31 @@ public class RelationshipsMatrix {
      * Mapping of relationships to key letters
      */
     private Map<EClass, Character> relationsValueMap = new LinkedHashMap<EClass, Character>();
+    
+    /**
+     * Relationship types in preferred order. The index of a type is its bit in the masks below
+     */
+    private EClass[] relationshipTypes;
+    
+    /**
+     * Bit of each relationship type indexed by classifier ID, or -1 if not a relationship type
+     */
+    private int[] relationshipBits;
+    
+    /**
+     * Masks of valid relationship types indexed by source and target classifier IDs
+     */
+    private int[][] validRelationshipsTable;
+    
+    /**
+     * Masks of relationship types that are valid from a source to any target indexed by source classifier ID
+     */
+    private int[] validRelationshipStartTable;
+    
+    /**
+     * Arrays of valid relationship types indexed by source and target classifier IDs
+     */
+    private EClass[][][] validRelationshipsArrays;
 
     private RelationshipsMatrix() {
         // Load Key letters file
@@ -99,6 +127,9 @@ public class RelationshipsMatrix {
         
         // Load Relationships file
         loadRelationships();
+        
+        // Create lookup tables
+        createTables();
     }
     
     public Map<EClass, List<TargetMatrix>> getRelationshipsMatrix() {
@@ -110,53 +141,108 @@ public class RelationshipsMatrix {
     }
 
     boolean isValidRelationshipStart(EClass sourceType, EClass relationshipType) {
-        // Use "Relationship" as a generic super type
-        if(IArchimatePackage.eINSTANCE.getArchimateRelationship().isSuperTypeOf(sourceType)) {
-            sourceType = IArchimatePackage.eINSTANCE.getArchimateRelationship();
-        }
+        int sourceID = getClassifierID(sourceType);
+        int bit = getRelationshipBit(relationshipType);
+        return sourceID != -1 && bit != -1 && (validRelationshipStartTable[sourceID] & (1 << bit)) != 0;
+    }
+    
+    boolean isValidRelationship(EClass sourceType, EClass targetType, EClass relationshipType) {
+        int sourceID = getClassifierID(sourceType);
+        int targetID = getClassifierID(targetType);
         
-        List<TargetMatrix> listMatrix = matrixMap.get(sourceType);
-        if(listMatrix != null) {
-            for(TargetMatrix targetMatrix : listMatrix) {
-                if(targetMatrix.getRelationships().contains(relationshipType)) {
-                    return true;
-                }
-            }
-        }
+        // relationshipType has to be a Relationship class
+        int bit = getRelationshipBit(relationshipType);
         
-        return false;
+        return sourceID != -1 && targetID != -1 && bit != -1 && (validRelationshipsTable[sourceID][targetID] & (1 << bit)) != 0;
     }
     
-    boolean isValidRelationship(EClass sourceType, EClass targetType, EClass relationshipType) {
-        if(relationshipType == null) {
-            return false;
+    /**
+     * @return All valid relationship types between sourceType and targetType in preferred order.
+     *         This is a shared array and must not be modified.
+     */
+    EClass[] getValidRelationships(EClass sourceType, EClass targetType) {
+        int sourceID = getClassifierID(sourceType);
+        int targetID = getClassifierID(targetType);
+        return sourceID != -1 && targetID != -1 ? validRelationshipsArrays[sourceID][targetID] : new EClass[0];
+    }
+    
+    /**
+     * @return The classifier ID of eClass if it is an ArchiMate class, or -1
+     */
+    private int getClassifierID(EClass eClass) {
+        return eClass != null && eClass.getEPackage() == IArchimatePackage.eINSTANCE ? eClass.getClassifierID() : -1;
+    }
+    
+    /**
+     * @return The bit of relationshipType in the masks, or -1 if it is not a relationship type
+     */
+    private int getRelationshipBit(EClass relationshipType) {
+        int id = getClassifierID(relationshipType);
+        return id != -1 ? relationshipBits[id] : -1;
+    }
+    
+    /**
+     * Create tables of valid relationships indexed by classifier IDs so that lookups don't search the matrix
+     */
+    private void createTables() {
+        List<EClassifier> classifiers = IArchimatePackage.eINSTANCE.getEClassifiers();
+        int size = classifiers.size();
+        
+        relationshipTypes = ArchimateModelUtils.getRelationsClasses();
+        relationshipBits = new int[size];
+        Arrays.fill(relationshipBits, -1);
+        for(int i = 0; i < relationshipTypes.length; i++) {
+            relationshipBits[relationshipTypes[i].getClassifierID()] = i;
         }
         
-        // relationshipType has to be a Relationship class
-        if(!IArchimatePackage.eINSTANCE.getArchimateRelationship().isSuperTypeOf(relationshipType)) {
-            return false;
+        // Masks of the types in the matrix
+        int[][] masks = new int[size][size];
+        for(Entry<EClass, List<TargetMatrix>> entry : matrixMap.entrySet()) {
+            for(TargetMatrix targetMatrix : entry.getValue()) {
+                for(EClass relationship : targetMatrix.getRelationships()) {
+                    int bit = relationshipBits[relationship.getClassifierID()];
+                    if(bit != -1) {
+                        masks[entry.getKey().getClassifierID()][targetMatrix.getTargetClass().getClassifierID()] |= 1 << bit;
+                    }
+                }
+            }
         }
         
-        // Use "Relationship" as a generic super type
-        if(IArchimatePackage.eINSTANCE.getArchimateRelationship().isSuperTypeOf(sourceType)) {
-            sourceType = IArchimatePackage.eINSTANCE.getArchimateRelationship();
+        // Use "Relationship" as a generic super type for relationship types
+        EClass relationshipClass = IArchimatePackage.eINSTANCE.getArchimateRelationship();
+        int[] matrixIDs = new int[size];
+        for(EClassifier classifier : classifiers) {
+            boolean isRelationship = classifier instanceof EClass eClass && relationshipClass.isSuperTypeOf(eClass);
+            matrixIDs[classifier.getClassifierID()] = isRelationship ? relationshipClass.getClassifierID() : classifier.getClassifierID();
         }
         
-        // Use "Relationship" as a generic super type
-        if(IArchimatePackage.eINSTANCE.getArchimateRelationship().isSuperTypeOf(targetType)) {
-            targetType = IArchimatePackage.eINSTANCE.getArchimateRelationship();
+        validRelationshipsTable = new int[size][size];
+        validRelationshipStartTable = new int[size];
+        validRelationshipsArrays = new EClass[size][size][];
+        
+        // Arrays with the same mask are shared
+        Map<Integer, EClass[]> arrays = new HashMap<>();
+        
+        for(int source = 0; source < size; source++) {
+            for(int target = 0; target < size; target++) {
+                int mask = masks[matrixIDs[source]][matrixIDs[target]];
+                validRelationshipsTable[source][target] = mask;
+                validRelationshipStartTable[source] |= mask;
+                validRelationshipsArrays[source][target] = arrays.computeIfAbsent(mask, this::createRelationshipTypesArray);
+            }
         }
+    }
+    
+    private EClass[] createRelationshipTypesArray(int mask) {
+        EClass[] array = new EClass[Integer.bitCount(mask)];
         
-        List<TargetMatrix> listMatrix = matrixMap.get(sourceType);
-        if(listMatrix != null) {
-            for(TargetMatrix targetMatrix : listMatrix) {
-                if(targetMatrix.getTargetClass() == targetType && targetMatrix.getRelationships().contains(relationshipType)) {
-                    return true;
-                }
+        for(int bit = 0, i = 0; bit < relationshipTypes.length; bit++) {
+            if((mask & (1 << bit)) != 0) {
+                array[i++] = relationshipTypes[bit];
             }
         }
         
-        return false;
+        return array;
     }
     
     private void loadKeyLetters() {
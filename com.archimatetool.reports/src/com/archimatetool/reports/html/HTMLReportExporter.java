@@ -225,6 +225,9 @@ public class HTMLReportExporter {
         File objectsFolder = new File(targetFolder, fModel.getId() + "/objects"); //$NON-NLS-1$
         objectsFolder.mkdirs(); // Make dir
 
+        File dataFolder = new File(targetFolder, fModel.getId() + "/data"); //$NON-NLS-1$
+        dataFolder.mkdirs(); // Make dir
+
         // Instantiate templates files
         File mainFile = new File(ArchiReportsPlugin.getInstance().getTemplatesFolder(), "st/main.stg"); //$NON-NLS-1$
         STGroupFile groupFile = new STGroupFile(mainFile.getAbsolutePath(), '^', '^');
@@ -235,6 +238,9 @@ public class HTMLReportExporter {
         // Write model purpose and properties html
         writeElement(new File(elementsFolder, "model.html"), stFrame, fModel); //$NON-NLS-1$
         
+        // Write the data for the model Query tab
+        new QueryDataWriter(fModel).write(new File(dataFolder, "query.js")); //$NON-NLS-1$
+        
         // Write all folders
         writeFolders(elementsFolder, stFrame, fModel.getFolders());
         
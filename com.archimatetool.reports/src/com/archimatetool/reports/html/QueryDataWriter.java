@@ -0,0 +1,276 @@
+/**
+ * This program and the accompanying materials
+ * are made available under the terms of the License
+ * which accompanies this distribution in the file LICENSE.txt
+ */
+package com.archimatetool.reports.html;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.emf.ecore.EObject;
+
+import com.archimatetool.model.IArchimateConcept;
+import com.archimatetool.model.IArchimateModel;
+import com.archimatetool.model.IArchimateRelationship;
+import com.archimatetool.model.IDiagramModel;
+import com.archimatetool.model.IDiagramModelArchimateConnection;
+import com.archimatetool.model.IDiagramModelArchimateObject;
+import com.archimatetool.model.IDiagramModelContainer;
+import com.archimatetool.model.IDiagramModelObject;
+import com.archimatetool.model.IDiagramModelReference;
+import com.archimatetool.model.IFolder;
+import com.archimatetool.model.IIdentifier;
+import com.archimatetool.model.IProfile;
+import com.archimatetool.model.IProperties;
+import com.archimatetool.model.IProperty;
+import com.archimatetool.model.ISourceConnection;
+
+
+/**
+ * Writes the tables of the model Query page of the HTML report to a JavaScript file.
+ *
+ * Each table is written as its column names and one flat array of all of its cells, row after row.
+ * Each cell is an index into one array of unique strings so that ids, types and property keys that are
+ * used many times are only written once.
+ * The file calls archiQueryData(data) when it is loaded, and frame.js turns the data into alasql tables.
+ */
+@SuppressWarnings("nls")
+class QueryDataWriter {
+
+    /**
+     * Name of the function called by the file with the data
+     */
+    static final String CALLBACK = "archiQueryData";
+
+    private static class Table {
+        String name;
+        String[] columns;
+        int[] cells = new int[1024];
+        int size;
+
+        Table(String name, String... columns) {
+            this.name = name;
+            this.columns = columns;
+        }
+
+        void add(int cell) {
+            if(size == cells.length) {
+                cells = Arrays.copyOf(cells, size * 2);
+            }
+            cells[size++] = cell;
+        }
+    }
+
+    private Table fElements = new Table("Elements", "id", "type", "specialization", "name", "documentation");
+    private Table fProperties = new Table("Properties", "conceptid", "propkey", "propvalue");
+    private Table fRelationships = new Table("Relationships", "id", "type", "specialization", "name", "documentation", "sourceid", "targetid");
+    private Table fViews = new Table("Views", "id", "type", "name", "documentation");
+    private Table fViewsContent = new Table("ViewsContent", "viewid", "contentid", "contenttype");
+    private Table fFolders = new Table("Folders", "id", "type", "name", "documentation");
+    private Table fFoldersContent = new Table("FoldersContent", "folderid", "contentid", "contenttype");
+
+    private List<Table> fTables = List.of(fElements, fProperties, fRelationships, fViews, fViewsContent, fFolders, fFoldersContent);
+
+    /**
+     * Unique strings and their index
+     */
+    private Map<String, Integer> fStrings = new HashMap<>();
+    private String[] fStringsArray = new String[1024];
+
+    QueryDataWriter(IArchimateModel model) {
+        // The model is the root folder
+        addRow(fFolders, model.getId(), getType(model), model.getName(), "");
+        for(IFolder folder : model.getFolders()) {
+            addRow(fFoldersContent, model.getId(), folder.getId(), getType(folder));
+            addFolder(folder);
+        }
+    }
+
+    /**
+     * Write the data to file
+     */
+    void write(File file) throws IOException {
+        try(Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8))) {
+            write(writer);
+        }
+    }
+
+    /**
+     * Write the data to writer
+     */
+    void write(Writer writer) throws IOException {
+        writer.write(CALLBACK + "({\"tables\":{");
+
+        for(int t = 0; t < fTables.size(); t++) {
+            Table table = fTables.get(t);
+
+            if(t > 0) {
+                writer.write(',');
+            }
+
+            writeString(writer, table.name);
+            writer.write(":{\"columns\":[");
+            for(int i = 0; i < table.columns.length; i++) {
+                if(i > 0) {
+                    writer.write(',');
+                }
+                writeString(writer, table.columns[i]);
+            }
+
+            writer.write("],\"rows\":[");
+            for(int i = 0; i < table.size; i++) {
+                if(i > 0) {
+                    writer.write(',');
+                }
+                writer.write(Integer.toString(table.cells[i]));
+            }
+            writer.write("]}");
+        }
+
+        writer.write("},\n\"strings\":[");
+        for(int i = 0; i < fStrings.size(); i++) {
+            if(i > 0) {
+                writer.write(",\n");
+            }
+            writeString(writer, fStringsArray[i]);
+        }
+        writer.write("]});\n");
+    }
+
+    private void addFolder(IFolder folder) {
+        addRow(fFolders, folder.getId(), getType(folder), folder.getName(), folder.getDocumentation());
+
+        for(IFolder subFolder : folder.getFolders()) {
+            addRow(fFoldersContent, folder.getId(), subFolder.getId(), getType(subFolder));
+            addFolder(subFolder);
+        }
+
+        for(EObject eObject : folder.getElements()) {
+            addRow(fFoldersContent, folder.getId(), ((IIdentifier)eObject).getId(), getType(eObject));
+
+            if(eObject instanceof IArchimateRelationship relationship) {
+                addRow(fRelationships, relationship.getId(), getType(relationship), getSpecialization(relationship), relationship.getName(),
+                        relationship.getDocumentation(), relationship.getSource().getId(), relationship.getTarget().getId());
+                addProperties(relationship);
+            }
+            else if(eObject instanceof IDiagramModel dm) {
+                addRow(fViews, dm.getId(), getType(dm), dm.getName(), dm.getDocumentation());
+                addProperties(dm);
+                addViewElements(dm, dm.getChildren());
+                addViewRelationships(dm, dm.getChildren());
+            }
+            else if(eObject instanceof IArchimateConcept concept) {
+                addRow(fElements, concept.getId(), getType(concept), getSpecialization(concept), concept.getName(), concept.getDocumentation());
+                addProperties(concept);
+            }
+        }
+    }
+
+    private void addProperties(IProperties properties) {
+        String id = ((IIdentifier)properties).getId();
+        for(IProperty property : properties.getProperties()) {
+            addRow(fProperties, id, property.getKey(), property.getValue());
+        }
+    }
+
+    private void addViewElements(IDiagramModel dm, List<IDiagramModelObject> children) {
+        for(IDiagramModelObject dmo : children) {
+            if(dmo instanceof IDiagramModelArchimateObject dmao) {
+                addRow(fViewsContent, dm.getId(), dmao.getArchimateElement().getId(), getType(dmao.getArchimateElement()));
+            }
+            else if(dmo instanceof IDiagramModelReference ref) {
+                addRow(fViewsContent, dm.getId(), ref.getReferencedModel().getId(), getType(ref.getReferencedModel()));
+            }
+
+            if(dmo instanceof IDiagramModelContainer container) {
+                addViewElements(dm, container.getChildren());
+            }
+        }
+    }
+
+    private void addViewRelationships(IDiagramModel dm, List<IDiagramModelObject> children) {
+        for(IDiagramModelObject dmo : children) {
+            if(dmo instanceof IDiagramModelArchimateObject) {
+                for(ISourceConnection connection : dmo.getSourceConnections()) {
+                    if(connection instanceof IDiagramModelArchimateConnection dmc) {
+                        addRow(fViewsContent, dm.getId(), dmc.getArchimateConcept().getId(), getType(dmc.getArchimateConcept()));
+                    }
+                }
+            }
+
+            if(dmo instanceof IDiagramModelContainer container) {
+                addViewRelationships(dm, container.getChildren());
+            }
+        }
+    }
+
+    private void addRow(Table table, String... values) {
+        for(String value : values) {
+            table.add(getStringIndex(value != null ? value : ""));
+        }
+    }
+
+    private int getStringIndex(String s) {
+        Integer index = fStrings.get(s);
+
+        if(index == null) {
+            index = fStrings.size();
+            fStrings.put(s, index);
+
+            if(index == fStringsArray.length) {
+                fStringsArray = Arrays.copyOf(fStringsArray, index * 2);
+            }
+            fStringsArray[index] = s;
+        }
+
+        return index;
+    }
+
+    private String getType(Object object) {
+        return object.getClass().getSimpleName();
+    }
+
+    private String getSpecialization(IArchimateConcept concept) {
+        IProfile profile = concept.getPrimaryProfile();
+        return profile != null ? profile.getName() : "";
+    }
+
+    /**
+     * Write s as a JSON string
+     */
+    static void writeString(Writer writer, String s) throws IOException {
+        writer.write('"');
+
+        for(int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch(c) {
+                case '"' -> writer.write("\\\"");
+                case '\\' -> writer.write("\\\\");
+                case '\n' -> writer.write("\\n");
+                case '\r' -> writer.write("\\r");
+                case '\t' -> writer.write("\\t");
+                default -> {
+                    // Control characters, and line and paragraph separators which are not allowed in JavaScript strings in older browsers
+                    if(c < 0x20 || c == 0x2028 || c == 0x2029) {
+                        writer.write(String.format("\\u%04x", (int)c));
+                    }
+                    else {
+                        writer.write(c);
+                    }
+                }
+            }
+        }
+
+        writer.write('"');
+    }
+}
@@ -134,6 +134,33 @@ var hints = {
 	CanvasModelSticky: "canvas_sticky.html",
 };
 
+// Load the model's query data file and create the alasql tables from it, then call callback.
+// The file is loaded with a script tag because XMLHttpRequest is not allowed for local files.
+// Each table's rows are one flat array of indexes into the array of strings.
+function loadQueryData(url, callback) {
+	window.archiQueryData = function(data) {
+		var strings = data.strings;
+		for (var name in data.tables) {
+			var columns = data.tables[name].columns;
+			var cells = data.tables[name].rows;
+			var rows = new Array(cells.length / columns.length);
+			for (var r = 0, i = 0; r < rows.length; r++) {
+				var row = {};
+				for (var c = 0; c < columns.length; c++) {
+					row[columns[c]] = strings[cells[i++]];
+				}
+				rows[r] = row;
+			}
+			alasql('CREATE TABLE ' + name);
+			alasql.tables[name].data = rows;
+		}
+		callback();
+	};
+	var script = document.createElement('script');
+	script.src = url;
+	document.head.appendChild(script);
+}
+
 function sortTable(tblSelector) {
     var tblBody = $(tblSelector+' > tbody');
     var tblRows = tblBody.children('tr').sort(strcmp);
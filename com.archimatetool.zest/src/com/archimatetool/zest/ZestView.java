@@ -8,6 +8,7 @@ package com.archimatetool.zest;
 import java.beans.PropertyChangeEvent;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
 
 import org.eclipse.core.runtime.IAdaptable;
@@ -46,7 +47,7 @@ import org.eclipse.ui.PlatformUI;
 import org.eclipse.ui.actions.ActionFactory;
 import org.eclipse.ui.handlers.IHandlerService;
 import org.eclipse.zest.layouts.LayoutStyles;
-import org.eclipse.zest.layouts.algorithms.SpringLayoutAlgorithm;
+import org.eclipse.zest.layouts.algorithms.BarnesHutLayoutAlgorithm;
 
 import com.archimatetool.editor.model.IEditorModelManager;
 import com.archimatetool.editor.ui.ArchiLabelProvider;
@@ -121,8 +122,12 @@ implements IZestView, ISelectionListener {
         fGraphViewer = new ZestGraphViewer(parent, SWT.NONE);
         fGraphViewer.getGraphControl().setLayoutData(new GridData(GridData.FILL, GridData.FILL, true, true));
         
-        // spring is the default - we do need to set this here!
-        fGraphViewer.setLayoutAlgorithm(new SpringLayoutAlgorithm(LayoutStyles.NO_LAYOUT_NODE_RESIZING), true);
+        // Barnes-Hut force-directed is the default - we do need to set this here!
+        // Warm start so that existing nodes keep their places when the depth or filter changes
+        BarnesHutLayoutAlgorithm layoutAlgorithm = new BarnesHutLayoutAlgorithm(LayoutStyles.NO_LAYOUT_NODE_RESIZING);
+        layoutAlgorithm.setWarmStart(true);
+        fGraphViewer.setLayoutAlgorithm(layoutAlgorithm, true);
+        //fGraphViewer.setLayoutAlgorithm(new SpringLayoutAlgorithm(LayoutStyles.NO_LAYOUT_NODE_RESIZING), true);
         //fGraphViewer.setLayoutAlgorithm(new TreeLayoutAlgorithm(LayoutStyles.NO_LAYOUT_NODE_RESIZING), true);
         //fGraphViewer.setLayoutAlgorithm(new RadialLayoutAlgorithm(LayoutStyles.NO_LAYOUT_NODE_RESIZING), true);
         //fGraphViewer.setLayoutAlgorithm(new HorizontalTreeLayoutAlgorithm(LayoutStyles.NO_LAYOUT_NODE_RESIZING), true);
@@ -975,12 +980,24 @@ implements IZestView, ISelectionListener {
         return false;
     }
     
-    private boolean isRefreshEvent(Notification msg) {
-        if(msg.getNewValue() instanceof IArchimateConcept || msg.getOldValue() instanceof IArchimateConcept) {
-            return true;
+    static boolean isRefreshEvent(Notification msg) {
+        return isConceptValue(msg.getNewValue()) || isConceptValue(msg.getOldValue());
+    }
+    
+    /**
+     * @return true if value is a concept or, as with ADD_MANY and REMOVE_MANY notifications, a collection containing a concept
+     */
+    private static boolean isConceptValue(Object value) {
+        if(value instanceof Collection<?> collection) {
+            for(Object object : collection) {
+                if(object instanceof IArchimateConcept) {
+                    return true;
+                }
+            }
+            return false;
         }
         
-        return false;
+        return value instanceof IArchimateConcept;
     }
     
     // =================================================================================
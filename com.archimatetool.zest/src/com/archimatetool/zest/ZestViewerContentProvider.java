@@ -5,8 +5,10 @@
  */
 package com.archimatetool.zest;
 
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Set;
 
 import org.eclipse.emf.ecore.EClass;
@@ -128,9 +130,7 @@ public class ZestViewerContentProvider implements IGraphContentProvider {
 
             // Element - Get its relationships
             if(archimateConcept instanceof IArchimateElement) {
-                Set<IArchimateRelationship> mainList = new HashSet<>();
-                getRelations(mainList, new HashSet<IArchimateConcept>(), archimateConcept, 0);
-                return mainList.toArray();
+                return getRelations(archimateConcept).toArray();
             }
         }
         
@@ -138,40 +138,44 @@ public class ZestViewerContentProvider implements IGraphContentProvider {
     }
     
     /**
-     * Get all relations from source and target of concept and add to list, no more than DEPTH
+     * Get all relations from source and target of concept, no more than DEPTH steps away.
+     * This is a breadth-first search so that each concept is expanded at its shallowest depth.
      */
-    private void getRelations(Set<IArchimateRelationship> mainList, Set<IArchimateConcept> checkList, IArchimateConcept concept, int count) {
-        if(checkList.contains(concept)) {
-            return;
-        }
+    Set<IArchimateRelationship> getRelations(IArchimateConcept concept) {
+        Set<IArchimateRelationship> mainList = new LinkedHashSet<>();
         
+        Set<IArchimateConcept> checkList = new HashSet<>();
         checkList.add(concept);
         
-        if(count > fDepth) {
-            return;
-        }
-        
-        count++;
+        List<IArchimateConcept> currentLevel = new ArrayList<>();
+        currentLevel.add(concept);
         
-        for(IArchimateRelationship relationship : ArchimateModelUtils.getAllRelationshipsForConcept(concept)) {
-            IArchimateConcept other = relationship.getSource().equals(concept) ? relationship.getTarget() : relationship.getSource();
-            int direction = relationship.getSource().equals(concept) ? DIR_OUT : DIR_IN;
-
-            if(!mainList.contains(relationship) && fViewpoint.isAllowedConcept(other.eClass()) && isVisible(relationship)) {
-                if(direction == fDirection || fDirection == DIR_BOTH) {
-                    // If the other concept is an element and is selected to beshown
-                    if(other instanceof IArchimateElement && isVisible((IArchimateElement)other)) {
-                        mainList.add(relationship);
+        for(int count = 0; count <= fDepth && !currentLevel.isEmpty(); count++) {
+            List<IArchimateConcept> nextLevel = new ArrayList<>();
+            
+            for(IArchimateConcept current : currentLevel) {
+                ArchimateModelUtils.forEachRelationship(current, relationship -> {
+                    boolean isSource = relationship.getSource() == current;
+                    IArchimateConcept other = isSource ? relationship.getTarget() : relationship.getSource();
+                    int direction = isSource ? DIR_OUT : DIR_IN;
+                    
+                    if((direction == fDirection || fDirection == DIR_BOTH) && fViewpoint.isAllowedConcept(other.eClass()) && isVisible(relationship)) {
+                        // If the other concept is an element and is selected to be shown
+                        if(other instanceof IArchimateElement element && isVisible(element)) {
+                            mainList.add(relationship);
+                        }
+                        
+                        if(checkList.add(other)) {
+                            nextLevel.add(other);
+                        }
                     }
-                }
-            }
-
-            if(fViewpoint.isAllowedConcept(other.eClass()) && isVisible(relationship)) {
-                if(direction == fDirection || fDirection == DIR_BOTH) {
-                    getRelations(mainList, checkList, other, count);
-                }
+                });
             }
+            
+            currentLevel = nextLevel;
         }
+        
+        return mainList;
     }
     
     @Override
@@ -47,9 +47,26 @@ public class DeferredUpdateManager extends UpdateManager {
         }
     }
 
+    /**
+     * The default maximum number of disjoint damage regions that are kept
+     * when multi-region damage repair is enabled.
+     */
+    public static final int DEFAULT_MAX_DAMAGE_REGIONS = 8;
+
+    /**
+     * The fixed cost, in square pixels, assumed for each separate paint pass.
+     * Two damage regions are merged when the area added by painting their
+     * union is less than this.
+     */
+    private static final long REGION_PAINT_OVERHEAD = 64 * 64;
+
     private Rectangle damage;
     private Map dirtyRegions = new HashMap();
 
+    private boolean multiRegionDamage;
+    private int maxDamageRegions = DEFAULT_MAX_DAMAGE_REGIONS;
+    private List damageRegions = new ArrayList();
+
     private GraphicsSource graphicsSource;
     private List invalidFigures = new ArrayList();
     private IFigure root;
@@ -288,22 +305,19 @@ public class DeferredUpdateManager extends UpdateManager {
      * dirty regions.
      */
     protected void repairDamage() {
+        if (multiRegionDamage) {
+            repairDamageRegions();
+            return;
+        }
+
         Iterator keys = dirtyRegions.keySet().iterator();
         Rectangle contribution;
         IFigure figure;
-        IFigure walker;
 
         while (keys.hasNext()) {
             figure = (IFigure) keys.next();
-            walker = figure.getParent();
-            contribution = (Rectangle) dirtyRegions.get(figure);
-            // A figure can't paint beyond its own bounds
-            contribution.intersect(figure.getBounds());
-            while (!contribution.isEmpty() && walker != null) {
-                walker.translateToParent(contribution);
-                contribution.intersect(walker.getBounds());
-                walker = walker.getParent();
-            }
+            contribution = translateToRoot(figure,
+                    (Rectangle) dirtyRegions.get(figure));
             if (damage == null)
                 damage = new Rectangle(contribution);
             else
@@ -318,15 +332,174 @@ public class DeferredUpdateManager extends UpdateManager {
 
         if (damage != null && !damage.isEmpty()) {
             // ystem.out.println(damage);
-            Graphics graphics = getGraphics(damage);
-            if (graphics != null) {
-                root.paint(graphics);
-                releaseGraphics(graphics);
-            }
+            paintDamage();
+        }
+        damage = null;
+    }
+
+    /**
+     * Repaints the dirty regions on the update queue as a small set of
+     * disjoint rectangles, each painted with its own clip. Regions are only
+     * merged when they overlap or when painting their union is cheaper than
+     * painting them separately.
+     */
+    private void repairDamageRegions() {
+        Rectangle bounds = null;
+
+        for (Iterator iter = dirtyRegions.entrySet().iterator(); iter.hasNext();) {
+            Map.Entry entry = (Map.Entry) iter.next();
+            Rectangle contribution = translateToRoot(
+                    (IFigure) entry.getKey(), (Rectangle) entry.getValue());
+            if (contribution.isEmpty())
+                continue;
+            addDamageRegion(contribution);
+            if (bounds == null)
+                bounds = new Rectangle(contribution);
+            else
+                bounds.union(contribution);
+        }
+
+        if (!dirtyRegions.isEmpty()) {
+            Map oldRegions = dirtyRegions;
+            dirtyRegions = new HashMap();
+            // Listeners expect a single rectangle so pass the bounds of all
+            // regions
+            firePainting(bounds == null ? new Rectangle() : bounds,
+                    oldRegions);
+        }
+
+        List regions = damageRegions;
+        damageRegions = new ArrayList();
+        for (int i = 0; i < regions.size(); i++) {
+            damage = (Rectangle) regions.get(i);
+            paintDamage();
         }
         damage = null;
     }
 
+    /**
+     * Translates the given dirty region of the figure to root coordinates,
+     * clipping it to the bounds of the figure and each of its ancestors.
+     */
+    private Rectangle translateToRoot(IFigure figure, Rectangle contribution) {
+        // A figure can't paint beyond its own bounds
+        contribution.intersect(figure.getBounds());
+        IFigure walker = figure.getParent();
+        while (!contribution.isEmpty() && walker != null) {
+            walker.translateToParent(contribution);
+            contribution.intersect(walker.getBounds());
+            walker = walker.getParent();
+        }
+        return contribution;
+    }
+
+    /**
+     * Adds the given rectangle to the set of disjoint damage regions, merging
+     * it with any region it overlaps or that is cheaper to paint together.
+     */
+    private void addDamageRegion(Rectangle rect) {
+        Rectangle candidate = new Rectangle(rect);
+        boolean merged;
+        do {
+            merged = false;
+            for (Iterator iter = damageRegions.iterator(); iter.hasNext();) {
+                Rectangle existing = (Rectangle) iter.next();
+                if (existing.intersects(candidate)
+                        || getMergeCost(existing, candidate) <= REGION_PAINT_OVERHEAD) {
+                    candidate.union(existing);
+                    iter.remove();
+                    merged = true;
+                }
+            }
+        } while (merged);
+
+        damageRegions.add(candidate);
+
+        while (damageRegions.size() > maxDamageRegions)
+            mergeCheapestDamageRegions();
+    }
+
+    /**
+     * Merges the two damage regions whose union adds the least painted area,
+     * and then any region that the merged region now overlaps.
+     */
+    private void mergeCheapestDamageRegions() {
+        int first = 0, second = 1;
+        long minCost = Long.MAX_VALUE;
+        for (int i = 0; i < damageRegions.size(); i++) {
+            Rectangle r1 = (Rectangle) damageRegions.get(i);
+            for (int j = i + 1; j < damageRegions.size(); j++) {
+                long cost = getMergeCost(r1, (Rectangle) damageRegions.get(j));
+                if (cost < minCost) {
+                    minCost = cost;
+                    first = i;
+                    second = j;
+                }
+            }
+        }
+        Rectangle merged = ((Rectangle) damageRegions.get(first))
+                .getUnion((Rectangle) damageRegions.get(second));
+        damageRegions.remove(second);
+        damageRegions.remove(first);
+        addDamageRegion(merged);
+    }
+
+    /**
+     * @return the extra area painted if the two rectangles are painted as
+     *         their union rather than separately
+     */
+    private static long getMergeCost(Rectangle r1, Rectangle r2) {
+        return getArea(r1.getUnion(r2)) - getArea(r1) - getArea(r2);
+    }
+
+    private static long getArea(Rectangle r) {
+        return (long) r.width * r.height;
+    }
+
+    /**
+     * Paints the current damage rectangle.
+     */
+    private void paintDamage() {
+        if (damage.isEmpty())
+            return;
+        Graphics graphics = getGraphics(damage);
+        if (graphics != null) {
+            root.paint(graphics);
+            releaseGraphics(graphics);
+        }
+    }
+
+    /**
+     * Sets whether dirty regions are repaired as a set of disjoint rectangles
+     * rather than as a single rectangle enclosing all of them. This avoids
+     * repainting the area between figures that are far apart.
+     * 
+     * @param value
+     *            <code>true</code> to repair damage as multiple regions
+     */
+    public void setMultiRegionDamage(boolean value) {
+        multiRegionDamage = value;
+    }
+
+    /**
+     * @return <code>true</code> if damage is repaired as multiple regions
+     */
+    public boolean isMultiRegionDamage() {
+        return multiRegionDamage;
+    }
+
+    /**
+     * Sets the maximum number of disjoint regions kept when multi-region damage
+     * repair is enabled. When exceeded the two regions that are cheapest to
+     * paint together are merged.
+     * 
+     * @param max
+     *            the maximum number of regions, at least 1
+     */
+    public void setMaxDamageRegions(int max) {
+        maxDamageRegions = Math.max(1, max);
+    }
+
     /**
      * Adds the given runnable and queues an update if an update is not under
      * progress.
@@ -0,0 +1,237 @@
+/*******************************************************************************
+ * Copyright (c) 2000, 2010 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.draw2d;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.draw2d.geometry.Rectangle;
+
+/**
+ * A uniform grid over the bounds of a figure's children, used to find the
+ * children that intersect a rectangle or contain a point without visiting
+ * every child. Results are returned in the z-order of the host's children.
+ * <P>
+ * Children that are themselves {@link FreeformFigure}s, or whose bounds span
+ * too many cells, are not gridded and are always returned as candidates.
+ */
+@SuppressWarnings({ "rawtypes", "unchecked" })
+class FigureGridIndex {
+
+    private static final int CELL_SIZE = 256;
+    private static final int MAX_CELLS_PER_FIGURE = 64;
+
+    private static class Entry {
+        IFigure figure;
+        Rectangle bounds;
+        int order;
+        boolean gridded;
+
+        Entry(IFigure figure) {
+            this.figure = figure;
+        }
+    }
+
+    private static final Comparator ORDER_COMPARATOR = new Comparator() {
+        @Override
+        public int compare(Object o1, Object o2) {
+            return ((Entry) o1).order - ((Entry) o2).order;
+        }
+    };
+
+    private IFigure host;
+    private Map entries = new IdentityHashMap();
+    private Map cells = new HashMap();
+    private List ungridded = new ArrayList();
+    private boolean orderValid;
+
+    FigureGridIndex(IFigure host) {
+        this.host = host;
+        List children = host.getChildren();
+        for (int i = 0; i < children.size(); i++)
+            add((IFigure) children.get(i));
+    }
+
+    /**
+     * Adds the child to the index.
+     */
+    void add(IFigure child) {
+        Entry entry = new Entry(child);
+        entries.put(child, entry);
+        insert(entry);
+        orderValid = false;
+    }
+
+    /**
+     * Removes the child from the index.
+     *
+     * @return the bounds the child was indexed with, or <code>null</code>
+     */
+    Rectangle remove(IFigure child) {
+        Entry entry = (Entry) entries.remove(child);
+        if (entry == null)
+            return null;
+        delete(entry);
+        orderValid = false;
+        return entry.bounds;
+    }
+
+    /**
+     * Re-indexes the child at its current bounds.
+     *
+     * @return the bounds the child was previously indexed with, or
+     *         <code>null</code>
+     */
+    Rectangle update(IFigure child) {
+        Entry entry = (Entry) entries.get(child);
+        if (entry == null)
+            return null;
+        Rectangle oldBounds = entry.bounds;
+        if (oldBounds.equals(child.getBounds()))
+            return oldBounds;
+        delete(entry);
+        insert(entry);
+        return oldBounds;
+    }
+
+    /**
+     * Returns the children whose bounds intersect the given rectangle, in
+     * z-order, or <code>null</code> if the rectangle covers so much of the
+     * grid that visiting every child would be cheaper.
+     */
+    List getChildrenIntersecting(Rectangle rect) {
+        int x1 = cell(rect.x), y1 = cell(rect.y);
+        int x2 = cell(rect.right() - 1), y2 = cell(rect.bottom() - 1);
+        if ((long) (x2 - x1 + 1) * (y2 - y1 + 1) > entries.size())
+            return null;
+
+        Map found = new IdentityHashMap();
+        for (int cx = x1; cx <= x2; cx++) {
+            for (int cy = y1; cy <= y2; cy++) {
+                List cell = (List) cells.get(Long.valueOf(key(cx, cy)));
+                if (cell == null)
+                    continue;
+                for (int i = 0; i < cell.size(); i++) {
+                    Entry entry = (Entry) cell.get(i);
+                    if (entry.bounds.intersects(rect))
+                        found.put(entry.figure, entry);
+                }
+            }
+        }
+        for (int i = 0; i < ungridded.size(); i++) {
+            Entry entry = (Entry) ungridded.get(i);
+            found.put(entry.figure, entry);
+        }
+
+        return sort(found.values());
+    }
+
+    /**
+     * Returns the children whose bounds contain the given point, in z-order.
+     */
+    List getChildrenAt(int x, int y) {
+        List result = new ArrayList();
+        List cell = (List) cells.get(Long.valueOf(key(cell(x), cell(y))));
+        if (cell != null) {
+            for (int i = 0; i < cell.size(); i++) {
+                Entry entry = (Entry) cell.get(i);
+                if (entry.bounds.contains(x, y))
+                    result.add(entry);
+            }
+        }
+        result.addAll(ungridded);
+        return sort(result);
+    }
+
+    private List sort(Collection found) {
+        validateOrder();
+        List sorted = new ArrayList(found);
+        Collections.sort(sorted, ORDER_COMPARATOR);
+        for (int i = 0; i < sorted.size(); i++)
+            sorted.set(i, ((Entry) sorted.get(i)).figure);
+        return sorted;
+    }
+
+    private void validateOrder() {
+        if (orderValid)
+            return;
+        List children = host.getChildren();
+        for (int i = 0; i < children.size(); i++) {
+            Entry entry = (Entry) entries.get(children.get(i));
+            if (entry != null)
+                entry.order = i;
+        }
+        orderValid = true;
+    }
+
+    private void insert(Entry entry) {
+        entry.bounds = entry.figure.getBounds().getCopy();
+        Rectangle b = entry.bounds;
+        int x1 = cell(b.x), y1 = cell(b.y);
+        int x2 = cell(b.right() - 1), y2 = cell(b.bottom() - 1);
+        entry.gridded = !(entry.figure instanceof FreeformFigure)
+                && (long) (x2 - x1 + 1) * (y2 - y1 + 1) <= MAX_CELLS_PER_FIGURE;
+
+        if (!entry.gridded) {
+            ungridded.add(entry);
+            return;
+        }
+
+        for (int cx = x1; cx <= x2; cx++) {
+            for (int cy = y1; cy <= y2; cy++) {
+                Long key = Long.valueOf(key(cx, cy));
+                List cell = (List) cells.get(key);
+                if (cell == null) {
+                    cell = new ArrayList(4);
+                    cells.put(key, cell);
+                }
+                cell.add(entry);
+            }
+        }
+    }
+
+    private void delete(Entry entry) {
+        if (!entry.gridded) {
+            ungridded.remove(entry);
+            return;
+        }
+
+        Rectangle b = entry.bounds;
+        int x1 = cell(b.x), y1 = cell(b.y);
+        int x2 = cell(b.right() - 1), y2 = cell(b.bottom() - 1);
+        for (int cx = x1; cx <= x2; cx++) {
+            for (int cy = y1; cy <= y2; cy++) {
+                Long key = Long.valueOf(key(cx, cy));
+                List cell = (List) cells.get(key);
+                if (cell != null) {
+                    cell.remove(entry);
+                    if (cell.isEmpty())
+                        cells.remove(key);
+                }
+            }
+        }
+    }
+
+    private static int cell(int coordinate) {
+        return Math.floorDiv(coordinate, CELL_SIZE);
+    }
+
+    private static long key(int cx, int cy) {
+        return ((long) cx << 32) | (cy & 0xFFFFFFFFL);
+    }
+
+}
@@ -21,13 +21,28 @@ class FreeformHelper implements FreeformListener {
     class ChildTracker implements FigureListener {
         @Override
         public void figureMoved(IFigure source) {
-            invalidate();
+            if (index == null) {
+                invalidate();
+                return;
+            }
+            Rectangle oldBounds = index.update(source);
+            if (oldBounds == null || !canUpdateExtent(oldBounds)) {
+                invalidate();
+                return;
+            }
+            Rectangle newBounds = source.getBounds();
+            if (!childrenExtent.contains(newBounds)) {
+                childrenExtent.union(newBounds);
+                extentChanged();
+            }
         }
     }
 
     private FreeformFigure host;
     private Rectangle freeformExtent;
+    private Rectangle childrenExtent;
     private FigureListener figureListener = new ChildTracker();
+    private FigureGridIndex index;
 
     FreeformHelper(FreeformFigure host) {
         this.host = host;
@@ -36,24 +51,14 @@ class FreeformHelper implements FreeformListener {
     public Rectangle getFreeformExtent() {
         if (freeformExtent != null)
             return freeformExtent;
-        Rectangle r;
-        List children = host.getChildren();
-        for (int i = 0; i < children.size(); i++) {
-            IFigure child = (IFigure) children.get(i);
-            if (child instanceof FreeformFigure)
-                r = ((FreeformFigure) child).getFreeformExtent();
-            else
-                r = child.getBounds();
-            if (freeformExtent == null)
-                freeformExtent = r.getCopy();
-            else
-                freeformExtent.union(r);
-        }
+        if (childrenExtent == null)
+            childrenExtent = calculateChildrenExtent();
         Insets insets = host.getInsets();
-        if (freeformExtent == null)
+        if (childrenExtent == null)
             freeformExtent = new Rectangle(0, 0, insets.getWidth(),
                     insets.getHeight());
         else {
+            freeformExtent = childrenExtent.getCopy();
             host.translateToParent(freeformExtent);
             freeformExtent.expand(insets);
         }
@@ -62,16 +67,72 @@ class FreeformHelper implements FreeformListener {
         return freeformExtent;
     }
 
+    private Rectangle calculateChildrenExtent() {
+        Rectangle extent = null;
+        Rectangle r;
+        List children = host.getChildren();
+        for (int i = 0; i < children.size(); i++) {
+            IFigure child = (IFigure) children.get(i);
+            if (child instanceof FreeformFigure)
+                r = ((FreeformFigure) child).getFreeformExtent();
+            else
+                r = child.getBounds();
+            if (extent == null)
+                extent = r.getCopy();
+            else
+                extent.union(r);
+        }
+        return extent;
+    }
+
+    /**
+     * Returns whether the union of the children's bounds can be updated
+     * incrementally when a child that had the given bounds moves or is
+     * removed. This is only the case if the old bounds did not touch the edge
+     * of the union, so that removing them cannot shrink it.
+     */
+    private boolean canUpdateExtent(Rectangle oldBounds) {
+        return childrenExtent != null && oldBounds.x > childrenExtent.x
+                && oldBounds.y > childrenExtent.y
+                && oldBounds.right() < childrenExtent.right()
+                && oldBounds.bottom() < childrenExtent.bottom();
+    }
+
     public void hookChild(IFigure child) {
-        invalidate();
         if (child instanceof FreeformFigure)
             ((FreeformFigure) child).addFreeformListener(this);
         else
             child.addFigureListener(figureListener);
+
+        if (index != null) {
+            index.add(child);
+            if (childrenExtent != null && !(child instanceof FreeformFigure)) {
+                if (!childrenExtent.contains(child.getBounds())) {
+                    childrenExtent.union(child.getBounds());
+                    extentChanged();
+                }
+                return;
+            }
+        }
+        invalidate();
+    }
+
+    /**
+     * Called when the extent has grown but need not be recalculated from all
+     * children.
+     */
+    private void extentChanged() {
+        freeformExtent = null;
+        fireExtentChanged();
     }
 
     void invalidate() {
         freeformExtent = null;
+        childrenExtent = null;
+        fireExtentChanged();
+    }
+
+    private void fireExtentChanged() {
         host.fireExtentChanged();
         if (host.getParent() != null)
             host.getParent().revalidate();
@@ -99,11 +160,36 @@ class FreeformHelper implements FreeformListener {
     }
 
     public void unhookChild(IFigure child) {
-        invalidate();
         if (child instanceof FreeformFigure)
             ((FreeformFigure) child).removeFreeformListener(this);
         else
             child.removeFigureListener(figureListener);
+
+        if (index != null) {
+            Rectangle oldBounds = index.remove(child);
+            // Removing a child strictly inside the extent can't change it
+            if (oldBounds != null && !(child instanceof FreeformFigure)
+                    && canUpdateExtent(oldBounds))
+                return;
+        }
+        invalidate();
+    }
+
+    /**
+     * Enables or disables the spatial index of the host's children.
+     */
+    void setIndexEnabled(boolean enabled) {
+        if (enabled == (index != null))
+            return;
+        index = enabled ? new FigureGridIndex(host) : null;
+    }
+
+    /**
+     * @return the spatial index of the host's children, or <code>null</code>
+     *         if not enabled
+     */
+    FigureGridIndex getIndex() {
+        return index;
     }
 
 }
@@ -11,7 +11,9 @@
 package org.eclipse.draw2d;
 
 import java.util.Iterator;
+import java.util.List;
 
+import org.eclipse.draw2d.geometry.Point;
 import org.eclipse.draw2d.geometry.Rectangle;
 
 /**
@@ -75,6 +77,113 @@ public class FreeformLayer extends Layer implements FreeformFigure {
         bounds.y += dy;
     }
 
+    /**
+     * If the spatial index is enabled only the children whose bounds intersect
+     * the clip are visited.
+     * 
+     * @see Figure#paintChildren(Graphics)
+     */
+    @Override
+    protected void paintChildren(Graphics graphics) {
+        FigureGridIndex index = helper.getIndex();
+        if (index == null || getClippingStrategy() != null) {
+            super.paintChildren(graphics);
+            return;
+        }
+
+        Rectangle clip = graphics.getClip(new Rectangle());
+        List children = index.getChildrenIntersecting(clip);
+        if (children == null) {
+            super.paintChildren(graphics);
+            return;
+        }
+
+        for (int i = 0; i < children.size(); i++) {
+            IFigure child = (IFigure) children.get(i);
+            if (child.isVisible() && child.getBounds().intersects(clip)) {
+                graphics.clipRect(child.getBounds());
+                child.paint(graphics);
+                graphics.restoreState();
+            }
+        }
+    }
+
+    /**
+     * If the spatial index is enabled only the children whose bounds contain
+     * the point are visited.
+     * 
+     * @see Figure#findDescendantAtExcluding(int, int, TreeSearch)
+     */
+    @Override
+    protected IFigure findDescendantAtExcluding(int x, int y,
+            TreeSearch search) {
+        FigureGridIndex index = helper.getIndex();
+        if (index == null)
+            return super.findDescendantAtExcluding(x, y, search);
+
+        Point pt = new Point(x, y);
+        translateFromParent(pt);
+        if (!getClientArea(Rectangle.SINGLETON).contains(pt))
+            return null;
+
+        List children = index.getChildrenAt(pt.x, pt.y);
+        for (int i = children.size(); i > 0;) {
+            i--;
+            IFigure fig = (IFigure) children.get(i);
+            if (fig.isVisible()) {
+                fig = fig.findFigureAt(pt.x, pt.y, search);
+                if (fig != null)
+                    return fig;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * If the spatial index is enabled only the children whose bounds contain
+     * the point are visited.
+     * 
+     * @see Figure#findMouseEventTargetInDescendantsAt(int, int)
+     */
+    @Override
+    protected IFigure findMouseEventTargetInDescendantsAt(int x, int y) {
+        FigureGridIndex index = helper.getIndex();
+        if (index == null)
+            return super.findMouseEventTargetInDescendantsAt(x, y);
+
+        Point pt = new Point(x, y);
+        translateFromParent(pt);
+        if (!getClientArea(Rectangle.SINGLETON).contains(pt))
+            return null;
+
+        List children = index.getChildrenAt(pt.x, pt.y);
+        for (int i = children.size(); i > 0;) {
+            i--;
+            IFigure fig = (IFigure) children.get(i);
+            if (fig.isVisible() && fig.isEnabled()
+                    && fig.containsPoint(pt.x, pt.y)) {
+                fig = fig.findMouseEventTargetAt(pt.x, pt.y);
+                if (fig != null)
+                    return fig;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Enables or disables a spatial index of this layer's children. When
+     * enabled, painting and hit testing only visit the children that intersect
+     * the clip or contain the point, and the freeform extent is updated
+     * incrementally as children move. This should only be enabled if the
+     * children do not paint or accept hits outside of their bounds.
+     * 
+     * @param enabled
+     *            <code>true</code> to enable the spatial index
+     */
+    public void setSpatialIndexEnabled(boolean enabled) {
+        helper.setIndexEnabled(enabled);
+    }
+
     /**
      * @see IFigure#remove(IFigure)
      */
@@ -10,6 +10,7 @@
  *******************************************************************************/
 package org.eclipse.draw2d.parts;
 
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.Map;
 
@@ -47,16 +48,23 @@ public class Thumbnail extends Figure implements UpdateListener {
     
     /**
      * This updates the Thumbnail by breaking the thumbnail {@link Image} into
-     * several tiles and updating each tile individually.
+     * several tiles and updating each tile individually. Only the tiles that
+     * are covered by changes to the source figure are updated, and the updater
+     * stops when there are no more tiles to update.
      */
     class ThumbnailUpdater implements Runnable {
-        private static final int MIN_TILE_SIZE = 256;
+        private static final int MIN_TILE_SIZE = 64;
         private static final int MAX_NUMBER_OF_TILES = 16;
         private int currentHTile, currentVTile;
         private int hTiles, vTiles;
         private Dimension tileSize;
         private Dimension sourceSize; // the source size that was used for the
                                         // tileSize computation
+        private Dimension tiledSize; // the thumbnail size that was used for
+                                        // the tileSize computation
+        // Tiles that need to be updated, in rows of hTiles
+        private boolean[] dirtyTiles;
+        private int dirtyTileCount;
         private boolean isActive = true;
 
         private boolean isRunning = false;
@@ -126,51 +134,119 @@ public class Thumbnail extends Figure implements UpdateListener {
 
         /**
          * Resets the number of vertical and horizontal tiles, as well as the
-         * tile size and current tile index.
+         * tile size and current tile index, and marks all tiles as needing to
+         * be updated.
          */
         public void resetTileValues() {
-            // Keep track of source size that matches the computed tile size.
+            // Keep track of source and thumbnail sizes that match the computed
+            // tile size.
             sourceSize = getSourceRectangle().getSize();
-
-            // Compute number of horizontal and vertical tiles and the size of
-            // each tile (while the last tile in horizontal and vertical
-            // direction may be smaller); ensure that all tiles except those on
-            // the bottom and right border will have at least a size of
-            // MIN_TILE_SIZE size and that at most MAX_NUMBER_OF_TILES tiles
-            // will be created.
-            hTiles = Math.min(
-                    (int) Math.ceil((float) sourceSize.width
-                            / (float) MIN_TILE_SIZE), MAX_NUMBER_OF_TILES);
-            vTiles = Math.min(
-                    (int) Math.ceil((float) sourceSize.height
-                            / (float) MIN_TILE_SIZE), MAX_NUMBER_OF_TILES);
-            tileSize = new Dimension((int) Math.ceil((float) sourceSize.width
+            tiledSize = new Dimension(targetSize);
+
+            // Compute number of horizontal and vertical tiles of the thumbnail
+            // image and the size of each tile (while the last tile in
+            // horizontal and vertical direction may be smaller); ensure that
+            // all tiles except those on the bottom and right border will have
+            // at least a size of MIN_TILE_SIZE size and that at most
+            // MAX_NUMBER_OF_TILES tiles will be created.
+            hTiles = Math.max(1, Math.min(
+                    (int) Math.ceil((float) tiledSize.width
+                            / (float) MIN_TILE_SIZE), MAX_NUMBER_OF_TILES));
+            vTiles = Math.max(1, Math.min(
+                    (int) Math.ceil((float) tiledSize.height
+                            / (float) MIN_TILE_SIZE), MAX_NUMBER_OF_TILES));
+            tileSize = new Dimension((int) Math.ceil((float) tiledSize.width
                     / (float) hTiles),
-                    (int) Math.ceil((float) sourceSize.height / (float) vTiles));
+                    (int) Math.ceil((float) tiledSize.height / (float) vTiles));
 
             // Reset the current indices so that the next update will start with
             // the first tile in horizontal and vertical direction
             currentHTile = 0;
             currentVTile = 0;
+
+            markAllTilesDirty();
+        }
+
+        private void markAllTilesDirty() {
+            dirtyTiles = new boolean[hTiles * vTiles];
+            Arrays.fill(dirtyTiles, true);
+            dirtyTileCount = dirtyTiles.length;
+        }
+
+        /**
+         * Marks the tiles covering the given area of the thumbnail image as
+         * needing to be updated.
+         * 
+         * @param area
+         *            area in thumbnail image coordinates
+         * @return <code>false</code> if the tiles are not set up for the
+         *         current source and thumbnail sizes and so the whole
+         *         thumbnail needs to be updated
+         */
+        public boolean markDirty(Rectangle area) {
+            if (dirtyTiles == null || tiledSize.isEmpty()
+                    || !targetSize.equals(tiledSize)
+                    || !getSourceRectangle().getSize().equals(sourceSize))
+                return false;
+
+            if (area.isEmpty())
+                return true;
+
+            int h1 = Math.max(0, area.x / tileSize.width);
+            int h2 = Math.min(hTiles - 1, (area.right() - 1) / tileSize.width);
+            int v1 = Math.max(0, area.y / tileSize.height);
+            int v2 = Math.min(vTiles - 1, (area.bottom() - 1) / tileSize.height);
+
+            for (int v = v1; v <= v2; v++) {
+                for (int h = h1; h <= h2; h++) {
+                    if (!dirtyTiles[v * hTiles + h]) {
+                        dirtyTiles[v * hTiles + h] = true;
+                        dirtyTileCount++;
+                    }
+                }
+            }
+
+            return true;
+        }
+
+        /**
+         * Returns <code>true</code> if there are tiles that need to be
+         * updated.
+         * 
+         * @return <code>true</code> if there are tiles that need to be updated
+         */
+        public boolean hasDirtyTiles() {
+            return dirtyTileCount > 0;
         }
 
         /**
-         * Restarts the updater.
+         * Moves the current tile index to the next tile that needs to be
+         * updated, starting at the current tile.
+         */
+        private void moveToNextDirtyTile() {
+            int index = currentVTile * hTiles + currentHTile;
+            while (!dirtyTiles[index])
+                index = (index + 1) % dirtyTiles.length;
+            currentHTile = index % hTiles;
+            currentVTile = index / hTiles;
+        }
+
+        /**
+         * Restarts the updater and updates all tiles.
          */
         public void restart() {
             stop();
+            dirtyTiles = null;
+            dirtyTileCount = 0;
             start();
         }
 
         /**
-         * Updates the current tile on the Thumbnail. An area of the source
-         * Figure is painted to an {@link Image}. That Image is then drawn on
-         * the Thumbnail. Scaling of the source Image is done inside
-         * {@link GC#drawImage(Image, int, int, int, int, int, int, int, int)}
-         * since the source and target sizes are different. The current tile
-         * indexes are incremented and if more updating is necesary, this
-         * {@link Runnable} is called again in a
-         * {@link Display#timerExec(int, Runnable)}. If no more updating is
+         * Updates the next tile that needs updating on the Thumbnail. An area
+         * of the source Figure is painted at the thumbnail's scale to an
+         * {@link Image}. That Image is then copied to the Thumbnail. If more
+         * tiles need updating, this {@link Runnable} is called again in a
+         * {@link Display#asyncExec(Runnable)}. If no more updating is
          * required, {@link #stop()} is called.
          */
         @Override
@@ -178,13 +254,29 @@ public class Thumbnail extends Figure implements UpdateListener {
             if (!isActive() || !isRunning() || theGraphics == null)
                 return;
 
+            // The whole source figure changed while running
+            if (isDirty()) {
+                setDirty(false);
+                markAllTilesDirty();
+            }
+
+            if (!hasDirtyTiles()) {
+                stop();
+                repaint();
+                return;
+            }
+
+            moveToNextDirtyTile();
+            dirtyTiles[getCurrentVTile() * hTiles + getCurrentHTile()] = false;
+            dirtyTileCount--;
+
             int v = getCurrentVTile();
             int sy1 = v * tileSize.height;
-            int sy2 = Math.min((v + 1) * tileSize.height, sourceSize.height);
+            int sy2 = Math.min((v + 1) * tileSize.height, tiledSize.height);
 
             int h = getCurrentHTile();
             int sx1 = h * tileSize.width;
-            int sx2 = Math.min((h + 1) * tileSize.width, sourceSize.width);
+            int sx2 = Math.min((h + 1) * tileSize.width, tiledSize.width);
             
             // Mac hack - create new Tile Graphics instances
             if(useMacFix) {
@@ -215,22 +307,8 @@ public class Thumbnail extends Figure implements UpdateListener {
             thumbnailGC.drawImage(tileImage, 0, 0, sx2 - sx1, sy2 - sy1, sx1,
                     sy1, sx2 - sx1, sy2 - sy1);
 
-            if (getCurrentHTile() < (hTiles - 1))
-                setCurrentHTile(getCurrentHTile() + 1);
-            else {
-                setCurrentHTile(0);
-                if (getCurrentVTile() < (vTiles - 1))
-                    setCurrentVTile(getCurrentVTile() + 1);
-                else
-                    setCurrentVTile(0);
-            }
-
-            if (getCurrentHTile() != 0 || getCurrentVTile() != 0) {
+            if (hasDirtyTiles() || isDirty()) {
                 Display.getCurrent().asyncExec(this);
-            } else if (isDirty()) {
-                setDirty(false);
-                Display.getCurrent().asyncExec(this);
-                repaint();
             } else {
                 stop();
                 repaint();
@@ -278,14 +356,21 @@ public class Thumbnail extends Figure implements UpdateListener {
                 return;
 
             isRunning = true;
-            setDirty(false);
-
-            resetTileValues();
 
-            if (!targetSize.equals(thumbnailImageSize)) {
+            boolean resized = !targetSize.equals(thumbnailImageSize);
+            if (resized) {
                 resetThumbnailImage();
             }
 
+            // Update all tiles if the whole source is dirty or if the sizes
+            // have changed, else only the tiles that have been marked dirty
+            if (isDirty() || resized || dirtyTiles == null
+                    || !targetSize.equals(tiledSize)
+                    || !getSourceRectangle().getSize().equals(sourceSize)) {
+                resetTileValues();
+            }
+            setDirty(false);
+
             if (targetSize.isEmpty())
                 return;
 
@@ -555,7 +640,7 @@ public class Thumbnail extends Figure implements UpdateListener {
                 .getHeight()).negate());
         setScales(targetSize.width / (float) getSourceRectangle().width,
                 targetSize.height / (float) getSourceRectangle().height);
-        if ((isDirty()) && !updater.isRunning())
+        if ((isDirty() || updater.hasDirtyTiles()) && !updater.isRunning())
             updater.start();
         else if (oldSize != null && !targetSize.equals(oldSize)) {
             revalidate();
@@ -579,18 +664,105 @@ public class Thumbnail extends Figure implements UpdateListener {
      */
     @Override
     public void notifyPainting(Rectangle damage, Map dirtyRegions) {
-        Iterator dirtyFigures = dirtyRegions.keySet().iterator();
-        while (dirtyFigures.hasNext()) {
-            IFigure current = (IFigure) dirtyFigures.next();
-            while (current != null) {
-                if (current == getSource()) {
-                    setDirty(true);
-                    repaint();
-                    return;
-                }
-                current = current.getParent();
-            }
+        boolean changed = false;
+        Rectangle visibleArea = null;
+
+        Iterator entries = dirtyRegions.entrySet().iterator();
+        while (entries.hasNext()) {
+            Map.Entry entry = (Map.Entry) entries.next();
+            IFigure figure = (IFigure) entry.getKey();
+            if (!isSourceOrDescendant(figure))
+                continue;
+
+            changed = true;
+            if (isDirty())
+                continue;
+
+            if (visibleArea == null)
+                visibleArea = getVisibleSourceArea();
+
+            Rectangle area = getSourceDirtyArea(figure,
+                    (Rectangle) entry.getValue(), visibleArea);
+            if (!updater.markDirty(toThumbnailArea(area)))
+                setDirty(true);
+        }
+
+        if (changed)
+            repaint();
+    }
+
+    private boolean isSourceOrDescendant(IFigure figure) {
+        for (IFigure current = figure; current != null; current = current
+                .getParent()) {
+            if (current == getSource())
+                return true;
         }
+        return false;
+    }
+
+    /**
+     * Returns the area of the source figure that is visible in the root
+     * figure, in root coordinates.
+     */
+    private Rectangle getVisibleSourceArea() {
+        Rectangle area = getSource().getBounds().getCopy();
+        IFigure walker = getSource().getParent();
+        while (!area.isEmpty() && walker != null) {
+            walker.translateToParent(area);
+            area.intersect(walker.getBounds());
+            walker = walker.getParent();
+        }
+        return area;
+    }
+
+    /**
+     * Returns the area of the source figure to be updated for a dirty figure,
+     * in the same coordinates as the source rectangle.
+     * 
+     * @param figure
+     *            the dirty figure
+     * @param rootRegion
+     *            the figure's dirty region as given by the update manager, in
+     *            root coordinates and clipped to what is visible
+     * @param visibleArea
+     *            the visible area of the source, in root coordinates
+     */
+    private Rectangle getSourceDirtyArea(IFigure figure, Rectangle rootRegion,
+            Rectangle visibleArea) {
+        Rectangle area;
+
+        // The update manager clips the region to what is visible in the
+        // viewer. If it is well inside the visible area it was not clipped,
+        // else the whole figure is used since the thumbnail shows all of the
+        // source.
+        if (!rootRegion.isEmpty() && rootRegion.x > visibleArea.x
+                && rootRegion.y > visibleArea.y
+                && rootRegion.right() < visibleArea.right()
+                && rootRegion.bottom() < visibleArea.bottom()) {
+            area = rootRegion.getCopy();
+        } else {
+            area = figure.getBounds().getCopy();
+            if (figure.getParent() != null)
+                figure.getParent().translateToAbsolute(area);
+        }
+
+        if (getSource().getParent() != null)
+            getSource().getParent().translateToRelative(area);
+
+        return area;
+    }
+
+    /**
+     * Converts an area of the source figure to the area of the thumbnail
+     * image it is drawn at, expanded to allow for rounding and anti-aliasing.
+     */
+    private Rectangle toThumbnailArea(Rectangle sourceArea) {
+        Rectangle sourceRect = getSourceRectangle();
+        int x1 = (int) Math.floor((sourceArea.x - sourceRect.x) * getScaleX()) - 2;
+        int y1 = (int) Math.floor((sourceArea.y - sourceRect.y) * getScaleY()) - 2;
+        int x2 = (int) Math.ceil((sourceArea.right() - sourceRect.x) * getScaleX()) + 2;
+        int y2 = (int) Math.ceil((sourceArea.bottom() - sourceRect.y) * getScaleY()) + 2;
+        return new Rectangle(x1, y1, x2 - x1, y2 - y1);
     }
 
     /**
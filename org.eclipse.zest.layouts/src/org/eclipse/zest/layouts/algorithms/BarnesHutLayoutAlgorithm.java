@@ -0,0 +1,620 @@
+/*******************************************************************************
+ * Copyright 2005, CHISEL Group, University of Victoria, Victoria, BC, Canada.
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors: The Chisel Group, University of Victoria
+ *******************************************************************************/
+package org.eclipse.zest.layouts.algorithms;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import org.eclipse.swt.widgets.Widget;
+import org.eclipse.zest.layouts.LayoutStyles;
+import org.eclipse.zest.layouts.dataStructures.DisplayIndependentRectangle;
+import org.eclipse.zest.layouts.dataStructures.InternalNode;
+import org.eclipse.zest.layouts.dataStructures.InternalRelationship;
+
+/**
+ * A force-directed layout that approximates node repulsion with a Barnes-Hut
+ * quadtree, so each iteration costs O(n log n) rather than the O(n^2) of
+ * {@link SpringLayoutAlgorithm}.
+ * <p>
+ * Positions, forces and edges are held in primitive arrays indexed by node
+ * position in the entities array. Repulsion is accumulated in parallel when
+ * there are enough nodes to make it worthwhile.
+ * <p>
+ * If warm start is enabled the positions computed by the last layout are
+ * remembered and used as the starting positions of the next one, so that when
+ * nodes are added or removed the existing nodes keep their places and the
+ * layout settles in a few iterations.
+ */
+public class BarnesHutLayoutAlgorithm extends ContinuousLayoutAlgorithm {
+
+    /**
+     * The default number of iterations.
+     */
+    public static final int DEFAULT_ITERATIONS = 300;
+
+    /**
+     * The default Barnes-Hut opening angle. Lower is more accurate and slower.
+     */
+    public static final double DEFAULT_THETA = 0.8;
+
+    /**
+     * Number of nodes above which repulsion is computed in parallel
+     */
+    private static final int PARALLEL_THRESHOLD = 1000;
+
+    /**
+     * Number of nodes processed by each parallel task
+     */
+    private static final int PARALLEL_CHUNK_SIZE = 256;
+
+    /**
+     * Maximum depth of the quadtree. Nodes at the same location are merged at this depth.
+     */
+    private static final int MAX_TREE_DEPTH = 32;
+
+    private static final double INITIAL_TEMPERATURE = 0.1;
+    private static final double WARM_START_TEMPERATURE = 0.02;
+    private static final double COOLING = 0.97;
+    private static final double MIN_MOVEMENT = 0.0001;
+    private static final double MIN_DISTANCE = 0.001;
+
+    private int iterations = DEFAULT_ITERATIONS;
+    private double theta = DEFAULT_THETA;
+    private boolean parallel = true;
+    private boolean warmStart;
+    private Random random = new Random();
+
+    /**
+     * Positions from the last layout if warm start is enabled, keyed by {@link #getWarmStartKey(InternalNode)}
+     */
+    private Map<Object, double[]> lastPositions = new HashMap<>();
+
+    private int iteration;
+    private double temperature;
+    private double largestMovement;
+    private double idealLength;
+
+    private double[] positionsX;
+    private double[] positionsY;
+    private double[] forcesX;
+    private double[] forcesY;
+
+    private int[] edgeSources;
+    private int[] edgeTargets;
+    private double[] edgeWeights;
+
+    private QuadTree tree;
+
+    private DisplayIndependentRectangle bounds;
+
+    public BarnesHutLayoutAlgorithm(int styles) {
+        super(styles);
+    }
+
+    public BarnesHutLayoutAlgorithm() {
+        this(LayoutStyles.NONE);
+    }
+
+    /**
+     * Sets the maximum number of iterations
+     */
+    public void setIterations(int iterations) {
+        this.iterations = iterations;
+    }
+
+    public int getIterations() {
+        return iterations;
+    }
+
+    /**
+     * Sets the Barnes-Hut opening angle. A cell is approximated by its centre
+     * of mass when its size divided by its distance is less than this. 0
+     * computes exact repulsion.
+     */
+    public void setTheta(double theta) {
+        this.theta = theta;
+    }
+
+    public double getTheta() {
+        return theta;
+    }
+
+    /**
+     * Sets whether repulsion may be computed on multiple threads
+     */
+    public void setParallel(boolean parallel) {
+        this.parallel = parallel;
+    }
+
+    public boolean isParallel() {
+        return parallel;
+    }
+
+    /**
+     * Sets whether the next layout starts from the positions computed by the
+     * previous one. Nodes that were not in the previous layout are placed near
+     * their already placed neighbours.
+     */
+    public void setWarmStart(boolean warmStart) {
+        this.warmStart = warmStart;
+        if (!warmStart) {
+            lastPositions.clear();
+        }
+    }
+
+    public boolean isWarmStart() {
+        return warmStart;
+    }
+
+    /**
+     * Sets the seed used to place nodes that have no starting position, so
+     * that the same graph is always laid out in the same way
+     */
+    public void setRandomSeed(long seed) {
+        random = new Random(seed);
+    }
+
+    @Override
+    public void setLayoutArea(double x, double y, double width, double height) {
+        bounds = new DisplayIndependentRectangle(x, y, width, height);
+    }
+
+    @Override
+    protected boolean isValidConfiguration(boolean asynchronous, boolean continuous) {
+        return asynchronous || !continuous;
+    }
+
+    @Override
+    protected void preLayoutAlgorithm(InternalNode[] entitiesToLayout, InternalRelationship[] relationshipsToConsider, double x, double y, double width, double height) {
+        bounds = new DisplayIndependentRectangle(x, y, width, height);
+
+        int n = entitiesToLayout.length;
+        positionsX = new double[n];
+        positionsY = new double[n];
+        forcesX = new double[n];
+        forcesY = new double[n];
+        tree = new QuadTree(n);
+
+        // Index nodes by identity and build the edge arrays
+        Map<InternalNode, Integer> indices = new IdentityHashMap<>(n * 2);
+        for (int i = 0; i < n; i++) {
+            indices.put(entitiesToLayout[i], i);
+        }
+
+        int[] sources = new int[relationshipsToConsider.length];
+        int[] targets = new int[relationshipsToConsider.length];
+        double[] weights = new double[relationshipsToConsider.length];
+        int edgeCount = 0;
+        for (InternalRelationship relationship : relationshipsToConsider) {
+            Integer source = indices.get(relationship.getSource());
+            Integer target = indices.get(relationship.getDestination());
+            if (source != null && target != null && source.intValue() != target.intValue()) {
+                sources[edgeCount] = source;
+                targets[edgeCount] = target;
+                weights[edgeCount] = relationship.getWeight() <= 0 ? 0.1 : relationship.getWeight();
+                edgeCount++;
+            }
+        }
+        edgeSources = Arrays.copyOf(sources, edgeCount);
+        edgeTargets = Arrays.copyOf(targets, edgeCount);
+        edgeWeights = Arrays.copyOf(weights, edgeCount);
+
+        // Nodes are laid out in the unit square
+        idealLength = n > 0 ? 1.0 / Math.sqrt(n) : 1.0;
+
+        boolean warm = placeNodes(entitiesToLayout);
+
+        iteration = 1;
+        temperature = warm ? WARM_START_TEMPERATURE : INITIAL_TEMPERATURE;
+        largestMovement = Double.MAX_VALUE;
+    }
+
+    /**
+     * Places nodes at their remembered positions if warm starting, otherwise randomly.
+     * @return true if at least one node was placed at a remembered position
+     */
+    private boolean placeNodes(InternalNode[] entitiesToLayout) {
+        int n = entitiesToLayout.length;
+        boolean[] placed = new boolean[n];
+        int placedCount = 0;
+
+        if (warmStart && !lastPositions.isEmpty()) {
+            for (int i = 0; i < n; i++) {
+                double[] position = lastPositions.get(getWarmStartKey(entitiesToLayout[i]));
+                if (position != null) {
+                    positionsX[i] = position[0];
+                    positionsY[i] = position[1];
+                    placed[i] = true;
+                    placedCount++;
+                }
+            }
+        }
+
+        if (placedCount == 0) {
+            for (int i = 0; i < n; i++) {
+                positionsX[i] = random.nextDouble();
+                positionsY[i] = random.nextDouble();
+            }
+            return false;
+        }
+
+        // Put new nodes at the centre of their placed neighbours, or randomly if they have none
+        double[] sumX = new double[n];
+        double[] sumY = new double[n];
+        int[] count = new int[n];
+        for (int e = 0; e < edgeSources.length; e++) {
+            int s = edgeSources[e], t = edgeTargets[e];
+            if (placed[s] && !placed[t]) {
+                sumX[t] += positionsX[s];
+                sumY[t] += positionsY[s];
+                count[t]++;
+            } else if (placed[t] && !placed[s]) {
+                sumX[s] += positionsX[t];
+                sumY[s] += positionsY[t];
+                count[s]++;
+            }
+        }
+
+        for (int i = 0; i < n; i++) {
+            if (!placed[i]) {
+                if (count[i] > 0) {
+                    positionsX[i] = sumX[i] / count[i] + (random.nextDouble() - 0.5) * idealLength;
+                    positionsY[i] = sumY[i] / count[i] + (random.nextDouble() - 0.5) * idealLength;
+                } else {
+                    positionsX[i] = random.nextDouble();
+                    positionsY[i] = random.nextDouble();
+                }
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * @return The key used to remember a node's position between layouts. By
+     *         default this is the data of the graph item, so that positions
+     *         survive the graph being rebuilt for the same model objects.
+     */
+    protected Object getWarmStartKey(InternalNode node) {
+        Object graphData = node.getLayoutEntity().getGraphData();
+        if (graphData instanceof Widget widget && !widget.isDisposed() && widget.getData() != null) {
+            return widget.getData();
+        }
+        return graphData != null ? graphData : node.getLayoutEntity();
+    }
+
+    @Override
+    protected void postLayoutAlgorithm(InternalNode[] entitiesToLayout, InternalRelationship[] relationshipsToConsider) {
+        if (warmStart) {
+            // Only remember the current nodes so that the map doesn't grow
+            lastPositions = new HashMap<>(entitiesToLayout.length * 2);
+            for (int i = 0; i < entitiesToLayout.length; i++) {
+                lastPositions.put(getWarmStartKey(entitiesToLayout[i]), new double[] { positionsX[i], positionsY[i] });
+            }
+        }
+
+        positionsX = null;
+        positionsY = null;
+        forcesX = null;
+        forcesY = null;
+        edgeSources = null;
+        edgeTargets = null;
+        edgeWeights = null;
+        tree = null;
+    }
+
+    @Override
+    protected boolean performAnotherNonContinuousIteration() {
+        return iteration <= iterations && largestMovement >= MIN_MOVEMENT;
+    }
+
+    @Override
+    protected int getCurrentLayoutStep() {
+        return iteration;
+    }
+
+    @Override
+    protected int getTotalNumberOfLayoutSteps() {
+        return iterations;
+    }
+
+    @Override
+    protected void computeOneIteration(InternalNode[] entitiesToLayout, InternalRelationship[] relationshipsToConsider, double x, double y, double width, double height) {
+        if (bounds == null) {
+            bounds = new DisplayIndependentRectangle(x, y, width, height);
+        }
+
+        // Entities may have been added or removed since the arrays were created
+        if (entitiesToLayout.length != positionsX.length) {
+            preLayoutAlgorithm(entitiesToLayout, relationshipsToConsider, x, y, width, height);
+        }
+
+        computeForces();
+        computePositions();
+
+        for (int i = 0; i < entitiesToLayout.length; i++) {
+            entitiesToLayout[i].setInternalLocation(positionsX[i], positionsY[i]);
+        }
+
+        defaultFitWithinBounds(entitiesToLayout, bounds);
+
+        temperature *= COOLING;
+        iteration++;
+    }
+
+    /**
+     * Computes the net force on each node: approximate repulsion from all
+     * nodes through the quadtree and attraction along edges.
+     */
+    void computeForces() {
+        int n = positionsX.length;
+        tree.build(positionsX, positionsY);
+
+        double k2 = idealLength * idealLength;
+
+        if (parallel && n >= PARALLEL_THRESHOLD) {
+            int chunks = (n + PARALLEL_CHUNK_SIZE - 1) / PARALLEL_CHUNK_SIZE;
+            IntStream.range(0, chunks).parallel().forEach(chunk -> {
+                int[] stack = new int[4 * MAX_TREE_DEPTH + 4];
+                int end = Math.min(n, (chunk + 1) * PARALLEL_CHUNK_SIZE);
+                for (int i = chunk * PARALLEL_CHUNK_SIZE; i < end; i++) {
+                    computeRepulsion(i, k2, stack);
+                }
+            });
+        } else {
+            int[] stack = new int[4 * MAX_TREE_DEPTH + 4];
+            for (int i = 0; i < n; i++) {
+                computeRepulsion(i, k2, stack);
+            }
+        }
+
+        // Attraction along edges: f = d^2 / k
+        for (int e = 0; e < edgeSources.length; e++) {
+            int s = edgeSources[e], t = edgeTargets[e];
+            double dx = positionsX[s] - positionsX[t];
+            double dy = positionsY[s] - positionsY[t];
+            double distance = Math.max(MIN_DISTANCE, Math.sqrt(dx * dx + dy * dy));
+            double f = distance / idealLength * edgeWeights[e];
+            forcesX[s] -= f * dx;
+            forcesY[s] -= f * dy;
+            forcesX[t] += f * dx;
+            forcesY[t] += f * dy;
+        }
+    }
+
+    /**
+     * Sets the repulsive force on node i by walking the quadtree: f = k^2 / d
+     */
+    private void computeRepulsion(int i, double k2, int[] stack) {
+        QuadTree t = tree;
+        double px = positionsX[i];
+        double py = positionsY[i];
+        double thetaSquared = theta * theta;
+        double fx = 0, fy = 0;
+
+        int top = 0;
+        stack[top++] = 0;
+
+        while (top > 0) {
+            int cell = stack[--top];
+            double mass = t.mass[cell];
+            if (mass == 0) {
+                continue;
+            }
+
+            double dx = px - t.comX[cell];
+            double dy = py - t.comY[cell];
+            double d2 = dx * dx + dy * dy;
+
+            int body = t.body[cell];
+            boolean leaf = body != QuadTree.INTERNAL;
+
+            if (leaf || t.size[cell] * t.size[cell] < thetaSquared * d2) {
+                if (leaf && body == i) {
+                    // Another node may have been merged into this leaf at the same position
+                    if (mass <= 1) {
+                        continue;
+                    }
+                    mass -= 1;
+                }
+                if (d2 < MIN_DISTANCE * MIN_DISTANCE) {
+                    // Coincident nodes, push apart in an arbitrary direction
+                    dx = (i % 2 == 0 ? MIN_DISTANCE : -MIN_DISTANCE);
+                    dy = MIN_DISTANCE;
+                    d2 = 2 * MIN_DISTANCE * MIN_DISTANCE;
+                }
+                double f = k2 * mass / d2;
+                fx += f * dx;
+                fy += f * dy;
+            } else {
+                for (int q = 0; q < 4; q++) {
+                    int child = t.children[cell * 4 + q];
+                    if (child != QuadTree.EMPTY) {
+                        stack[top++] = child;
+                    }
+                }
+            }
+        }
+
+        forcesX[i] = fx;
+        forcesY[i] = fy;
+    }
+
+    /**
+     * Moves each node along its force, limited by the current temperature.
+     */
+    private void computePositions() {
+        largestMovement = 0;
+        for (int i = 0; i < positionsX.length; i++) {
+            double fx = forcesX[i];
+            double fy = forcesY[i];
+            double length = Math.sqrt(fx * fx + fy * fy);
+            if (length > 0) {
+                double move = Math.min(length, temperature);
+                positionsX[i] += fx / length * move;
+                positionsY[i] += fy / length * move;
+                largestMovement = Math.max(largestMovement, move);
+            }
+        }
+    }
+
+    /**
+     * A quadtree held in flat primitive arrays and rebuilt on each iteration.
+     * Cell 0 is the root. A cell is either empty, a leaf holding one body (node
+     * index), or internal with four children.
+     */
+    private static class QuadTree {
+        static final int EMPTY = -1;
+        static final int INTERNAL = -2;
+
+        int[] body;
+        int[] children;
+        double[] mass;
+        double[] comX;
+        double[] comY;
+        double[] minX;
+        double[] minY;
+        double[] size;
+        int cellCount;
+
+        QuadTree(int nodeCount) {
+            allocate(Math.max(16, nodeCount * 2));
+        }
+
+        private void allocate(int capacity) {
+            body = new int[capacity];
+            children = new int[capacity * 4];
+            mass = new double[capacity];
+            comX = new double[capacity];
+            comY = new double[capacity];
+            minX = new double[capacity];
+            minY = new double[capacity];
+            size = new double[capacity];
+        }
+
+        private void grow() {
+            int capacity = body.length * 2;
+            body = Arrays.copyOf(body, capacity);
+            children = Arrays.copyOf(children, capacity * 4);
+            mass = Arrays.copyOf(mass, capacity);
+            comX = Arrays.copyOf(comX, capacity);
+            comY = Arrays.copyOf(comY, capacity);
+            minX = Arrays.copyOf(minX, capacity);
+            minY = Arrays.copyOf(minY, capacity);
+            size = Arrays.copyOf(size, capacity);
+        }
+
+        private int newCell(double x, double y, double s) {
+            if (cellCount == body.length) {
+                grow();
+            }
+            int cell = cellCount++;
+            body[cell] = EMPTY;
+            children[cell * 4] = children[cell * 4 + 1] = children[cell * 4 + 2] = children[cell * 4 + 3] = EMPTY;
+            mass[cell] = 0;
+            comX[cell] = comY[cell] = 0;
+            minX[cell] = x;
+            minY[cell] = y;
+            size[cell] = s;
+            return cell;
+        }
+
+        void build(double[] xs, double[] ys) {
+            cellCount = 0;
+
+            double x0 = Double.MAX_VALUE, y0 = Double.MAX_VALUE;
+            double x1 = -Double.MAX_VALUE, y1 = -Double.MAX_VALUE;
+            for (int i = 0; i < xs.length; i++) {
+                x0 = Math.min(x0, xs[i]);
+                y0 = Math.min(y0, ys[i]);
+                x1 = Math.max(x1, xs[i]);
+                y1 = Math.max(y1, ys[i]);
+            }
+            double s = Math.max(Math.max(x1 - x0, y1 - y0), MIN_DISTANCE) * 1.0001;
+            newCell(x0, y0, s);
+
+            for (int i = 0; i < xs.length; i++) {
+                insert(i, xs, ys);
+            }
+
+            // Centres of mass were accumulated as weighted sums
+            for (int cell = 0; cell < cellCount; cell++) {
+                if (mass[cell] > 0) {
+                    comX[cell] /= mass[cell];
+                    comY[cell] /= mass[cell];
+                }
+            }
+        }
+
+        private void insert(int i, double[] xs, double[] ys) {
+            double x = xs[i], y = ys[i];
+            int cell = 0;
+
+            for (int depth = 0;; depth++) {
+                mass[cell] += 1;
+                comX[cell] += x;
+                comY[cell] += y;
+
+                if (body[cell] == EMPTY && mass[cell] == 1) {
+                    body[cell] = i;
+                    return;
+                }
+
+                if (body[cell] != INTERNAL) {
+                    if (depth >= MAX_TREE_DEPTH) {
+                        // Coincident nodes, keep them merged in this leaf
+                        return;
+                    }
+                    // Split the leaf and push its body down one level
+                    int existing = body[cell];
+                    body[cell] = INTERNAL;
+                    int q = quadrant(cell, xs[existing], ys[existing]);
+                    int child = newChild(cell, q);
+                    mass[child] = 1;
+                    comX[child] = xs[existing];
+                    comY[child] = ys[existing];
+                    body[child] = existing;
+                }
+
+                int q = quadrant(cell, x, y);
+                int child = children[cell * 4 + q];
+                if (child == EMPTY) {
+                    child = newChild(cell, q);
+                }
+                cell = child;
+            }
+        }
+
+        private int quadrant(int cell, double x, double y) {
+            double half = size[cell] / 2;
+            int q = 0;
+            if (x >= minX[cell] + half) {
+                q += 1;
+            }
+            if (y >= minY[cell] + half) {
+                q += 2;
+            }
+            return q;
+        }
+
+        private int newChild(int parent, int q) {
+            double half = size[parent] / 2;
+            double x = minX[parent] + ((q & 1) != 0 ? half : 0);
+            double y = minY[parent] + ((q & 2) != 0 ? half : 0);
+            int child = newCell(x, y, half);
+            children[parent * 4 + q] = child;
+            return child;
+        }
+    }
+}
@@ -0,0 +1,112 @@
+/*******************************************************************************
+ * Copyright 2005, CHISEL Group, University of Victoria, Victoria, BC, Canada.
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors: The Chisel Group, University of Victoria
+ *******************************************************************************/
+package org.eclipse.zest.layouts.exampleUses;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.eclipse.zest.layouts.LayoutAlgorithm;
+import org.eclipse.zest.layouts.LayoutEntity;
+import org.eclipse.zest.layouts.LayoutRelationship;
+import org.eclipse.zest.layouts.LayoutStyles;
+import org.eclipse.zest.layouts.algorithms.BarnesHutLayoutAlgorithm;
+import org.eclipse.zest.layouts.algorithms.SpringLayoutAlgorithm;
+import org.eclipse.zest.layouts.exampleStructures.SimpleNode;
+import org.eclipse.zest.layouts.exampleStructures.SimpleRelationship;
+
+/**
+ * Times {@link BarnesHutLayoutAlgorithm} against {@link SpringLayoutAlgorithm}
+ * on random graphs shaped like a model navigator: a tree of nodes with a few
+ * extra cross links. Run as a Java application, optionally passing the node
+ * counts to test.
+ */
+public class LayoutBenchmark {
+
+    private static final int[] DEFAULT_SIZES = { 100, 250, 500, 1000, 2000 };
+
+    private static final double WIDTH = 1000;
+    private static final double HEIGHT = 800;
+
+    public static void main(String[] args) throws Exception {
+        int[] sizes = DEFAULT_SIZES;
+        if (args.length > 0) {
+            sizes = new int[args.length];
+            for (int i = 0; i < args.length; i++) {
+                sizes[i] = Integer.parseInt(args[i]);
+            }
+        }
+
+        System.out.println("nodes\tspring ms\tbarnes-hut ms\tbarnes-hut warm ms"); //$NON-NLS-1$
+
+        for (int i = 0; i < sizes.length; i++) {
+            int n = sizes[i];
+
+            SpringLayoutAlgorithm spring = new SpringLayoutAlgorithm(LayoutStyles.NO_LAYOUT_NODE_RESIZING);
+            // Don't let the spring layout stop on its timeout so that the whole work is measured
+            spring.setSpringTimeout(0);
+            long springTime = time(spring, n);
+
+            BarnesHutLayoutAlgorithm barnesHut = new BarnesHutLayoutAlgorithm(LayoutStyles.NO_LAYOUT_NODE_RESIZING);
+            long barnesHutTime = time(barnesHut, n);
+
+            // Lay out the same graph again from the previous positions, as when the navigator's depth changes
+            barnesHut.setWarmStart(true);
+            List<SimpleNode> nodes = createNodes(n);
+            List<SimpleRelationship> relationships = createRelationships(nodes);
+            layout(barnesHut, nodes, relationships);
+            long start = System.nanoTime();
+            layout(barnesHut, nodes, relationships);
+            long warmTime = (System.nanoTime() - start) / 1000000;
+
+            System.out.println(n + "\t" + springTime + "\t" + barnesHutTime + "\t" + warmTime); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+        }
+    }
+
+    private static long time(LayoutAlgorithm algorithm, int n) throws Exception {
+        List<SimpleNode> nodes = createNodes(n);
+        List<SimpleRelationship> relationships = createRelationships(nodes);
+        long start = System.nanoTime();
+        layout(algorithm, nodes, relationships);
+        return (System.nanoTime() - start) / 1000000;
+    }
+
+    private static void layout(LayoutAlgorithm algorithm, List<SimpleNode> nodes, List<SimpleRelationship> relationships) throws Exception {
+        algorithm.applyLayout(nodes.toArray(new LayoutEntity[nodes.size()]),
+                relationships.toArray(new LayoutRelationship[relationships.size()]), 0, 0, WIDTH, HEIGHT, false, false);
+    }
+
+    private static List<SimpleNode> createNodes(int n) {
+        List<SimpleNode> nodes = new ArrayList<SimpleNode>(n);
+        for (int i = 0; i < n; i++) {
+            nodes.add(new SimpleNode("Node " + i, 0, 0, 40, 20)); //$NON-NLS-1$
+        }
+        return nodes;
+    }
+
+    private static List<SimpleRelationship> createRelationships(List<SimpleNode> nodes) {
+        // Fixed seed so both algorithms lay out the same graph
+        Random random = new Random(nodes.size());
+        List<SimpleRelationship> relationships = new ArrayList<SimpleRelationship>();
+        for (int i = 1; i < nodes.size(); i++) {
+            SimpleNode parent = nodes.get(random.nextInt(i));
+            relationships.add(new SimpleRelationship(parent, nodes.get(i), false));
+        }
+        for (int i = 0; i < nodes.size() / 10; i++) {
+            SimpleNode source = nodes.get(random.nextInt(nodes.size()));
+            SimpleNode target = nodes.get(random.nextInt(nodes.size()));
+            if (source != target) {
+                relationships.add(new SimpleRelationship(source, target, false));
+            }
+        }
+        return relationships;
+    }
+
+}
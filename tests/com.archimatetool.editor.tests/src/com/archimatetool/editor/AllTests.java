@@ -14,6 +14,7 @@ import com.archimatetool.editor.diagram.AllDiagramTests;
 import com.archimatetool.editor.model.AllModelTests;
 import com.archimatetool.editor.p2.AllP2Tests;
 import com.archimatetool.editor.propertysections.AllPropertySectionsTests;
+import com.archimatetool.editor.tools.AllToolsTests;
 import com.archimatetool.editor.ui.AllUITests;
 import com.archimatetool.editor.utils.AllUtilsTests;
 import com.archimatetool.editor.views.AllViewsTests;
@@ -31,6 +32,8 @@ import com.archimatetool.editor.views.AllViewsTests;
     AllP2Tests.class,
     // propertysections
     AllPropertySectionsTests.class,
+    // tools
+    AllToolsTests.class,
     // ui
     AllUITests.class,
     // utils
@@ -24,6 +24,7 @@ import com.archimatetool.editor.diagram.util.DiagramUtilsTests;
 @SelectClasses({
     // diagram
     ArchimateDiagramModelFactoryTests.class,
+    DeferredUpdateManagerTests.class,
     DiagramEditorFindReplaceProviderTests.class,
     ImageExportProviderTests.class,
     ImageExportProviderManagerTests.class,
@@ -0,0 +1,150 @@
+/**
+ * This program and the accompanying materials
+ * are made available under the terms of the License
+ * which accompanies this distribution in the file LICENSE.txt
+ */
+package com.archimatetool.editor.diagram;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.draw2d.DeferredUpdateManager;
+import org.eclipse.draw2d.Figure;
+import org.eclipse.draw2d.Graphics;
+import org.eclipse.draw2d.IFigure;
+import org.eclipse.draw2d.geometry.Rectangle;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+
+public class DeferredUpdateManagerTests {
+
+    /**
+     * Records the regions that would be painted instead of painting them
+     */
+    private static class TestUpdateManager extends DeferredUpdateManager {
+        List<Rectangle> painted = new ArrayList<>();
+
+        @Override
+        protected void sendUpdateRequest() {
+            // Updates are performed by the test
+        }
+
+        @Override
+        protected Graphics getGraphics(Rectangle region) {
+            painted.add(region.getCopy());
+            return null;
+        }
+    }
+
+    private IFigure root;
+    private TestUpdateManager manager;
+
+    @BeforeEach
+    public void runBeforeEachTest() {
+        root = new Figure();
+        root.setBounds(new Rectangle(0, 0, 2000, 2000));
+
+        manager = new TestUpdateManager();
+        manager.setRoot(root);
+        manager.setMultiRegionDamage(true);
+    }
+
+    @Test
+    public void testFarApartRegionsPaintedSeparately() {
+        addDirtyFigure(new Rectangle(10, 10, 20, 20));
+        addDirtyFigure(new Rectangle(1500, 1500, 20, 20));
+        manager.performUpdate();
+
+        assertEquals(2, manager.painted.size());
+        assertTrue(manager.painted.contains(new Rectangle(10, 10, 20, 20)));
+        assertTrue(manager.painted.contains(new Rectangle(1500, 1500, 20, 20)));
+    }
+
+    @Test
+    public void testOverlappingRegionsMerged() {
+        addDirtyFigure(new Rectangle(10, 10, 50, 50));
+        addDirtyFigure(new Rectangle(40, 40, 50, 50));
+        manager.performUpdate();
+
+        assertEquals(List.of(new Rectangle(10, 10, 80, 80)), manager.painted);
+    }
+
+    @Test
+    public void testCloseRegionsMerged() {
+        // The union only adds 100 square pixels so is cheaper to paint than two regions
+        addDirtyFigure(new Rectangle(10, 10, 20, 20));
+        addDirtyFigure(new Rectangle(35, 10, 20, 20));
+        manager.performUpdate();
+
+        assertEquals(List.of(new Rectangle(10, 10, 45, 20)), manager.painted);
+    }
+
+    @Test
+    public void testRegionMergedWithAllRegionsItOverlaps() {
+        addDirtyFigure(new Rectangle(0, 0, 20, 20));
+        addDirtyFigure(new Rectangle(1000, 0, 20, 20));
+        // Overlaps both of the above
+        addDirtyFigure(new Rectangle(10, 10, 1000, 5));
+        manager.performUpdate();
+
+        assertEquals(List.of(new Rectangle(0, 0, 1020, 20)), manager.painted);
+    }
+
+    @Test
+    public void testCheapestRegionsMergedWhenMaxRegionsExceeded() {
+        manager.setMaxDamageRegions(2);
+
+        addDirtyFigure(new Rectangle(0, 0, 10, 10));
+        addDirtyFigure(new Rectangle(1000, 0, 10, 10));
+        addDirtyFigure(new Rectangle(0, 1900, 10, 10));
+        manager.performUpdate();
+
+        assertEquals(2, manager.painted.size());
+        assertTrue(manager.painted.contains(new Rectangle(0, 0, 1010, 10)));
+        assertTrue(manager.painted.contains(new Rectangle(0, 1900, 10, 10)));
+    }
+
+    @Test
+    public void testRegionsClippedToFigureBounds() {
+        IFigure figure = new Figure();
+        figure.setBounds(new Rectangle(100, 100, 50, 50));
+        root.add(figure);
+        manager.addDirtyRegion(figure, new Rectangle(90, 90, 100, 100));
+        manager.performUpdate();
+
+        assertEquals(List.of(new Rectangle(100, 100, 50, 50)), manager.painted);
+    }
+
+    @Test
+    public void testSingleRegionWhenNotMultiRegion() {
+        manager.setMultiRegionDamage(false);
+
+        addDirtyFigure(new Rectangle(10, 10, 20, 20));
+        addDirtyFigure(new Rectangle(1500, 1500, 20, 20));
+        manager.performUpdate();
+
+        assertEquals(List.of(new Rectangle(10, 10, 1510, 1510)), manager.painted);
+    }
+
+    @Test
+    public void testDamageClearedAfterUpdate() {
+        addDirtyFigure(new Rectangle(10, 10, 20, 20));
+        manager.performUpdate();
+        assertEquals(1, manager.painted.size());
+
+        manager.painted.clear();
+        manager.performUpdate();
+        assertTrue(manager.painted.isEmpty());
+    }
+
+    private void addDirtyFigure(Rectangle bounds) {
+        IFigure figure = new Figure();
+        figure.setBounds(bounds);
+        root.add(figure);
+        manager.addDirtyRegion(figure, bounds.getCopy());
+    }
+}
@@ -24,7 +24,7 @@ import org.eclipse.gef.commands.Command;
 import org.junit.jupiter.api.Test;
 
 import com.archimatetool.editor.TestSupport;
-import com.archimatetool.editor.diagram.actions.CopySnapshot.BidiHashtable;
+import com.archimatetool.editor.diagram.actions.CopySnapshot.BidiIdentityMap;
 import com.archimatetool.model.IArchimateDiagramModel;
 import com.archimatetool.model.IArchimateFactory;
 import com.archimatetool.model.IArchimateModel;
@@ -53,13 +53,24 @@ public class CopySnapshotTests {
     // ---------------------------------------------------------------------------------------------
 
     @Test
-    public void testBidiHashtable() {
-        BidiHashtable<String, String> table = new BidiHashtable<String, String>();
+    public void testBidiIdentityMap() {
+        BidiIdentityMap<String, String> table = new BidiIdentityMap<String, String>();
         table.put("key1", "value1");
         table.put("key2", "value2");
         
         assertEquals("key1", table.getKey("value1"));
         assertEquals("key2", table.getKey("value2"));
+        
+        // Replace a value
+        table.put("key1", "value3");
+        assertNull(table.getKey("value1"));
+        assertEquals("key1", table.getKey("value3"));
+        
+        table.remove("key2");
+        assertNull(table.getKey("value2"));
+        
+        table.clear();
+        assertNull(table.getKey("value3"));
     }
 
     @Test
@@ -11,7 +11,11 @@ import org.junit.platform.suite.api.SuiteDisplayName;
 
 @Suite
 @SelectClasses({
-    ArchimateDiagramEditPartFactoryTests.class
+    ArchimateDiagramEditPartFactoryTests.class,
+    FreeformLayerSpatialIndexTests.class,
+    PreferenceChangeDispatcherTests.class,
+    SnapToGeometryIndexTests.class,
+    ViewportEditPartFilterTests.class
 })
 @SuiteDisplayName("All EditParts Tests")
 public class AllEditPartsTests {
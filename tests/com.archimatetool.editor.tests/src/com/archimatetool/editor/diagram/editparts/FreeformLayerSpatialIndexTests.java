@@ -0,0 +1,199 @@
+/**
+ * This program and the accompanying materials
+ * are made available under the terms of the License
+ * which accompanies this distribution in the file LICENSE.txt
+ */
+package com.archimatetool.editor.diagram.editparts;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.eclipse.draw2d.Figure;
+import org.eclipse.draw2d.FreeformLayer;
+import org.eclipse.draw2d.FreeformLayout;
+import org.eclipse.draw2d.IFigure;
+import org.eclipse.draw2d.MouseListener;
+import org.eclipse.draw2d.geometry.Rectangle;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Compares a FreeformLayer using the spatial index with one that visits every child
+ */
+public class FreeformLayerSpatialIndexTests {
+
+    private FreeformLayer indexedLayer, referenceLayer;
+    private List<IFigure> indexedChildren, referenceChildren;
+    private Random random;
+
+    @BeforeEach
+    public void runBeforeEachTest() {
+        indexedLayer = createLayer();
+        referenceLayer = createLayer();
+        indexedChildren = new ArrayList<>();
+        referenceChildren = new ArrayList<>();
+        random = new Random(1);
+    }
+
+    @Test
+    public void testAddFigures() {
+        indexedLayer.setSpatialIndexEnabled(true);
+        addRandomFigures(200);
+        assertSameAsLinearScan();
+    }
+
+    @Test
+    public void testEnabledAfterFiguresAdded() {
+        addRandomFigures(200);
+        indexedLayer.setSpatialIndexEnabled(true);
+        assertSameAsLinearScan();
+    }
+
+    @Test
+    public void testLargeFigure() {
+        indexedLayer.setSpatialIndexEnabled(true);
+        addRandomFigures(50);
+        // Spans too many grid cells to be indexed by cell
+        addFigure(new Rectangle(-200, -200, 3000, 3000));
+        addRandomFigures(50);
+        assertSameAsLinearScan();
+    }
+
+    @Test
+    public void testMoveFigures() {
+        indexedLayer.setSpatialIndexEnabled(true);
+        addRandomFigures(200);
+
+        for(int i = 0; i < 100; i++) {
+            int index = random.nextInt(indexedChildren.size());
+            setBounds(index, randomBounds());
+        }
+
+        assertSameAsLinearScan();
+    }
+
+    @Test
+    public void testMoveFiguresOnEdgeOfExtent() {
+        indexedLayer.setSpatialIndexEnabled(true);
+        addFigure(new Rectangle(-500, -500, 50, 50));
+        addRandomFigures(50);
+        addFigure(new Rectangle(3000, 3000, 50, 50));
+        assertSameAsLinearScan();
+
+        // Moving inwards shrinks the extent
+        setBounds(0, new Rectangle(100, 100, 50, 50));
+        assertSameAsLinearScan();
+        setBounds(indexedChildren.size() - 1, new Rectangle(200, 200, 50, 50));
+        assertSameAsLinearScan();
+
+        // Moving outwards grows the extent
+        setBounds(0, new Rectangle(-800, 100, 50, 50));
+        assertSameAsLinearScan();
+    }
+
+    @Test
+    public void testRemoveFigures() {
+        indexedLayer.setSpatialIndexEnabled(true);
+        addRandomFigures(200);
+
+        for(int i = 0; i < 150; i++) {
+            int index = random.nextInt(indexedChildren.size());
+            indexedLayer.remove(indexedChildren.remove(index));
+            referenceLayer.remove(referenceChildren.remove(index));
+            if(i % 50 == 0) {
+                assertSameAsLinearScan();
+            }
+        }
+
+        assertSameAsLinearScan();
+    }
+
+    @Test
+    public void testAddMoveAndRemoveFigures() {
+        indexedLayer.setSpatialIndexEnabled(true);
+
+        for(int i = 0; i < 300; i++) {
+            int action = random.nextInt(3);
+            if(action == 0 || indexedChildren.isEmpty()) {
+                addFigure(randomBounds());
+            }
+            else if(action == 1) {
+                setBounds(random.nextInt(indexedChildren.size()), randomBounds());
+            }
+            else {
+                int index = random.nextInt(indexedChildren.size());
+                indexedLayer.remove(indexedChildren.remove(index));
+                referenceLayer.remove(referenceChildren.remove(index));
+            }
+        }
+
+        assertSameAsLinearScan();
+    }
+
+    private FreeformLayer createLayer() {
+        FreeformLayer layer = new FreeformLayer();
+        layer.setLayoutManager(new FreeformLayout());
+        layer.setBounds(new Rectangle(-1000, -1000, 5000, 5000));
+        return layer;
+    }
+
+    private void addRandomFigures(int count) {
+        for(int i = 0; i < count; i++) {
+            addFigure(randomBounds());
+        }
+    }
+
+    private Rectangle randomBounds() {
+        return new Rectangle(random.nextInt(3000) - 500, random.nextInt(3000) - 500, 20 + random.nextInt(200), 20 + random.nextInt(150));
+    }
+
+    private void addFigure(Rectangle bounds) {
+        indexedChildren.add(addFigure(indexedLayer, bounds));
+        referenceChildren.add(addFigure(referenceLayer, bounds));
+    }
+
+    private IFigure addFigure(IFigure layer, Rectangle bounds) {
+        IFigure figure = new Figure();
+        figure.setBounds(bounds.getCopy());
+        // Make it a mouse event target
+        figure.addMouseListener(new MouseListener.Stub());
+        layer.add(figure);
+        return figure;
+    }
+
+    private void setBounds(int index, Rectangle bounds) {
+        indexedChildren.get(index).setBounds(bounds.getCopy());
+        referenceChildren.get(index).setBounds(bounds.getCopy());
+    }
+
+    private void assertSameAsLinearScan() {
+        assertEquals(referenceLayer.getFreeformExtent(), indexedLayer.getFreeformExtent());
+
+        int hits = 0;
+
+        for(int x = -990; x < 3990; x += 23) {
+            for(int y = -990; y < 3990; y += 23) {
+                IFigure expected = referenceLayer.findFigureAt(x, y);
+                IFigure actual = indexedLayer.findFigureAt(x, y);
+                assertEquals(referenceChildren.indexOf(expected), indexedChildren.indexOf(actual), "findFigureAt " + x + "," + y);
+
+                expected = referenceLayer.findMouseEventTargetAt(x, y);
+                actual = indexedLayer.findMouseEventTargetAt(x, y);
+                assertEquals(referenceChildren.indexOf(expected), indexedChildren.indexOf(actual), "findMouseEventTargetAt " + x + "," + y);
+
+                if(actual != null) {
+                    hits++;
+                }
+            }
+        }
+
+        // Make sure that something was actually hit
+        if(!indexedChildren.isEmpty()) {
+            assertTrue(hits > 0);
+        }
+    }
+}
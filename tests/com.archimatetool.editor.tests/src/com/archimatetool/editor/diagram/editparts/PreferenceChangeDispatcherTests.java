@@ -0,0 +1,122 @@
+/**
+ * This program and the accompanying materials
+ * are made available under the terms of the License
+ * which accompanies this distribution in the file LICENSE.txt
+ */
+package com.archimatetool.editor.diagram.editparts;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.draw2d.IFigure;
+import org.eclipse.gef.editparts.AbstractGraphicalEditPart;
+import org.eclipse.jface.util.PropertyChangeEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+
+@SuppressWarnings("nls")
+public class PreferenceChangeDispatcherTests {
+    
+    private static class PartA extends AbstractGraphicalEditPart {
+        List<String> keys = new ArrayList<>();
+        
+        void subscribe() {
+            PreferenceChangeDispatcher.add(this, key -> key.startsWith("a"), event -> keys.add(event.getProperty()));
+        }
+        
+        @Override
+        protected IFigure createFigure() {
+            return null;
+        }
+
+        @Override
+        protected void createEditPolicies() {
+        }
+    }
+    
+    private static class PartB extends PartA {
+        @Override
+        void subscribe() {
+            PreferenceChangeDispatcher.add(this, key -> key.startsWith("b"), event -> keys.add(event.getProperty()));
+        }
+    }
+    
+    private List<PartA> parts = new ArrayList<>();
+    
+    @AfterEach
+    public void runAfterEachTest() {
+        for(PartA part : parts) {
+            PreferenceChangeDispatcher.remove(part);
+        }
+    }
+    
+    private <T extends PartA> T add(T part) {
+        part.subscribe();
+        parts.add(part);
+        return part;
+    }
+    
+    private void fire(String key) {
+        PreferenceChangeDispatcher.preferenceChanged(new PropertyChangeEvent(this, key, null, null));
+    }
+    
+    @Test
+    public void testOnlyPartsThatHandleKeyAreTold() {
+        PartA a1 = add(new PartA());
+        PartA a2 = add(new PartA());
+        PartB b1 = add(new PartB());
+        
+        fire("a1");
+        assertEquals(List.of("a1"), a1.keys);
+        assertEquals(List.of("a1"), a2.keys);
+        assertTrue(b1.keys.isEmpty());
+        
+        fire("b1");
+        assertEquals(List.of("a1"), a1.keys);
+        assertEquals(List.of("b1"), b1.keys);
+        
+        fire("c1");
+        assertEquals(1, a1.keys.size());
+        assertEquals(1, b1.keys.size());
+    }
+    
+    @Test
+    public void testRemove() {
+        PartA a1 = add(new PartA());
+        PartA a2 = add(new PartA());
+        assertTrue(PreferenceChangeDispatcher.contains(a1));
+        assertTrue(PreferenceChangeDispatcher.isListening());
+        
+        PreferenceChangeDispatcher.remove(a1);
+        assertFalse(PreferenceChangeDispatcher.contains(a1));
+        assertTrue(PreferenceChangeDispatcher.contains(a2));
+        
+        fire("a1");
+        assertTrue(a1.keys.isEmpty());
+        assertEquals(List.of("a1"), a2.keys);
+    }
+    
+    @Test
+    public void testPartRemovedDuringChangeIsNotTold() {
+        PartA a2 = new PartA();
+        
+        PartA a1 = add(new PartA() {
+            @Override
+            void subscribe() {
+                PreferenceChangeDispatcher.add(this, key -> true, event -> PreferenceChangeDispatcher.remove(a2));
+            }
+        });
+        
+        add(a2);
+        
+        fire("a1");
+        assertFalse(PreferenceChangeDispatcher.contains(a2));
+        assertTrue(PreferenceChangeDispatcher.contains(a1));
+        assertTrue(a2.keys.isEmpty());
+    }
+}
@@ -0,0 +1,102 @@
+/**
+ * This program and the accompanying materials
+ * are made available under the terms of the License
+ * which accompanies this distribution in the file LICENSE.txt
+ */
+package com.archimatetool.editor.diagram.editparts;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.Set;
+
+import org.eclipse.draw2d.Figure;
+import org.eclipse.draw2d.FreeformLayer;
+import org.eclipse.draw2d.FreeformLayout;
+import org.eclipse.draw2d.IFigure;
+import org.eclipse.draw2d.geometry.Rectangle;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+
+public class SnapToGeometryIndexTests {
+    
+    private static final double THRESHOLD = 5.0001;
+    
+    private IFigure container;
+    private IFigure figure1, figure2;
+    private SnapToGeometryIndex index;
+    
+    @BeforeEach
+    public void runBeforeEachTest() {
+        container = new FreeformLayer();
+        container.setLayoutManager(new FreeformLayout());
+        figure1 = addFigure(new Rectangle(100, 100, 101, 51)); // x 100, 150, 200 y 100, 125, 150
+        figure2 = addFigure(new Rectangle(400, 300, 51, 51));  // x 400, 425, 450 y 300, 325, 350
+        index = new SnapToGeometryIndex(container);
+    }
+    
+    @AfterEach
+    public void runAfterEachTest() {
+        index.dispose();
+    }
+    
+    @Test
+    public void testFindSnapLocation() {
+        assertEquals(2, index.size());
+        
+        // Left and right
+        assertEquals(100, index.findSnapLocation(true, 103, -1, THRESHOLD, null));
+        assertEquals(200, index.findSnapLocation(true, 196, 1, THRESHOLD, null));
+        assertEquals(400, index.findSnapLocation(true, 398.5, 1, THRESHOLD, null));
+        
+        // Middle
+        assertEquals(150, index.findSnapLocation(true, 152, 0, THRESHOLD, null));
+        assertEquals(325, index.findSnapLocation(false, 321, 0, THRESHOLD, null));
+        
+        // Top and bottom
+        assertEquals(350, index.findSnapLocation(false, 352, 1, THRESHOLD, null));
+        
+        // Too far
+        assertNull(index.findSnapLocation(true, 106, -1, THRESHOLD, null));
+        assertNull(index.findSnapLocation(true, 100, 0, THRESHOLD, null));
+    }
+    
+    @Test
+    public void testExclusionsAndHiddenFigures() {
+        assertNull(index.findSnapLocation(true, 101, -1, THRESHOLD, Set.of(figure1)));
+        
+        // The next nearest location that isn't excluded
+        addFigure(new Rectangle(104, 500, 10, 10));
+        assertEquals(104, index.findSnapLocation(true, 101, -1, THRESHOLD, Set.of(figure1)));
+        
+        figure1.setVisible(false);
+        assertEquals(104, index.findSnapLocation(true, 101, -1, THRESHOLD, null));
+    }
+    
+    @Test
+    public void testUpdatedWhenFiguresChange() {
+        // Moved
+        figure1.setBounds(new Rectangle(1000, 100, 101, 51));
+        assertNull(index.findSnapLocation(true, 101, -1, THRESHOLD, null));
+        assertEquals(1000, index.findSnapLocation(true, 1002, -1, THRESHOLD, null));
+        
+        // Added
+        IFigure figure3 = addFigure(new Rectangle(700, 700, 50, 50));
+        assertEquals(3, index.size());
+        assertEquals(700, index.findSnapLocation(false, 698, -1, THRESHOLD, null));
+        
+        // Removed
+        container.remove(figure3);
+        assertEquals(2, index.size());
+        assertNull(index.findSnapLocation(false, 698, -1, THRESHOLD, null));
+    }
+    
+    private IFigure addFigure(Rectangle bounds) {
+        IFigure figure = new Figure();
+        container.add(figure, bounds);
+        figure.setBounds(bounds);
+        return figure;
+    }
+}
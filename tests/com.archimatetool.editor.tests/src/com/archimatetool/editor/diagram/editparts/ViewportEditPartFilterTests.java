@@ -0,0 +1,153 @@
+/**
+ * This program and the accompanying materials
+ * are made available under the terms of the License
+ * which accompanies this distribution in the file LICENSE.txt
+ */
+package com.archimatetool.editor.diagram.editparts;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.gef.ConnectionEditPart;
+import org.eclipse.gef.editparts.FreeformGraphicalRootEditPart;
+import org.eclipse.gef.ui.parts.GraphicalViewerImpl;
+import org.eclipse.swt.widgets.Shell;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.archimatetool.model.IArchimateDiagramModel;
+import com.archimatetool.model.IArchimateFactory;
+import com.archimatetool.model.IDiagramModelConnection;
+import com.archimatetool.model.IDiagramModelObject;
+import com.archimatetool.testingtools.ArchimateTestModel;
+
+
+public class ViewportEditPartFilterTests {
+    
+    private Shell shell;
+    private GraphicalViewerImpl viewer;
+    private IArchimateDiagramModel dm;
+    private List<IDiagramModelObject> notes;
+    
+    @BeforeEach
+    public void runBeforeEachTest() {
+        ArchimateTestModel tm = new ArchimateTestModel();
+        tm.createSimpleModel();
+        dm = tm.addNewArchimateDiagramModel();
+        
+        // A row of notes 100 apart
+        notes = new ArrayList<>();
+        for(int i = 0; i < ViewportEditPartFilter.MIN_CHILDREN + 100; i++) {
+            IDiagramModelObject note = IArchimateFactory.eINSTANCE.createDiagramModelNote();
+            note.setBounds(i * 100, 0, 50, 50);
+            dm.getChildren().add(note);
+            notes.add(note);
+        }
+        
+        shell = new Shell();
+        viewer = new GraphicalViewerImpl();
+        viewer.createControl(shell);
+        viewer.getControl().setSize(400, 300);
+        viewer.setEditPartFactory(new ArchimateDiagramEditPartFactory());
+        viewer.setRootEditPart(new FreeformGraphicalRootEditPart());
+    }
+    
+    @AfterEach
+    public void runAfterEachTest() {
+        shell.dispose();
+    }
+    
+    private void setContents(boolean enabled) {
+        // Lay out the viewport first so that it has a size
+        viewer.flush();
+        
+        viewer.setProperty(ViewportEditPartFilter.PROPERTY_ENABLED, enabled);
+        viewer.setContents(dm);
+    }
+    
+    private boolean hasEditPart(Object object) {
+        return viewer.getEditPartRegistry().get(object) != null;
+    }
+    
+    @Test
+    public void testOnlyObjectsInViewAreCreated() {
+        setContents(true);
+        
+        ViewportEditPartFilter filter = ViewportEditPartFilter.getFilter(viewer);
+        assertNotNull(filter);
+        assertFalse(filter.isAllCreated());
+        
+        // The visible area is 400 x 300 and half of that is added around it, so up to x = 600
+        for(int i = 0; i < notes.size(); i++) {
+            assertEquals(i < 6, hasEditPart(notes.get(i)), "Note " + i);
+        }
+        assertEquals(6, viewer.getContents().getChildren().size());
+    }
+    
+    @Test
+    public void testCreateEditParts() {
+        setContents(true);
+        
+        ViewportEditPartFilter filter = ViewportEditPartFilter.getFilter(viewer);
+        filter.createEditParts(List.of(notes.get(100)));
+        
+        assertTrue(hasEditPart(notes.get(100)));
+        assertFalse(hasEditPart(notes.get(99)));
+        assertEquals(7, viewer.getContents().getChildren().size());
+    }
+    
+    @Test
+    public void testCreateAllEditParts() {
+        setContents(true);
+        
+        ViewportEditPartFilter filter = ViewportEditPartFilter.getFilter(viewer);
+        filter.createAllEditParts();
+        
+        assertTrue(filter.isAllCreated());
+        assertEquals(notes.size(), viewer.getContents().getChildren().size());
+    }
+    
+    @Test
+    public void testConnectionIsCreatedWithBothEnds() {
+        IDiagramModelConnection connection = IArchimateFactory.eINSTANCE.createDiagramModelConnection();
+        connection.connect(notes.get(0), notes.get(100));
+        
+        setContents(true);
+        assertTrue(hasEditPart(notes.get(0)));
+        assertFalse(hasEditPart(connection));
+        
+        ViewportEditPartFilter filter = ViewportEditPartFilter.getFilter(viewer);
+        filter.createEditParts(List.of(connection));
+        
+        ConnectionEditPart connectionEditPart = (ConnectionEditPart)viewer.getEditPartRegistry().get(connection);
+        assertNotNull(connectionEditPart);
+        assertSame(viewer.getEditPartRegistry().get(notes.get(0)), connectionEditPart.getSource());
+        assertSame(viewer.getEditPartRegistry().get(notes.get(100)), connectionEditPart.getTarget());
+    }
+    
+    @Test
+    public void testNotEnabled() {
+        setContents(false);
+        
+        assertNull(ViewportEditPartFilter.getFilter(viewer));
+        assertEquals(notes.size(), viewer.getContents().getChildren().size());
+    }
+    
+    @Test
+    public void testNotEnabledForSmallDiagram() {
+        dm.getChildren().subList(10, notes.size()).clear();
+        
+        setContents(true);
+        
+        assertNull(ViewportEditPartFilter.getFilter(viewer));
+        assertEquals(10, viewer.getContents().getChildren().size());
+    }
+}
@@ -9,6 +9,8 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.platform.suite.api.SelectClasses;
 import org.junit.platform.suite.api.Suite;
 
+import com.archimatetool.editor.diagram.figures.connections.OrthogonalConnectionRouterTests;
+import com.archimatetool.editor.diagram.figures.connections.SpatialIndexTests;
 import com.archimatetool.editor.diagram.figures.diagram.DiagramImageFigureTests;
 import com.archimatetool.editor.diagram.figures.diagram.DiagramModelReferenceFigureTests;
 import com.archimatetool.editor.diagram.figures.diagram.GroupFigureTests;
@@ -19,6 +21,9 @@ import com.archimatetool.editor.diagram.figures.elements.JunctionFigureTests;
 @SelectClasses({
     // figures
     AllArchimateTextControlContainerFigureTests.class,
+    // figures.connections
+    OrthogonalConnectionRouterTests.class,
+    SpatialIndexTests.class,
     // figures.diagram
     DiagramImageFigureTests.class,
     DiagramModelReferenceFigureTests.class,
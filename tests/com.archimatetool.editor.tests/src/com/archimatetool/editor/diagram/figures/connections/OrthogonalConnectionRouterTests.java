@@ -0,0 +1,138 @@
+/**
+ * This program and the accompanying materials
+ * are made available under the terms of the License
+ * which accompanies this distribution in the file LICENSE.txt
+ */
+package com.archimatetool.editor.diagram.figures.connections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.eclipse.draw2d.ChopboxAnchor;
+import org.eclipse.draw2d.Figure;
+import org.eclipse.draw2d.IFigure;
+import org.eclipse.draw2d.PolylineConnection;
+import org.eclipse.draw2d.geometry.Point;
+import org.eclipse.draw2d.geometry.PointList;
+import org.eclipse.draw2d.geometry.Rectangle;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+
+public class OrthogonalConnectionRouterTests {
+
+    private IFigure container;
+    private IFigure source, target, obstacle, other;
+    private PolylineConnection connection;
+    private OrthogonalConnectionRouter router;
+
+    @BeforeEach
+    public void runBeforeEachTest() {
+        container = new Figure();
+        source = addFigure(new Rectangle(0, 100, 100, 50));
+        target = addFigure(new Rectangle(400, 100, 100, 50));
+        obstacle = addFigure(new Rectangle(200, 50, 100, 150));
+        other = addFigure(new Rectangle(2000, 2000, 100, 50));
+
+        connection = new PolylineConnection();
+        connection.setSourceAnchor(new ChopboxAnchor(source));
+        connection.setTargetAnchor(new ChopboxAnchor(target));
+
+        router = new OrthogonalConnectionRouter(container);
+    }
+
+    @Test
+    public void testRouteAvoidsObstacle() {
+        router.route(connection);
+
+        PointList points = connection.getPoints();
+        assertTrue(points.size() > 2);
+
+        // Leaves the source and enters the target at their edges
+        assertTrue(isOnEdge(source.getBounds(), points.getFirstPoint()));
+        assertTrue(isOnEdge(target.getBounds(), points.getLastPoint()));
+
+        for(int i = 0; i < points.size() - 1; i++) {
+            Point p1 = points.getPoint(i);
+            Point p2 = points.getPoint(i + 1);
+
+            // Horizontal or vertical
+            assertTrue(p1.x == p2.x || p1.y == p2.y);
+
+            // Doesn't cross the obstacle
+            assertFalse(new Rectangle(p1, p2).intersects(obstacle.getBounds()));
+        }
+    }
+
+    @Test
+    public void testRouteIsCached() {
+        router.route(connection);
+        PointList route = router.getCachedRoute(connection);
+        assertNotNull(route);
+
+        // Moving a figure that is not near the route keeps the route
+        other.setBounds(new Rectangle(3000, 3000, 100, 50));
+        assertSame(route, router.getCachedRoute(connection));
+
+        router.route(connection);
+        assertSame(route, router.getCachedRoute(connection));
+    }
+
+    @Test
+    public void testRouteIsInvalidatedWhenObstacleMoves() {
+        router.route(connection);
+        assertNotNull(router.getCachedRoute(connection));
+
+        // Moving a figure off the route throws the route away
+        obstacle.setBounds(new Rectangle(200, 1000, 100, 150));
+        assertNull(router.getCachedRoute(connection));
+
+        // And now it's a straight line
+        router.route(connection);
+        assertEquals(2, connection.getPoints().size());
+
+        // Moving a figure onto the route throws the route away
+        obstacle.setBounds(new Rectangle(200, 50, 100, 150));
+        assertNull(router.getCachedRoute(connection));
+
+        router.route(connection);
+        assertTrue(connection.getPoints().size() > 2);
+    }
+
+    @Test
+    public void testRouteIsUpdatedWhenEndMoves() {
+        router.route(connection);
+        PointList route = router.getCachedRoute(connection);
+
+        target.setBounds(new Rectangle(400, 300, 100, 50));
+        router.route(connection);
+        assertFalse(route == router.getCachedRoute(connection));
+    }
+
+    @Test
+    public void testRemove() {
+        router.route(connection);
+        router.remove(connection);
+        assertNull(router.getCachedRoute(connection));
+    }
+
+    private boolean isOnEdge(Rectangle bounds, Point p) {
+        // Allow for the ChopboxAnchor being inside the bounds by one pixel
+        boolean insideX = p.x >= bounds.x - 1 && p.x <= bounds.right() + 1;
+        boolean insideY = p.y >= bounds.y - 1 && p.y <= bounds.bottom() + 1;
+        boolean onX = Math.abs(p.x - bounds.x) <= 1 || Math.abs(p.x - bounds.right()) <= 1;
+        boolean onY = Math.abs(p.y - bounds.y) <= 1 || Math.abs(p.y - bounds.bottom()) <= 1;
+        return (onX && insideY) || (onY && insideX);
+    }
+
+    private IFigure addFigure(Rectangle bounds) {
+        IFigure figure = new Figure();
+        figure.setBounds(bounds);
+        container.add(figure);
+        return figure;
+    }
+}
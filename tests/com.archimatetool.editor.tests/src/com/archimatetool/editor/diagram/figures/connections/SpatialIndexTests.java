@@ -0,0 +1,71 @@
+/**
+ * This program and the accompanying materials
+ * are made available under the terms of the License
+ * which accompanies this distribution in the file LICENSE.txt
+ */
+package com.archimatetool.editor.diagram.figures.connections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Set;
+
+import org.eclipse.draw2d.geometry.Rectangle;
+import org.junit.jupiter.api.Test;
+
+
+@SuppressWarnings("nls")
+public class SpatialIndexTests {
+
+    @Test
+    public void testPutAndQuery() {
+        SpatialIndex<String> index = new SpatialIndex<>(100);
+        index.put("a", new Rectangle(10, 10, 50, 50));
+        index.put("b", new Rectangle(500, 500, 300, 20));
+        index.put("c", new Rectangle(-250, -40, 30, 30));
+
+        assertEquals(Set.of("a"), index.query(new Rectangle(0, 0, 20, 20)));
+        assertEquals(Set.of("b"), index.query(new Rectangle(700, 510, 10, 10)));
+        assertEquals(Set.of("c"), index.query(new Rectangle(-300, -100, 100, 100)));
+        assertEquals(Set.of("a", "b"), index.query(new Rectangle(50, 50, 500, 500)));
+
+        // Same cell but not intersecting
+        assertTrue(index.query(new Rectangle(70, 70, 10, 10)).isEmpty());
+    }
+
+    @Test
+    public void testPutReplacesAreas() {
+        SpatialIndex<String> index = new SpatialIndex<>(100);
+        index.put("a", new Rectangle(10, 10, 50, 50));
+        index.put("a", new Rectangle(1000, 1000, 50, 50));
+
+        assertTrue(index.query(new Rectangle(10, 10, 50, 50)).isEmpty());
+        assertEquals(Set.of("a"), index.query(new Rectangle(1000, 1000, 10, 10)));
+        assertEquals(List.of(new Rectangle(1000, 1000, 50, 50)), index.getAreas("a"));
+    }
+
+    @Test
+    public void testMoreThanOneArea() {
+        SpatialIndex<String> index = new SpatialIndex<>(100);
+        index.put("a", new Rectangle(0, 0, 10, 300), new Rectangle(0, 290, 300, 10));
+
+        assertEquals(Set.of("a"), index.query(new Rectangle(5, 150, 10, 10)));
+        assertEquals(Set.of("a"), index.query(new Rectangle(250, 295, 10, 10)));
+        assertTrue(index.query(new Rectangle(150, 150, 10, 10)).isEmpty());
+    }
+
+    @Test
+    public void testRemove() {
+        SpatialIndex<String> index = new SpatialIndex<>(100);
+        index.put("a", new Rectangle(10, 10, 50, 50));
+
+        assertTrue(index.contains("a"));
+        assertTrue(index.remove("a"));
+        assertFalse(index.remove("a"));
+        assertFalse(index.contains("a"));
+        assertTrue(index.query(new Rectangle(10, 10, 50, 50)).isEmpty());
+        assertTrue(index.getAreas("a").isEmpty());
+    }
+}
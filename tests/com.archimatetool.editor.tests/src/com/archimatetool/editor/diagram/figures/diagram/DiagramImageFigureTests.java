@@ -26,6 +26,7 @@ import com.archimatetool.editor.TestSupport;
 import com.archimatetool.editor.diagram.figures.AbstractDiagramModelObjectFigure;
 import com.archimatetool.editor.diagram.figures.AbstractDiagramModelObjectFigureTests;
 import com.archimatetool.editor.model.IArchiveManager;
+import com.archimatetool.editor.ui.ImagePyramid;
 import com.archimatetool.editor.ui.factory.IGraphicalObjectUIProvider;
 import com.archimatetool.editor.ui.factory.ObjectUIFactory;
 import com.archimatetool.model.IArchimateFactory;
@@ -62,8 +63,7 @@ public class DiagramImageFigureTests extends AbstractDiagramModelObjectFigureTes
         try {
             File file = new File(TestSupport.getTestDataFolder().getPath(), "img/img1.png");
             addImage(file, (DiagramImageFigure)figure);
-            Image image = getPrivateImageField(figure);
-            assertEquals(new Dimension(image), figure.getDefaultSize());
+            assertEquals(new Dimension(1024, 1024), figure.getDefaultSize());
         }
         catch(Exception ex) {
             ex.printStackTrace();
@@ -96,8 +96,10 @@ public class DiagramImageFigureTests extends AbstractDiagramModelObjectFigureTes
         addImage(file, figure);
         
         // Check initial Image size
-        image = getPrivateImageField(figure);
-        assertEquals(new Rectangle(0, 0, 1024, 1024), image.getBounds());
+        assertEquals(new Rectangle(0, 0, 1024, 1024), figure.getImagePyramid().getBounds());
+        
+        // Scaled image is not created until it's painted
+        assertNull(getPrivateImageField(figure));
         
         // Check correct default size of image
         assertEquals(new Dimension(1024, 1024), figure.getDefaultSize());
@@ -128,8 +130,7 @@ public class DiagramImageFigureTests extends AbstractDiagramModelObjectFigureTes
         addImage(file, figure);
         
         // Check initial Image size
-        image = getPrivateImageField(figure);
-        assertEquals(new Rectangle(0, 0, 1024, 1024), image.getBounds());
+        assertEquals(new Rectangle(0, 0, 1024, 1024), figure.getImagePyramid().getBounds());
         
         // Check correct default size of image
         assertEquals(new Dimension(1024, 1024), figure.getDefaultSize());
@@ -140,8 +141,7 @@ public class DiagramImageFigureTests extends AbstractDiagramModelObjectFigureTes
         addImage(file, figure);
 
         // Check initial Image size
-        image = getPrivateImageField(figure);
-        assertEquals(new Rectangle(0, 0, 268, 268), image.getBounds());
+        assertEquals(new Rectangle(0, 0, 268, 268), figure.getImagePyramid().getBounds());
         
         // Check correct default size of image
         assertEquals(new Dimension(268, 268), figure.getDefaultSize());
@@ -152,31 +152,30 @@ public class DiagramImageFigureTests extends AbstractDiagramModelObjectFigureTes
     public void testRescaleImage(DiagramImageFigure figure) throws Exception {
         File file = new File(TestSupport.getTestDataFolder().getPath(), "img/img3.png");
         addImage(file, figure);
-        Image image = getPrivateImageField(figure);
-        assertEquals(new Rectangle(0, 0, 268, 268), image.getBounds());
+        assertEquals(new Rectangle(0, 0, 268, 268), figure.getImagePyramid().getBounds());
         
         figure.setBounds(new org.eclipse.draw2d.geometry.Rectangle(0, 0, 10, 10));
         
         figure.rescaleImage();
         
-        image = getPrivateImageField(figure);
+        Image image = getPrivateImageField(figure);
         assertEquals(new Rectangle(0, 0, 10, 10), image.getBounds());
         
         image.dispose();
     }
     
     @ParamsTest
-    public void testGetOriginalImage(DiagramImageFigure figure) throws Exception {
-        Image image = figure.getOriginalImage();
-        assertNull(image);
+    public void testGetImagePyramid(DiagramImageFigure figure) throws Exception {
+        assertNull(figure.getImagePyramid());
         
         File file = new File(TestSupport.getTestDataFolder().getPath(), "img/img3.png");
         addImage(file, figure);
         
-        image = figure.getOriginalImage();
-        assertEquals(new Rectangle(0, 0, 268, 268), image.getBounds());
+        ImagePyramid imagePyramid = figure.getImagePyramid();
+        assertEquals(new Rectangle(0, 0, 268, 268), imagePyramid.getImage().getBounds());
         
-        image.dispose();
+        // Smaller image for a smaller size
+        assertEquals(new Rectangle(0, 0, 33, 33), imagePyramid.getImage(20, 20).getBounds());
     }
    
     private void addImage(File file, DiagramImageFigure figure) throws IOException {
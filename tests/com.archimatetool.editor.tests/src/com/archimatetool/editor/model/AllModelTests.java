@@ -10,6 +10,7 @@ import org.junit.platform.suite.api.Suite;
 import org.junit.platform.suite.api.SuiteDisplayName;
 
 import com.archimatetool.editor.model.commands.CommandsTests;
+import com.archimatetool.editor.model.commands.MemoryLimitedCommandStackTests;
 import com.archimatetool.editor.model.commands.SetConceptTypeCommandFactoryTests;
 import com.archimatetool.editor.model.compatibility.ModelCompatibilityTests;
 import com.archimatetool.editor.model.compatibility.handlers.ArchiMate2To3HandlerTests;
@@ -28,6 +29,7 @@ import com.archimatetool.editor.model.impl.EditorModelManagerTests;
     ModelCheckerTests.class,
     // model.commands
     CommandsTests.class,
+    MemoryLimitedCommandStackTests.class,
     SetConceptTypeCommandFactoryTests.class,
     // model.compatibility
     ModelCompatibilityTests.class,
@@ -9,13 +9,17 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.eclipse.emf.common.notify.Notification;
+import org.eclipse.emf.ecore.EObject;
 import org.eclipse.emf.ecore.util.EContentAdapter;
 import org.eclipse.gef.commands.Command;
 import org.eclipse.gef.commands.CompoundCommand;
@@ -23,6 +27,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import com.archimatetool.editor.model.IEditorModelManager;
+import com.archimatetool.model.IArchimateConcept;
 import com.archimatetool.model.IArchimateElement;
 import com.archimatetool.model.IArchimateModel;
 import com.archimatetool.model.IArchimatePackage;
@@ -111,6 +116,64 @@ public class CommandsTests {
         assertEquals(position, parent.getElements().indexOf(relationship));
     }
     
+    @Test
+    public void testDeleteArchimateConceptsCommand() {
+        IArchimateElement element = (IArchimateElement)tm.getObjectByID("1544");
+        IArchimateRelationship relationship = (IArchimateRelationship)tm.getObjectByID("670aa5ed");
+        
+        IFolder elementParent = (IFolder)element.eContainer();
+        IFolder relationshipParent = (IFolder)relationship.eContainer();
+        List<EObject> elementParentContents = new ArrayList<>(elementParent.getElements());
+        List<EObject> relationshipParentContents = new ArrayList<>(relationshipParent.getElements());
+        
+        // Every other object in the element's folder, and the relationship
+        List<IArchimateConcept> concepts = new ArrayList<>();
+        for(int i = 0; i < elementParentContents.size(); i += 2) {
+            concepts.add((IArchimateConcept)elementParentContents.get(i));
+        }
+        if(!concepts.contains(element)) {
+            concepts.add(element);
+        }
+        concepts.add(relationship);
+        
+        List<Notification> notifications = new ArrayList<>();
+        model.eAdapters().add(new EContentAdapter() {
+            @Override
+            public void notifyChanged(Notification msg) {
+                super.notifyChanged(msg);
+                if(msg.getFeature() == IArchimatePackage.Literals.FOLDER__ELEMENTS) {
+                    notifications.add(msg);
+                }
+            }
+        });
+        
+        DeleteArchimateConceptsCommand cmd = new DeleteArchimateConceptsCommand(concepts);
+        cmd.execute();
+        
+        for(IArchimateConcept concept : concepts) {
+            assertNull(concept.eContainer());
+        }
+        assertEquals(elementParentContents.size() - concepts.size() + 1, elementParent.getElements().size());
+        assertFalse(relationship.getSource().getSourceRelationships().contains(relationship));
+        assertFalse(relationship.getTarget().getTargetRelationships().contains(relationship));
+        
+        // One notification for each folder
+        assertEquals(2, notifications.size());
+        assertEquals(Notification.REMOVE_MANY, notifications.get(0).getEventType());
+        assertEquals(concepts.size() - 1, ((List<?>)notifications.get(0).getOldValue()).size());
+        assertEquals(Notification.REMOVE, notifications.get(1).getEventType());
+        assertEquals(relationship, notifications.get(1).getOldValue());
+        
+        cmd.undo();
+        
+        assertEquals(elementParentContents, elementParent.getElements());
+        assertEquals(relationshipParentContents, relationshipParent.getElements());
+        assertSame(elementParent, element.eContainer());
+        assertSame(relationshipParent, relationship.eContainer());
+        assertTrue(relationship.getSource().getSourceRelationships().contains(relationship));
+        assertTrue(relationship.getTarget().getTargetRelationships().contains(relationship));
+    }
+    
     @Test
     public void testDeleteFolderCommand() {
         IFolder folder = (IFolder)tm.getObjectByID("403e5717");
@@ -0,0 +1,121 @@
+/**
+ * This program and the accompanying materials
+ * are made available under the terms of the License
+ * which accompanies this distribution in the file LICENSE.txt
+ */
+package com.archimatetool.editor.model.commands;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.eclipse.gef.commands.Command;
+import org.junit.jupiter.api.Test;
+
+import com.archimatetool.model.FolderType;
+import com.archimatetool.model.IArchimateElement;
+import com.archimatetool.model.IArchimateFactory;
+import com.archimatetool.model.IArchimateModel;
+
+
+@SuppressWarnings("nls")
+public class MemoryLimitedCommandStackTests {
+    
+    @Test
+    public void testExecuteUndoRedo() {
+        MemoryLimitedCommandStack stack = new MemoryLimitedCommandStack(0);
+        Command command1 = new Command() {};
+        Command command2 = new Command() {};
+        
+        stack.execute(command1);
+        stack.execute(command2);
+        assertSame(command2, stack.getUndoCommand());
+        assertTrue(stack.isDirty());
+        
+        stack.undo();
+        assertSame(command1, stack.getUndoCommand());
+        assertSame(command2, stack.getRedoCommand());
+        
+        stack.redo();
+        assertSame(command2, stack.getUndoCommand());
+        assertNull(stack.getRedoCommand());
+        
+        stack.markSaveLocation();
+        assertFalse(stack.isDirty());
+        
+        stack.undo();
+        assertTrue(stack.isDirty());
+        
+        assertEquals(2, stack.getCommands().length);
+    }
+    
+    @Test
+    public void testEstimateSize_DeletedElement() {
+        IArchimateModel model = IArchimateFactory.eINSTANCE.createArchimateModel();
+        model.setDefaults();
+        
+        IArchimateElement element = IArchimateFactory.eINSTANCE.createBusinessActor();
+        model.getFolder(FolderType.BUSINESS).getElements().add(element);
+        element.setDocumentation("x".repeat(10000));
+        
+        DeleteArchimateElementCommand command = new DeleteArchimateElementCommand(element);
+        
+        // Element is still in the model
+        long sizeBefore = CommandSizeEstimator.estimateSize(command);
+        assertTrue(sizeBefore < 10000);
+        
+        // Element has been removed from the model
+        command.execute();
+        assertTrue(CommandSizeEstimator.estimateSize(command) > 10000);
+        
+        command.undo();
+        assertEquals(sizeBefore, CommandSizeEstimator.estimateSize(command));
+    }
+    
+    @Test
+    public void testMemoryLimit_RemovesOldest() {
+        IArchimateModel model = IArchimateFactory.eINSTANCE.createArchimateModel();
+        model.setDefaults();
+        
+        MemoryLimitedCommandStack stack = new MemoryLimitedCommandStack(25000);
+        
+        Command[] commands = new Command[3];
+        for(int i = 0; i < commands.length; i++) {
+            IArchimateElement element = IArchimateFactory.eINSTANCE.createBusinessActor();
+            model.getFolder(FolderType.BUSINESS).getElements().add(element);
+            element.setDocumentation("x".repeat(10000));
+            commands[i] = new DeleteArchimateElementCommand(element);
+            stack.execute(commands[i]);
+        }
+        
+        // Only the last two are kept
+        assertEquals(2, stack.getCommands().length);
+        assertSame(commands[1], stack.getCommands()[0]);
+        assertTrue(stack.getUndoSize() <= 25000);
+        
+        // Save location was removed so it can't be reached
+        stack.undo();
+        stack.undo();
+        assertFalse(stack.canUndo());
+        assertTrue(stack.isDirty());
+        
+        // Lower limit keeps the most recent one
+        stack.redo();
+        stack.redo();
+        stack.setMemoryLimit(1000);
+        assertEquals(1, stack.getCommands().length);
+        assertSame(commands[2], stack.getUndoCommand());
+    }
+    
+    @Test
+    public void testFlush() {
+        MemoryLimitedCommandStack stack = new MemoryLimitedCommandStack(1000);
+        stack.execute(new Command() {});
+        stack.flush();
+        assertEquals(0, stack.getCommands().length);
+        assertEquals(0, stack.getUndoSize());
+        assertFalse(stack.isDirty());
+    }
+}
@@ -13,13 +13,28 @@ import static org.junit.jupiter.api.Assertions.fail;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
 
+import org.eclipse.emf.ecore.EObject;
 import org.eclipse.emf.ecore.resource.Resource;
 import org.eclipse.emf.ecore.resource.Resource.Diagnostic;
 import org.junit.jupiter.api.Test;
 
 import com.archimatetool.editor.TestSupport;
+import com.archimatetool.editor.model.compatibility.handlers.Archimate32Handler;
+import com.archimatetool.editor.model.compatibility.handlers.DefaultTextAlignmentHandler;
+import com.archimatetool.editor.model.compatibility.handlers.OutlineOpacityHandler;
+import com.archimatetool.model.FolderType;
+import com.archimatetool.model.IArchimateDiagramModel;
+import com.archimatetool.model.IArchimateElement;
+import com.archimatetool.model.IArchimateFactory;
 import com.archimatetool.model.IArchimateModel;
+import com.archimatetool.model.IBusinessObject;
+import com.archimatetool.model.IDiagramModelArchimateObject;
+import com.archimatetool.model.IGrouping;
+import com.archimatetool.model.ITextAlignment;
 import com.archimatetool.model.util.ArchimateResourceFactory;
 
 
@@ -130,6 +145,136 @@ public class ModelCompatibilityTests {
         assertTrue(mc.isCatastrophicException(diagnostic));
     }
     
+    @Test
+    public void testFixCompatibility_HandlersRunInOrder() throws Exception {
+        IArchimateModel model = createModel(2, 2);
+        List<String> calls = new ArrayList<>();
+        
+        mc = new ModelCompatibility(createResource(model));
+        mc.fixCompatibility(List.<ICompatibilityHandler>of(
+                new TestObjectHandler("A", calls, true),
+                new TestObjectHandler("B", calls, false), // not applicable
+                new TestObjectHandler("C", calls, true),
+                resource -> calls.add("D"),
+                new TestObjectHandler("E", calls, true)));
+        
+        // A and C visit each object together, then D runs, then E visits each object
+        int count = (calls.size() - 1) / 3;
+        for(int i = 0; i < count; i++) {
+            assertEquals("A", calls.get(i * 2));
+            assertEquals("C", calls.get(i * 2 + 1));
+        }
+        assertEquals("D", calls.get(count * 2));
+        assertEquals(List.of("E"), calls.subList(count * 2 + 1, calls.size()).stream().distinct().toList());
+        assertEquals(count, calls.size() - count * 2 - 1);
+    }
+    
+    /**
+     * Running the handlers that apply to a model version 4.0.1 in one pass has the same result as running them one after the other
+     */
+    @Test
+    public void testFixCompatibility_OnePassSameAsSeparate() throws Exception {
+        IArchimateModel model = createModel(2, 100);
+        model.setVersion("4.0.1");
+        new ModelCompatibility(createResource(model)).fixCompatibility(createObjectHandlers());
+        
+        IArchimateModel model2 = createModel(2, 100);
+        model2.setVersion("4.0.1");
+        Resource resource2 = createResource(model2);
+        for(ICompatibilityHandler handler : createObjectHandlers()) {
+            handler.fixCompatibility(resource2);
+        }
+        
+        List<IDiagramModelArchimateObject> dmos = getDiagramObjects(model);
+        List<IDiagramModelArchimateObject> dmos2 = getDiagramObjects(model2);
+        assertEquals(200, dmos.size());
+        assertEquals(dmos.size(), dmos2.size());
+        
+        for(int i = 0; i < dmos.size(); i++) {
+            IDiagramModelArchimateObject dmo = dmos.get(i);
+            IDiagramModelArchimateObject dmo2 = dmos2.get(i);
+            
+            // The fixes were made
+            assertEquals(dmo.getAlpha(), dmo.getLineAlpha());
+            if(dmo.getArchimateElement() instanceof IGrouping) {
+                assertEquals(ITextAlignment.TEXT_ALIGNMENT_LEFT, dmo.getTextAlignment());
+            }
+            if(dmo.getArchimateElement() instanceof IBusinessObject) {
+                assertEquals(1, dmo.getType());
+            }
+            
+            // And are the same as in separate passes
+            assertEquals(dmo2.getLineAlpha(), dmo.getLineAlpha());
+            assertEquals(dmo2.getTextAlignment(), dmo.getTextAlignment());
+            assertEquals(dmo2.getType(), dmo.getType());
+        }
+    }
+    
+    private List<IDiagramModelArchimateObject> getDiagramObjects(IArchimateModel model) {
+        List<IDiagramModelArchimateObject> dmos = new ArrayList<>();
+        for(Iterator<EObject> iter = model.eAllContents(); iter.hasNext();) {
+            if(iter.next() instanceof IDiagramModelArchimateObject dmo) {
+                dmos.add(dmo);
+            }
+        }
+        return dmos;
+    }
+    
+    private List<ICompatibilityHandler> createObjectHandlers() {
+        return List.of(new DefaultTextAlignmentHandler(), new OutlineOpacityHandler(), new Archimate32Handler());
+    }
+    
+    private IArchimateModel createModel(int diagramCount, int objectCount) {
+        IArchimateModel model = IArchimateFactory.eINSTANCE.createArchimateModel();
+        model.setDefaults();
+        
+        for(int i = 0; i < diagramCount; i++) {
+            IArchimateDiagramModel dm = IArchimateFactory.eINSTANCE.createArchimateDiagramModel();
+            model.getFolder(FolderType.DIAGRAMS).getElements().add(dm);
+            
+            for(int j = 0; j < objectCount; j++) {
+                IArchimateElement element = j % 2 == 0 ? IArchimateFactory.eINSTANCE.createGrouping() : IArchimateFactory.eINSTANCE.createBusinessObject();
+                model.getDefaultFolderForObject(element).getElements().add(element);
+                
+                IDiagramModelArchimateObject dmo = IArchimateFactory.eINSTANCE.createDiagramModelArchimateObject();
+                dmo.setArchimateElement(element);
+                dmo.setTextAlignment(ITextAlignment.TEXT_ALIGNMENT_CENTER);
+                dmo.setAlpha(100);
+                dm.getChildren().add(dmo);
+            }
+        }
+        
+        return model;
+    }
+    
+    private Resource createResource(IArchimateModel model) {
+        Resource resource = ArchimateResourceFactory.createNewResource(new File("test.archimate"));
+        resource.getContents().add(model);
+        return resource;
+    }
+    
+    private static class TestObjectHandler implements IModelObjectCompatibilityHandler {
+        String name;
+        List<String> calls;
+        boolean applicable;
+        
+        TestObjectHandler(String name, List<String> calls, boolean applicable) {
+            this.name = name;
+            this.calls = calls;
+            this.applicable = applicable;
+        }
+        
+        @Override
+        public boolean isApplicable(IArchimateModel model) {
+            return applicable;
+        }
+        
+        @Override
+        public void fixCompatibility(EObject eObject) {
+            calls.add(name);
+        }
+    }
+    
     private void createResource(File file) {
         resource = ArchimateResourceFactory.createNewResource(file);
         mc = new ModelCompatibility(resource);
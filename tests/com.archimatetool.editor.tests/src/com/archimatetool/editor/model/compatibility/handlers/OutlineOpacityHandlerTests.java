@@ -55,14 +55,14 @@ public class OutlineOpacityHandlerTests {
     }
 
     @Test
-    public void testSetDefaultOutlineOpacity() {
+    public void testFixCompatibility() {
         ArchimateTestModel tm = new ArchimateTestModel();
         IArchimateModel model = tm.createNewModel();
         IDiagramModelObject dmo = tm.createDiagramModelArchimateObjectAndAddToModel(IArchimateFactory.eINSTANCE.createBusinessActor());
         dmo.setAlpha(100);
         model.getDefaultDiagramModel().getChildren().add(dmo);
 
-        handler.setDefaultOutlineOpacity(model);
+        handler.fixCompatibility(dmo);
         
         assertEquals(100, dmo.getAlpha());
         assertEquals(100, dmo.getLineAlpha());
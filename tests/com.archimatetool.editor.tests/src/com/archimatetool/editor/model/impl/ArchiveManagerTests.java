@@ -16,6 +16,7 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.Set;
 
 import org.eclipse.emf.ecore.resource.Resource;
 import org.eclipse.swt.graphics.Image;
@@ -24,10 +25,14 @@ import org.junit.jupiter.api.Test;
 
 import com.archimatetool.editor.TestSupport;
 import com.archimatetool.editor.model.IArchiveManager;
+import com.archimatetool.model.FolderType;
 import com.archimatetool.model.IArchimateFactory;
 import com.archimatetool.model.IArchimateModel;
 import com.archimatetool.model.IDiagramModel;
+import com.archimatetool.model.IDiagramModelGroup;
 import com.archimatetool.model.IDiagramModelImage;
+import com.archimatetool.model.IFolder;
+import com.archimatetool.model.IProfile;
 import com.archimatetool.testingtools.ArchimateTestModel;
 import com.archimatetool.tests.TestData;
 import com.archimatetool.tests.TestUtils;
@@ -57,6 +62,34 @@ public class ArchiveManagerTests {
         assertFalse(archiveManager.hasImages());
     }
     
+    @Test
+    public void testGetImagePaths() {
+        // Specialization
+        IProfile profile = IArchimateFactory.eINSTANCE.createProfile();
+        profile.setImagePath("images/profile.png");
+        model.getProfiles().add(profile);
+        
+        // Image in a Group in a diagram in a sub-folder
+        IFolder folder = IArchimateFactory.eINSTANCE.createFolder();
+        model.getFolder(FolderType.DIAGRAMS).getFolders().add(folder);
+        IDiagramModel dm2 = IArchimateFactory.eINSTANCE.createArchimateDiagramModel();
+        folder.getElements().add(dm2);
+        IDiagramModelGroup group = IArchimateFactory.eINSTANCE.createDiagramModelGroup();
+        dm2.getChildren().add(group);
+        IDiagramModelImage dmImage = IArchimateFactory.eINSTANCE.createDiagramModelImage();
+        dmImage.setImagePath("images/image.png");
+        group.getChildren().add(dmImage);
+        
+        // Same image path
+        group.setImagePath("images/image.png");
+        
+        // Not set
+        model.getFolder(FolderType.BUSINESS).getElements().add(IArchimateFactory.eINSTANCE.createBusinessActor());
+        dm.getChildren().add(IArchimateFactory.eINSTANCE.createDiagramModelNote());
+        
+        assertEquals(Set.of("images/profile.png", "images/image.png"), archiveManager.getImagePaths());
+    }
+    
     @Test
     public void testAddImageFromFile_Exception() {
         IOException thrown = assertThrows(IOException.class, () -> {
@@ -204,6 +204,22 @@ public class EditorModelManagerTests {
         stack.flush();
     }
 
+    @Test
+    public void preferencesListenedToWhileModelsOpen() throws Exception {
+        EditorModelManager manager = (EditorModelManager)editorModelManager;
+        assertFalse(manager.isListeningToPreferences());
+        
+        IArchimateModel model1 = manager.createNewModel();
+        IArchimateModel model2 = manager.createNewModel();
+        assertTrue(manager.isListeningToPreferences());
+        
+        manager.closeModel(model1, false);
+        assertTrue(manager.isListeningToPreferences());
+        
+        manager.closeModel(model2, false);
+        assertFalse(manager.isListeningToPreferences());
+    }
+    
     @Test
     public void createNewArchiveManager_Created() throws Exception {
         IArchimateModel model = IArchimateFactory.eINSTANCE.createArchimateModel();
@@ -0,0 +1,20 @@
+/**
+ * This program and the accompanying materials
+ * are made available under the terms of the License
+ * which accompanies this distribution in the file LICENSE.txt
+ */
+package com.archimatetool.editor.tools;
+
+
+import org.junit.platform.suite.api.SelectClasses;
+import org.junit.platform.suite.api.Suite;
+import org.junit.platform.suite.api.SuiteDisplayName;
+
+@Suite
+@SelectClasses({
+    GenerateViewCommandTests.class,
+    GenerateViewLayoutTests.class
+})
+@SuiteDisplayName("All Tools Tests")
+public class AllToolsTests {
+}
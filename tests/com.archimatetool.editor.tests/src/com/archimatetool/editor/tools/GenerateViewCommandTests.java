@@ -0,0 +1,133 @@
+/**
+ * This program and the accompanying materials
+ * are made available under the terms of the License
+ * which accompanies this distribution in the file LICENSE.txt
+ */
+package com.archimatetool.editor.tools;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.archimatetool.model.IArchimateConcept;
+import com.archimatetool.model.IArchimateDiagramModel;
+import com.archimatetool.model.IArchimateElement;
+import com.archimatetool.model.IArchimateFactory;
+import com.archimatetool.model.IArchimateModel;
+import com.archimatetool.model.IArchimateRelationship;
+import com.archimatetool.model.IConnectable;
+import com.archimatetool.model.IDiagramModelArchimateConnection;
+import com.archimatetool.model.IDiagramModelArchimateObject;
+import com.archimatetool.model.IDiagramModelConnection;
+import com.archimatetool.model.IDiagramModelObject;
+import com.archimatetool.model.viewpoints.ViewpointManager;
+
+
+@SuppressWarnings("nls")
+public class GenerateViewCommandTests {
+    
+    private IArchimateModel model;
+    private IArchimateElement actor, role1, role2;
+    private IArchimateRelationship actorRole1, actorRole2, role1Role2;
+    private IArchimateRelationship actorToActorRole1, actorToRole1Role2;
+    
+    @BeforeEach
+    public void runBeforeEachTest() {
+        model = IArchimateFactory.eINSTANCE.createArchimateModel();
+        model.setDefaults();
+        
+        actor = createElement(IArchimateFactory.eINSTANCE.createBusinessActor());
+        role1 = createElement(IArchimateFactory.eINSTANCE.createBusinessRole());
+        role2 = createElement(IArchimateFactory.eINSTANCE.createBusinessRole());
+        
+        actorRole1 = createRelationship(IArchimateFactory.eINSTANCE.createAssignmentRelationship(), actor, role1);
+        actorRole2 = createRelationship(IArchimateFactory.eINSTANCE.createAssignmentRelationship(), actor, role2);
+        // Between two elements that are not selected
+        role1Role2 = createRelationship(IArchimateFactory.eINSTANCE.createAssociationRelationship(), role1, role2);
+        
+        // Relationships to relationships
+        actorToActorRole1 = createRelationship(IArchimateFactory.eINSTANCE.createAssociationRelationship(), actor, actorRole1);
+        actorToRole1Role2 = createRelationship(IArchimateFactory.eINSTANCE.createAssociationRelationship(), actor, role1Role2);
+    }
+    
+    @Test
+    public void testCreateDiagramModel_ConnectionsToSelectedElements() {
+        GenerateViewCommand cmd = new GenerateViewCommand(List.of(actor), ViewpointManager.NONE_VIEWPOINT, false, "View");
+        IArchimateDiagramModel dm = cmd.createDiagramModel();
+        
+        assertEquals("View", dm.getName());
+        assertSame(model, dm.getArchimateModel());
+        assertEquals(Set.of(actor, role1, role2), getElements(dm).keySet());
+        
+        Map<IArchimateRelationship, IDiagramModelArchimateConnection> connections = getConnections(dm);
+        assertEquals(Set.of(actorRole1, actorRole2, actorToActorRole1), connections.keySet());
+        
+        // Connection from the element to the connection of the relationship
+        assertSame(getElements(dm).get(actor), connections.get(actorToActorRole1).getSource());
+        assertSame(connections.get(actorRole1), connections.get(actorToActorRole1).getTarget());
+    }
+    
+    @Test
+    public void testCreateDiagramModel_AddAllConnections() {
+        GenerateViewCommand cmd = new GenerateViewCommand(List.of(actor), ViewpointManager.NONE_VIEWPOINT, true, "View");
+        IArchimateDiagramModel dm = cmd.createDiagramModel();
+        
+        assertEquals(Set.of(actor, role1, role2), getElements(dm).keySet());
+        
+        Map<IArchimateRelationship, IDiagramModelArchimateConnection> connections = getConnections(dm);
+        assertEquals(Set.of(actorRole1, actorRole2, role1Role2, actorToActorRole1, actorToRole1Role2), connections.keySet());
+        
+        assertSame(connections.get(actorRole1), connections.get(actorToActorRole1).getTarget());
+        assertSame(connections.get(role1Role2), connections.get(actorToRole1Role2).getTarget());
+    }
+    
+    private IArchimateElement createElement(IArchimateElement element) {
+        model.getDefaultFolderForObject(element).getElements().add(element);
+        return element;
+    }
+    
+    private IArchimateRelationship createRelationship(IArchimateRelationship relationship, IArchimateConcept source, IArchimateConcept target) {
+        relationship.connect(source, target);
+        model.getDefaultFolderForObject(relationship).getElements().add(relationship);
+        return relationship;
+    }
+    
+    private Map<IArchimateElement, IDiagramModelArchimateObject> getElements(IArchimateDiagramModel dm) {
+        Map<IArchimateElement, IDiagramModelArchimateObject> elements = new HashMap<>();
+        for(IDiagramModelObject dmo : dm.getChildren()) {
+            IDiagramModelArchimateObject dmao = (IDiagramModelArchimateObject)dmo;
+            elements.put(dmao.getArchimateElement(), dmao);
+        }
+        return elements;
+    }
+    
+    /**
+     * @return All connections in the diagram, including connections from connections, by relationship
+     */
+    private Map<IArchimateRelationship, IDiagramModelArchimateConnection> getConnections(IArchimateDiagramModel dm) {
+        Map<IArchimateRelationship, IDiagramModelArchimateConnection> connections = new HashMap<>();
+        Queue<IConnectable> connectables = new ArrayDeque<>(dm.getChildren());
+        
+        while(!connectables.isEmpty()) {
+            IConnectable connectable = connectables.remove();
+            for(IDiagramModelConnection connection : connectable.getSourceConnections()) {
+                IDiagramModelArchimateConnection dmc = (IDiagramModelArchimateConnection)connection;
+                assertNull(connections.put(dmc.getArchimateRelationship(), dmc), "Relationship added more than once");
+                // Connections to this connection have it as their source
+                connectables.add(dmc);
+            }
+        }
+        
+        return connections;
+    }
+}
@@ -0,0 +1,137 @@
+/**
+ * This program and the accompanying materials
+ * are made available under the terms of the License
+ * which accompanies this distribution in the file LICENSE.txt
+ */
+package com.archimatetool.editor.tools;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.draw2d.geometry.Rectangle;
+import org.junit.jupiter.api.Test;
+
+import com.archimatetool.editor.ui.factory.IGraphicalObjectUIProvider;
+import com.archimatetool.model.IArchimateFactory;
+import com.archimatetool.model.IBounds;
+import com.archimatetool.model.IDiagramModelArchimateObject;
+import com.archimatetool.model.IDiagramModelObject;
+
+
+@SuppressWarnings("nls")
+public class GenerateViewLayoutTests {
+    
+    @Test
+    public void testLayout_ConnectionsGoDown() {
+        GenerateViewLayout layout = new GenerateViewLayout();
+        List<IDiagramModelObject> dmos = createObjects(layout, 3);
+        
+        layout.addConnection(dmos.get(0), dmos.get(1));
+        layout.addConnection(dmos.get(1), dmos.get(2));
+        layout.layout();
+        
+        assertTrue(getY(dmos.get(0)) < getY(dmos.get(1)));
+        assertTrue(getY(dmos.get(1)) < getY(dmos.get(2)));
+        assertNoOverlaps(dmos);
+    }
+    
+    @Test
+    public void testLayout_TopLeftIsAtMargin() {
+        GenerateViewLayout layout = new GenerateViewLayout();
+        List<IDiagramModelObject> dmos = createObjects(layout, 5);
+        layout.layout();
+        
+        int minX = Integer.MAX_VALUE, minY = Integer.MAX_VALUE;
+        for(IDiagramModelObject dmo : dmos) {
+            minX = Math.min(minX, dmo.getBounds().getX());
+            minY = Math.min(minY, dmo.getBounds().getY());
+        }
+        
+        assertEquals(GenerateViewLayout.MARGIN, minX);
+        assertEquals(GenerateViewLayout.MARGIN, minY);
+    }
+    
+    @Test
+    public void testLayout_WideRankIsWrapped() {
+        GenerateViewLayout layout = new GenerateViewLayout();
+        List<IDiagramModelObject> dmos = createObjects(layout, 201);
+        
+        // One element related to all of the others
+        for(int i = 1; i < dmos.size(); i++) {
+            layout.addConnection(dmos.get(0), dmos.get(i));
+        }
+        
+        layout.layout();
+        
+        int maxRight = 0;
+        for(IDiagramModelObject dmo : dmos) {
+            maxRight = Math.max(maxRight, dmo.getBounds().getX() + dmo.getBounds().getWidth());
+        }
+        
+        // 200 objects of width 120 in one row would be more than 30000 wide
+        assertTrue(maxRight < 10000);
+        assertNoOverlaps(dmos);
+    }
+    
+    @Test
+    public void testAddConnection_UnknownAndSelfAreIgnored() {
+        GenerateViewLayout layout = new GenerateViewLayout();
+        List<IDiagramModelObject> dmos = createObjects(layout, 1);
+        
+        layout.addConnection(dmos.get(0), dmos.get(0));
+        layout.addConnection(dmos.get(0), IArchimateFactory.eINSTANCE.createDiagramModelArchimateObject());
+        layout.layout();
+        
+        assertEquals(GenerateViewLayout.MARGIN, dmos.get(0).getBounds().getX());
+    }
+    
+    @Test
+    public void testLayout_DefaultSizeOfType() {
+        GenerateViewLayout layout = new GenerateViewLayout();
+        
+        // A Junction with no size is laid out at its own smaller default size
+        IDiagramModelArchimateObject junction = IArchimateFactory.eINSTANCE.createDiagramModelArchimateObject();
+        junction.setArchimateElement(IArchimateFactory.eINSTANCE.createJunction());
+        junction.setBounds(0, 0, -1, -1);
+        layout.addObject(junction);
+        
+        List<IDiagramModelObject> dmos = createObjects(layout, 1);
+        layout.addConnection(junction, dmos.get(0));
+        layout.layout();
+        
+        assertTrue(getY(dmos.get(0)) - getY(junction) < IGraphicalObjectUIProvider.defaultSize().height + GenerateViewLayout.PADDING.getHeight());
+    }
+    
+    private List<IDiagramModelObject> createObjects(GenerateViewLayout layout, int count) {
+        List<IDiagramModelObject> dmos = new ArrayList<>();
+        
+        for(int i = 0; i < count; i++) {
+            IDiagramModelObject dmo = IArchimateFactory.eINSTANCE.createDiagramModelArchimateObject();
+            dmo.setBounds(0, 0, 120, 55);
+            dmos.add(dmo);
+            layout.addObject(dmo);
+        }
+        
+        return dmos;
+    }
+    
+    private int getY(IDiagramModelObject dmo) {
+        return dmo.getBounds().getY();
+    }
+    
+    private void assertNoOverlaps(List<IDiagramModelObject> dmos) {
+        for(int i = 0; i < dmos.size(); i++) {
+            for(int j = i + 1; j < dmos.size(); j++) {
+                assertFalse(toRectangle(dmos.get(i).getBounds()).intersects(toRectangle(dmos.get(j).getBounds())), "Objects overlap");
+            }
+        }
+    }
+    
+    private Rectangle toRectangle(IBounds bounds) {
+        return new Rectangle(bounds.getX(), bounds.getY(), bounds.getWidth(), bounds.getHeight());
+    }
+}
@@ -20,6 +20,7 @@ import com.archimatetool.editor.ui.textrender.AllTextRenderTests;
     FigureImagePreviewFactoryTests.class,
     FontFactoryTests.class,
     ImageFactoryTests.class,
+    ImagePyramidTests.class,
     // factory
     AllUIFactoryTests.class,
     // textrender
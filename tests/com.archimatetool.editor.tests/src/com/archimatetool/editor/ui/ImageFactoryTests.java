@@ -10,6 +10,9 @@ import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import org.eclipse.swt.graphics.Image;
+import org.eclipse.swt.graphics.ImageData;
+import org.eclipse.swt.graphics.PaletteData;
+import org.eclipse.swt.graphics.RGB;
 import org.eclipse.swt.graphics.Rectangle;
 import org.eclipse.swt.widgets.Display;
 import org.junit.jupiter.api.Test;
@@ -52,5 +55,41 @@ public class ImageFactoryTests {
         
         image.dispose();
     }
+    
+    @Test
+    public void getScaledImageData() {
+        // Left half red, right half blue
+        ImageData imageData = new ImageData(400, 200, 24, new PaletteData(0xFF0000, 0xFF00, 0xFF));
+        for(int y = 0; y < 200; y++) {
+            for(int x = 0; x < 400; x++) {
+                imageData.setPixel(x, y, x < 200 ? 0xFF0000 : 0x0000FF);
+            }
+        }
+        
+        ImageData scaled = ImageFactory.getScaledImageData(imageData, 40);
+        assertEquals(40, scaled.width);
+        assertEquals(20, scaled.height);
+        assertEquals(new RGB(255, 0, 0), scaled.palette.getRGB(scaled.getPixel(0, 0)));
+        assertEquals(new RGB(0, 0, 255), scaled.palette.getRGB(scaled.getPixel(39, 19)));
+        
+        // No need to scale
+        assertSame(imageData, ImageFactory.getScaledImageData(imageData, 400));
+    }
+    
+    @Test
+    public void getScaledImageData_Transparent() {
+        ImageData imageData = new ImageData(100, 100, 8, new PaletteData(new RGB(255, 255, 255), new RGB(0, 255, 0)));
+        imageData.transparentPixel = 0;
+        for(int y = 0; y < 100; y++) {
+            for(int x = 50; x < 100; x++) {
+                imageData.setPixel(x, y, 1);
+            }
+        }
+        
+        ImageData scaled = ImageFactory.getScaledImageData(imageData, 10);
+        assertEquals(0, scaled.getAlpha(0, 0));
+        assertEquals(255, scaled.getAlpha(9, 9));
+        assertEquals(new RGB(0, 255, 0), scaled.palette.getRGB(scaled.getPixel(9, 9)));
+    }
 
 }
@@ -0,0 +1,91 @@
+/**
+ * This program and the accompanying materials
+ * are made available under the terms of the License
+ * which accompanies this distribution in the file LICENSE.txt
+ */
+package com.archimatetool.editor.ui;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.eclipse.swt.graphics.Image;
+import org.eclipse.swt.graphics.Rectangle;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.archimatetool.editor.TestSupport;
+import com.archimatetool.editor.model.IArchiveManager;
+import com.archimatetool.model.IArchimateFactory;
+import com.archimatetool.model.IArchimateModel;
+
+
+@SuppressWarnings("nls")
+public class ImagePyramidTests {
+    
+    private IArchiveManager archiveManager;
+    private String imagePath;
+    
+    @BeforeEach
+    public void runBeforeEachTest() throws IOException {
+        IArchimateModel model = IArchimateFactory.eINSTANCE.createArchimateModel();
+        archiveManager = IArchiveManager.FACTORY.createArchiveManager(model);
+        imagePath = archiveManager.addImageFromFile(new File(TestSupport.getTestDataFolder(), "img/img3.png")); // 268 x 268
+    }
+    
+    @Test
+    public void acquire_IsShared() {
+        ImagePyramid pyramid1 = ImagePyramid.acquire(archiveManager, imagePath);
+        ImagePyramid pyramid2 = ImagePyramid.acquire(archiveManager, imagePath);
+        assertSame(pyramid1, pyramid2);
+        
+        pyramid1.release();
+        pyramid2.release();
+        
+        // All released so this is a new one
+        ImagePyramid pyramid3 = ImagePyramid.acquire(archiveManager, imagePath);
+        assertNotSame(pyramid1, pyramid3);
+        pyramid3.release();
+    }
+    
+    @Test
+    public void acquire_NoImage() {
+        assertNull(ImagePyramid.acquire(archiveManager, "images/none.png"));
+        assertNull(ImagePyramid.acquire(archiveManager, null));
+        assertNull(ImagePyramid.acquire(null, imagePath));
+    }
+    
+    @Test
+    public void getImage() {
+        ImagePyramid pyramid = ImagePyramid.acquire(archiveManager, imagePath);
+        assertEquals(new Rectangle(0, 0, 268, 268), pyramid.getBounds());
+        assertEquals(new Rectangle(0, 0, 268, 268), pyramid.getImage().getBounds());
+        
+        // Smallest level that is at least the size
+        assertEquals(new Rectangle(0, 0, 134, 134), pyramid.getImage(100, 134).getBounds());
+        assertEquals(new Rectangle(0, 0, 268, 268), pyramid.getImage(100, 135).getBounds());
+        assertEquals(new Rectangle(0, 0, 16, 16), pyramid.getImage(10, 10).getBounds());
+        
+        // Not bigger than the original
+        assertEquals(new Rectangle(0, 0, 268, 268), pyramid.getImage(1000, 1000).getBounds());
+        
+        // Same images
+        assertSame(pyramid.getImage(), pyramid.getImage(300, 300));
+        assertSame(pyramid.getImage(10, 10), pyramid.getImage(12, 12));
+        
+        pyramid.release();
+    }
+    
+    @Test
+    public void release_DisposesImages() {
+        ImagePyramid pyramid = ImagePyramid.acquire(archiveManager, imagePath);
+        Image image = pyramid.getImage(50, 50);
+        pyramid.release();
+        assertTrue(image.isDisposed());
+    }
+}
@@ -7,8 +7,12 @@ package com.archimatetool.editor.ui.findreplace;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.regex.Pattern;
+
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -116,4 +120,36 @@ public abstract class AbstractFindReplaceProviderTests {
         provider.setParameter(IFindReplaceProvider.PARAM_CASE_SENSITIVE, true);
         assertEquals("(?s).*\\b\\Q" + searchString + "\\E\\b.*", provider.getSearchStringPattern(searchString));
     }
+    
+    @Test
+    public void testGetSearchPattern() {
+        String searchString = "Hello ( C \\ *. World";
+        
+        assertEquals(provider.getSearchStringPattern(searchString), provider.getSearchPattern(searchString).pattern());
+        
+        // Compiled once for the same search string and parameters
+        assertSame(provider.getSearchPattern(searchString), provider.getSearchPattern(searchString));
+        
+        Pattern pattern = provider.getSearchPattern(searchString);
+        provider.setParameter(IFindReplaceProvider.PARAM_CASE_SENSITIVE, true);
+        assertNotSame(pattern, provider.getSearchPattern(searchString));
+        assertEquals(provider.getSearchStringPattern(searchString), provider.getSearchPattern(searchString).pattern());
+        
+        assertNotSame(provider.getSearchPattern(searchString), provider.getSearchPattern("Hello"));
+    }
+    
+    @Test
+    public void testMatchesSearchString() {
+        assertTrue(provider.matchesSearchString("Hello (World", "o (w"));
+        assertTrue(provider.matchesSearchString("Hello\nWorld", "world"));
+        assertFalse(provider.matchesSearchString("Hello World", "x"));
+        assertFalse(provider.matchesSearchString(null, "x"));
+        
+        provider.setParameter(IFindReplaceProvider.PARAM_CASE_SENSITIVE, true);
+        assertFalse(provider.matchesSearchString("Hello World", "world"));
+        
+        provider.setParameter(IFindReplaceProvider.PARAM_WHOLE_WORD, true);
+        assertTrue(provider.matchesSearchString("Hello World", "World"));
+        assertFalse(provider.matchesSearchString("Hello World", "Worl"));
+    }
 }
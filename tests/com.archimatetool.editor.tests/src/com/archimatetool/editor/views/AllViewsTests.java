@@ -10,15 +10,20 @@ import org.junit.platform.suite.api.SelectClasses;
 import org.junit.platform.suite.api.Suite;
 import org.junit.platform.suite.api.SuiteDisplayName;
 
+import com.archimatetool.editor.views.navigator.NavigatorViewTests;
 import com.archimatetool.editor.views.tree.TreeModelViewerDragDropHandlerTests;
 import com.archimatetool.editor.views.tree.TreeModelViewerFindReplaceProviderTests;
+import com.archimatetool.editor.views.tree.TreeModelViewerTests;
 import com.archimatetool.editor.views.tree.commands.DeleteCommandHandlerTests;
 
 @Suite
 @SelectClasses({
+    // views.navigator
+    NavigatorViewTests.class,
     // views.tree
     TreeModelViewerDragDropHandlerTests.class,
     TreeModelViewerFindReplaceProviderTests.class,
+    TreeModelViewerTests.class,
     // views.tree.commands
     DeleteCommandHandlerTests.class
 })
@@ -13,6 +13,7 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.io.File;
 
+import org.eclipse.gef.commands.CommandStack;
 import org.eclipse.jface.viewers.IStructuredSelection;
 import org.eclipse.jface.viewers.StructuredSelection;
 import org.eclipse.swt.SWT;
@@ -27,6 +28,7 @@ import com.archimatetool.editor.model.IEditorModelManager;
 import com.archimatetool.editor.ui.findreplace.AbstractFindReplaceProvider;
 import com.archimatetool.editor.ui.findreplace.AbstractFindReplaceProviderTests;
 import com.archimatetool.editor.ui.findreplace.IFindReplaceProvider;
+import com.archimatetool.model.IArchimateElement;
 import com.archimatetool.model.IArchimateModel;
 import com.archimatetool.model.INameable;
 import com.archimatetool.model.util.ArchimateModelUtils;
@@ -272,6 +274,53 @@ public class TreeModelViewerFindReplaceProviderTests extends AbstractFindReplace
         assertNull(provider.findNextElement(element, searchString));
     }
 
+    @Test
+    public void testFindNextElement_Forward_AfterSortOrderChanged() {
+        provider.setParameter(IFindReplaceProvider.PARAM_FORWARD, true);
+        provider.setParameter(IFindReplaceProvider.PARAM_CASE_SENSITIVE, true);
+        provider.setParameter(IFindReplaceProvider.PARAM_ALL_MODELS, true);
+        
+        String searchString = "FindMe";
+        
+        INameable element = provider.findNextElement(null, searchString);
+        assertEquals("FindMe 0", element.getName());
+        element = provider.findNextElement(element, searchString);
+        assertEquals("FindMe 1", element.getName());
+        
+        // Rename "FindMe 2" so that it is now sorted before "FindMe 1"
+        IArchimateElement element2 = (IArchimateElement)ArchimateModelUtils.getObjectByID(model1, "44cb6838");
+        element2.setName("AAA FindMe 2");
+        
+        try {
+            element = provider.findNextElement(element, searchString);
+            assertEquals("FindMe 3", element.getName());
+        }
+        finally {
+            element2.setName("FindMe 2");
+        }
+    }
+
+    @Test
+    public void testReplaceAll_IsOneCommand() {
+        provider.setParameter(IFindReplaceProvider.PARAM_ALL, true);
+        provider.setParameter(IFindReplaceProvider.PARAM_CASE_SENSITIVE, true);
+        // Relations as well
+        provider.setParameter(IFindReplaceProvider.PARAM_INCLUDE_RELATIONS, true);
+        
+        // Replace in selected model
+        treeViewer.setSelection(new StructuredSelection(model1));
+        
+        assertTrue(provider.replace("FindMe", "Found"));
+        assertEquals(0, provider.getAllMatchingElements("FindMe").size());
+        assertEquals(11, provider.getAllMatchingElements("Found").size());
+        
+        // One undo restores all names
+        CommandStack commandStack = (CommandStack)model1.getAdapter(CommandStack.class);
+        commandStack.undo();
+        assertEquals(11, provider.getAllMatchingElements("FindMe").size());
+        assertEquals(0, provider.getAllMatchingElements("Found").size());
+    }
+
     @Test
     public void testGetAllMatchingElements_NotFound() {
         provider.setParameter(IFindReplaceProvider.PARAM_CASE_SENSITIVE, false);
@@ -0,0 +1,111 @@
+/**
+ * This program and the accompanying materials
+ * are made available under the terms of the License
+ * which accompanies this distribution in the file LICENSE.txt
+ */
+package com.archimatetool.editor.views.tree;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import org.eclipse.jface.viewers.StructuredSelection;
+import org.eclipse.jface.viewers.Viewer;
+import org.eclipse.jface.viewers.ViewerFilter;
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.widgets.Shell;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.archimatetool.model.FolderType;
+import com.archimatetool.model.IArchimateElement;
+import com.archimatetool.model.IArchimateFactory;
+import com.archimatetool.model.IArchimateModel;
+import com.archimatetool.model.IFolder;
+import com.archimatetool.model.INameable;
+
+
+@SuppressWarnings("nls")
+public class TreeModelViewerTests {
+    
+    private TreeModelViewer treeViewer;
+    private IArchimateModel model;
+    private IFolder folder;
+    
+    @BeforeEach
+    public void runOnceBeforeEachTest() {
+        model = IArchimateFactory.eINSTANCE.createArchimateModel();
+        model.setDefaults();
+        folder = model.getFolder(FolderType.BUSINESS);
+        
+        treeViewer = new TreeModelViewer(new Shell(), SWT.NONE);
+        treeViewer.setInput(model);
+    }
+    
+    @AfterEach
+    public void runOnceAfterEachTest() {
+        treeViewer.getControl().getShell().dispose();
+    }
+    
+    @Test
+    public void testGetSortedChildren() {
+        IArchimateElement c = addElement("c");
+        IArchimateElement a = addElement("a");
+        IArchimateElement b = addElement("b");
+        IFolder subFolder = IArchimateFactory.eINSTANCE.createFolder();
+        subFolder.setName("z");
+        folder.getFolders().add(subFolder);
+        
+        // Folders first and then by name
+        Object[] children = treeViewer.getSortedChildren(folder);
+        assertArrayEquals(new Object[] { subFolder, a, b, c }, children);
+        
+        // Kept until refreshed
+        assertSame(children, treeViewer.getSortedChildren(folder));
+        
+        treeViewer.refresh(folder);
+        assertNotSame(children, treeViewer.getSortedChildren(folder));
+    }
+    
+    @Test
+    public void testGetSortedChildrenIsFiltered() {
+        IArchimateElement a = addElement("a");
+        addElement("b");
+        
+        treeViewer.addFilter(new ViewerFilter() {
+            @Override
+            public boolean select(Viewer viewer, Object parentElement, Object element) {
+                return !(element instanceof INameable nameable && "b".equals(nameable.getName()));
+            }
+        });
+        
+        assertArrayEquals(new Object[] { a }, treeViewer.getSortedChildren(folder));
+    }
+    
+    @Test
+    public void testItemsAreCreatedForLargeFolder() {
+        IArchimateElement element = null;
+        for(int i = 0; i < 5000; i++) {
+            element = addElement("Element " + i);
+        }
+        
+        treeViewer.refresh();
+        treeViewer.expandToLevel(folder, 1);
+        assertEquals(5000, treeViewer.findTreeItem(folder).getItemCount());
+        
+        // Selecting an element reveals it
+        treeViewer.setSelection(new StructuredSelection(element), true);
+        assertNotNull(treeViewer.findTreeItem(element));
+        assertEquals(element, ((StructuredSelection)treeViewer.getSelection()).getFirstElement());
+    }
+    
+    private IArchimateElement addElement(String name) {
+        IArchimateElement element = IArchimateFactory.eINSTANCE.createBusinessActor();
+        element.setName(name);
+        folder.getElements().add(element);
+        return element;
+    }
+}
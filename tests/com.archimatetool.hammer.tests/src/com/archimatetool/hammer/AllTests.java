@@ -19,6 +19,7 @@ import com.archimatetool.hammer.validation.checkers.NestedElementsCheckerTests;
 import com.archimatetool.hammer.validation.checkers.UnusedElementsCheckerTests;
 import com.archimatetool.hammer.validation.checkers.UnusedRelationsCheckerTests;
 import com.archimatetool.hammer.validation.checkers.ViewpointCheckerTests;
+import com.archimatetool.hammer.validation.checkers.ViewsIndexTests;
 import com.archimatetool.hammer.validation.issues.AdviceCategoryTests;
 import com.archimatetool.hammer.validation.issues.AdviceTypeTests;
 import com.archimatetool.hammer.validation.issues.ErrorTypeTests;
@@ -40,6 +41,7 @@ import com.archimatetool.hammer.validation.issues.WarningsCategoryTests;
     UnusedElementsCheckerTests.class,
     UnusedRelationsCheckerTests.class,
     ViewpointCheckerTests.class,
+    ViewsIndexTests.class,
     // validation.issues
     AdviceCategoryTests.class,
     AdviceTypeTests.class,
@@ -18,6 +18,7 @@ import com.archimatetool.model.IArchimateDiagramModel;
 import com.archimatetool.model.IArchimateFactory;
 import com.archimatetool.model.IArchimateRelationship;
 import com.archimatetool.model.ICompositionRelationship;
+import com.archimatetool.model.IDiagramModelArchimateConnection;
 import com.archimatetool.model.IDiagramModelArchimateObject;
 
 
@@ -80,4 +81,35 @@ public class NestedElementsCheckerTests {
         assertEquals(0, issues.size());
     }
     
+    @Test
+    public void testGetIssues_Connections() {
+        IArchimateDiagramModel dm = IArchimateFactory.eINSTANCE.createArchimateDiagramModel();
+        
+        IDiagramModelArchimateObject dmo1 = IArchimateFactory.eINSTANCE.createDiagramModelArchimateObject();
+        dmo1.setArchimateElement(IArchimateFactory.eINSTANCE.createGrouping());
+        dm.getChildren().add(dmo1);
+        
+        IDiagramModelArchimateObject dmo2 = IArchimateFactory.eINSTANCE.createDiagramModelArchimateObject();
+        dmo2.setArchimateElement(IArchimateFactory.eINSTANCE.createLocation());
+        dmo1.getChildren().add(dmo2);
+        
+        // Valid nested relationship but drawn as a connection from child to parent
+        ICompositionRelationship relation = IArchimateFactory.eINSTANCE.createCompositionRelationship();
+        relation.connect(dmo2.getArchimateElement(), dmo1.getArchimateElement());
+        IDiagramModelArchimateConnection conn = IArchimateFactory.eINSTANCE.createDiagramModelArchimateConnection();
+        conn.setArchimateRelationship(relation);
+        conn.connect(dmo2, dmo1);
+        
+        // Reversed nested
+        List<IIssue> issues = new NestedElementsChecker(new ViewsIndex(List.of(dm))).getIssues();
+        assertEquals(1, issues.size());
+        assertSame(dmo2, issues.get(0).getObject());
+        
+        // Now the right way around
+        relation.connect(dmo1.getArchimateElement(), dmo2.getArchimateElement());
+        conn.connect(dmo1, dmo2);
+        issues = new NestedElementsChecker(new ViewsIndex(List.of(dm))).getIssues();
+        assertEquals(0, issues.size());
+    }
+    
 }
@@ -0,0 +1,80 @@
+/**
+ * This program and the accompanying materials
+ * are made available under the terms of the License
+ * which accompanies this distribution in the file LICENSE.txt
+ */
+package com.archimatetool.hammer.validation.checkers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import com.archimatetool.hammer.validation.checkers.ViewsIndex.NestedPair;
+import com.archimatetool.model.IArchimateDiagramModel;
+import com.archimatetool.model.IArchimateElement;
+import com.archimatetool.model.IArchimateFactory;
+import com.archimatetool.model.IArchimatePackage;
+import com.archimatetool.model.IArchimateRelationship;
+import com.archimatetool.model.IDiagramModelArchimateConnection;
+import com.archimatetool.model.IDiagramModelArchimateObject;
+import com.archimatetool.model.IDiagramModelGroup;
+
+
+public class ViewsIndexTests {
+
+    @Test
+    public void testIndex() {
+        IArchimateDiagramModel dm1 = IArchimateFactory.eINSTANCE.createArchimateDiagramModel();
+        IArchimateDiagramModel dm2 = IArchimateFactory.eINSTANCE.createArchimateDiagramModel();
+
+        IDiagramModelArchimateObject parent = createObject(IArchimateFactory.eINSTANCE.createGrouping());
+        dm1.getChildren().add(parent);
+        IDiagramModelArchimateObject child = createObject(IArchimateFactory.eINSTANCE.createNode());
+        parent.getChildren().add(child);
+
+        // Not an ArchiMate object so not a nested pair
+        IDiagramModelGroup group = IArchimateFactory.eINSTANCE.createDiagramModelGroup();
+        parent.getChildren().add(group);
+        IDiagramModelArchimateObject grandChild = createObject(IArchimateFactory.eINSTANCE.createNode());
+        group.getChildren().add(grandChild);
+
+        IDiagramModelArchimateConnection connection = createConnection(IArchimateFactory.eINSTANCE.createCompositionRelationship(), parent, child);
+
+        IDiagramModelArchimateObject other = createObject(IArchimateFactory.eINSTANCE.createBusinessActor());
+        dm2.getChildren().add(other);
+
+        ViewsIndex index = new ViewsIndex(List.of(dm1, dm2));
+
+        assertEquals(List.of(dm1, dm2), index.getViews());
+
+        assertEquals(List.of(parent, child, grandChild), index.getArchimateObjects(dm1));
+        assertEquals(List.of(other), index.getArchimateObjects(dm2));
+
+        assertEquals(Set.of(IArchimatePackage.eINSTANCE.getGrouping(), IArchimatePackage.eINSTANCE.getNode()), index.getElementTypes(dm1));
+        assertEquals(Set.of(IArchimatePackage.eINSTANCE.getBusinessActor()), index.getElementTypes(dm2));
+
+        assertEquals(List.of(new NestedPair(parent, child)), index.getNestedPairs());
+
+        assertEquals(List.of(connection), index.getConnections(parent, child));
+        assertTrue(index.getConnections(child, parent).isEmpty());
+        assertTrue(index.getConnections(parent, grandChild).isEmpty());
+    }
+
+    private IDiagramModelArchimateObject createObject(IArchimateElement element) {
+        IDiagramModelArchimateObject dmo = IArchimateFactory.eINSTANCE.createDiagramModelArchimateObject();
+        dmo.setArchimateElement(element);
+        return dmo;
+    }
+
+    private IDiagramModelArchimateConnection createConnection(IArchimateRelationship relationship, IDiagramModelArchimateObject source, IDiagramModelArchimateObject target) {
+        relationship.connect(source.getArchimateElement(), target.getArchimateElement());
+        IDiagramModelArchimateConnection connection = IArchimateFactory.eINSTANCE.createDiagramModelArchimateConnection();
+        connection.setArchimateRelationship(relationship);
+        connection.connect(source, target);
+        return connection;
+    }
+}
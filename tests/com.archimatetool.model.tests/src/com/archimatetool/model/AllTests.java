@@ -29,11 +29,15 @@ import com.archimatetool.model.impl.FolderTests;
 import com.archimatetool.model.impl.MetadataTests;
 import com.archimatetool.model.impl.ProfileTests;
 import com.archimatetool.model.impl.PropertyTests;
+import com.archimatetool.model.impl.RelationshipsEListTests;
 import com.archimatetool.model.impl.SketchModelActorTests;
 import com.archimatetool.model.impl.SketchModelStickyTests;
 import com.archimatetool.model.impl.SketchModelTests;
 import com.archimatetool.model.util.ArchimateModelUtilsTests;
 import com.archimatetool.model.util.ArchimateResourceFactoryTests;
+import com.archimatetool.model.util.ArchimateResourceTests;
+import com.archimatetool.model.util.DiagramReferencesIndexTests;
+import com.archimatetool.model.util.PropertiesIndexTests;
 import com.archimatetool.model.util.RelationshipsMatrixTests;
 import com.archimatetool.model.util.UUIDFactoryTests;
 import com.archimatetool.model.viewpoints.ViewpointManagerTests;
@@ -62,6 +66,7 @@ import com.archimatetool.model.viewpoints.ViewpointTests;
     FeaturesEListTests.class,
     ProfileTests.class,
     PropertyTests.class,
+    RelationshipsEListTests.class,
     
     SketchModelTests.class,
     SketchModelActorTests.class,
@@ -73,7 +78,10 @@ import com.archimatetool.model.viewpoints.ViewpointTests;
     // util
     ArchimateModelUtilsTests.class,
     ArchimateResourceFactoryTests.class,
+    ArchimateResourceTests.class,
+    DiagramReferencesIndexTests.class,
     UUIDFactoryTests.class,
+    PropertiesIndexTests.class,
     RelationshipsMatrixTests.class,
 
     // viewpoints
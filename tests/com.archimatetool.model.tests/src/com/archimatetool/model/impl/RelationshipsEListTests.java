@@ -0,0 +1,182 @@
+/**
+ * This program and the accompanying materials
+ * are made available under the terms of the License
+ * which accompanies this distribution in the file LICENSE.txt
+ */
+package com.archimatetool.model.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.emf.common.util.EList;
+import org.eclipse.emf.common.util.UniqueEList;
+import org.junit.jupiter.api.Test;
+
+import com.archimatetool.model.IArchimateElement;
+import com.archimatetool.model.IArchimateFactory;
+import com.archimatetool.model.IArchimatePackage;
+import com.archimatetool.model.IArchimateRelationship;
+
+@SuppressWarnings("nls")
+public class RelationshipsEListTests {
+
+    private static final int HUB_SIZE = 5000;
+
+    @Test
+    public void containsAndIndexOf() {
+        // Either side of the index threshold
+        for(int size : new int[] { RelationshipsEList.INDEX_THRESHOLD, RelationshipsEList.INDEX_THRESHOLD * 4 }) {
+            RelationshipsEList list = new RelationshipsEList();
+            List<IArchimateRelationship> relations = createRelationships(size);
+            list.addAll(relations);
+
+            for(int i = 0; i < size; i++) {
+                assertTrue(list.contains(relations.get(i)));
+                assertEquals(i, list.indexOf(relations.get(i)));
+            }
+
+            IArchimateRelationship other = IArchimateFactory.eINSTANCE.createFlowRelationship();
+            assertFalse(list.contains(other));
+            assertEquals(-1, list.indexOf(other));
+        }
+    }
+
+    @Test
+    public void isUnique() {
+        RelationshipsEList list = new RelationshipsEList();
+        List<IArchimateRelationship> relations = createRelationships(RelationshipsEList.INDEX_THRESHOLD * 2);
+
+        for(IArchimateRelationship relation : relations) {
+            assertTrue(list.add(relation));
+            assertFalse(list.add(relation));
+        }
+
+        assertFalse(list.addAll(relations));
+        assertEquals(relations.size(), list.size());
+    }
+
+    @Test
+    public void cannotAddNull() {
+        assertThrows(IllegalArgumentException.class, () -> {
+            new RelationshipsEList().add(null);
+        });
+    }
+
+    @Test
+    public void removeAndSetUpdateIndex() {
+        RelationshipsEList list = new RelationshipsEList();
+        List<IArchimateRelationship> relations = createRelationships(RelationshipsEList.INDEX_THRESHOLD * 2);
+        list.addAll(relations);
+
+        IArchimateRelationship removed = relations.get(3);
+        assertTrue(list.remove(removed));
+        assertFalse(list.contains(removed));
+        assertFalse(list.remove(removed));
+
+        IArchimateRelationship replaced = list.get(0);
+        IArchimateRelationship replacement = IArchimateFactory.eINSTANCE.createServingRelationship();
+        list.set(0, replacement);
+        assertFalse(list.contains(replaced));
+        assertTrue(list.contains(replacement));
+        assertEquals(0, list.indexOf(replacement));
+
+        list.clear();
+        assertTrue(list.isEmpty());
+        assertFalse(list.contains(replacement));
+
+        // Can be refilled after clear
+        list.addAll(relations);
+        assertTrue(list.contains(removed));
+    }
+
+    @Test
+    public void count() {
+        // Either side of the index threshold
+        for(int size : new int[] { RelationshipsEList.INDEX_THRESHOLD / 2, RelationshipsEList.INDEX_THRESHOLD * 4 }) {
+            RelationshipsEList list = new RelationshipsEList();
+            list.addAll(createRelationships(size));
+
+            // createRelationships() alternates between two types
+            assertEquals(size / 2, list.count(IArchimatePackage.eINSTANCE.getAssociationRelationship()));
+            assertEquals(size / 2, list.count(IArchimatePackage.eINSTANCE.getTriggeringRelationship()));
+            assertEquals(0, list.count(IArchimatePackage.eINSTANCE.getFlowRelationship()));
+
+            list.remove(0);
+            assertEquals(size / 2 - 1, list.count(IArchimatePackage.eINSTANCE.getAssociationRelationship()));
+        }
+    }
+
+    @Test
+    public void conceptRelationshipsAreIndexed() {
+        IArchimateElement hub = IArchimateFactory.eINSTANCE.createBusinessActor();
+        assertTrue(hub.getSourceRelationships() instanceof RelationshipsEList);
+        assertTrue(hub.getTargetRelationships() instanceof RelationshipsEList);
+    }
+
+    /**
+     * A hub of HUB_SIZE relationships has the same contents as a plain UniqueEList after the same changes
+     */
+    @Test
+    public void hubSameAsUniqueEList() {
+        List<IArchimateRelationship> relations = createRelationships(HUB_SIZE);
+        RelationshipsEList list = new RelationshipsEList();
+        EList<IArchimateRelationship> plain = new UniqueEList<>();
+
+        for(IArchimateRelationship relation : relations) {
+            list.add(relation);
+            plain.add(relation);
+        }
+
+        // Remove every third one and move some to the start
+        for(int i = 0; i < HUB_SIZE; i += 3) {
+            list.remove(relations.get(i));
+            plain.remove(relations.get(i));
+        }
+        for(int i = 1; i < HUB_SIZE; i += 100) {
+            list.move(0, relations.get(i));
+            plain.move(0, relations.get(i));
+        }
+
+        assertEquals(plain, list);
+
+        for(IArchimateRelationship relation : relations) {
+            assertEquals(plain.contains(relation), list.contains(relation));
+            assertEquals(plain.indexOf(relation), list.indexOf(relation));
+        }
+    }
+
+    @Test
+    public void hubConnectAndDisconnect() {
+        IArchimateElement hub = IArchimateFactory.eINSTANCE.createBusinessActor();
+        List<IArchimateRelationship> relations = createRelationships(HUB_SIZE);
+
+        for(IArchimateRelationship relation : relations) {
+            relation.connect(hub, IArchimateFactory.eINSTANCE.createBusinessRole());
+        }
+        assertEquals(HUB_SIZE, hub.getSourceRelationships().size());
+        assertEquals(HUB_SIZE / 2, ((RelationshipsEList)hub.getSourceRelationships()).count(IArchimatePackage.eINSTANCE.getAssociationRelationship()));
+
+        for(IArchimateRelationship relation : relations) {
+            relation.disconnect();
+            assertFalse(hub.getSourceRelationships().contains(relation));
+        }
+        assertTrue(hub.getSourceRelationships().isEmpty());
+        assertEquals(0, ((RelationshipsEList)hub.getSourceRelationships()).count(IArchimatePackage.eINSTANCE.getAssociationRelationship()));
+    }
+
+    private List<IArchimateRelationship> createRelationships(int count) {
+        List<IArchimateRelationship> relations = new ArrayList<>();
+
+        for(int i = 0; i < count; i++) {
+            relations.add(i % 2 == 0 ? IArchimateFactory.eINSTANCE.createAssociationRelationship()
+                                     : IArchimateFactory.eINSTANCE.createTriggeringRelationship());
+        }
+
+        return relations;
+    }
+}
@@ -8,10 +8,12 @@ package com.archimatetool.model.util;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -80,9 +82,48 @@ public class ArchimateModelUtilsTests {
         assertEquals(IArchimatePackage.eINSTANCE.getFlowRelationship(), classes[3]);
         assertEquals(IArchimatePackage.eINSTANCE.getAssociationRelationship(), classes[4]);
         
+        // Changing the returned array doesn't change the rules
+        classes[0] = null;
+        assertEquals(IArchimatePackage.eINSTANCE.getAssignmentRelationship(), ArchimateModelUtils.getValidRelationships(sourceClass, targetClass)[0]);
+        assertNotSame(classes, ArchimateModelUtils.getValidRelationships(sourceClass, targetClass));
+        
         // How much more can we test this...?
     }
     
+    @Test
+    public void testGetValidRelationships_Concepts() {
+        IArchimateElement actor = IArchimateFactory.eINSTANCE.createBusinessActor();
+        IArchimateElement role = IArchimateFactory.eINSTANCE.createBusinessRole();
+        IArchimateElement junction = IArchimateFactory.eINSTANCE.createJunction();
+        
+        // No Junction rules so same as the types
+        EClass[] classes = ArchimateModelUtils.getValidRelationships(actor, role);
+        assertEquals(List.of(ArchimateModelUtils.getValidRelationships(actor.eClass(), role.eClass())), List.of(classes));
+        
+        // Not the shared array
+        assertNotSame(ArchimateModelUtils.getValidRelationships(actor.eClass(), role.eClass()), classes);
+        
+        // Only assignments from the Junction
+        IArchimateRelationship relationship = IArchimateFactory.eINSTANCE.createAssignmentRelationship();
+        relationship.connect(actor, junction);
+        classes = ArchimateModelUtils.getValidRelationships(junction, role);
+        assertEquals(List.of(IArchimatePackage.eINSTANCE.getAssignmentRelationship()), List.of(classes));
+        
+        // Same as checking each type
+        for(IArchimateConcept[] pair : new IArchimateConcept[][] { {actor, role}, {junction, role}, {role, junction}, {actor, junction}, {junction, relationship} }) {
+            List<EClass> expected = new ArrayList<>();
+            for(EClass eClass : ArchimateModelUtils.getRelationsClasses()) {
+                if(ArchimateModelUtils.isValidRelationship(pair[0], pair[1], eClass)) {
+                    expected.add(eClass);
+                }
+            }
+            assertEquals(expected, List.of(ArchimateModelUtils.getValidRelationships(pair[0], pair[1])));
+        }
+        
+        // Direct relationship
+        assertEquals(0, ArchimateModelUtils.getValidRelationships(actor, relationship).length);
+    }
+    
     @Test
     public void testGetAllRelationshipsForConcept_NotNull() {
         IArchimateModel model = IArchimateFactory.eINSTANCE.createArchimateModel();
@@ -133,6 +174,56 @@ public class ArchimateModelUtilsTests {
         assertEquals(2, ArchimateModelUtils.getAllRelationshipsForConcept(element2).size());
     }
     
+    @Test
+    public void testGetAllRelationshipsForConcept_SelfConnection() {
+        IArchimateElement element1 = IArchimateFactory.eINSTANCE.createBusinessActor();
+        
+        IArchimateRelationship relation1 = IArchimateFactory.eINSTANCE.createAssociationRelationship();
+        relation1.connect(element1, element1);
+        
+        // Only included once
+        assertEquals(1, ArchimateModelUtils.getAllRelationshipsForConcept(element1).size());
+    }
+    
+    @Test
+    public void testHasRelationship() {
+        IArchimateElement element1 = IArchimateFactory.eINSTANCE.createBusinessActor();
+        IArchimateElement element2 = IArchimateFactory.eINSTANCE.createBusinessRole();
+        
+        IArchimateRelationship relation1 = IArchimateFactory.eINSTANCE.createAssociationRelationship();
+        assertFalse(ArchimateModelUtils.hasRelationship(element1, relation1));
+        
+        relation1.connect(element1, element2);
+        assertTrue(ArchimateModelUtils.hasRelationship(element1, relation1));
+        assertTrue(ArchimateModelUtils.hasRelationship(element2, relation1));
+        
+        relation1.disconnect();
+        assertFalse(ArchimateModelUtils.hasRelationship(element1, relation1));
+        assertFalse(ArchimateModelUtils.hasRelationship(element2, relation1));
+    }
+    
+    @Test
+    public void testHasOnlyRelationshipsOfType() {
+        IArchimateElement junction = IArchimateFactory.eINSTANCE.createJunction();
+        EClass association = IArchimatePackage.eINSTANCE.getAssociationRelationship();
+        EClass triggering = IArchimatePackage.eINSTANCE.getTriggeringRelationship();
+        
+        assertTrue(ArchimateModelUtils.hasOnlyRelationshipsOfType(junction, association));
+        
+        IArchimateRelationship relation1 = IArchimateFactory.eINSTANCE.createAssociationRelationship();
+        relation1.connect(junction, IArchimateFactory.eINSTANCE.createBusinessActor());
+        IArchimateRelationship relation2 = IArchimateFactory.eINSTANCE.createAssociationRelationship();
+        relation2.connect(IArchimateFactory.eINSTANCE.createBusinessActor(), junction);
+        
+        assertTrue(ArchimateModelUtils.hasOnlyRelationshipsOfType(junction, association));
+        assertFalse(ArchimateModelUtils.hasOnlyRelationshipsOfType(junction, triggering));
+        
+        IArchimateRelationship relation3 = IArchimateFactory.eINSTANCE.createTriggeringRelationship();
+        relation3.connect(IArchimateFactory.eINSTANCE.createBusinessProcess(), junction);
+        
+        assertFalse(ArchimateModelUtils.hasOnlyRelationshipsOfType(junction, association));
+    }
+    
     @Test
     public void testGetObjectByID() {
         IArchimateModel model = IArchimateFactory.eINSTANCE.createArchimateModel();
@@ -0,0 +1,88 @@
+/**
+ * This program and the accompanying materials
+ * are made available under the terms of the License
+ * which accompanies this distribution in the file LICENSE.txt
+ */
+package com.archimatetool.model.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import org.eclipse.emf.common.util.BasicEList;
+import org.eclipse.emf.common.util.EList;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.xmi.impl.XMLHelperImpl;
+import org.junit.jupiter.api.Test;
+
+import com.archimatetool.model.IArchimatePackage;
+import com.archimatetool.model.IDiagramModelObject;
+import com.archimatetool.model.IProperties;
+import com.archimatetool.model.IProperty;
+import com.archimatetool.tests.TestData;
+
+
+@SuppressWarnings("nls")
+public class ArchimateResourceTests {
+
+    @Test
+    public void testLoadSharesStrings() throws IOException {
+        Resource resource = loadResource();
+
+        Map<String, String> colors = new HashMap<>();
+        int count = 0;
+
+        for(Iterator<EObject> iter = resource.getAllContents(); iter.hasNext();) {
+            if(iter.next() instanceof IDiagramModelObject dmo && dmo.getFillColor() != null) {
+                String color = colors.putIfAbsent(dmo.getFillColor(), dmo.getFillColor());
+                if(color != null) {
+                    assertSame(color, dmo.getFillColor());
+                    count++;
+                }
+            }
+        }
+
+        // Make sure there was something to test
+        assertTrue(count > 0);
+    }
+
+    @Test
+    public void testLoadTrimsPropertiesLists() throws IOException {
+        Resource resource = loadResource();
+
+        for(Iterator<EObject> iter = resource.getAllContents(); iter.hasNext();) {
+            EObject eObject = iter.next();
+            if(eObject instanceof IProperties properties) {
+                // Loading did not create an empty list
+                if(eObject.eIsSet(IArchimatePackage.Literals.PROPERTIES__PROPERTIES)) {
+                    EList<IProperty> list = properties.getProperties();
+                    assertFalse(list.isEmpty());
+                    assertEquals(list.size(), ((BasicEList<?>)list).data().length);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testIntern() {
+        ArchimateResource resource = new ArchimateResource(null);
+        InterningXMLHandler handler = new InterningXMLHandler(resource, new XMLHelperImpl(resource), new HashMap<>());
+        String s1 = new String("Hello");
+        String s2 = new String("Hello");
+        assertSame(s1, handler.intern(s1));
+        assertSame(s1, handler.intern(s2));
+    }
+
+    private Resource loadResource() throws IOException {
+        Resource resource = ArchimateResourceFactory.createNewResource(TestData.TEST_MODEL_FILE_ARCHISURANCE);
+        resource.load(null);
+        return resource;
+    }
+}
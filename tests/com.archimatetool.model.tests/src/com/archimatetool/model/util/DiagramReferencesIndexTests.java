@@ -0,0 +1,160 @@
+/**
+ * This program and the accompanying materials
+ * are made available under the terms of the License
+ * which accompanies this distribution in the file LICENSE.txt
+ */
+package com.archimatetool.model.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.emf.common.notify.Notification;
+import org.eclipse.emf.common.notify.impl.AdapterImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.archimatetool.model.FolderType;
+import com.archimatetool.model.IArchimateDiagramModel;
+import com.archimatetool.model.IArchimateElement;
+import com.archimatetool.model.IArchimateFactory;
+import com.archimatetool.model.IArchimateModel;
+import com.archimatetool.model.IArchimatePackage;
+import com.archimatetool.model.IArchimateRelationship;
+import com.archimatetool.model.IDiagramModelArchimateConnection;
+import com.archimatetool.model.IDiagramModelArchimateObject;
+import com.archimatetool.model.IDiagramModelGroup;
+
+
+public class DiagramReferencesIndexTests {
+
+    private IArchimateModel model;
+    private IArchimateDiagramModel dm;
+    private IArchimateElement element1, element2;
+    private IArchimateRelationship relation;
+
+    @BeforeEach
+    public void runBeforeEachTest() {
+        model = IArchimateFactory.eINSTANCE.createArchimateModel();
+        model.setDefaults();
+
+        dm = IArchimateFactory.eINSTANCE.createArchimateDiagramModel();
+        model.getFolder(FolderType.DIAGRAMS).getElements().add(dm);
+
+        element1 = IArchimateFactory.eINSTANCE.createBusinessActor();
+        element2 = IArchimateFactory.eINSTANCE.createBusinessRole();
+        model.getFolder(FolderType.BUSINESS).getElements().add(element1);
+        model.getFolder(FolderType.BUSINESS).getElements().add(element2);
+
+        relation = IArchimateFactory.eINSTANCE.createAssignmentRelationship();
+        relation.connect(element1, element2);
+        model.getFolder(FolderType.RELATIONS).getElements().add(relation);
+    }
+
+    @Test
+    public void testGetIndex() {
+        assertSame(DiagramReferencesIndex.getIndex(model), DiagramReferencesIndex.getIndex(model));
+    }
+
+    @Test
+    public void testIndexExistingReferences() {
+        dm.getChildren().add(createDiagramObject(element1));
+        dm.getChildren().add(createDiagramObject(element1));
+
+        DiagramReferencesIndex index = DiagramReferencesIndex.getIndex(model);
+        assertTrue(index.isReferenced(element1));
+        assertEquals(2, index.getReferenceCount(element1));
+        assertFalse(index.isReferenced(element2));
+        assertEquals(0, index.getReferenceCount(element2));
+    }
+
+    @Test
+    public void testAddAndRemoveReferences() {
+        DiagramReferencesIndex index = DiagramReferencesIndex.getIndex(model);
+
+        // Nested in a group that is then added
+        IDiagramModelGroup group = IArchimateFactory.eINSTANCE.createDiagramModelGroup();
+        IDiagramModelArchimateObject dmo1 = createDiagramObject(element1);
+        IDiagramModelArchimateObject dmo2 = createDiagramObject(element2);
+        group.getChildren().add(dmo1);
+        group.getChildren().add(dmo2);
+        dm.getChildren().add(group);
+        assertTrue(index.isReferenced(element1));
+        assertTrue(index.isReferenced(element2));
+
+        // Connection
+        IDiagramModelArchimateConnection connection = IArchimateFactory.eINSTANCE.createDiagramModelArchimateConnection();
+        connection.setArchimateRelationship(relation);
+        connection.connect(dmo1, dmo2);
+        assertTrue(index.isReferenced(relation));
+
+        connection.disconnect();
+        assertFalse(index.isReferenced(relation));
+        connection.reconnect();
+        assertTrue(index.isReferenced(relation));
+
+        // Remove the group
+        dm.getChildren().remove(group);
+        assertFalse(index.isReferenced(element1));
+        assertFalse(index.isReferenced(element2));
+        assertFalse(index.isReferenced(relation));
+
+        // Add it back and delete the diagram
+        dm.getChildren().add(group);
+        assertEquals(1, index.getReferenceCount(element1));
+        model.getFolder(FolderType.DIAGRAMS).getElements().remove(dm);
+        assertFalse(index.isReferenced(element1));
+    }
+
+    @Test
+    public void testConceptChanged() {
+        IDiagramModelArchimateObject dmo = createDiagramObject(element1);
+        dm.getChildren().add(dmo);
+
+        DiagramReferencesIndex index = DiagramReferencesIndex.getIndex(model);
+        dmo.setArchimateElement(element2);
+        assertFalse(index.isReferenced(element1));
+        assertTrue(index.isReferenced(element2));
+    }
+
+    @Test
+    public void testIndexUpdatedBeforeOtherListeners() {
+        List<Boolean> results = new ArrayList<>();
+
+        // Listeners added before the index is created
+        model.addModelContentListener(msg -> {
+            if(msg.getFeature() == IArchimatePackage.Literals.DIAGRAM_MODEL__CHILDREN) {
+                results.add(DiagramReferencesIndex.getIndex(model).isReferenced(element1));
+            }
+        });
+
+        dm.eAdapters().add(new AdapterImpl() {
+            @Override
+            public void notifyChanged(Notification msg) {
+                if(msg.getFeature() == IArchimatePackage.Literals.DIAGRAM_MODEL__CHILDREN) {
+                    results.add(DiagramReferencesIndex.getIndex(model).isReferenced(element1));
+                }
+            }
+        });
+
+        DiagramReferencesIndex.getIndex(model);
+
+        IDiagramModelArchimateObject dmo = createDiagramObject(element1);
+        dm.getChildren().add(dmo);
+        assertEquals(List.of(true, true), results);
+
+        results.clear();
+        dm.getChildren().remove(dmo);
+        assertEquals(List.of(false, false), results);
+    }
+
+    private IDiagramModelArchimateObject createDiagramObject(IArchimateElement element) {
+        IDiagramModelArchimateObject dmo = IArchimateFactory.eINSTANCE.createDiagramModelArchimateObject();
+        dmo.setArchimateElement(element);
+        return dmo;
+    }
+}
@@ -0,0 +1,123 @@
+/**
+ * This program and the accompanying materials
+ * are made available under the terms of the License
+ * which accompanies this distribution in the file LICENSE.txt
+ */
+package com.archimatetool.model.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.archimatetool.model.FolderType;
+import com.archimatetool.model.IArchimateElement;
+import com.archimatetool.model.IArchimateFactory;
+import com.archimatetool.model.IArchimateModel;
+import com.archimatetool.model.IFolder;
+import com.archimatetool.model.IProperty;
+
+
+@SuppressWarnings("nls")
+public class PropertiesIndexTests {
+
+    private IArchimateModel model;
+    private IFolder folder;
+
+    @BeforeEach
+    public void runBeforeEachTest() {
+        model = IArchimateFactory.eINSTANCE.createArchimateModel();
+        model.setDefaults();
+        folder = model.getFolder(FolderType.BUSINESS);
+    }
+
+    @Test
+    public void testGetIndex() {
+        assertSame(PropertiesIndex.getIndex(model), PropertiesIndex.getIndex(model));
+    }
+
+    @Test
+    public void testIndexExistingProperties() {
+        IArchimateElement element = createElement("key2", "b", "Key1", "a", "key1", "B", "key1", "a");
+        folder.getElements().add(element);
+        model.getProperties().add(createProperty("key3", null));
+
+        PropertiesIndex index = PropertiesIndex.getIndex(model);
+
+        assertEquals(List.of("Key1", "key1", "key2", "key3"), new ArrayList<>(index.getKeys()));
+        assertEquals(List.of("a", "B"), new ArrayList<>(index.getValues("key1")));
+        assertEquals(List.of("a"), new ArrayList<>(index.getValues("Key1")));
+        assertTrue(index.getValues("key3").isEmpty());
+        assertTrue(index.getValues("none").isEmpty());
+
+        assertEquals(2, index.getPropertyCount("key1"));
+        assertEquals(List.of(element.getProperties().get(2), element.getProperties().get(3)), new ArrayList<>(index.getProperties("key1")));
+        assertEquals(0, index.getPropertyCount("none"));
+    }
+
+    @Test
+    public void testIndexIsUpdated() {
+        PropertiesIndex index = PropertiesIndex.getIndex(model);
+
+        // Add an element with properties
+        IArchimateElement element = createElement("key1", "a", "key1", "a");
+        folder.getElements().add(element);
+        assertEquals(List.of("key1"), new ArrayList<>(index.getKeys()));
+        assertEquals(2, index.getPropertyCount("key1"));
+        assertEquals(List.of("a"), new ArrayList<>(index.getValues("key1")));
+
+        // Add a property
+        IProperty property = createProperty("key2", "b");
+        element.getProperties().add(property);
+        assertEquals(List.of("key1", "key2"), new ArrayList<>(index.getKeys()));
+
+        // Change the value
+        property.setValue("c");
+        assertEquals(List.of("c"), new ArrayList<>(index.getValues("key2")));
+
+        // Change a key
+        element.getProperties().get(0).setKey("key2");
+        assertEquals(1, index.getPropertyCount("key1"));
+        assertEquals(2, index.getPropertyCount("key2"));
+        assertEquals(List.of("a"), new ArrayList<>(index.getValues("key1")));
+        assertEquals(List.of("a", "c"), new ArrayList<>(index.getValues("key2")));
+
+        // Remove a property
+        element.getProperties().remove(property);
+        assertEquals(1, index.getPropertyCount("key2"));
+        assertEquals(List.of("a"), new ArrayList<>(index.getValues("key2")));
+
+        // Move an element into a sub folder
+        IFolder subFolder = IArchimateFactory.eINSTANCE.createFolder();
+        folder.getFolders().add(subFolder);
+        subFolder.getElements().add(element);
+        assertEquals(1, index.getPropertyCount("key1"));
+        assertEquals(1, index.getPropertyCount("key2"));
+
+        // Remove the folder containing the element
+        folder.getFolders().remove(subFolder);
+        assertTrue(index.getKeys().isEmpty());
+        assertTrue(index.getValues("key1").isEmpty());
+        assertTrue(index.getValues("key2").isEmpty());
+    }
+
+    private IArchimateElement createElement(String... keysAndValues) {
+        IArchimateElement element = IArchimateFactory.eINSTANCE.createBusinessActor();
+        for(int i = 0; i < keysAndValues.length; i += 2) {
+            element.getProperties().add(createProperty(keysAndValues[i], keysAndValues[i + 1]));
+        }
+        return element;
+    }
+
+    private IProperty createProperty(String key, String value) {
+        IProperty property = IArchimateFactory.eINSTANCE.createProperty();
+        property.setKey(key);
+        property.setValue(value);
+        return property;
+    }
+}
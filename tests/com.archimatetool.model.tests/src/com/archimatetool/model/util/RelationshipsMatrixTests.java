@@ -5,14 +5,21 @@
  */
 package com.archimatetool.model.util;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EcorePackage;
 import org.junit.jupiter.api.Test;
 
 import com.archimatetool.model.IArchimateElement;
@@ -128,4 +135,82 @@ public class RelationshipsMatrixTests {
         // Not OK from Junction to relation
         assertFalse(matrix.isValidRelationship(objectClass, relationClass, relationshipType));
     }
+    
+    @Test
+    public void testTablesMatchRelationshipsMatrix() {
+        List<EClass> classes = new ArrayList<>();
+        classes.addAll(Arrays.asList(ArchimateModelUtils.getAllArchimateClasses()));
+        classes.addAll(Arrays.asList(ArchimateModelUtils.getConnectorClasses()));
+        classes.addAll(Arrays.asList(ArchimateModelUtils.getRelationsClasses()));
+        
+        for(EClass sourceClass : classes) {
+            Set<EClass> validStart = new HashSet<>();
+            
+            for(EClass targetClass : classes) {
+                Set<EClass> expected = getMatrixRelationships(sourceClass, targetClass);
+                validStart.addAll(expected);
+                
+                List<EClass> validTypes = new ArrayList<>();
+                for(EClass relationshipType : ArchimateModelUtils.getRelationsClasses()) {
+                    assertEquals(expected.contains(relationshipType), matrix.isValidRelationship(sourceClass, targetClass, relationshipType));
+                    if(expected.contains(relationshipType)) {
+                        validTypes.add(relationshipType);
+                    }
+                }
+                
+                // In preferred order
+                assertEquals(validTypes, Arrays.asList(matrix.getValidRelationships(sourceClass, targetClass)));
+                
+                // Shared array
+                assertSame(matrix.getValidRelationships(sourceClass, targetClass), matrix.getValidRelationships(sourceClass, targetClass));
+            }
+            
+            for(EClass relationshipType : ArchimateModelUtils.getRelationsClasses()) {
+                assertEquals(validStart.contains(relationshipType), matrix.isValidRelationshipStart(sourceClass, relationshipType));
+            }
+        }
+    }
+    
+    @Test
+    public void testNotArchimateClasses() {
+        EClass actor = IArchimatePackage.eINSTANCE.getBusinessActor();
+        EClass association = IArchimatePackage.eINSTANCE.getAssociationRelationship();
+        EClass other = EcorePackage.eINSTANCE.getEClass();
+        
+        assertTrue(matrix.isValidRelationship(actor, actor, association));
+        assertFalse(matrix.isValidRelationship(actor, actor, null));
+        assertFalse(matrix.isValidRelationship(actor, actor, actor));
+        assertFalse(matrix.isValidRelationship(actor, actor, IArchimatePackage.eINSTANCE.getArchimateRelationship()));
+        assertFalse(matrix.isValidRelationship(other, actor, association));
+        assertFalse(matrix.isValidRelationship(actor, other, association));
+        assertFalse(matrix.isValidRelationship(actor, actor, other));
+        assertFalse(matrix.isValidRelationshipStart(other, association));
+        assertEquals(0, matrix.getValidRelationships(other, actor).length);
+    }
+    
+    /**
+     * @return The relationship types in the matrix from sourceClass to targetClass
+     */
+    private Set<EClass> getMatrixRelationships(EClass sourceClass, EClass targetClass) {
+        EClass relationshipClass = IArchimatePackage.eINSTANCE.getArchimateRelationship();
+        
+        // Use "Relationship" as a generic super type
+        if(relationshipClass.isSuperTypeOf(sourceClass)) {
+            sourceClass = relationshipClass;
+        }
+        if(relationshipClass.isSuperTypeOf(targetClass)) {
+            targetClass = relationshipClass;
+        }
+        
+        List<TargetMatrix> list = matrix.getRelationshipsMatrix().get(sourceClass);
+        if(list != null) {
+            for(TargetMatrix targetMatrix : list) {
+                if(targetMatrix.getTargetClass() == targetClass) {
+                    return targetMatrix.getRelationships();
+                }
+            }
+        }
+        
+        return Set.of();
+    }
 } 
@@ -11,10 +11,12 @@ import org.junit.platform.suite.api.Suite;
 import org.junit.platform.suite.api.SuiteDisplayName;
 
 import com.archimatetool.reports.html.HTMLReportExporterTests;
+import com.archimatetool.reports.html.QueryDataWriterTests;
 
 @Suite
 @SelectClasses({
-    HTMLReportExporterTests.class
+    HTMLReportExporterTests.class,
+    QueryDataWriterTests.class
 })
 @SuiteDisplayName("All Reports Tests")
 public class AllTests {
@@ -65,6 +65,10 @@ public class HTMLReportExporterTests {
         File objectsFolder = new File(modelFolder, "objects");
         assertTrue(objectsFolder.exists());
         assertEquals(10, objectsFolder.listFiles().length);
+        
+        File dataFolder = new File(modelFolder, "data");
+        assertTrue(dataFolder.exists());
+        assertTrue(new File(dataFolder, "query.js").exists());
 
         assertTrue(new File(targetFolder, "css").exists());
         assertTrue(new File(targetFolder, "elements").exists());
@@ -0,0 +1,164 @@
+/**
+ * This program and the accompanying materials
+ * are made available under the terms of the License
+ * which accompanies this distribution in the file LICENSE.txt
+ */
+package com.archimatetool.reports.html;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.Test;
+
+import com.archimatetool.model.FolderType;
+import com.archimatetool.model.IArchimateDiagramModel;
+import com.archimatetool.model.IArchimateElement;
+import com.archimatetool.model.IArchimateFactory;
+import com.archimatetool.model.IArchimateModel;
+import com.archimatetool.model.IArchimateRelationship;
+import com.archimatetool.model.IDiagramModelArchimateConnection;
+import com.archimatetool.model.IDiagramModelArchimateObject;
+import com.archimatetool.model.IProperty;
+
+
+@SuppressWarnings("nls")
+public class QueryDataWriterTests {
+
+    @Test
+    public void testWrite() throws Exception {
+        IArchimateModel model = IArchimateFactory.eINSTANCE.createArchimateModel();
+        model.setDefaults();
+        model.setId("m");
+        model.setName("Model");
+
+        IArchimateElement element = IArchimateFactory.eINSTANCE.createBusinessActor();
+        element.setId("e");
+        element.setName("Actor");
+        model.getFolder(FolderType.BUSINESS).getElements().add(element);
+
+        IProperty property = IArchimateFactory.eINSTANCE.createProperty();
+        property.setKey("key");
+        property.setValue("Actor");
+        element.getProperties().add(property);
+
+        StringWriter writer = new StringWriter();
+        new QueryDataWriter(model).write(writer);
+        String s = writer.toString();
+
+        assertTrue(s.startsWith(QueryDataWriter.CALLBACK + "({\"tables\":{\"Elements\":{\"columns\":[\"id\",\"type\",\"specialization\",\"name\",\"documentation\"]"));
+        assertTrue(s.endsWith("]});\n"));
+
+        // Strings are only written once and rows are indexes into them
+        assertEquals(s.indexOf("\"Actor\""), s.lastIndexOf("\"Actor\""));
+        assertTrue(s.contains("\"Properties\":{\"columns\":[\"conceptid\",\"propkey\",\"propvalue\"],\"rows\":["));
+    }
+
+    @Test
+    public void testWrite_Rows() throws Exception {
+        IArchimateModel model = IArchimateFactory.eINSTANCE.createArchimateModel();
+        model.setDefaults();
+
+        IArchimateElement actor = IArchimateFactory.eINSTANCE.createBusinessActor();
+        actor.setId("e1");
+        actor.setName("Actor");
+        actor.setDocumentation("Doc");
+        model.getFolder(FolderType.BUSINESS).getElements().add(actor);
+
+        IArchimateElement role = IArchimateFactory.eINSTANCE.createBusinessRole();
+        role.setId("e2");
+        role.setName("Role");
+        model.getFolder(FolderType.BUSINESS).getElements().add(role);
+
+        IArchimateRelationship relationship = IArchimateFactory.eINSTANCE.createAssignmentRelationship();
+        relationship.setId("r1");
+        relationship.setName("Assigned");
+        relationship.connect(actor, role);
+        model.getFolder(FolderType.RELATIONS).getElements().add(relationship);
+
+        IArchimateDiagramModel dm = IArchimateFactory.eINSTANCE.createArchimateDiagramModel();
+        dm.setId("v1");
+        dm.setName("View");
+        model.getFolder(FolderType.DIAGRAMS).getElements().add(dm);
+
+        IDiagramModelArchimateObject dmo1 = IArchimateFactory.eINSTANCE.createDiagramModelArchimateObject();
+        dmo1.setArchimateElement(actor);
+        dm.getChildren().add(dmo1);
+
+        IDiagramModelArchimateObject dmo2 = IArchimateFactory.eINSTANCE.createDiagramModelArchimateObject();
+        dmo2.setArchimateElement(role);
+        dm.getChildren().add(dmo2);
+
+        IDiagramModelArchimateConnection dmc = IArchimateFactory.eINSTANCE.createDiagramModelArchimateConnection();
+        dmc.setArchimateRelationship(relationship);
+        dmc.connect(dmo1, dmo2);
+
+        StringWriter writer = new StringWriter();
+        new QueryDataWriter(model).write(writer);
+        String s = writer.toString();
+
+        assertEquals(List.of(
+                List.of("e1", "BusinessActor", "", "Actor", "Doc"),
+                List.of("e2", "BusinessRole", "", "Role", "")),
+                getRows(s, "Elements"));
+
+        assertEquals(List.of(
+                List.of("r1", "AssignmentRelationship", "", "Assigned", "", "e1", "e2")),
+                getRows(s, "Relationships"));
+
+        assertEquals(List.of(
+                List.of("v1", "ArchimateDiagramModel", "View", "")),
+                getRows(s, "Views"));
+
+        assertEquals(List.of(
+                List.of("v1", "e1", "BusinessActor"),
+                List.of("v1", "e2", "BusinessRole"),
+                List.of("v1", "r1", "AssignmentRelationship")),
+                getRows(s, "ViewsContent"));
+
+        assertEquals(List.of(), getRows(s, "Properties"));
+    }
+
+    @Test
+    public void testWriteString() throws Exception {
+        StringWriter writer = new StringWriter();
+        QueryDataWriter.writeString(writer, "a\"b\\c\nd\re\tf\u0001g\u2028h");
+        assertEquals("\"a\\\"b\\\\c\\nd\\re\\tf\\u0001g\\u2028h\"", writer.toString());
+    }
+
+    /**
+     * Decode the rows of a table in the written data, replacing the string indexes with the strings.
+     * The strings in the tests don't have any characters that need escaping.
+     */
+    private List<List<String>> getRows(String data, String tableName) {
+        int start = data.indexOf("\"strings\":[") + "\"strings\":[".length();
+        int end = data.lastIndexOf("]});");
+        List<String> strings = new ArrayList<>();
+        for(String string : data.substring(start, end).split(",\n")) {
+            strings.add(string.substring(1, string.length() - 1));
+        }
+
+        Matcher matcher = Pattern.compile("\"" + tableName + "\":\\{\"columns\":\\[([^\\]]*)\\],\"rows\":\\[([0-9,]*)\\]\\}").matcher(data);
+        assertTrue(matcher.find());
+
+        int columns = matcher.group(1).split(",").length;
+        List<String> cells = matcher.group(2).isEmpty() ? List.of() : Arrays.asList(matcher.group(2).split(","));
+
+        List<List<String>> rows = new ArrayList<>();
+        for(int i = 0; i < cells.size(); i += columns) {
+            List<String> row = new ArrayList<>();
+            for(String cell : cells.subList(i, i + columns)) {
+                row.add(strings.get(Integer.parseInt(cell)));
+            }
+            rows.add(row);
+        }
+
+        return rows;
+    }
+}
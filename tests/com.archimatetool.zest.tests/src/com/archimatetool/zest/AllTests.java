@@ -11,7 +11,9 @@ import org.junit.platform.suite.api.SuiteDisplayName;
 
 @Suite
 @SelectClasses({
-    ZestViewerContentProviderTests.class
+    BarnesHutLayoutAlgorithmTests.class,
+    ZestViewerContentProviderTests.class,
+    ZestViewTests.class
 })
 @SuiteDisplayName("All Zest Tests")
 public class AllTests {
@@ -0,0 +1,172 @@
+/**
+ * This program and the accompanying materials
+ * are made available under the terms of the License
+ * which accompanies this distribution in the file LICENSE.txt
+ */
+package com.archimatetool.zest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.eclipse.zest.layouts.LayoutEntity;
+import org.eclipse.zest.layouts.LayoutRelationship;
+import org.eclipse.zest.layouts.LayoutStyles;
+import org.eclipse.zest.layouts.algorithms.BarnesHutLayoutAlgorithm;
+import org.eclipse.zest.layouts.exampleStructures.SimpleNode;
+import org.eclipse.zest.layouts.exampleStructures.SimpleRelationship;
+import org.junit.jupiter.api.Test;
+
+@SuppressWarnings("nls")
+public class BarnesHutLayoutAlgorithmTests {
+
+    private static final double WIDTH = 1000;
+    private static final double HEIGHT = 800;
+
+    // Allow for rounding when nodes are fitted to the layout area
+    private static final double TOLERANCE = 0.001;
+
+    @Test
+    public void nodesInsideLayoutArea() throws Exception {
+        List<SimpleNode> nodes = createNodes(200);
+        List<SimpleRelationship> relationships = createRelationships(nodes, 1);
+
+        BarnesHutLayoutAlgorithm algorithm = createAlgorithm();
+        layout(algorithm, nodes, relationships);
+
+        for(SimpleNode node : nodes) {
+            assertTrue(node.getX() >= -TOLERANCE, node + " x " + node.getX());
+            assertTrue(node.getY() >= -TOLERANCE, node + " y " + node.getY());
+            assertTrue(node.getX() + node.getWidth() <= WIDTH + TOLERANCE, node + " right " + (node.getX() + node.getWidth()));
+            assertTrue(node.getY() + node.getHeight() <= HEIGHT + TOLERANCE, node + " bottom " + (node.getY() + node.getHeight()));
+        }
+    }
+
+    @Test
+    public void sameResultSingleAndMultiThreaded() throws Exception {
+        // Enough nodes for repulsion to be computed in parallel
+        int count = 1500;
+
+        List<SimpleNode> singleThreadedNodes = createNodes(count);
+        BarnesHutLayoutAlgorithm singleThreaded = createAlgorithm();
+        singleThreaded.setIterations(30);
+        singleThreaded.setParallel(false);
+        layout(singleThreaded, singleThreadedNodes, createRelationships(singleThreadedNodes, 1));
+
+        List<SimpleNode> multiThreadedNodes = createNodes(count);
+        BarnesHutLayoutAlgorithm multiThreaded = createAlgorithm();
+        multiThreaded.setIterations(30);
+        multiThreaded.setParallel(true);
+        layout(multiThreaded, multiThreadedNodes, createRelationships(multiThreadedNodes, 1));
+
+        for(int i = 0; i < count; i++) {
+            assertEquals(singleThreadedNodes.get(i).getX(), multiThreadedNodes.get(i).getX());
+            assertEquals(singleThreadedNodes.get(i).getY(), multiThreadedNodes.get(i).getY());
+        }
+    }
+
+    @Test
+    public void sameResultForSameSeed() throws Exception {
+        List<SimpleNode> nodes1 = createNodes(100);
+        layout(createAlgorithm(), nodes1, createRelationships(nodes1, 1));
+
+        List<SimpleNode> nodes2 = createNodes(100);
+        layout(createAlgorithm(), nodes2, createRelationships(nodes2, 1));
+
+        for(int i = 0; i < nodes1.size(); i++) {
+            assertEquals(nodes1.get(i).getX(), nodes2.get(i).getX());
+            assertEquals(nodes1.get(i).getY(), nodes2.get(i).getY());
+        }
+    }
+
+    @Test
+    public void warmStartKeepsNodesInPlace() throws Exception {
+        int count = 200;
+
+        BarnesHutLayoutAlgorithm algorithm = createAlgorithm();
+        algorithm.setWarmStart(true);
+
+        List<SimpleNode> nodes = createNodes(count);
+        layout(algorithm, nodes, createRelationships(nodes, 1));
+
+        // Lay out again as a new graph with a new node connected to the first one, as when the navigator is refreshed
+        List<SimpleNode> warmNodes = createNodes(count + 1);
+        List<SimpleRelationship> warmRelationships = createRelationships(warmNodes.subList(0, count), 1);
+        warmRelationships.add(new SimpleRelationship(warmNodes.get(0), warmNodes.get(count), false));
+        layout(algorithm, warmNodes, warmRelationships);
+
+        // And the same without warm start
+        List<SimpleNode> coldNodes = createNodes(count + 1);
+        List<SimpleRelationship> coldRelationships = createRelationships(coldNodes.subList(0, count), 1);
+        coldRelationships.add(new SimpleRelationship(coldNodes.get(0), coldNodes.get(count), false));
+        BarnesHutLayoutAlgorithm coldAlgorithm = createAlgorithm();
+        coldAlgorithm.setRandomSeed(2);
+        layout(coldAlgorithm, coldNodes, coldRelationships);
+
+        double warmDistance = getMeanDistance(nodes, warmNodes);
+        double coldDistance = getMeanDistance(nodes, coldNodes);
+
+        // On average nodes move less than 10% of the width of the layout area, and much less than when laid out from scratch
+        assertTrue(warmDistance < WIDTH * 0.1, "Warm start moved nodes by " + warmDistance);
+        assertTrue(warmDistance * 2 < coldDistance, "Warm start moved nodes by " + warmDistance + ", cold start by " + coldDistance);
+    }
+
+    @Test
+    public void emptyGraph() throws Exception {
+        layout(createAlgorithm(), new ArrayList<>(), new ArrayList<>());
+    }
+
+    private BarnesHutLayoutAlgorithm createAlgorithm() {
+        BarnesHutLayoutAlgorithm algorithm = new BarnesHutLayoutAlgorithm(LayoutStyles.NO_LAYOUT_NODE_RESIZING);
+        algorithm.setRandomSeed(1);
+        return algorithm;
+    }
+
+    private void layout(BarnesHutLayoutAlgorithm algorithm, List<SimpleNode> nodes, List<SimpleRelationship> relationships) throws Exception {
+        algorithm.applyLayout(nodes.toArray(new LayoutEntity[nodes.size()]),
+                relationships.toArray(new LayoutRelationship[relationships.size()]), 0, 0, WIDTH, HEIGHT, false, false);
+    }
+
+    /**
+     * @return The mean distance that the nodes in before have moved to the nodes at the same index in after
+     */
+    private double getMeanDistance(List<SimpleNode> before, List<SimpleNode> after) {
+        double total = 0;
+        for(int i = 0; i < before.size(); i++) {
+            double dx = before.get(i).getX() - after.get(i).getX();
+            double dy = before.get(i).getY() - after.get(i).getY();
+            total += Math.sqrt(dx * dx + dy * dy);
+        }
+        return total / before.size();
+    }
+
+    private List<SimpleNode> createNodes(int count) {
+        List<SimpleNode> nodes = new ArrayList<>(count);
+        for(int i = 0; i < count; i++) {
+            nodes.add(new SimpleNode("Node " + i, 0, 0, 40, 20));
+        }
+        return nodes;
+    }
+
+    /**
+     * A tree with a few extra links, like the graph shown in the navigator
+     */
+    private List<SimpleRelationship> createRelationships(List<SimpleNode> nodes, long seed) {
+        Random random = new Random(seed);
+        List<SimpleRelationship> relationships = new ArrayList<>();
+        for(int i = 1; i < nodes.size(); i++) {
+            relationships.add(new SimpleRelationship(nodes.get(random.nextInt(i)), nodes.get(i), false));
+        }
+        for(int i = 0; i < nodes.size() / 10; i++) {
+            SimpleNode source = nodes.get(random.nextInt(nodes.size()));
+            SimpleNode target = nodes.get(random.nextInt(nodes.size()));
+            if(source != target) {
+                relationships.add(new SimpleRelationship(source, target, false));
+            }
+        }
+        return relationships;
+    }
+}
@@ -0,0 +1,94 @@
+/**
+ * This program and the accompanying materials
+ * are made available under the terms of the License
+ * which accompanies this distribution in the file LICENSE.txt
+ */
+package com.archimatetool.zest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.emf.common.notify.Notification;
+import org.eclipse.emf.common.notify.impl.AdapterImpl;
+import org.eclipse.gef.commands.Command;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.archimatetool.editor.model.commands.DeleteArchimateConceptsCommand;
+import com.archimatetool.model.IArchimateElement;
+import com.archimatetool.model.IArchimateFactory;
+import com.archimatetool.model.IArchimateModel;
+import com.archimatetool.model.IArchimatePackage;
+import com.archimatetool.model.IFolder;
+
+
+@SuppressWarnings("nls")
+public class ZestViewTests {
+    
+    private IFolder folder;
+    private IArchimateElement element1, element2;
+    private List<Notification> notifications;
+    
+    @BeforeEach
+    public void runBeforeEachTest() {
+        IArchimateModel model = IArchimateFactory.eINSTANCE.createArchimateModel();
+        model.setDefaults();
+        
+        element1 = IArchimateFactory.eINSTANCE.createBusinessActor();
+        element2 = IArchimateFactory.eINSTANCE.createBusinessRole();
+        folder = model.getDefaultFolderForObject(element1);
+        folder.getElements().add(element1);
+        folder.getElements().add(element2);
+        
+        notifications = new ArrayList<>();
+        AdapterImpl adapter = new AdapterImpl() {
+            @Override
+            public void notifyChanged(Notification msg) {
+                notifications.add(msg);
+            }
+        };
+        folder.eAdapters().add(adapter);
+        element1.eAdapters().add(adapter);
+    }
+    
+    @Test
+    public void testIsRefreshEvent_DeleteManyConceptsAndUndo() {
+        Command cmd = new DeleteArchimateConceptsCommand(List.of(element1, element2));
+        
+        cmd.execute();
+        Notification msg = getFolderElementsNotification();
+        assertEquals(Notification.REMOVE_MANY, msg.getEventType());
+        assertTrue(ZestView.isRefreshEvent(msg));
+        
+        notifications.clear();
+        
+        cmd.undo();
+        msg = getFolderElementsNotification();
+        assertEquals(Notification.ADD_MANY, msg.getEventType());
+        assertTrue(ZestView.isRefreshEvent(msg));
+    }
+    
+    @Test
+    public void testIsRefreshEvent_NotConcepts() {
+        element1.setName("Name");
+        assertFalse(ZestView.isRefreshEvent(notifications.get(0)));
+        
+        notifications.clear();
+        
+        folder.getFolders().addAll(List.of(IArchimateFactory.eINSTANCE.createFolder(), IArchimateFactory.eINSTANCE.createFolder()));
+        assertEquals(Notification.ADD_MANY, notifications.get(0).getEventType());
+        assertFalse(ZestView.isRefreshEvent(notifications.get(0)));
+    }
+    
+    private Notification getFolderElementsNotification() {
+        List<Notification> folderNotifications = notifications.stream()
+                .filter(msg -> msg.getFeature() == IArchimatePackage.Literals.FOLDER__ELEMENTS)
+                .toList();
+        assertEquals(1, folderNotifications.size());
+        return folderNotifications.get(0);
+    }
+}
@@ -11,6 +11,7 @@ import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.io.IOException;
+import java.util.Set;
 
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
@@ -115,6 +116,20 @@ public class ZestViewerContentProviderTests {
         }
     }
 
+    @Test
+    public void testGetRelations_Depth() {
+        ZestViewerContentProvider provider = new ZestViewerContentProvider();
+        IArchimateElement inputElement = (IArchimateElement)tm.getObjectByID("521");
+        
+        Set<IArchimateRelationship> depth0 = provider.getRelations(inputElement);
+        assertEquals(17, depth0.size());
+        
+        provider.setDepth(1);
+        Set<IArchimateRelationship> depth1 = provider.getRelations(inputElement);
+        assertTrue(depth1.containsAll(depth0));
+        assertTrue(depth1.size() > depth0.size());
+    }
+    
     @Test
     public void testGetElements_Relationship() {
         IArchimateRelationship inputElement = (IArchimateRelationship)tm.getObjectByID("460");